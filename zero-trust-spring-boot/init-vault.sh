@@ -38,6 +38,11 @@ vault kv put secret/zero-trust-app \
 
 echo "✅ Secretos configurados exitosamente!"
 
+# Transit para firma remota de JWT (app.jwt.transit.enabled=true)
+echo "🔏 Configurando Vault Transit..."
+vault secrets enable transit 2>/dev/null || true
+vault write -f transit/keys/jwt-signing
+
 # Verificar secretos
 echo "🔍 Verificando secretos:"
 vault kv get secret/zero-trust-app
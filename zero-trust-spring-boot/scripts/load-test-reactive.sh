@@ -0,0 +1,98 @@
+#!/bin/bash
+set -euo pipefail
+
+# Compara la variante servlet (Tomcat) con la reactiva (WebFlux/Netty) con
+# muchas conexiones concurrentes. Cada petición lleva un Bearer token, así que
+# ambos stacks validan el JWT (JwtAuthenticationFilter / ReactiveJwtAuthenticationManager).
+#
+# Uso: ./scripts/load-test-reactive.sh [concurrencia] [duración]
+# Requiere: hey (https://github.com/rakyll/hey) y Redis en localhost:6379 (revocación reactiva)
+
+CONCURRENCY=${1:-5000}
+DURATION=${2:-30s}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+AUTH_PASSWORD=${AUTH_PASSWORD:-load-test-password}
+JAVA_OPTS=${JAVA_OPTS:-}
+COMMON_ARGS="--server.port=${PORT} --spring.cloud.vault.enabled=false --app.jwt.secret=load-test-secret-key-at-least-64-characters-long-for-hs256-signing"
+
+echo "🚀 Load test: servlet (Tomcat) vs reactive (Netty)"
+
+command -v java >/dev/null 2>&1 || { echo "❌ Java no encontrado"; exit 1; }
+command -v hey >/dev/null 2>&1 || { echo "❌ hey no encontrado (go install github.com/rakyll/hey@latest)"; exit 1; }
+
+JAR_FILE=$(find target -name "*.jar" -not -name "*-sources.jar" 2>/dev/null | head -1 || true)
+if [ -z "$JAR_FILE" ]; then
+    echo "🏗️ Construyendo aplicación..."
+    ./mvnw package -DskipTests -q
+    JAR_FILE=$(find target -name "*.jar" -not -name "*-sources.jar" | head -1)
+fi
+
+mkdir -p target
+rm -f target/load-test-reactive-summary.txt
+PID=""
+
+start_app() {
+    local name=$1
+    local profiles=$2
+    echo "▶️ Arrancando (${name}, perfiles: ${profiles})..."
+    # shellcheck disable=SC2086
+    AUTH_PASSWORD="$AUTH_PASSWORD" java ${JAVA_OPTS} -jar "$JAR_FILE" --spring.profiles.active="${profiles}" \
+        ${COMMON_ARGS} > "target/load-test-${name}.log" 2>&1 &
+    PID=$!
+    for _ in $(seq 1 60); do
+        if curl -sf "${BASE_URL}/api/health" >/dev/null; then
+            return
+        fi
+        sleep 1
+    done
+    echo "❌ La aplicación no arrancó (ver target/load-test-${name}.log)"
+    exit 1
+}
+
+stop_app() {
+    kill "$PID"
+    wait "$PID" 2>/dev/null || true
+}
+
+measure() {
+    local name=$1
+    local report="target/load-test-${name}.txt"
+    local threads
+
+    echo "🔥 Calentando..."
+    hey -z 5s -c 200 -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/info" >/dev/null
+
+    echo "📊 Midiendo ${DURATION} con ${CONCURRENCY} conexiones..."
+    hey -z "${DURATION}" -c "${CONCURRENCY}" -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/info" > "$report"
+
+    threads=$(ls "/proc/${PID}/task" 2>/dev/null | wc -l || echo "?")
+    echo "${name} $(grep "Requests/sec" "$report" | awk '{print $2}') $(grep "99% in" "$report" | awk '{print $3}') ${threads}" \
+        >> target/load-test-reactive-summary.txt
+}
+
+# Variante reactiva: emite también el token usado en ambas mediciones
+start_app "reactive" "reactive"
+TOKEN=$(curl -sf -X POST "${BASE_URL}/auth/login" -H "Content-Type: application/json" \
+    -d "{\"username\":\"user\",\"password\":\"${AUTH_PASSWORD}\",\"deviceId\":\"load-test\"}" \
+    | sed -E 's/.*"accessToken":"([^"]+)".*/\1/')
+if [ -z "$TOKEN" ]; then
+    echo "❌ No se pudo obtener token de /auth/login"
+    stop_app
+    exit 1
+fi
+measure "reactive"
+stop_app
+
+# Variante servlet con la misma clave de firma
+start_app "servlet" "default"
+measure "servlet"
+stop_app
+
+echo ""
+echo "✅ Resultados (${CONCURRENCY} conexiones, ${DURATION}):"
+printf "%-10s %15s %12s %10s\n" "stack" "requests/sec" "p99 (s)" "threads"
+while read -r name rps p99 threads; do
+    printf "%-10s %15s %12s %10s\n" "$name" "$rps" "$p99" "$threads"
+done < target/load-test-reactive-summary.txt
+echo "📄 Detalle: target/load-test-reactive.txt, target/load-test-servlet.txt"
@@ -0,0 +1,93 @@
+#!/bin/bash
+set -euo pipefail
+
+# Compara throughput y p99 entre platform threads y virtual threads
+# sobre un endpoint con I/O bloqueante simulado (/api/diagnostics/blocking).
+# Los endpoints de diagnóstico exigen autenticación: se usa un Bearer token de
+# /auth/login y se desactivan los límites de peticiones durante la medición.
+#
+# Uso: ./scripts/load-test-virtual-threads.sh [concurrencia] [duración] [ms bloqueo]
+# Requiere: hey (https://github.com/rakyll/hey)
+# Para trazar pinning en librerías: JAVA_OPTS="-Djdk.tracePinnedThreads=short"
+
+CONCURRENCY=${1:-400}
+DURATION=${2:-30s}
+BLOCK_MILLIS=${3:-50}
+PORT=${PORT:-8080}
+AUTH_PASSWORD=${AUTH_PASSWORD:-load-test-password}
+URL="http://localhost:${PORT}/api/diagnostics/blocking?millis=${BLOCK_MILLIS}"
+JAVA_OPTS=${JAVA_OPTS:-}
+COMMON_ARGS="--server.port=${PORT} --spring.cloud.vault.enabled=false --app.rate-limit.enabled=false --app.jwt.secret=load-test-secret-key-at-least-64-characters-long-for-hs256-signing"
+
+echo "🚀 Load test: platform threads vs virtual threads"
+
+command -v java >/dev/null 2>&1 || { echo "❌ Java no encontrado"; exit 1; }
+command -v hey >/dev/null 2>&1 || { echo "❌ hey no encontrado (go install github.com/rakyll/hey@latest)"; exit 1; }
+
+JAR_FILE=$(find target -name "*.jar" -not -name "*-sources.jar" 2>/dev/null | head -1 || true)
+if [ -z "$JAR_FILE" ]; then
+    echo "🏗️ Construyendo aplicación..."
+    ./mvnw package -DskipTests -q
+    JAR_FILE=$(find target -name "*.jar" -not -name "*-sources.jar" | head -1)
+fi
+
+run_scenario() {
+    local name=$1
+    local profiles=$2
+    local report="target/load-test-${name}.txt"
+
+    echo "▶️ Arrancando (${name}, perfiles: ${profiles})..."
+    # shellcheck disable=SC2086
+    AUTH_PASSWORD="$AUTH_PASSWORD" java ${JAVA_OPTS} -jar "$JAR_FILE" --spring.profiles.active="${profiles}" \
+        ${COMMON_ARGS} > "target/load-test-${name}.log" 2>&1 &
+    local pid=$!
+
+    for _ in $(seq 1 60); do
+        if curl -sf "http://localhost:${PORT}/api/health" >/dev/null; then
+            break
+        fi
+        sleep 1
+    done
+
+    local token
+    token=$(curl -sf -X POST "http://localhost:${PORT}/auth/login" -H "Content-Type: application/json" \
+        -d "{\"username\":\"user\",\"password\":\"${AUTH_PASSWORD}\",\"deviceId\":\"load-test\"}" \
+        | sed -E 's/.*"accessToken":"([^"]+)".*/\1/' || true)
+    if [ -z "$token" ]; then
+        echo "❌ No se pudo obtener token de /auth/login"
+        kill "$pid"
+        exit 1
+    fi
+
+    echo "🔥 Calentando..."
+    hey -z 5s -c "${CONCURRENCY}" -H "Authorization: Bearer ${token}" "$URL" >/dev/null
+
+    echo "📊 Midiendo ${DURATION} con ${CONCURRENCY} conexiones..."
+    hey -z "${DURATION}" -c "${CONCURRENCY}" -H "Authorization: Bearer ${token}" "$URL" > "$report"
+
+    echo "📌 Pinning detectado:"
+    curl -s -H "Authorization: Bearer ${token}" "http://localhost:${PORT}/api/diagnostics/pinning" || true
+    echo
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    local rps p99
+    rps=$(grep "Requests/sec" "$report" | awk '{print $2}')
+    p99=$(grep "99% in" "$report" | awk '{print $3}')
+    echo "${name} ${rps} ${p99}" >> target/load-test-summary.txt
+}
+
+mkdir -p target
+rm -f target/load-test-summary.txt
+
+run_scenario "platform" "vt-diagnostics"
+run_scenario "virtual" "virtual-threads,vt-diagnostics"
+
+echo ""
+echo "✅ Resultados (bloqueo ${BLOCK_MILLIS} ms, ${CONCURRENCY} conexiones):"
+printf "%-10s %15s %12s\n" "threads" "requests/sec" "p99 (s)"
+while read -r name rps p99; do
+    printf "%-10s %15s %12s\n" "$name" "$rps" "$p99"
+done < target/load-test-summary.txt
+echo "📄 Detalle: target/load-test-platform.txt, target/load-test-virtual.txt"
@@ -3,7 +3,8 @@ package com.example.zerotrust;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
-import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Zero Trust Spring Boot Application
@@ -13,10 +14,14 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
  * - Verificación continua de contexto
  * - Auditoría completa de operaciones
  * - Control de acceso granular
+ * - Rotación de secretos con notificación a componentes dependientes
+ * - Virtual threads opcionales para peticiones, @Async y @Scheduled (perfil virtual-threads)
+ * - Variante reactiva WebFlux/Netty de los endpoints de tokens (perfil reactive)
  */
 @SpringBootApplication
-@EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableScheduling
+@EnableAsync
 public class ZeroTrustApplication {
 
     public static void main(String[] args) {
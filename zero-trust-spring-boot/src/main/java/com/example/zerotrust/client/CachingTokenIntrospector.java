@@ -0,0 +1,255 @@
+package com.example.zerotrust.client;
+
+import com.example.zerotrust.exception.JwtException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenException;
+import org.springframework.security.oauth2.server.resource.introspection.OAuth2IntrospectionAuthenticatedPrincipal;
+import org.springframework.security.oauth2.server.resource.introspection.OAuth2IntrospectionException;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Cliente de /oauth2/introspect con cache por token para resource servers
+ *
+ * Cada resultado se cachea hasta min(exp, intervalo de revocación); los
+ * inactivos durante el intervalo. Las peticiones concurrentes por el mismo
+ * token comparten una sola llamada, y introspectAll agrupa en peticiones
+ * batch (de como mucho maxBatchSize, el límite del servidor) solo los tokens
+ * que no están en cache. Así cada token cuesta como mucho una llamada por
+ * intervalo.
+ *
+ * Implementa OpaqueTokenIntrospector para usarse directamente con
+ * http.oauth2ResourceServer(o -> o.opaqueToken(t -> t.introspector(...))).
+ */
+public class CachingTokenIntrospector implements OpaqueTokenIntrospector {
+
+    /**
+     * Igual que app.jwt.introspection.max-batch-size por defecto en el servidor
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(CachingTokenIntrospector.class);
+
+    private final URI introspectUri;
+    private final URI batchUri;
+    private final Supplier<String> credentials;
+    private final Duration revocationCheckInterval;
+    private final int maxBatchSize;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AsyncCache<String, IntrospectionResult> cache;
+
+    /**
+     * @param baseUri                 URI del servicio Zero Trust (sin /oauth2/introspect)
+     * @param credentials             access token del resource server (authority INTROSPECT)
+     * @param revocationCheckInterval máximo tiempo que se confía en un resultado cacheado
+     * @param maximumSize             máximo de tokens en cache
+     */
+    public CachingTokenIntrospector(String baseUri, Supplier<String> credentials,
+                                    Duration revocationCheckInterval, long maximumSize) {
+        this(baseUri, credentials, revocationCheckInterval, maximumSize, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param maxBatchSize máximo de tokens por petición batch (max-batch-size del servidor)
+     */
+    public CachingTokenIntrospector(String baseUri, Supplier<String> credentials,
+                                    Duration revocationCheckInterval, long maximumSize, int maxBatchSize) {
+        this(baseUri, credentials, revocationCheckInterval, maximumSize, maxBatchSize,
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).connectTimeout(Duration.ofSeconds(2)).build());
+    }
+
+    public CachingTokenIntrospector(String baseUri, Supplier<String> credentials,
+                                    Duration revocationCheckInterval, long maximumSize, int maxBatchSize,
+                                    HttpClient httpClient) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        String base = baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri;
+        this.introspectUri = URI.create(base + "/oauth2/introspect");
+        this.batchUri = URI.create(base + "/oauth2/introspect/batch");
+        this.credentials = credentials;
+        this.revocationCheckInterval = revocationCheckInterval;
+        this.maxBatchSize = maxBatchSize;
+        this.httpClient = httpClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ResultExpiry())
+                .buildAsync();
+    }
+
+    /**
+     * Introspección de un token (cache o una llamada compartida)
+     */
+    public CompletableFuture<IntrospectionResult> introspectAsync(String token) {
+        return cache.get(token, (key, executor) -> fetch(key));
+    }
+
+    /**
+     * Introspección de varios tokens; los ausentes se piden en batches de maxBatchSize
+     */
+    public CompletableFuture<Map<String, IntrospectionResult>> introspectAll(Collection<String> tokens) {
+        return cache.getAll(tokens, (missing, executor) -> fetchAll(missing));
+    }
+
+    @Override
+    public OAuth2AuthenticatedPrincipal introspect(String token) {
+        IntrospectionResult result;
+        try {
+            result = introspectAsync(token).join();
+        } catch (CompletionException e) {
+            throw new OAuth2IntrospectionException("Introspection failed", e.getCause());
+        }
+        if (!result.active()) {
+            throw new BadOpaqueTokenException("Provided token isn't active");
+        }
+        return toPrincipal(result);
+    }
+
+    private CompletableFuture<IntrospectionResult> fetch(String token) {
+        HttpRequest request = authorized(HttpRequest.newBuilder(introspectUri))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("token=" + URLEncoder.encode(token, StandardCharsets.UTF_8)))
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> IntrospectionResult.fromJson(readBody(response)));
+    }
+
+    private CompletableFuture<Map<String, IntrospectionResult>> fetchAll(Set<? extends String> tokens) {
+        List<String> ordered = new ArrayList<>(tokens);
+        if (ordered.size() <= maxBatchSize) {
+            return fetchBatch(ordered);
+        }
+        // El servidor rechaza batches mayores que su max-batch-size: se trocea y se unen los resultados
+        List<CompletableFuture<Map<String, IntrospectionResult>>> chunks = new ArrayList<>();
+        for (int from = 0; from < ordered.size(); from += maxBatchSize) {
+            chunks.add(fetchBatch(ordered.subList(from, Math.min(from + maxBatchSize, ordered.size()))));
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<String, IntrospectionResult> byToken = new HashMap<>();
+                    chunks.forEach(chunk -> byToken.putAll(chunk.join()));
+                    return byToken;
+                });
+    }
+
+    private CompletableFuture<Map<String, IntrospectionResult>> fetchBatch(List<String> ordered) {
+        Map<String, List<String>> body = Map.of("tokens", ordered);
+        HttpRequest request;
+        try {
+            request = authorized(HttpRequest.newBuilder(batchUri))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        log.debug("Introspecting batch of {} tokens", ordered.size());
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    JsonNode results = readBody(response).path("results");
+                    if (!results.isArray() || results.size() != ordered.size()) {
+                        throw new JwtException("Malformed batch introspection response");
+                    }
+                    Map<String, IntrospectionResult> byToken = new HashMap<>();
+                    for (int i = 0; i < ordered.size(); i++) {
+                        byToken.put(ordered.get(i), IntrospectionResult.fromJson(results.get(i)));
+                    }
+                    return byToken;
+                });
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder builder) {
+        return builder.timeout(Duration.ofSeconds(5))
+                .header("Authorization", "Bearer " + credentials.get());
+    }
+
+    private JsonNode readBody(HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new JwtException("Introspection endpoint returned HTTP " + response.statusCode());
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (Exception e) {
+            throw new JwtException("Unable to parse introspection response", e);
+        }
+    }
+
+    private static OAuth2AuthenticatedPrincipal toPrincipal(IntrospectionResult result) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put(OAuth2TokenIntrospectionClaimNames.ACTIVE, true);
+        putIfNotNull(attributes, OAuth2TokenIntrospectionClaimNames.SUB, result.subject());
+        putIfNotNull(attributes, OAuth2TokenIntrospectionClaimNames.USERNAME, result.username());
+        putIfNotNull(attributes, OAuth2TokenIntrospectionClaimNames.IAT, result.issuedAt());
+        putIfNotNull(attributes, OAuth2TokenIntrospectionClaimNames.EXP, result.expiresAt());
+        attributes.put(OAuth2TokenIntrospectionClaimNames.SCOPE, result.scopes());
+        attributes.put("roles", result.roles());
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        result.roles().forEach(role -> authorities.add(new SimpleGrantedAuthority("ROLE_" + role)));
+        result.scopes().forEach(scope -> authorities.add(new SimpleGrantedAuthority(scope)));
+        return new OAuth2IntrospectionAuthenticatedPrincipal(result.subject(), attributes, authorities);
+    }
+
+    private static void putIfNotNull(Map<String, Object> attributes, String name, Object value) {
+        if (value != null) {
+            attributes.put(name, value);
+        }
+    }
+
+    /**
+     * Caducidad por entrada: min(exp, intervalo); inactivos durante el intervalo
+     */
+    private final class ResultExpiry implements Expiry<String, IntrospectionResult> {
+
+        @Override
+        public long expireAfterCreate(String token, IntrospectionResult result, long currentTime) {
+            long interval = revocationCheckInterval.toNanos();
+            if (!result.active() || result.expiresAt() == null) {
+                return interval;
+            }
+            long untilExpiry = Duration.between(Instant.now(), result.expiresAt()).toNanos();
+            return Math.max(0, Math.min(interval, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, IntrospectionResult result, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(token, result, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, IntrospectionResult result, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.zerotrust.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de introspección RFC 7662 tal como lo ve un resource server
+ */
+public record IntrospectionResult(boolean active,
+                                  String subject,
+                                  String username,
+                                  List<String> scopes,
+                                  List<String> roles,
+                                  String tokenUse,
+                                  Instant issuedAt,
+                                  Instant expiresAt) {
+
+    public static final IntrospectionResult INACTIVE =
+            new IntrospectionResult(false, null, null, List.of(), List.of(), null, null, null);
+
+    /**
+     * Construye el resultado desde un objeto JSON de respuesta de /oauth2/introspect
+     */
+    public static IntrospectionResult fromJson(JsonNode node) {
+        if (!node.path("active").asBoolean(false)) {
+            return INACTIVE;
+        }
+        String scope = node.path("scope").asText("");
+        List<String> roles = new ArrayList<>();
+        node.path("roles").forEach(role -> roles.add(role.asText()));
+        return new IntrospectionResult(true,
+                text(node, "sub"),
+                text(node, "username"),
+                scope.isEmpty() ? List.of() : List.of(scope.split(" ")),
+                List.copyOf(roles),
+                text(node, "token_use"),
+                node.has("iat") ? Instant.ofEpochSecond(node.get("iat").asLong()) : null,
+                node.has("exp") ? Instant.ofEpochSecond(node.get("exp").asLong()) : null);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.zerotrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de capacidades: bit estable de cada rol y permiso en el claim "cap"
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.security.capabilities'
+ *
+ * Cada versión lista las authorities por posición de bit (roles con prefijo
+ * ROLE_). Una versión nueva solo puede añadir al final: así los tokens
+ * emitidos con una versión anterior se siguen leyendo igual.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.security.capabilities")
+@Validated
+public class CapabilityProperties {
+
+    /**
+     * Si true, buildToken emite roles y permisos como bitmap (cap/capv) en lugar de listas
+     */
+    private boolean enabled = true;
+
+    /**
+     * Versión con la que se emiten los tokens nuevos
+     */
+    @Positive(message = "Capability registry version must be positive")
+    private int currentVersion = 1;
+
+    /**
+     * Authorities por versión, en orden de bit
+     */
+    @NotEmpty(message = "At least one capability registry version is required")
+    private Map<Integer, List<String>> versions = new HashMap<>(Map.of(1, List.of(
+            "ROLE_USER", "ROLE_ADMIN", "ROLE_AUDITOR", "ROLE_SERVICE",
+            "READ", "WRITE", "DELETE", "AUDIT_READ", "INTROSPECT")));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCurrentVersion() {
+        return currentVersion;
+    }
+
+    public void setCurrentVersion(int currentVersion) {
+        this.currentVersion = currentVersion;
+    }
+
+    public Map<Integer, List<String>> getVersions() {
+        return versions;
+    }
+
+    public void setVersions(Map<Integer, List<String>> versions) {
+        this.versions = versions;
+    }
+
+    @Override
+    public String toString() {
+        return "CapabilityProperties{" +
+                "enabled=" + enabled +
+                ", currentVersion=" + currentVersion +
+                ", versions=" + versions +
+                '}';
+    }
+}
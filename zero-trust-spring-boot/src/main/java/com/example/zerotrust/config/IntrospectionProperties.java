@@ -0,0 +1,71 @@
+package com.example.zerotrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Configuración del endpoint de introspección RFC 7662 (/oauth2/introspect)
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.jwt.introspection'
+ */
+@Component
+@ConfigurationProperties(prefix = "app.jwt.introspection")
+@Validated
+public class IntrospectionProperties {
+
+    /**
+     * Intervalo de comprobación de revocación: las respuestas son cacheables
+     * como máximo min(exp, este intervalo)
+     */
+    @NotNull(message = "Revocation check interval cannot be null")
+    private Duration revocationCheckInterval = Duration.ofSeconds(30);
+
+    /**
+     * Máximo número de tokens por petición batch
+     */
+    @Positive(message = "Max batch size must be positive")
+    private int maxBatchSize = 100;
+
+    /**
+     * Authority requerida para llamar al endpoint (token de servicio)
+     */
+    private String requiredAuthority = "INTROSPECT";
+
+    // Getters y Setters
+    public Duration getRevocationCheckInterval() {
+        return revocationCheckInterval;
+    }
+
+    public void setRevocationCheckInterval(Duration revocationCheckInterval) {
+        this.revocationCheckInterval = revocationCheckInterval;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public String getRequiredAuthority() {
+        return requiredAuthority;
+    }
+
+    public void setRequiredAuthority(String requiredAuthority) {
+        this.requiredAuthority = requiredAuthority;
+    }
+
+    @Override
+    public String toString() {
+        return "IntrospectionProperties{" +
+                "revocationCheckInterval=" + revocationCheckInterval +
+                ", maxBatchSize=" + maxBatchSize +
+                ", requiredAuthority='" + requiredAuthority + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.zerotrust.config;
+
+import com.example.zerotrust.web.LivenessFilter;
+import com.example.zerotrust.web.ReactiveLivenessFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registro de la liveness probe ligera (LivenessFilter.PATH) en ambos stacks
+ *
+ * Orden HIGHEST_PRECEDENCE: se ejecuta antes que Spring Security (-100), de modo
+ * que la probe no paga autenticación ni handler mapping.
+ */
+@Configuration
+public class LivenessConfiguration {
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class Servlet {
+
+        @Bean
+        public FilterRegistrationBean<LivenessFilter> livenessFilter() {
+            FilterRegistrationBean<LivenessFilter> registration = new FilterRegistrationBean<>(new LivenessFilter());
+            // Solo se invoca para esta URL: el resto de peticiones no lo atraviesa
+            registration.addUrlPatterns(LivenessFilter.PATH);
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class Reactive {
+
+        @Bean
+        public ReactiveLivenessFilter reactiveLivenessFilter() {
+            return new ReactiveLivenessFilter();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.zerotrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Configuración del motor de políticas ABAC (PolicyDecisionPoint)
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.policy'
+ */
+@Component
+@ConfigurationProperties(prefix = "app.policy")
+@Validated
+public class PolicyProperties {
+
+    /**
+     * Origen del bundle: RESOURCE (app.policy.bundle) o VAULT (secreto
+     * app.policy.bundle-json, refrescado con los demás secretos)
+     */
+    @NotNull(message = "Policy bundle source cannot be null")
+    private Source source = Source.RESOURCE;
+
+    /**
+     * Ubicación del bundle JSON (classpath:, file:, ...)
+     */
+    @NotBlank(message = "Policy bundle location cannot be blank")
+    private String bundle = "classpath:policies/default-policy.json";
+
+    /**
+     * Si true y el bundle es file:, se vigila su directorio (WatchService) y se recompila al cambiar
+     */
+    private boolean watch = false;
+
+    /**
+     * Espera tras el último evento antes de recompilar (los editores escriben en varios pasos)
+     */
+    @NotNull(message = "Reload debounce cannot be null")
+    private Duration reloadDebounce = Duration.ofMillis(200);
+
+    /**
+     * Si true, validateZeroTrustClaims consulta el PDP (recurso "token", acción = tipo de token)
+     */
+    private boolean enforceOnTokenValidation = true;
+
+    /**
+     * Caché de decisiones por los atributos que lee la política
+     */
+    @Valid
+    private DecisionCache decisionCache = new DecisionCache();
+
+    /**
+     * Residuos de la evaluación parcial por atributos de sujeto
+     */
+    @Valid
+    private ResidualCache residualCache = new ResidualCache();
+
+    // Getters y Setters
+    public Source getSource() {
+        return source;
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+    }
+
+    public String getBundle() {
+        return bundle;
+    }
+
+    public void setBundle(String bundle) {
+        this.bundle = bundle;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    public Duration getReloadDebounce() {
+        return reloadDebounce;
+    }
+
+    public void setReloadDebounce(Duration reloadDebounce) {
+        this.reloadDebounce = reloadDebounce;
+    }
+
+    public boolean isEnforceOnTokenValidation() {
+        return enforceOnTokenValidation;
+    }
+
+    public void setEnforceOnTokenValidation(boolean enforceOnTokenValidation) {
+        this.enforceOnTokenValidation = enforceOnTokenValidation;
+    }
+
+    public DecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    public void setDecisionCache(DecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    public ResidualCache getResidualCache() {
+        return residualCache;
+    }
+
+    public void setResidualCache(ResidualCache residualCache) {
+        this.residualCache = residualCache;
+    }
+
+    @Override
+    public String toString() {
+        return "PolicyProperties{" +
+                "source=" + source +
+                ", bundle='" + bundle + '\'' +
+                ", watch=" + watch +
+                ", reloadDebounce=" + reloadDebounce +
+                ", enforceOnTokenValidation=" + enforceOnTokenValidation +
+                ", decisionCache=" + decisionCache +
+                ", residualCache=" + residualCache +
+                '}';
+    }
+
+    public enum Source {
+        RESOURCE,
+        VAULT
+    }
+
+    public static class DecisionCache {
+
+        private boolean enabled = true;
+
+        @Positive(message = "Decision cache size must be positive")
+        private long size = 10_000;
+
+        /**
+         * Vida máxima de una entrada; la invalidación por bundle o revocación es inmediata
+         */
+        @NotNull(message = "Decision cache TTL cannot be null")
+        private Duration ttl = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public String toString() {
+            return "DecisionCache{enabled=" + enabled + ", size=" + size + ", ttl=" + ttl + '}';
+        }
+    }
+
+    public static class ResidualCache {
+
+        private boolean enabled = true;
+
+        /**
+         * Combinaciones de atributos de sujeto (roles, dispositivo...) con residuo
+         */
+        @Positive(message = "Residual cache size must be positive")
+        private long size = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public String toString() {
+            return "ResidualCache{enabled=" + enabled + ", size=" + size + '}';
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.zerotrust.config;
+
+import com.example.zerotrust.ratelimit.RateLimitKey;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración de los límites de peticiones (RateLimiter)
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.rate-limit'
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Validated
+public class RateLimitProperties {
+
+    /**
+     * Si false, RateLimitFilter deja pasar todas las peticiones
+     */
+    private boolean enabled = true;
+
+    /**
+     * Segmentos de la tabla de estado (potencia de 2)
+     */
+    @Positive(message = "Rate limit segments must be positive")
+    private int segments = 16;
+
+    /**
+     * Claves por segmento (potencia de 2); 8 bytes por clave
+     */
+    @Positive(message = "Rate limit segment capacity must be positive")
+    private int segmentCapacity = 8192;
+
+    /**
+     * Límites por nombre; para cada clave se aplica el de path más específico
+     */
+    @Valid
+    private Map<String, Limit> limits = defaultLimits();
+
+    @Valid
+    private Cluster cluster = new Cluster();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+
+    public int getSegmentCapacity() {
+        return segmentCapacity;
+    }
+
+    public void setSegmentCapacity(int segmentCapacity) {
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    public Map<String, Limit> getLimits() {
+        return limits;
+    }
+
+    public void setLimits(Map<String, Limit> limits) {
+        this.limits = limits;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(Cluster cluster) {
+        this.cluster = cluster;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitProperties{" +
+                "enabled=" + enabled +
+                ", segments=" + segments +
+                ", segmentCapacity=" + segmentCapacity +
+                ", limits=" + limits +
+                ", cluster=" + cluster +
+                '}';
+    }
+
+    private static Map<String, Limit> defaultLimits() {
+        Map<String, Limit> limits = new LinkedHashMap<>();
+        limits.put("login-ip", limit("/auth/login", RateLimitKey.IP, 10, 5, true));
+        limits.put("auth-ip", limit("/auth/**", RateLimitKey.IP, 60, 20, true));
+        limits.put("ip", limit("/**", RateLimitKey.IP, 1200, 200, false));
+        limits.put("subject", limit("/**", RateLimitKey.SUBJECT, 600, 100, true));
+        limits.put("device", limit("/**", RateLimitKey.DEVICE, 600, 100, false));
+        return limits;
+    }
+
+    private static Limit limit(String path, RateLimitKey key, long requests, long burst, boolean cluster) {
+        Limit limit = new Limit();
+        limit.setPath(path);
+        limit.setKey(key);
+        limit.setRequests(requests);
+        limit.setBurst(burst);
+        limit.setCluster(cluster);
+        return limit;
+    }
+
+    /**
+     * requests por period sostenidas, con ráfagas de hasta burst peticiones
+     */
+    public static class Limit {
+
+        /**
+         * Path exacto o prefijo terminado en /**
+         */
+        @NotBlank(message = "Rate limit path cannot be blank")
+        private String path = "/**";
+
+        @NotNull(message = "Rate limit key cannot be null")
+        private RateLimitKey key = RateLimitKey.IP;
+
+        @Positive(message = "Rate limit requests must be positive")
+        private long requests = 60;
+
+        @NotNull(message = "Rate limit period cannot be null")
+        private Duration period = Duration.ofMinutes(1);
+
+        @Positive(message = "Rate limit burst must be positive")
+        private long burst = 1;
+
+        /**
+         * Si true y cluster.enabled, el límite es global a todos los nodos (TokenLeases)
+         */
+        private boolean cluster = false;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public RateLimitKey getKey() {
+            return key;
+        }
+
+        public void setKey(RateLimitKey key) {
+            this.key = key;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public void setRequests(long requests) {
+            this.requests = requests;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+
+        public long getBurst() {
+            return burst;
+        }
+
+        public void setBurst(long burst) {
+            this.burst = burst;
+        }
+
+        public boolean isCluster() {
+            return cluster;
+        }
+
+        public void setCluster(boolean cluster) {
+            this.cluster = cluster;
+        }
+
+        @Override
+        public String toString() {
+            return "Limit{path=" + path + ", key=" + key + ", requests=" + requests +
+                    ", period=" + period + ", burst=" + burst + ", cluster=" + cluster + '}';
+        }
+    }
+
+    /**
+     * Límites globales: cada nodo alquila lotes de tokens de un contador en Redis
+     */
+    public static class Cluster {
+
+        /**
+         * Si true se crea RedisTokenLeaseStore y los límites con cluster: true son globales
+         */
+        private boolean enabled = false;
+
+        @NotBlank(message = "Rate limit key prefix cannot be blank")
+        private String keyPrefix = "zerotrust:ratelimit:";
+
+        /**
+         * Tiempo de tráfico local que debe cubrir cada lote según el ritmo observado
+         */
+        @NotNull(message = "Lease target cannot be null")
+        private Duration leaseTarget = Duration.ofMillis(100);
+
+        /**
+         * Validez de un lote: los tokens no gastados se descartan
+         */
+        @NotNull(message = "Lease TTL cannot be null")
+        private Duration leaseTtl = Duration.ofSeconds(1);
+
+        /**
+         * Timeout de cada llamada a Redis; se espera con el lock del lote tomado
+         */
+        @NotNull(message = "Lease command timeout cannot be null")
+        private Duration commandTimeout = Duration.ofMillis(100);
+
+        @Positive(message = "Min lease must be positive")
+        private long minLease = 1;
+
+        /**
+         * Tokens por lote como máximo; acota el error global a nodos × max-lease
+         */
+        @Positive(message = "Max lease must be positive")
+        private long maxLease = 50;
+
+        /**
+         * Claves con lote en memoria por límite
+         */
+        @Positive(message = "Max leased keys must be positive")
+        private long maxKeys = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+
+        public Duration getLeaseTarget() {
+            return leaseTarget;
+        }
+
+        public void setLeaseTarget(Duration leaseTarget) {
+            this.leaseTarget = leaseTarget;
+        }
+
+        public Duration getLeaseTtl() {
+            return leaseTtl;
+        }
+
+        public void setLeaseTtl(Duration leaseTtl) {
+            this.leaseTtl = leaseTtl;
+        }
+
+        public Duration getCommandTimeout() {
+            return commandTimeout;
+        }
+
+        public void setCommandTimeout(Duration commandTimeout) {
+            this.commandTimeout = commandTimeout;
+        }
+
+        public long getMinLease() {
+            return minLease;
+        }
+
+        public void setMinLease(long minLease) {
+            this.minLease = minLease;
+        }
+
+        public long getMaxLease() {
+            return maxLease;
+        }
+
+        public void setMaxLease(long maxLease) {
+            this.maxLease = maxLease;
+        }
+
+        public long getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(long maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        public String toString() {
+            return "Cluster{enabled=" + enabled + ", keyPrefix=" + keyPrefix + ", leaseTarget=" + leaseTarget +
+                    ", leaseTtl=" + leaseTtl + ", commandTimeout=" + commandTimeout + ", minLease=" + minLease + ", maxLease=" + maxLease +
+                    ", maxKeys=" + maxKeys + '}';
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.zerotrust.config;
+
+import com.example.zerotrust.security.AuthoritySetCache;
+import com.example.zerotrust.security.LoginUsers;
+import com.example.zerotrust.security.ReactiveBearerTokenConverter;
+import com.example.zerotrust.security.ReactiveJwtAuthenticationManager;
+import com.example.zerotrust.service.reactive.IReactiveJwtService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.oauth2.server.resource.web.server.BearerTokenServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Configuración de seguridad de la variante reactiva (WebFlux sobre Netty)
+ * Solo en modo reactivo: spring.main.web-application-type=reactive (perfil reactive)
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableConfigurationProperties(SecurityProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain reactiveSecurityFilterChain(ServerHttpSecurity http,
+                                                              IReactiveJwtService jwtService,
+                                                              JwtProperties jwtProperties,
+                                                              AuthoritySetCache authoritySetCache) {
+        // Autenticación Bearer con ReactiveJwtService, sin sesión
+        AuthenticationWebFilter bearerFilter = new AuthenticationWebFilter(
+                new ReactiveJwtAuthenticationManager(jwtService, authoritySetCache));
+        bearerFilter.setServerAuthenticationConverter(new ReactiveBearerTokenConverter(jwtProperties));
+        bearerFilter.setAuthenticationFailureHandler(
+                new ServerAuthenticationEntryPointFailureHandler(new BearerTokenServerAuthenticationEntryPoint()));
+        bearerFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .addFilterAt(bearerFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new BearerTokenServerAuthenticationEntryPoint()))
+                .authorizeExchange(exchanges -> exchanges
+                        // Los endpoints de tokens validan sus propias credenciales
+                        .pathMatchers("/auth/**").permitAll()
+                        .pathMatchers("/api/health", "/api/info", "/actuator/**").permitAll()
+                        .anyExchange().authenticated())
+                .build();
+    }
+
+    /**
+     * Usuarios para /auth/login a partir de spring.security.user.*
+     * Se sustituye definiendo otro ReactiveUserDetailsService (LDAP, BD, ...)
+     */
+    @Bean
+    @ConditionalOnMissingBean(ReactiveUserDetailsService.class)
+    public MapReactiveUserDetailsService reactiveUserDetailsService(SecurityProperties securityProperties) {
+        return new MapReactiveUserDetailsService(LoginUsers.fromProperties(securityProperties));
+    }
+}
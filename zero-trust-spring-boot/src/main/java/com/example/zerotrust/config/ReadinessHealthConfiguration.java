@@ -0,0 +1,70 @@
+package com.example.zerotrust.config;
+
+import com.example.zerotrust.health.CachedHealthIndicator;
+import com.example.zerotrust.health.DependencyCheck;
+import com.example.zerotrust.health.DependencyChecks;
+import com.example.zerotrust.health.ReadinessCheckScheduler;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.reactive.ReactiveRevocationStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.vault.core.VaultOperations;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Health "dependencies" para el grupo de readiness (/actuator/health/readiness)
+ *
+ * Vault (sys/health, si spring.cloud.vault está habilitado), el almacén de
+ * revocación en Redis (solo stack reactivo: en servlet es memoria local) y el
+ * datasource se comprueban en segundo plano con ReadinessCheckScheduler; las
+ * probes solo leen el último resultado. Cada dependencia:
+ * /actuator/health/dependencies/{nombre}.
+ */
+@Configuration
+public class ReadinessHealthConfiguration {
+
+    @Bean
+    public ReadinessCheckScheduler readinessCheckScheduler() {
+        return new ReadinessCheckScheduler();
+    }
+
+    @Bean
+    public HealthContributor dependenciesHealthContributor(ReadinessCheckScheduler scheduler,
+                                                           ReadinessProperties properties,
+                                                           SecretService secretService,
+                                                           ObjectProvider<VaultOperations> vaultOperations,
+                                                           ObjectProvider<ReactiveRevocationStore> reactiveRevocationStore,
+                                                           ObjectProvider<DataSource> dataSource) {
+        Map<String, HealthIndicator> indicators = new LinkedHashMap<>();
+
+        indicators.put("secrets", register(scheduler, properties, "secrets",
+                DependencyChecks.secrets(secretService, vaultOperations.getIfAvailable())));
+
+        ReactiveRevocationStore reactiveStore = reactiveRevocationStore.getIfAvailable();
+        if (reactiveStore != null) {
+            indicators.put("revocationStore", register(scheduler, properties, "revocation-store",
+                    DependencyChecks.revocationStore(reactiveStore, properties.timeoutFor("revocation-store"))));
+        }
+
+        DataSource database = dataSource.getIfAvailable();
+        if (database != null) {
+            indicators.put("database", register(scheduler, properties, "database",
+                    DependencyChecks.database(database, properties.timeoutFor("database"))));
+        }
+
+        return CompositeHealthContributor.fromMap(indicators);
+    }
+
+    private static CachedHealthIndicator register(ReadinessCheckScheduler scheduler, ReadinessProperties properties,
+                                                  String name, DependencyCheck check) {
+        return scheduler.register(name, check, properties.intervalFor(name), properties.timeoutFor(name),
+                properties.getFailureThreshold(), properties.getOpenDuration());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.zerotrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuración de las comprobaciones de readiness en segundo plano
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.health.readiness'
+ * Los valores por defecto se pueden sobrescribir por dependencia en 'checks'
+ */
+@Component
+@ConfigurationProperties(prefix = "app.health.readiness")
+@Validated
+public class ReadinessProperties {
+
+    /**
+     * Intervalo entre comprobaciones de cada dependencia
+     */
+    @NotNull(message = "Readiness interval cannot be null")
+    private Duration interval = Duration.ofSeconds(10);
+
+    /**
+     * Tiempo máximo de una comprobación antes de darla por fallida
+     */
+    @NotNull(message = "Readiness timeout cannot be null")
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /**
+     * Fallos consecutivos que abren el circuito
+     */
+    @Positive(message = "Failure threshold must be positive")
+    private int failureThreshold = 3;
+
+    /**
+     * Tiempo con el circuito abierto antes de una comprobación de prueba
+     */
+    @NotNull(message = "Open duration cannot be null")
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /**
+     * Intervalo y timeout por dependencia (secrets, revocation-store, database)
+     */
+    private Map<String, Check> checks = new HashMap<>();
+
+    public Duration intervalFor(String name) {
+        Check check = checks.get(name);
+        return check != null && check.getInterval() != null ? check.getInterval() : interval;
+    }
+
+    public Duration timeoutFor(String name) {
+        Check check = checks.get(name);
+        return check != null && check.getTimeout() != null ? check.getTimeout() : timeout;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public Map<String, Check> getChecks() {
+        return checks;
+    }
+
+    public void setChecks(Map<String, Check> checks) {
+        this.checks = checks;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadinessProperties{" +
+                "interval=" + interval +
+                ", timeout=" + timeout +
+                ", failureThreshold=" + failureThreshold +
+                ", openDuration=" + openDuration +
+                ", checks=" + checks +
+                '}';
+    }
+
+    /**
+     * Sobrescritura de intervalo/timeout de una dependencia
+     */
+    public static class Check {
+
+        private Duration interval;
+        private Duration timeout;
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public String toString() {
+            return "Check{interval=" + interval + ", timeout=" + timeout + '}';
+        }
+    }
+}
@@ -0,0 +1,676 @@
+package com.example.zerotrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Configuración del motor de riesgo continuo (RiskEngine)
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.risk'
+ */
+@Component
+@ConfigurationProperties(prefix = "app.risk")
+@Validated
+public class RiskProperties {
+
+    /**
+     * Si false, riskScore vuelve a ser el valor fijo de emisión (baseline)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Ventana deslizante de eventos por sujeto
+     */
+    @NotNull(message = "Risk window cannot be null")
+    private Duration window = Duration.ofMinutes(5);
+
+    /**
+     * Buckets de la ventana (resolución = window / buckets)
+     */
+    @Positive(message = "Risk window buckets must be positive")
+    @Max(value = 64, message = "Risk window buckets cannot exceed 64")
+    private int buckets = 10;
+
+    /**
+     * Sujetos con ventana en memoria (los menos recientes se descartan)
+     */
+    @Positive(message = "Max tracked subjects must be positive")
+    private long maxSubjects = 100_000;
+
+    /**
+     * Riesgo sin señales (y de sujetos sin eventos recientes)
+     */
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double baseline = 0.1;
+
+    @Valid
+    private Weights weights = new Weights();
+
+    @Valid
+    private Features features = new Features();
+
+    @Valid
+    private Lifetime lifetime = new Lifetime();
+
+    @Valid
+    private Overlay overlay = new Overlay();
+
+    /**
+     * Zona horaria de las horas de actividad (horario habitual)
+     */
+    @NotNull(message = "Risk zone cannot be null")
+    private ZoneId zone = ZoneOffset.UTC;
+
+    /**
+     * Fallos (401/403/4xx) en la ventana con los que la señal de fallos satura
+     */
+    @Positive(message = "Failure threshold must be positive")
+    private int failureThreshold = 5;
+
+    /**
+     * Cambios de IP o de dispositivo en la ventana con los que su señal satura
+     */
+    @Positive(message = "Change threshold must be positive")
+    private int changeThreshold = 3;
+
+    /**
+     * Peticiones en la ventana con las que la señal de ráfaga satura
+     */
+    @Positive(message = "Burst threshold must be positive")
+    private int burstThreshold = 600;
+
+    /**
+     * IPs distintas del sujeto (además de la primera) con las que su señal satura
+     */
+    @Positive(message = "Distinct IP threshold must be positive")
+    private int distinctIpThreshold = 4;
+
+    /**
+     * Dispositivos de una sesión (además del primero) con los que su señal satura
+     */
+    @Positive(message = "Session device threshold must be positive")
+    private int sessionDeviceThreshold = 1;
+
+    // Getters y Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(int buckets) {
+        this.buckets = buckets;
+    }
+
+    public long getMaxSubjects() {
+        return maxSubjects;
+    }
+
+    public void setMaxSubjects(long maxSubjects) {
+        this.maxSubjects = maxSubjects;
+    }
+
+    public double getBaseline() {
+        return baseline;
+    }
+
+    public void setBaseline(double baseline) {
+        this.baseline = baseline;
+    }
+
+    public Features getFeatures() {
+        return features;
+    }
+
+    public void setFeatures(Features features) {
+        this.features = features;
+    }
+
+    public Lifetime getLifetime() {
+        return lifetime;
+    }
+
+    public void setLifetime(Lifetime lifetime) {
+        this.lifetime = lifetime;
+    }
+
+    public Overlay getOverlay() {
+        return overlay;
+    }
+
+    public void setOverlay(Overlay overlay) {
+        this.overlay = overlay;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public void setZone(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public Weights getWeights() {
+        return weights;
+    }
+
+    public void setWeights(Weights weights) {
+        this.weights = weights;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public int getChangeThreshold() {
+        return changeThreshold;
+    }
+
+    public void setChangeThreshold(int changeThreshold) {
+        this.changeThreshold = changeThreshold;
+    }
+
+    public int getBurstThreshold() {
+        return burstThreshold;
+    }
+
+    public void setBurstThreshold(int burstThreshold) {
+        this.burstThreshold = burstThreshold;
+    }
+
+    public int getDistinctIpThreshold() {
+        return distinctIpThreshold;
+    }
+
+    public void setDistinctIpThreshold(int distinctIpThreshold) {
+        this.distinctIpThreshold = distinctIpThreshold;
+    }
+
+    public int getSessionDeviceThreshold() {
+        return sessionDeviceThreshold;
+    }
+
+    public void setSessionDeviceThreshold(int sessionDeviceThreshold) {
+        this.sessionDeviceThreshold = sessionDeviceThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return "RiskProperties{" +
+                "enabled=" + enabled +
+                ", window=" + window +
+                ", buckets=" + buckets +
+                ", maxSubjects=" + maxSubjects +
+                ", baseline=" + baseline +
+                ", weights=" + weights +
+                ", features=" + features +
+                ", lifetime=" + lifetime +
+                ", overlay=" + overlay +
+                ", zone=" + zone +
+                ", failureThreshold=" + failureThreshold +
+                ", changeThreshold=" + changeThreshold +
+                ", burstThreshold=" + burstThreshold +
+                ", distinctIpThreshold=" + distinctIpThreshold +
+                ", sessionDeviceThreshold=" + sessionDeviceThreshold +
+                '}';
+    }
+
+    /**
+     * Peso de cada señal (0..1) sumado a baseline; el resultado se acota a 1
+     */
+    public static class Weights {
+
+        @DecimalMin("0.0")
+        private double failures = 0.4;
+
+        @DecimalMin("0.0")
+        private double ipChanges = 0.2;
+
+        @DecimalMin("0.0")
+        private double deviceChanges = 0.2;
+
+        @DecimalMin("0.0")
+        private double burst = 0.1;
+
+        @DecimalMin("0.0")
+        private double distinctIps = 0.1;
+
+        @DecimalMin("0.0")
+        private double sessionDevices = 0.2;
+
+        public double getFailures() {
+            return failures;
+        }
+
+        public void setFailures(double failures) {
+            this.failures = failures;
+        }
+
+        public double getIpChanges() {
+            return ipChanges;
+        }
+
+        public void setIpChanges(double ipChanges) {
+            this.ipChanges = ipChanges;
+        }
+
+        public double getDeviceChanges() {
+            return deviceChanges;
+        }
+
+        public void setDeviceChanges(double deviceChanges) {
+            this.deviceChanges = deviceChanges;
+        }
+
+        public double getBurst() {
+            return burst;
+        }
+
+        public void setBurst(double burst) {
+            this.burst = burst;
+        }
+
+        public double getDistinctIps() {
+            return distinctIps;
+        }
+
+        public void setDistinctIps(double distinctIps) {
+            this.distinctIps = distinctIps;
+        }
+
+        public double getSessionDevices() {
+            return sessionDevices;
+        }
+
+        public void setSessionDevices(double sessionDevices) {
+            this.sessionDevices = sessionDevices;
+        }
+
+        @Override
+        public String toString() {
+            return "Weights{failures=" + failures + ", ipChanges=" + ipChanges +
+                    ", deviceChanges=" + deviceChanges + ", burst=" + burst +
+                    ", distinctIps=" + distinctIps + ", sessionDevices=" + sessionDevices + '}';
+        }
+    }
+
+    /**
+     * Feature store aproximado (FeatureStore): memoria fija por sujeto y por sesión
+     */
+    public static class Features {
+
+        /**
+         * Ventana de IPs distintas por sujeto y de dispositivos distintos por sesión
+         */
+        @NotNull(message = "Distinct window cannot be null")
+        private Duration distinctWindow = Duration.ofHours(1);
+
+        /**
+         * Tramos de la ventana (un HyperLogLog por tramo)
+         */
+        @Positive(message = "Distinct window slices must be positive")
+        @Max(value = 24, message = "Distinct window slices cannot exceed 24")
+        private int slices = 4;
+
+        /**
+         * Precisión p de HyperLogLog: 2^p bytes por tramo, error ~1.04/sqrt(2^p)
+         */
+        @Min(value = 4, message = "HyperLogLog precision must be at least 4")
+        @Max(value = 18, message = "HyperLogLog precision cannot exceed 18")
+        private int precision = 7;
+
+        /**
+         * Filas del count-min sketch de peticiones por endpoint
+         */
+        @Positive(message = "Sketch depth must be positive")
+        private int sketchDepth = 4;
+
+        /**
+         * Contadores por fila (potencia de 2)
+         */
+        @Positive(message = "Sketch width must be positive")
+        private int sketchWidth = 32;
+
+        /**
+         * Vida media de las frecuencias por endpoint
+         */
+        @NotNull(message = "Frequency half-life cannot be null")
+        private Duration frequencyHalfLife = Duration.ofMinutes(10);
+
+        /**
+         * Sesiones con sketch de dispositivos en memoria
+         */
+        @Positive(message = "Max tracked sessions must be positive")
+        private long maxSessions = 100_000;
+
+        /**
+         * Inactividad tras la que se olvidan las IPs, dispositivos y horas conocidas del sujeto
+         */
+        @NotNull(message = "Profile TTL cannot be null")
+        private Duration profileTtl = Duration.ofDays(30);
+
+        public Duration getDistinctWindow() {
+            return distinctWindow;
+        }
+
+        public void setDistinctWindow(Duration distinctWindow) {
+            this.distinctWindow = distinctWindow;
+        }
+
+        public int getSlices() {
+            return slices;
+        }
+
+        public void setSlices(int slices) {
+            this.slices = slices;
+        }
+
+        public int getPrecision() {
+            return precision;
+        }
+
+        public void setPrecision(int precision) {
+            this.precision = precision;
+        }
+
+        public int getSketchDepth() {
+            return sketchDepth;
+        }
+
+        public void setSketchDepth(int sketchDepth) {
+            this.sketchDepth = sketchDepth;
+        }
+
+        public int getSketchWidth() {
+            return sketchWidth;
+        }
+
+        public void setSketchWidth(int sketchWidth) {
+            this.sketchWidth = sketchWidth;
+        }
+
+        public Duration getFrequencyHalfLife() {
+            return frequencyHalfLife;
+        }
+
+        public void setFrequencyHalfLife(Duration frequencyHalfLife) {
+            this.frequencyHalfLife = frequencyHalfLife;
+        }
+
+        public long getMaxSessions() {
+            return maxSessions;
+        }
+
+        public void setMaxSessions(long maxSessions) {
+            this.maxSessions = maxSessions;
+        }
+
+        public Duration getProfileTtl() {
+            return profileTtl;
+        }
+
+        public void setProfileTtl(Duration profileTtl) {
+            this.profileTtl = profileTtl;
+        }
+
+        @Override
+        public String toString() {
+            return "Features{distinctWindow=" + distinctWindow + ", slices=" + slices +
+                    ", precision=" + precision + ", sketchDepth=" + sketchDepth +
+                    ", sketchWidth=" + sketchWidth + ", frequencyHalfLife=" + frequencyHalfLife +
+                    ", maxSessions=" + maxSessions + ", profileTtl=" + profileTtl + '}';
+        }
+    }
+
+    /**
+     * Duración del access token según el riesgo (TokenLifetimePolicy):
+     * techo × (1 - riskScore) × factor de cada condición que falla, acotada a
+     * [min-duration, techo], con techo = min(max-duration, app.jwt.access-token-duration)
+     */
+    public static class Lifetime {
+
+        /**
+         * Si false, los access tokens duran app.jwt.access-token-duration
+         */
+        private boolean enabled = true;
+
+        @NotNull(message = "Minimum access token lifetime cannot be null")
+        private Duration minDuration = Duration.ofMinutes(5);
+
+        @NotNull(message = "Maximum access token lifetime cannot be null")
+        private Duration maxDuration = Duration.ofMinutes(30);
+
+        /**
+         * Sin MFA (context.amr del token sin "mfa")
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double noMfaFactor = 0.75;
+
+        /**
+         * IP sin actividad correcta previa del sujeto
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double unknownIpFactor = 0.75;
+
+        /**
+         * Dispositivo sin actividad correcta previa ni certificado cliente
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double unverifiedDeviceFactor = 0.75;
+
+        /**
+         * Fuera de [usual-hours-start, usual-hours-end) y de las horas en que el sujeto suele operar
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double unusualHourFactor = 0.5;
+
+        @Min(0)
+        @Max(23)
+        private int usualHoursStart = 7;
+
+        @Min(1)
+        @Max(24)
+        private int usualHoursEnd = 21;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMinDuration() {
+            return minDuration;
+        }
+
+        public void setMinDuration(Duration minDuration) {
+            this.minDuration = minDuration;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+
+        public double getNoMfaFactor() {
+            return noMfaFactor;
+        }
+
+        public void setNoMfaFactor(double noMfaFactor) {
+            this.noMfaFactor = noMfaFactor;
+        }
+
+        public double getUnknownIpFactor() {
+            return unknownIpFactor;
+        }
+
+        public void setUnknownIpFactor(double unknownIpFactor) {
+            this.unknownIpFactor = unknownIpFactor;
+        }
+
+        public double getUnverifiedDeviceFactor() {
+            return unverifiedDeviceFactor;
+        }
+
+        public void setUnverifiedDeviceFactor(double unverifiedDeviceFactor) {
+            this.unverifiedDeviceFactor = unverifiedDeviceFactor;
+        }
+
+        public double getUnusualHourFactor() {
+            return unusualHourFactor;
+        }
+
+        public void setUnusualHourFactor(double unusualHourFactor) {
+            this.unusualHourFactor = unusualHourFactor;
+        }
+
+        public int getUsualHoursStart() {
+            return usualHoursStart;
+        }
+
+        public void setUsualHoursStart(int usualHoursStart) {
+            this.usualHoursStart = usualHoursStart;
+        }
+
+        public int getUsualHoursEnd() {
+            return usualHoursEnd;
+        }
+
+        public void setUsualHoursEnd(int usualHoursEnd) {
+            this.usualHoursEnd = usualHoursEnd;
+        }
+
+        @Override
+        public String toString() {
+            return "Lifetime{enabled=" + enabled + ", minDuration=" + minDuration +
+                    ", maxDuration=" + maxDuration + ", noMfaFactor=" + noMfaFactor +
+                    ", unknownIpFactor=" + unknownIpFactor + ", unverifiedDeviceFactor=" + unverifiedDeviceFactor +
+                    ", unusualHourFactor=" + unusualHourFactor +
+                    ", usualHours=" + usualHoursStart + "-" + usualHoursEnd + '}';
+        }
+    }
+
+    /**
+     * Ajustes temporales de riesgo por sesión (SessionRiskOverlay)
+     */
+    public static class Overlay {
+
+        /**
+         * Slots de la tabla (potencia de 2); cada uno ocupa 16 bytes
+         */
+        @Positive(message = "Overlay capacity must be positive")
+        private int capacity = 65_536;
+
+        /**
+         * TTL máximo de un ajuste; los más largos se recortan
+         */
+        @NotNull(message = "Overlay max TTL cannot be null")
+        private Duration maxTtl = Duration.ofHours(24);
+
+        /**
+         * Replicación de los ajustes entre réplicas (Redis pub/sub)
+         */
+        @Valid
+        private Propagation propagation = new Propagation();
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getMaxTtl() {
+            return maxTtl;
+        }
+
+        public void setMaxTtl(Duration maxTtl) {
+            this.maxTtl = maxTtl;
+        }
+
+        public Propagation getPropagation() {
+            return propagation;
+        }
+
+        public void setPropagation(Propagation propagation) {
+            this.propagation = propagation;
+        }
+
+        @Override
+        public String toString() {
+            return "Overlay{capacity=" + capacity + ", maxTtl=" + maxTtl + ", propagation=" + propagation + '}';
+        }
+    }
+
+    /**
+     * Si false, cada nodo solo ve los ajustes hechos en él
+     */
+    public static class Propagation {
+
+        private boolean enabled = false;
+
+        @NotBlank(message = "Overlay propagation channel cannot be blank")
+        private String channel = "zerotrust:risk-overlay";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public String toString() {
+            return "Propagation{enabled=" + enabled + ", channel=" + channel + '}';
+        }
+    }
+}
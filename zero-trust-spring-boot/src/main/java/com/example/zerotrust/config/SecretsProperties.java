@@ -0,0 +1,111 @@
+package com.example.zerotrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Configuración del origen y el refresco de secretos (SecretService)
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.secrets'
+ */
+@Component
+@ConfigurationProperties(prefix = "app.secrets")
+@Validated
+public class SecretsProperties {
+
+    /**
+     * Intervalo del polling de cambios (también se refresca vía webhook)
+     */
+    @NotNull(message = "Secrets refresh interval cannot be null")
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    /**
+     * Origen de los valores: ENVIRONMENT (solo cambia con un refresh del contexto)
+     * o VAULT (lectura KV v2 en cada carga y refresco; detecta rotaciones)
+     */
+    @NotNull(message = "Secrets source cannot be null")
+    private Source source = Source.ENVIRONMENT;
+
+    /**
+     * Secreto KV v2 con las propiedades (app.jwt.secret, app.encryption.key, ...)
+     */
+    @Valid
+    private Vault vault = new Vault();
+
+    // Getters y Setters
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+    }
+
+    public Vault getVault() {
+        return vault;
+    }
+
+    public void setVault(Vault vault) {
+        this.vault = vault;
+    }
+
+    @Override
+    public String toString() {
+        return "SecretsProperties{" +
+                "refreshInterval=" + refreshInterval +
+                ", source=" + source +
+                ", vault=" + vault +
+                '}';
+    }
+
+    public enum Source {
+        ENVIRONMENT,
+        VAULT
+    }
+
+    public static class Vault {
+
+        @NotBlank(message = "Vault KV backend cannot be blank")
+        private String backend = "secret";
+
+        /**
+         * Ruta del secreto dentro del backend (sin el prefijo data/)
+         */
+        @NotBlank(message = "Vault secret path cannot be blank")
+        private String path = "zero-trust-app";
+
+        public String getBackend() {
+            return backend;
+        }
+
+        public void setBackend(String backend) {
+            this.backend = backend;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public String toString() {
+            return "Vault{backend='" + backend + "', path='" + path + "'}";
+        }
+    }
+}
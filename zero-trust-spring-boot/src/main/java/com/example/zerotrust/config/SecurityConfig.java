@@ -1,5 +1,15 @@
 package com.example.zerotrust.config;
 
+import com.example.zerotrust.ratelimit.RateLimiter;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.security.AuthoritySetCache;
+import com.example.zerotrust.security.ClientCertificateAuthenticationFilter;
+import com.example.zerotrust.security.ClientCertificateIdentityCache;
+import com.example.zerotrust.security.JwtAuthenticationFilter;
+import com.example.zerotrust.security.RateLimitFilter;
+import com.example.zerotrust.security.RiskEventFilter;
+import com.example.zerotrust.service.IJwtService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,13 +17,16 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
  * Configuración de seguridad Zero Trust basada en properties
  * Compatible con Spring Boot 3.3.5 y Spring Security 6.1+
+ * Solo en modo servlet; la variante reactiva usa ReactiveSecurityConfig
  */
 @Configuration
 @EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @ConfigurationProperties(prefix = "app.security")
 public class SecurityConfig {
 
@@ -24,9 +37,28 @@ public class SecurityConfig {
     private boolean requireAuthForHealthEndpoints = false;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   IJwtService jwtService,
+                                                   JwtProperties jwtProperties,
+                                                   AuthoritySetCache authoritySetCache,
+                                                   ClientCertificateIdentityCache clientCertificateIdentityCache,
+                                                   RiskEngine riskEngine,
+                                                   RateLimiter rateLimiter) throws Exception {
         HttpSecurity httpSecurity = http
                 .csrf(csrf -> csrf.disable())
+                // Autenticación Bearer con nuestro JwtService (sin discovery OAuth2 remoto)
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService, jwtProperties, authoritySetCache),
+                        UsernamePasswordAuthenticationFilter.class)
+                // Servicios con certificado cliente (perfil tls, mTLS); sin certificado no actúa.
+                // Antes del filtro JWT para que pueda comprobar los tokens ligados (cnf)
+                .addFilterBefore(new ClientCertificateAuthenticationFilter(clientCertificateIdentityCache),
+                        JwtAuthenticationFilter.class)
+                // Eventos de riesgo: envuelve al filtro JWT para ver sus claims y el estado final
+                .addFilterBefore(new RiskEventFilter(riskEngine), JwtAuthenticationFilter.class)
+                // Límites por IP antes de cualquier validación criptográfica; por sujeto y
+                // dispositivo con los claims ya validados (dentro de RiskEventFilter: cuenta el 429)
+                .addFilterBefore(RateLimitFilter.byAddress(rateLimiter), ClientCertificateAuthenticationFilter.class)
+                .addFilterAfter(RateLimitFilter.byIdentity(rateLimiter), JwtAuthenticationFilter.class)
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .headers(headers -> headers
@@ -39,15 +71,19 @@ public class SecurityConfig {
             return httpSecurity
                     .authorizeHttpRequests(authz -> authz
                             .requestMatchers("/actuator/**", "/h2-console/**").permitAll()
+                            .requestMatchers("/auth/**").permitAll()  // Validan sus propias credenciales
                             .requestMatchers("/api/**").authenticated()  // Requiere autenticación
                             .anyRequest().authenticated())
                     .httpBasic(httpBasic -> {})  // Habilitar autenticación básica
                     .build();
         } else {
             // Configuración por defecto: /api/health y /api/info son públicos
+            // /api/diagnostics/** (perfil vt-diagnostics) exige autenticación: /blocking retiene
+            // un hilo hasta 5 s por llamada
             return httpSecurity
                     .authorizeHttpRequests(authz -> authz
                             .requestMatchers("/api/health", "/api/info", "/actuator/**", "/h2-console/**").permitAll()
+                            .requestMatchers("/auth/**").permitAll()  // Validan sus propias credenciales
                             .anyRequest().authenticated())
                     .build();
         }
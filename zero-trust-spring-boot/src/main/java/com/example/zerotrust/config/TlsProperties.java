@@ -0,0 +1,133 @@
+package com.example.zerotrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuración TLS/mTLS del servidor (perfil tls)
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.tls'
+ * Los certificados y la autenticación de cliente se configuran con server.ssl.*
+ */
+@Component
+@ConfigurationProperties(prefix = "app.tls")
+@Validated
+public class TlsProperties {
+
+    /**
+     * Sesiones TLS cacheadas para reanudación (0 = sin límite)
+     */
+    private int sessionCacheSize = 20_480;
+
+    /**
+     * Validez de una sesión/ticket TLS reanudable
+     */
+    @NotNull(message = "Session timeout cannot be null")
+    private Duration sessionTimeout = Duration.ofHours(1);
+
+    /**
+     * Identidades de certificado cliente cacheadas por huella SHA-256
+     */
+    @Positive(message = "Identity cache size must be positive")
+    private int identityCacheSize = 1024;
+
+    /**
+     * Vida máxima de una identidad cacheada (nunca más allá de notAfter)
+     */
+    @NotNull(message = "Identity TTL cannot be null")
+    private Duration identityTtl = Duration.ofMinutes(10);
+
+    /**
+     * Servicios autorizados por nombre (SAN DNS/URI o CN del certificado)
+     */
+    private Map<String, Service> services = new HashMap<>();
+
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    public void setSessionCacheSize(int sessionCacheSize) {
+        this.sessionCacheSize = sessionCacheSize;
+    }
+
+    public Duration getSessionTimeout() {
+        return sessionTimeout;
+    }
+
+    public void setSessionTimeout(Duration sessionTimeout) {
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    public int getIdentityCacheSize() {
+        return identityCacheSize;
+    }
+
+    public void setIdentityCacheSize(int identityCacheSize) {
+        this.identityCacheSize = identityCacheSize;
+    }
+
+    public Duration getIdentityTtl() {
+        return identityTtl;
+    }
+
+    public void setIdentityTtl(Duration identityTtl) {
+        this.identityTtl = identityTtl;
+    }
+
+    public Map<String, Service> getServices() {
+        return services;
+    }
+
+    public void setServices(Map<String, Service> services) {
+        this.services = services;
+    }
+
+    @Override
+    public String toString() {
+        return "TlsProperties{" +
+                "sessionCacheSize=" + sessionCacheSize +
+                ", sessionTimeout=" + sessionTimeout +
+                ", identityCacheSize=" + identityCacheSize +
+                ", identityTtl=" + identityTtl +
+                ", services=" + services.keySet() +
+                '}';
+    }
+
+    /**
+     * Roles y permisos concedidos a un servicio autenticado por certificado
+     */
+    public static class Service {
+
+        private List<String> roles = new ArrayList<>(List.of("SERVICE"));
+        private List<String> permissions = new ArrayList<>();
+
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(List<String> roles) {
+            this.roles = roles;
+        }
+
+        public List<String> getPermissions() {
+            return permissions;
+        }
+
+        public void setPermissions(List<String> permissions) {
+            this.permissions = permissions;
+        }
+
+        @Override
+        public String toString() {
+            return "Service{roles=" + roles + ", permissions=" + permissions + '}';
+        }
+    }
+}
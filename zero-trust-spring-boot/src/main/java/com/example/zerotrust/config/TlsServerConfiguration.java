@@ -0,0 +1,39 @@
+package com.example.zerotrust.config;
+
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reanudación de sesiones TLS en Tomcat (perfil tls)
+ *
+ * Boot no expone el tamaño ni la duración de la cache de sesiones de JSSE;
+ * se aplican a cada SSLHostConfig tras configurar server.ssl. En TLS 1.3 la
+ * reanudación usa tickets PSK (jdk.tls.server.enableSessionTicketExtension,
+ * activo por defecto) cuya validez es la misma sessionTimeout.
+ */
+@Configuration
+@ConditionalOnClass(Tomcat.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TlsServerConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(TlsServerConfiguration.class);
+
+    @Bean
+    public TomcatConnectorCustomizer tlsSessionResumptionCustomizer(TlsProperties tlsProperties) {
+        return connector -> {
+            for (SSLHostConfig sslHostConfig : connector.findSslHostConfigs()) {
+                sslHostConfig.setSessionCacheSize(tlsProperties.getSessionCacheSize());
+                sslHostConfig.setSessionTimeout((int) tlsProperties.getSessionTimeout().toSeconds());
+                log.info("TLS session resumption on port {}: cache={}, timeout={}",
+                        connector.getPort(), tlsProperties.getSessionCacheSize(), tlsProperties.getSessionTimeout());
+            }
+        };
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.zerotrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Configuración del modo Vault Transit para firma de JWT
+ * Mapea propiedades desde application.yml bajo el prefijo 'app.jwt.transit'
+ * Con el modo activo la clave HMAC nunca sale de Vault
+ */
+@Component
+@ConfigurationProperties(prefix = "app.jwt.transit")
+@Validated
+public class TransitProperties {
+
+    /**
+     * Habilitar firma remota mediante Vault Transit
+     */
+    private boolean enabled = false;
+
+    /**
+     * URI base de Vault
+     */
+    @NotBlank(message = "Vault URI cannot be blank")
+    private String uri = "http://localhost:8200";
+
+    /**
+     * Token de Vault con permisos sobre el path de Transit
+     */
+    private String token;
+
+    /**
+     * Punto de montaje del secrets engine Transit
+     */
+    @NotBlank(message = "Transit mount cannot be blank")
+    private String mount = "transit";
+
+    /**
+     * Nombre de la clave en Transit
+     */
+    @NotBlank(message = "Transit key name cannot be blank")
+    private String keyName = "jwt-signing";
+
+    /**
+     * Ventana de agrupación de peticiones concurrentes en un único batch_input
+     */
+    @NotNull(message = "Batch window cannot be null")
+    private Duration batchWindow = Duration.ofNanos(200_000);
+
+    /**
+     * Máximo número de entradas por batch
+     */
+    @Positive(message = "Max batch size must be positive")
+    private int maxBatchSize = 128;
+
+    /**
+     * Máximo número de batches en vuelo (pipelining sobre HTTP/2)
+     */
+    @Positive(message = "Max in-flight batches must be positive")
+    private int maxInFlight = 8;
+
+    /**
+     * Capacidad de la cola de peticiones pendientes
+     */
+    @Positive(message = "Queue capacity must be positive")
+    private int queueCapacity = 4096;
+
+    /**
+     * Timeout de cada petición HTTP a Vault
+     */
+    @NotNull(message = "Request timeout cannot be null")
+    private Duration requestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Cada cuánto se consulta la última versión de la clave para firmar (rotaciones)
+     */
+    @NotNull(message = "Key version refresh cannot be null")
+    private Duration keyVersionRefresh = Duration.ofMinutes(1);
+
+    // Getters y Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getMount() {
+        return mount;
+    }
+
+    public void setMount(String mount) {
+        this.mount = mount;
+    }
+
+    public String getKeyName() {
+        return keyName;
+    }
+
+    public void setKeyName(String keyName) {
+        this.keyName = keyName;
+    }
+
+    public Duration getBatchWindow() {
+        return batchWindow;
+    }
+
+    public void setBatchWindow(Duration batchWindow) {
+        this.batchWindow = batchWindow;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Duration getKeyVersionRefresh() {
+        return keyVersionRefresh;
+    }
+
+    public void setKeyVersionRefresh(Duration keyVersionRefresh) {
+        this.keyVersionRefresh = keyVersionRefresh;
+    }
+
+    /**
+     * URL completa del endpoint HMAC de Transit
+     */
+    public String getHmacUrl() {
+        String base = uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+        return base + "/v1/" + mount + "/hmac/" + keyName + "/sha2-256";
+    }
+
+    /**
+     * URL de los metadatos de la clave (latest_version)
+     */
+    public String getKeyUrl() {
+        String base = uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+        return base + "/v1/" + mount + "/keys/" + keyName;
+    }
+
+    @Override
+    public String toString() {
+        return "TransitProperties{" +
+                "enabled=" + enabled +
+                ", uri='" + uri + '\'' +
+                ", mount='" + mount + '\'' +
+                ", keyName='" + keyName + '\'' +
+                ", batchWindow=" + batchWindow +
+                ", maxBatchSize=" + maxBatchSize +
+                ", maxInFlight=" + maxInFlight +
+                ", queueCapacity=" + queueCapacity +
+                ", requestTimeout=" + requestTimeout +
+                ", keyVersionRefresh=" + keyVersionRefresh +
+                ", tokenConfigured=" + (token != null && !token.isEmpty()) +
+                '}';
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.zerotrust.controller;
+
+import com.example.zerotrust.config.JwtProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.LoginRequest;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.security.ClientCertificateAuthenticationFilter;
+import com.example.zerotrust.security.ClientCertificateIdentity;
+import com.example.zerotrust.security.JwtAuthenticationFilter;
+import com.example.zerotrust.security.LoginUsers;
+import com.example.zerotrust.service.IJwtService;
+import com.example.zerotrust.web.AuthErrors;
+import com.example.zerotrust.web.AuthRequestReader;
+import com.example.zerotrust.web.TokenJsonWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoints de autenticación: /auth/login, /auth/refresh, /auth/validate, /auth/revoke
+ *
+ * Escriben directamente sobre la respuesta: lectura y escritura JSON en
+ * streaming, errores con cuerpos precodificados y Cache-Control: no-store.
+ * Cada endpoint registra zerotrust.auth.requests{endpoint,outcome} con
+ * histograma de percentiles para seguir los SLO por operación.
+ */
+@RestController
+@RequestMapping("/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AuthController {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
+    private static final String JSON = "application/json";
+    private static final String DEFAULT_REVOKE_REASON = "user_logout";
+    private static final int OUTCOMES = Outcome.values().length;
+
+    private final IJwtService jwtService;
+    private final AuthenticationManager authenticationManager;
+    private final AuthRequestReader requestReader;
+    private final TokenJsonWriter jsonWriter;
+    private final String tokenHeader;
+    private final String tokenPrefix;
+    private final Timer[] timers;
+
+    public AuthController(IJwtService jwtService,
+                          JwtProperties jwtProperties,
+                          ObjectProvider<UserDetailsService> userDetailsService,
+                          ObjectProvider<SecurityProperties> securityProperties,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.tokenHeader = jwtProperties.getTokenHeader();
+        this.tokenPrefix = jwtProperties.getTokenPrefix();
+        this.requestReader = new AuthRequestReader(objectMapper.getFactory());
+        this.jsonWriter = new TokenJsonWriter(objectMapper.getFactory());
+
+        // Usuarios de la aplicación o, si no hay ninguno, spring.security.user.*
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService.getIfAvailable(
+                () -> new InMemoryUserDetailsManager(
+                        LoginUsers.fromProperties(securityProperties.getIfAvailable(SecurityProperties::new)))));
+        this.authenticationManager = new ProviderManager(provider);
+
+        this.timers = new Timer[Endpoint.values().length * OUTCOMES];
+        for (Endpoint endpoint : Endpoint.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                timers[index(endpoint, outcome)] = Timer.builder("zerotrust.auth.requests")
+                        .tag("endpoint", endpoint.tag)
+                        .tag("outcome", outcome.tag)
+                        .description("Latency of authentication endpoints")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Credenciales -> par de tokens
+     */
+    @PostMapping("/login")
+    public void login(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.FAILURE;
+        noStore(response);
+        try {
+            LoginRequest login = readLogin(request);
+            if (login == null) {
+                AuthErrors.INVALID_REQUEST.write(response);
+                return;
+            }
+
+            Authentication authentication;
+            try {
+                authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(login.getUsername(), login.getPassword()));
+            } catch (AuthenticationException e) {
+                log.debug("Login failed: {}", e.getMessage());
+                AuthErrors.INVALID_CREDENTIALS.write(response);
+                return;
+            }
+
+            JwtClaims claims = LoginUsers.toClaims(authentication, login.getDeviceId(), request.getRemoteAddr());
+            // Con mTLS los tokens quedan ligados al certificado de la conexión (cnf.x5t#S256)
+            ClientCertificateIdentity identity = (ClientCertificateIdentity)
+                    request.getAttribute(ClientCertificateAuthenticationFilter.IDENTITY_ATTRIBUTE);
+            if (identity != null) {
+                claims.setCertificateThumbprint(identity.fingerprint());
+            }
+            writeTokens(jwtService.generateTokenPair(claims), response);
+            outcome = Outcome.SUCCESS;
+        } catch (RuntimeException e) {
+            outcome = Outcome.ERROR;
+            log.error("Login error", e);
+            AuthErrors.SERVER_ERROR.write(response);
+        } finally {
+            record(Endpoint.LOGIN, outcome, start);
+        }
+    }
+
+    /**
+     * Refresh token -> nuevo par (con rotación si está habilitada)
+     */
+    @PostMapping("/refresh")
+    public void refresh(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.FAILURE;
+        noStore(response);
+        try {
+            String refreshToken = readField(request, "refreshToken");
+            if (refreshToken == null) {
+                AuthErrors.INVALID_REQUEST.write(response);
+                return;
+            }
+
+            TokenResponse tokens;
+            try {
+                tokens = jwtService.refreshToken(refreshToken);
+            } catch (JwtException e) {
+                log.debug("Refresh rejected: {}", e.getMessage());
+                AuthErrors.INVALID_GRANT.write(response);
+                return;
+            }
+
+            writeTokens(tokens, response);
+            outcome = Outcome.SUCCESS;
+        } catch (RuntimeException e) {
+            outcome = Outcome.ERROR;
+            log.error("Refresh error", e);
+            AuthErrors.SERVER_ERROR.write(response);
+        } finally {
+            record(Endpoint.REFRESH, outcome, start);
+        }
+    }
+
+    /**
+     * Bearer token -> claims
+     */
+    @PostMapping("/validate")
+    public void validate(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.FAILURE;
+        noStore(response);
+        try {
+            // Reutiliza la validación de JwtAuthenticationFilter si ya se ha hecho
+            JwtClaims claims = (JwtClaims) request.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE);
+            if (claims == null) {
+                String token = bearerToken(request);
+                if (token == null) {
+                    AuthErrors.INVALID_TOKEN.write(response);
+                    return;
+                }
+                try {
+                    claims = jwtService.validateAndParseToken(token);
+                } catch (JwtException e) {
+                    log.debug("Validation rejected: {}", e.getMessage());
+                    AuthErrors.INVALID_TOKEN.write(response);
+                    return;
+                }
+            }
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(JSON);
+            jsonWriter.write(claims, response.getOutputStream());
+            outcome = Outcome.SUCCESS;
+        } catch (RuntimeException e) {
+            outcome = Outcome.ERROR;
+            log.error("Validation error", e);
+            AuthErrors.SERVER_ERROR.write(response);
+        } finally {
+            record(Endpoint.VALIDATE, outcome, start);
+        }
+    }
+
+    /**
+     * Revoca el token del cuerpo ({"token":"..."}); admite access y refresh tokens
+     */
+    @PostMapping("/revoke")
+    public void revoke(HttpServletRequest request, HttpServletResponse response,
+                       @RequestParam(defaultValue = DEFAULT_REVOKE_REASON) String reason) throws IOException {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.FAILURE;
+        noStore(response);
+        try {
+            String token = readField(request, "token");
+            if (token == null) {
+                AuthErrors.INVALID_REQUEST.write(response);
+                return;
+            }
+
+            jwtService.revokeToken(token, reason);
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            outcome = Outcome.SUCCESS;
+        } catch (RuntimeException e) {
+            outcome = Outcome.ERROR;
+            log.error("Revocation error", e);
+            AuthErrors.SERVER_ERROR.write(response);
+        } finally {
+            record(Endpoint.REVOKE, outcome, start);
+        }
+    }
+
+    private LoginRequest readLogin(HttpServletRequest request) throws IOException {
+        try {
+            return requestReader.readLogin(request.getInputStream());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private String readField(HttpServletRequest request, String name) throws IOException {
+        try {
+            return requestReader.readField(request.getInputStream(), name);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void writeTokens(TokenResponse tokens, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(JSON);
+        jsonWriter.write(tokens, response.getOutputStream());
+    }
+
+    private String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(tokenHeader);
+        int prefixLength = tokenPrefix.length();
+        if (header == null || header.length() <= prefixLength
+                || !header.regionMatches(true, 0, tokenPrefix, 0, prefixLength)) {
+            return null;
+        }
+        return header.substring(prefixLength);
+    }
+
+    private static void noStore(HttpServletResponse response) {
+        response.setHeader("Cache-Control", "no-store");
+        response.setHeader("Pragma", "no-cache");
+    }
+
+    private void record(Endpoint endpoint, Outcome outcome, long startNanos) {
+        timers[index(endpoint, outcome)].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static int index(Endpoint endpoint, Outcome outcome) {
+        return endpoint.ordinal() * OUTCOMES + outcome.ordinal();
+    }
+
+    private enum Endpoint {
+        LOGIN("login"), REFRESH("refresh"), VALIDATE("validate"), REVOKE("revoke");
+
+        private final String tag;
+
+        Endpoint(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS("success"), FAILURE("failure"), ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+}
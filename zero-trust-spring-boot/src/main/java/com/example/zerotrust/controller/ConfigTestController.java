@@ -1,9 +1,15 @@
 package com.example.zerotrust.controller;
 
 import com.example.zerotrust.config.JwtProperties;
+import com.example.zerotrust.web.PrecomputedJsonBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -14,24 +20,68 @@ import java.util.Map;
  * - Immutable properties (Record)
  * - Zero Trust security aware
  * - Información segura (no expone secrets)
+ * - Cuerpos precalculados: prefijo del secret y validación se calculan una vez
+ *   (JwtProperties se enlaza al arranque); lastValidated es el instante de esa
+ *   validación y por petición solo cambia el timestamp de /details
  */
 @RestController
 public class ConfigTestController {
 
     private final JwtProperties jwtProperties;
+    private final ObjectMapper objectMapper;
+
+    // Se calculan en la primera petición: sin app.jwt.secret fallaría el arranque
+    private volatile Bodies bodies;
 
     /**
      * ✅ Constructor injection (mejor práctica)
      */
-    public ConfigTestController(JwtProperties jwtProperties) {
+    public ConfigTestController(JwtProperties jwtProperties, ObjectMapper objectMapper) {
         this.jwtProperties = jwtProperties;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * ✅ Endpoint de configuración (SEGURO - no expone secrets)
      */
     @GetMapping("/test/config")
-    public Map<String, Object> getConfig() {
+    public ResponseEntity<byte[]> getConfig(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bodies().config().respond(ifNoneMatch);
+    }
+
+    /**
+     * ✅ Endpoint de salud de configuración
+     */
+    @GetMapping("/test/config/health")
+    public ResponseEntity<byte[]> getConfigHealth(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bodies().health().respond(ifNoneMatch);
+    }
+
+    /**
+     * ✅ Información detallada de configuración (sin secrets)
+     */
+    @GetMapping("/test/config/details")
+    public ResponseEntity<byte[]> getConfigDetails(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PrecomputedJsonBody body = bodies().details();
+        return body.respond(ifNoneMatch, body.encode(Instant.now().toString()));
+    }
+
+    private Bodies bodies() {
+        Bodies current = bodies;
+        if (current == null) {
+            current = bodies = precompute();
+        }
+        return current;
+    }
+
+    private Bodies precompute() {
+        return new Bodies(
+                PrecomputedJsonBody.of(objectMapper, configFields()),
+                PrecomputedJsonBody.of(objectMapper, configHealthFields()),
+                PrecomputedJsonBody.withSlot(objectMapper, configDetailsFields(), "metadata.timestamp"));
+    }
+
+    private Map<String, Object> configFields() {
         return Map.of(
                 // ✅ SEGURO: Solo prefijo del secret (nunca el valor completo)
                 "jwtSecretPrefix", jwtProperties.secret().substring(0, Math.min(20, jwtProperties.secret().length())) + "...",
@@ -46,33 +96,26 @@ public class ConfigTestController {
         );
     }
 
-    /**
-     * ✅ Endpoint de salud de configuración
-     */
-    @GetMapping("/test/config/health")
-    public Map<String, Object> getConfigHealth() {
+    private Map<String, Object> configHealthFields() {
+        Instant validatedAt = Instant.now();
         try {
             jwtProperties.validate();
             return Map.of(
                     "status", "✅ HEALTHY",
                     "secretSource", jwtProperties.isSecretFromVault() ? "Vault" : "Fallback",
                     "secretLength", jwtProperties.secret().length(),
-                    "lastValidated", java.time.Instant.now().toString()
+                    "lastValidated", validatedAt.toString()
             );
         } catch (Exception e) {
             return Map.of(
                     "status", "❌ UNHEALTHY",
                     "error", e.getMessage(),
-                    "lastValidated", java.time.Instant.now().toString()
+                    "lastValidated", validatedAt.toString()
             );
         }
     }
 
-    /**
-     * ✅ Información detallada de configuración (sin secrets)
-     */
-    @GetMapping("/test/config/details")
-    public Map<String, Object> getConfigDetails() {
+    private Map<String, Object> configDetailsFields() {
         return Map.of(
                 "jwtProperties", Map.of(
                         "secretInfo", jwtProperties.getSecretInfo(),
@@ -91,7 +134,7 @@ public class ConfigTestController {
                 ),
                 "metadata", Map.of(
                         "configurationClass", jwtProperties.getClass().getSimpleName(),
-                        "timestamp", java.time.Instant.now().toString(),
+                        "timestamp", Instant.now().toString(),
                         "profile", System.getProperty("spring.profiles.active", "unknown")
                 )
         );
@@ -108,4 +151,7 @@ public class ConfigTestController {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private record Bodies(PrecomputedJsonBody config, PrecomputedJsonBody health, PrecomputedJsonBody details) {
+    }
+}
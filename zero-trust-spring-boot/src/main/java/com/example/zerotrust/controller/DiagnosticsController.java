@@ -0,0 +1,50 @@
+package com.example.zerotrust.controller;
+
+import com.example.zerotrust.diagnostics.VirtualThreadPinningMonitor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Endpoints de diagnóstico de virtual threads (solo perfil vt-diagnostics)
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+@Profile("vt-diagnostics")
+public class DiagnosticsController {
+
+    private static final long MAX_BLOCKING_MILLIS = 5_000;
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    public DiagnosticsController(VirtualThreadPinningMonitor pinningMonitor) {
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    /**
+     * Simula una llamada bloqueante (Vault/Redis/Postgres) para las pruebas de carga
+     */
+    @GetMapping("/blocking")
+    public ResponseEntity<Map<String, Object>> blocking(@RequestParam(defaultValue = "50") long millis)
+            throws InterruptedException {
+        Thread.sleep(Math.min(Math.max(millis, 0), MAX_BLOCKING_MILLIS));
+        Thread current = Thread.currentThread();
+        return ResponseEntity.ok(Map.of(
+                "virtual", current.isVirtual(),
+                "thread", current.toString()
+        ));
+    }
+
+    /**
+     * Ubicaciones de nuestro código donde se ha detectado pinning
+     */
+    @GetMapping("/pinning")
+    public ResponseEntity<Map<String, Long>> pinning() {
+        return ResponseEntity.ok(pinningMonitor.getPinnedLocations());
+    }
+}
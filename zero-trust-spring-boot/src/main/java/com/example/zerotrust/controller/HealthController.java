@@ -1,14 +1,29 @@
 package com.example.zerotrust.controller;
 
+import com.example.zerotrust.web.PrecomputedJsonBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.util.Map;
 
+/**
+ * /api/health y /api/info con cuerpos precalculados
+ *
+ * health() e info() definen el contenido; sus campos estáticos se serializan
+ * una vez con el ObjectMapper de Spring y en cada petición solo se copia el
+ * timestamp (ISO-8601). Soporta
+ * If-None-Match (304). Para probes de liveness sin handler mapping ver
+ * LivenessFilter (/api/health/live).
+ */
 @RestController
 @RequestMapping("/api")
 public class HealthController {
@@ -16,17 +31,56 @@ public class HealthController {
     @Value("${spring.profiles.active:default}")
     private String activeProfiles;
 
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    // Se construyen en la primera petición (activeProfiles ya inyectado)
+    private volatile PrecomputedJsonBody healthBody;
+    private volatile PrecomputedJsonBody infoBody;
+
+    @Autowired
+    public HealthController(ObjectMapper objectMapper) {
+        this(objectMapper, Clock.systemUTC());
+    }
+
+    public HealthController(ObjectMapper objectMapper, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
     @GetMapping("/health")
+    public ResponseEntity<byte[]> health(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PrecomputedJsonBody body = healthBody;
+        if (body == null) {
+            body = healthBody = PrecomputedJsonBody.withSlot(objectMapper, health().getBody(), "timestamp");
+        }
+        return body.respond(ifNoneMatch, body.encode(Instant.now(clock)));
+    }
+
+    @GetMapping("/info")
+    public ResponseEntity<byte[]> info(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PrecomputedJsonBody body = infoBody;
+        if (body == null) {
+            body = infoBody = PrecomputedJsonBody.of(objectMapper, info().getBody());
+        }
+        return body.respond(ifNoneMatch);
+    }
+
+    /**
+     * Contenido de /api/health
+     */
     public ResponseEntity<Map<String, Object>> health() {
         return ResponseEntity.ok(Map.of(
             "status", "UP",
-            "timestamp", Instant.now(),
+            "timestamp", Instant.now(clock),
             "application", "Zero Trust App",
             "version", "1.0.0"
         ));
     }
 
-    @GetMapping("/info")
+    /**
+     * Contenido de /api/info
+     */
     public ResponseEntity<Map<String, Object>> info() {
         return ResponseEntity.ok(Map.of(
             "name", "Zero Trust Spring Boot Application",
@@ -0,0 +1,159 @@
+package com.example.zerotrust.controller;
+
+import com.example.zerotrust.config.IntrospectionProperties;
+import com.example.zerotrust.config.JwtProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.security.AuthorityChecks;
+import com.example.zerotrust.service.IJwtService;
+import com.example.zerotrust.web.AuthErrors;
+import com.example.zerotrust.web.AuthRequestReader;
+import com.example.zerotrust.web.IntrospectionJsonWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Introspección de tokens RFC 7662 para resource servers que no comparten JwtService
+ *
+ * POST /oauth2/introspect (form: token=...) y POST /oauth2/introspect/batch
+ * ({"tokens":[...]}). Valida con IJwtService, incluida la revocación, y
+ * marca la respuesta cacheable durante min(exp, intervalo de revocación).
+ * El llamante debe autenticarse con un token que tenga la authority
+ * app.jwt.introspection.required-authority.
+ */
+@RestController
+@RequestMapping("/oauth2/introspect")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class IntrospectionController {
+
+    private static final Logger log = LoggerFactory.getLogger(IntrospectionController.class);
+
+    private final IJwtService jwtService;
+    private final AuthorityChecks authorityChecks;
+    private final IntrospectionProperties properties;
+    private final long revocationCheckSeconds;
+    private final AuthRequestReader requestReader;
+    private final IntrospectionJsonWriter jsonWriter;
+
+    public IntrospectionController(IJwtService jwtService,
+                                   AuthorityChecks authorityChecks,
+                                   IntrospectionProperties properties,
+                                   JwtProperties jwtProperties,
+                                   ObjectMapper objectMapper) {
+        this.jwtService = jwtService;
+        this.authorityChecks = authorityChecks;
+        this.properties = properties;
+        this.revocationCheckSeconds = properties.getRevocationCheckInterval().toSeconds();
+        this.requestReader = new AuthRequestReader(objectMapper.getFactory());
+        this.jsonWriter = new IntrospectionJsonWriter(objectMapper.getFactory(), jwtProperties.getIssuer());
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public void introspect(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!authorized(response)) {
+            return;
+        }
+        String token = request.getParameter("token");
+        if (token == null || token.isEmpty()) {
+            AuthErrors.INVALID_REQUEST.write(response);
+            return;
+        }
+
+        long now = Instant.now().getEpochSecond();
+        JwtClaims claims = activeClaims(token, now);
+        cacheFor(response, claims == null ? revocationCheckSeconds : maxAge(claims, now));
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonWriter.write(claims, response.getOutputStream());
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void introspectBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!authorized(response)) {
+            return;
+        }
+        List<String> tokens;
+        try {
+            tokens = requestReader.readStringArray(request.getInputStream(), "tokens", properties.getMaxBatchSize());
+        } catch (JsonProcessingException e) {
+            tokens = null;
+        }
+        if (tokens == null) {
+            AuthErrors.INVALID_REQUEST.write(response);
+            return;
+        }
+
+        long now = Instant.now().getEpochSecond();
+        long maxAge = revocationCheckSeconds;
+        List<JwtClaims> results = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            JwtClaims claims = activeClaims(tokens.get(i), now);
+            if (claims != null) {
+                maxAge = Math.min(maxAge, maxAge(claims, now));
+            }
+            results.add(claims);
+        }
+
+        // La respuesta completa es cacheable hasta que caduque la primera entrada
+        cacheFor(response, maxAge);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonWriter.writeBatch(results, response.getOutputStream());
+    }
+
+    /**
+     * Claims si el token está activo; null si es inválido, revocado o ha expirado
+     */
+    private JwtClaims activeClaims(String token, long now) {
+        try {
+            JwtClaims claims = jwtService.validateAndParseToken(token);
+            if (claims.getExpiresAt() != null && claims.getExpiresAt().getEpochSecond() <= now) {
+                // Dentro del clock skew del parser, pero ya no cacheable
+                return null;
+            }
+            return claims;
+        } catch (JwtException e) {
+            log.debug("Introspected token is inactive: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private long maxAge(JwtClaims claims, long now) {
+        if (claims.getExpiresAt() == null) {
+            return revocationCheckSeconds;
+        }
+        return Math.max(0, Math.min(revocationCheckSeconds, claims.getExpiresAt().getEpochSecond() - now));
+    }
+
+    private boolean authorized(HttpServletResponse response) throws IOException {
+        if (authorityChecks.hasAuthority(properties.getRequiredAuthority())) {
+            return true;
+        }
+        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        response.setHeader("Cache-Control", "no-store");
+        return false;
+    }
+
+    private static void cacheFor(HttpServletResponse response, long maxAgeSeconds) {
+        if (maxAgeSeconds <= 0) {
+            response.setHeader("Cache-Control", "no-store");
+            return;
+        }
+        response.setHeader("Cache-Control", "private, max-age=" + maxAgeSeconds);
+        response.setHeader("Vary", "Authorization");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.zerotrust.controller;
+
+import com.example.zerotrust.event.SecretChangedEvent;
+import com.example.zerotrust.service.SecretService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Webhook para forzar el refresco de secretos tras una rotación en Vault
+ * Solo ROLE_ADMIN (@authz lee el SecurityContext del servlet)
+ */
+@RestController
+@RequestMapping("/internal/secrets")
+@PreAuthorize("@authz.hasRole('ADMIN')")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SecretRefreshController {
+
+    private final SecretService secretService;
+
+    public SecretRefreshController(SecretService secretService) {
+        this.secretService = secretService;
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        List<SecretChangedEvent> changes = secretService.refreshSecrets();
+        return ResponseEntity.ok(Map.of(
+                "changed", changes.stream()
+                        .map(c -> Map.of("secret", c.getSecretName(), "version", c.getVersion()))
+                        .toList(),
+                "count", changes.size()
+        ));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.zerotrust.controller;
+
+import com.example.zerotrust.risk.SessionRiskOverlay;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ajustes de riesgo por sesión para operadores (step-up sin reemitir tokens)
+ *
+ * POST /internal/sessions/{sessionId}/risk?score=0.95&ttl=PT15M eleva el riesgo,
+ * POST .../deny?flags=DENY_ACCESS,DENY_REFRESH&ttl=PT15M deniega temporalmente,
+ * GET consulta el ajuste vigente y DELETE lo elimina. Solo ROLE_ADMIN
+ * (@authz lee el SecurityContext del servlet).
+ */
+@RestController
+@RequestMapping("/internal/sessions/{sessionId}")
+@PreAuthorize("@authz.hasRole('ADMIN')")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SessionRiskController {
+
+    private final SessionRiskOverlay overlay;
+
+    public SessionRiskController(SessionRiskOverlay overlay) {
+        this.overlay = overlay;
+    }
+
+    @PostMapping("/risk")
+    public ResponseEntity<Map<String, Object>> raiseRisk(@PathVariable String sessionId,
+                                                         @RequestParam double score,
+                                                         @RequestParam(defaultValue = "PT15M") Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero() || score < 0 || score > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        overlay.raiseRisk(sessionId, score, ttl);
+        return current(sessionId);
+    }
+
+    @PostMapping("/deny")
+    public ResponseEntity<Map<String, Object>> deny(@PathVariable String sessionId,
+                                                    @RequestParam Set<SessionRiskOverlay.Flag> flags,
+                                                    @RequestParam(defaultValue = "PT15M") Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero() || flags.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        overlay.deny(sessionId, flags, ttl);
+        return current(sessionId);
+    }
+
+    @GetMapping("/risk")
+    public ResponseEntity<Map<String, Object>> current(@PathVariable String sessionId) {
+        long value = overlay.lookup(sessionId);
+        if (value == SessionRiskOverlay.NONE) {
+            return ResponseEntity.notFound().build();
+        }
+        List<String> flags = new ArrayList<>();
+        for (SessionRiskOverlay.Flag flag : SessionRiskOverlay.Flag.values()) {
+            if (SessionRiskOverlay.hasFlag(value, flag)) {
+                flags.add(flag.name());
+            }
+        }
+        return ResponseEntity.ok(Map.of(
+                "sessionId", sessionId,
+                "riskFloor", SessionRiskOverlay.riskFloor(value),
+                "flags", flags,
+                "expiresAt", Instant.ofEpochSecond(SessionRiskOverlay.expiresAt(value)).toString()
+        ));
+    }
+
+    @DeleteMapping("/risk")
+    public ResponseEntity<Void> clear(@PathVariable String sessionId) {
+        overlay.clear(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.zerotrust.controller.reactive;
+
+import com.example.zerotrust.config.JwtProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.LoginRequest;
+import com.example.zerotrust.model.dto.security.RefreshTokenRequest;
+import com.example.zerotrust.model.dto.security.RevokeTokenRequest;
+import com.example.zerotrust.security.LoginUsers;
+import com.example.zerotrust.security.ReactiveBearerTokenConverter;
+import com.example.zerotrust.service.reactive.IReactiveJwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handlers funcionales de los endpoints de tokens (variante WebFlux)
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveAuthHandler.class);
+
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+    private static final String DEFAULT_REVOKE_REASON = "user_logout";
+
+    private final IReactiveJwtService jwtService;
+    private final ReactiveAuthenticationManager loginAuthenticationManager;
+    private final ReactiveBearerTokenConverter tokenConverter;
+
+    public ReactiveAuthHandler(IReactiveJwtService jwtService,
+                               ReactiveUserDetailsService userDetailsService,
+                               JwtProperties jwtProperties) {
+        this.jwtService = jwtService;
+        // La comprobación de contraseña se ejecuta en boundedElastic, fuera del event loop
+        this.loginAuthenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        this.tokenConverter = new ReactiveBearerTokenConverter(jwtProperties);
+    }
+
+    /**
+     * POST /auth/login: credenciales -> par de tokens
+     */
+    public Mono<ServerResponse> login(ServerRequest request) {
+        return request.bodyToMono(LoginRequest.class)
+                .filter(login -> login.getUsername() != null && login.getPassword() != null)
+                .flatMap(login -> loginAuthenticationManager
+                        .authenticate(new UsernamePasswordAuthenticationToken(login.getUsername(), login.getPassword()))
+                        .map(authentication -> LoginUsers.toClaims(authentication, login.getDeviceId(),
+                                request.remoteAddress().map(address -> address.getAddress().getHostAddress()).orElse(null))))
+                .flatMap(jwtService::generateTokenPair)
+                .flatMap(tokens -> noStore(ServerResponse.ok()).bodyValue(tokens))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()))
+                .onErrorResume(AuthenticationException.class, e -> {
+                    log.debug("Login failed: {}", e.getMessage());
+                    return ServerResponse.status(HttpStatus.UNAUTHORIZED).build();
+                });
+    }
+
+    /**
+     * POST /auth/refresh: refresh token -> nuevo par (con rotación si está habilitada)
+     */
+    public Mono<ServerResponse> refresh(ServerRequest request) {
+        return request.bodyToMono(RefreshTokenRequest.class)
+                .mapNotNull(RefreshTokenRequest::getRefreshToken)
+                .flatMap(jwtService::refreshToken)
+                .flatMap(tokens -> noStore(ServerResponse.ok()).bodyValue(tokens))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()))
+                .onErrorResume(JwtException.class, this::invalidToken);
+    }
+
+    /**
+     * POST /auth/validate: Bearer token -> claims
+     */
+    public Mono<ServerResponse> validate(ServerRequest request) {
+        String token = tokenConverter.resolveToken(request.exchange().getRequest());
+        if (token == null) {
+            return invalidToken(new JwtException("Missing bearer token"));
+        }
+        return jwtService.validateAndParseToken(token)
+                .flatMap(claims -> noStore(ServerResponse.ok()).bodyValue(claims))
+                .onErrorResume(JwtException.class, this::invalidToken);
+    }
+
+    /**
+     * POST /auth/revoke: revoca el token del cuerpo ({"token":"..."}), motivo opcional en ?reason=
+     */
+    public Mono<ServerResponse> revoke(ServerRequest request) {
+        String reason = request.queryParam("reason").orElse(DEFAULT_REVOKE_REASON);
+        return request.bodyToMono(RevokeTokenRequest.class)
+                .mapNotNull(RevokeTokenRequest::getToken)
+                .flatMap(token -> jwtService.revokeToken(token, reason)
+                        .then(ServerResponse.noContent().build()))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()));
+    }
+
+    private Mono<ServerResponse> invalidToken(JwtException e) {
+        log.debug("Rejected token: {}", e.getMessage());
+        return ServerResponse.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE)
+                .build();
+    }
+
+    private static ServerResponse.BodyBuilder noStore(ServerResponse.BodyBuilder builder) {
+        return builder.header(HttpHeaders.CACHE_CONTROL, "no-store").header(HttpHeaders.PRAGMA, "no-cache");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.zerotrust.controller.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Rutas funcionales de los endpoints de tokens (variante WebFlux)
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> authRoutes(ReactiveAuthHandler handler) {
+        return route()
+                .path("/auth", builder -> builder
+                        .POST("/login", handler::login)
+                        .POST("/refresh", handler::refresh)
+                        .POST("/validate", handler::validate)
+                        .POST("/revoke", handler::revoke))
+                .build();
+    }
+}
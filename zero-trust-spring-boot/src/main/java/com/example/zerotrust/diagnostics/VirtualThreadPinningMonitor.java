@@ -0,0 +1,108 @@
+package com.example.zerotrust.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detector de pinning de virtual threads en nuestro propio código
+ *
+ * Escucha el evento JFR jdk.VirtualThreadPinned (un virtual thread que se
+ * bloquea dentro de un bloque synchronized o de código nativo y retiene su
+ * carrier thread). Atribuye cada evento al primer frame de com.example.zerotrust,
+ * lo registra una vez por ubicación y lo cuenta en zerotrust.vthreads.pinned.
+ */
+@Component
+@Profile("vt-diagnostics")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String OWN_PACKAGE = "com.example.zerotrust.";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinnedByLocation = new ConcurrentHashMap<>();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.diagnostics.pinning-threshold:PT0.02S}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold: {})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    /**
+     * Ubicaciones con pinning detectado y número de eventos
+     */
+    public Map<String, Long> getPinnedLocations() {
+        Map<String, Long> snapshot = new ConcurrentHashMap<>();
+        pinnedByLocation.forEach((location, count) -> snapshot.put(location, count.sum()));
+        return snapshot;
+    }
+
+    void onPinned(RecordedEvent event) {
+        String location = ownFrame(event.getStackTrace());
+        if (location == null) {
+            // Pinning en librerías: solo visible con -Djdk.tracePinnedThreads
+            return;
+        }
+
+        LongAdder counter = pinnedByLocation.computeIfAbsent(location, l -> {
+            log.warn("Virtual thread pinned for {} ms at {} (synchronized around blocking call?)",
+                    event.getDuration().toMillis(), l);
+            return new LongAdder();
+        });
+        counter.increment();
+        meterRegistry.counter("zerotrust.vthreads.pinned", "location", location).increment();
+    }
+
+    private static String ownFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(OWN_PACKAGE)) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return null;
+    }
+}
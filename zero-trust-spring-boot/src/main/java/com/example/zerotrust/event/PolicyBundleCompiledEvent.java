@@ -0,0 +1,40 @@
+package com.example.zerotrust.event;
+
+import com.example.zerotrust.policy.CompiledPolicy;
+
+import java.time.Duration;
+
+/**
+ * Evento publicado cuando un bundle de políticas nuevo se ha compilado y validado
+ *
+ * Lo publica PolicyBundleLoader desde su hilo de compilación;
+ * PolicyDecisionPoint lo instala con un único intercambio atómico.
+ */
+public class PolicyBundleCompiledEvent {
+
+    private final CompiledPolicy policy;
+    private final String trigger;
+    private final Duration compileTime;
+
+    public PolicyBundleCompiledEvent(CompiledPolicy policy, String trigger, Duration compileTime) {
+        this.policy = policy;
+        this.trigger = trigger;
+        this.compileTime = compileTime;
+    }
+
+    public CompiledPolicy getPolicy() { return policy; }
+
+    public String getTrigger() { return trigger; }
+
+    public Duration getCompileTime() { return compileTime; }
+
+    @Override
+    public String toString() {
+        return "PolicyBundleCompiledEvent{" +
+                "version='" + policy.getVersion() + '\'' +
+                ", rules=" + policy.getRuleCount() +
+                ", trigger='" + trigger + '\'' +
+                ", compileTime=" + compileTime +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.zerotrust.event;
+
+import java.time.Instant;
+
+/**
+ * Evento publicado cuando un secreto cambia de valor
+ *
+ * No transporta el valor del secreto: los consumidores lo vuelven a leer
+ * desde SecretService y reconstruyen su estado derivado una sola vez.
+ */
+public class SecretChangedEvent {
+
+    private final String secretName;
+    private final long previousVersion;
+    private final long version;
+    private final Instant changedAt;
+
+    public SecretChangedEvent(String secretName, long previousVersion, long version, Instant changedAt) {
+        this.secretName = secretName;
+        this.previousVersion = previousVersion;
+        this.version = version;
+        this.changedAt = changedAt;
+    }
+
+    public String getSecretName() { return secretName; }
+
+    public long getPreviousVersion() { return previousVersion; }
+
+    public long getVersion() { return version; }
+
+    public Instant getChangedAt() { return changedAt; }
+
+    /**
+     * Indica si el evento afecta al secreto indicado
+     */
+    public boolean isFor(String name) {
+        return secretName.equals(name);
+    }
+
+    @Override
+    public String toString() {
+        return "SecretChangedEvent{" +
+                "secretName='" + secretName + '\'' +
+                ", previousVersion=" + previousVersion +
+                ", version=" + version +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.zerotrust.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HealthIndicator que sirve el último resultado de una DependencyCheck
+ *
+ * health() nunca ejecuta la comprobación: ReadinessCheckScheduler llama a
+ * refresh() cada getInterval(). Cada ejecución tiene timeout y como mucho hay
+ * una en curso por dependencia, así un origen colgado ocupa un solo hilo.
+ * El resultado y el estado del circuito se publican como un único Snapshot.
+ * Tras failureThreshold fallos seguidos el circuito se abre durante
+ * openDuration (no se comprueba y se informa DOWN); después una única
+ * comprobación de prueba decide si se cierra o se vuelve a abrir.
+ */
+public class CachedHealthIndicator implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(CachedHealthIndicator.class);
+
+    enum Circuit { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final DependencyCheck check;
+    private final Duration interval;
+    private final Duration timeout;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final ExecutorService executor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Health, circuito y fallos se publican juntos: la finalización de una
+    // comprobación y el fallo por "anterior en curso" del planificador pueden
+    // coincidir, y cada uno parte del último estado completo (CAS)
+    private final AtomicReference<Snapshot> state;
+
+    public CachedHealthIndicator(String name, DependencyCheck check, Duration interval, Duration timeout,
+                                 int failureThreshold, Duration openDuration, ExecutorService executor) {
+        this.name = name;
+        this.check = check;
+        this.interval = interval;
+        this.timeout = timeout;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.executor = executor;
+        // Hasta la primera comprobación la dependencia no se considera lista
+        this.state = new AtomicReference<>(new Snapshot(Health.outOfService()
+                .withDetail("reason", "pending first check")
+                .build(), Circuit.CLOSED, 0, 0L));
+    }
+
+    @Override
+    public Health health() {
+        return state.get().health();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    Circuit getCircuit() {
+        return state.get().circuit();
+    }
+
+    /**
+     * Lanza una comprobación si procede; el resultado se publica al completarse
+     */
+    public CompletableFuture<Health> refresh() {
+        Snapshot current = state.get();
+        if (current.circuit() == Circuit.OPEN) {
+            if (System.currentTimeMillis() < current.openUntilMillis()) {
+                return CompletableFuture.completedFuture(current.health());
+            }
+            // Solo quien hace la transición lanza la comprobación de prueba
+            if (!state.compareAndSet(current, current.withCircuit(Circuit.HALF_OPEN))) {
+                return CompletableFuture.completedFuture(health());
+            }
+        }
+        if (!running.compareAndSet(false, true)) {
+            // La anterior sigue colgada pese al timeout: cuenta como fallo
+            return CompletableFuture.completedFuture(
+                    record(null, new TimeoutException("Previous check still running"), 0L));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(check.check());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            return CompletableFuture.completedFuture(record(null, e, 0L));
+        }
+
+        return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((details, error) -> {
+                    if (error instanceof TimeoutException) {
+                        task.cancel(true);
+                    }
+                    return record(details, error, System.nanoTime() - start);
+                });
+    }
+
+    private Health record(Map<String, Object> details, Throwable error, long elapsedNanos) {
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        Snapshot previous;
+        Snapshot next;
+        do {
+            previous = state.get();
+            next = error == null ? succeeded(details, latencyMillis) : failed(previous, error);
+        } while (!state.compareAndSet(previous, next));
+
+        if (error == null) {
+            if (previous.circuit() != Circuit.CLOSED) {
+                log.info("Dependency {} recovered, closing circuit", name);
+            }
+        } else if (next.circuit() == Circuit.OPEN && previous.circuit() != Circuit.OPEN) {
+            log.warn("Dependency {} failed {} checks, opening circuit for {}",
+                    name, next.consecutiveFailures(), openDuration);
+        } else {
+            log.debug("Dependency {} check failed: {}", name, describe(error));
+        }
+        return next.health();
+    }
+
+    private Snapshot succeeded(Map<String, Object> details, long latencyMillis) {
+        Health health = Health.up()
+                .withDetails(details != null ? details : Map.of())
+                .withDetail("checkedAt", Instant.now().toString())
+                .withDetail("latencyMs", latencyMillis)
+                .withDetail("circuit", "closed")
+                .build();
+        return new Snapshot(health, Circuit.CLOSED, 0, 0L);
+    }
+
+    private Snapshot failed(Snapshot previous, Throwable error) {
+        int failures = previous.consecutiveFailures() + 1;
+        boolean open = previous.circuit() != Circuit.CLOSED || failures >= failureThreshold;
+        Circuit circuit = open ? Circuit.OPEN : Circuit.CLOSED;
+        Health health = Health.down()
+                .withDetail("error", describe(error))
+                .withDetail("checkedAt", Instant.now().toString())
+                .withDetail("consecutiveFailures", failures)
+                .withDetail("circuit", circuit.name().toLowerCase())
+                .build();
+        return new Snapshot(health, circuit, failures,
+                open ? System.currentTimeMillis() + openDuration.toMillis() : 0L);
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error.getCause() != null && error instanceof CompletionException
+                ? error.getCause() : error;
+        return cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+    }
+
+    /**
+     * Estado inmutable del indicador
+     */
+    private record Snapshot(Health health, Circuit circuit, int consecutiveFailures, long openUntilMillis) {
+
+        Snapshot withCircuit(Circuit newCircuit) {
+            return new Snapshot(health, newCircuit, consecutiveFailures, openUntilMillis);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.zerotrust.health;
+
+import java.util.Map;
+
+/**
+ * Comprobación de una dependencia externa
+ *
+ * Devuelve detalles para el health si la dependencia responde; cualquier
+ * excepción se interpreta como DOWN. Se ejecuta siempre fuera de los hilos
+ * de petición (ver CachedHealthIndicator).
+ */
+@FunctionalInterface
+public interface DependencyCheck {
+
+    Map<String, Object> check() throws Exception;
+}
@@ -0,0 +1,80 @@
+package com.example.zerotrust.health;
+
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.reactive.ReactiveRevocationStore;
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.support.VaultHealth;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Comprobaciones de las dependencias de readiness
+ */
+public final class DependencyChecks {
+
+    // Token ficticio: la consulta ejercita el almacén sin depender de datos reales
+    private static final String PROBE_TOKEN = "readiness-probe";
+
+    private DependencyChecks() {
+    }
+
+    /**
+     * Secretos: la clave de firma se puede leer y, si hay cliente de Vault,
+     * sys/health responde con el servidor inicializado y sin sellar
+     */
+    public static DependencyCheck secrets(SecretService secretService, VaultOperations vaultOperations) {
+        return () -> {
+            SecretService.VersionedSecret signingKey = secretService.getSecret(SecretService.JWT_SIGNING_KEY);
+            if (signingKey.value() == null || signingKey.value().isBlank()) {
+                throw new IllegalStateException("JWT signing key not available");
+            }
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("signingKeyVersion", signingKey.version());
+            details.put("lastRefresh", Objects.toString(secretService.getLastSuccessfulRefresh(), "never"));
+            if (vaultOperations == null) {
+                details.put("vault", "disabled");
+                return details;
+            }
+            VaultHealth health = vaultOperations.opsForSys().health();
+            if (!health.isInitialized()) {
+                throw new IllegalStateException("Vault not initialized");
+            }
+            if (health.isSealed()) {
+                throw new IllegalStateException("Vault sealed");
+            }
+            details.put("vaultVersion", Objects.toString(health.getVersion(), "unknown"));
+            details.put("vaultStandby", health.isStandby());
+            return details;
+        };
+    }
+
+    /**
+     * Almacén de revocación reactivo (Redis); se espera en el hilo de comprobación
+     */
+    public static DependencyCheck revocationStore(ReactiveRevocationStore store, Duration timeout) {
+        return () -> {
+            store.isRevoked(PROBE_TOKEN).block(timeout);
+            return Map.of("store", store.getClass().getSimpleName());
+        };
+    }
+
+    /**
+     * Datasource: obtiene una conexión y la valida con Connection.isValid
+     */
+    public static DependencyCheck database(DataSource dataSource, Duration timeout) {
+        int timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+        return () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(timeoutSeconds)) {
+                    throw new IllegalStateException("Connection validation failed");
+                }
+                return Map.of("database", connection.getMetaData().getDatabaseProductName());
+            }
+        };
+    }
+}
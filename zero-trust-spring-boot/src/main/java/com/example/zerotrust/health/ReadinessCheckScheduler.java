@@ -0,0 +1,90 @@
+package com.example.zerotrust.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta en segundo plano las comprobaciones de readiness, cada una a su intervalo
+ *
+ * Un hilo planificador solo dispara refresh(); las comprobaciones corren en
+ * un pool propio (un hilo como mucho por dependencia), nunca en los hilos de
+ * petición ni en el scheduler compartido de @Scheduled.
+ */
+public class ReadinessCheckScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadinessCheckScheduler.class);
+
+    private final List<CachedHealthIndicator> indicators = new ArrayList<>();
+    private final ExecutorService checkExecutor = Executors.newCachedThreadPool(daemonThreads("readiness-check-"));
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Crea un indicador cacheado y lo programa al arrancar el contexto
+     */
+    public synchronized CachedHealthIndicator register(String name, DependencyCheck check,
+                                                       Duration interval, Duration timeout,
+                                                       int failureThreshold, Duration openDuration) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Readiness checks already scheduled");
+        }
+        CachedHealthIndicator indicator = new CachedHealthIndicator(name, check, interval, timeout,
+                failureThreshold, openDuration, checkExecutor);
+        indicators.add(indicator);
+        return indicator;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("readiness-scheduler-"));
+        for (CachedHealthIndicator indicator : indicators) {
+            long intervalMillis = indicator.getInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    indicator.refresh();
+                } catch (RuntimeException e) {
+                    // Nunca cancelar la tarea periódica
+                    log.warn("Readiness check {} could not be scheduled: {}", indicator.getName(), e.getMessage());
+                }
+            }, 0L, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        log.info("Readiness checks scheduled: {}", indicators.stream()
+                .map(i -> i.getName() + "@" + i.getInterval()).toList());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        checkExecutor.shutdownNow();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
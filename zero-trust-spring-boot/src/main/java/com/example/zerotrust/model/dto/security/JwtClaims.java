@@ -17,6 +17,8 @@ public class JwtClaims {
     private Instant issuedAt;
     private Instant expiresAt;
     private String tokenType;         // "access" or "refresh"
+    private String certificateThumbprint; // cnf.x5t#S256 (RFC 8705), null si no está ligado
+    private long[] capabilities;      // Bitmap del claim "cap" (PermissionRegistry), null si el token no lo lleva
 
     // Constructor
     public JwtClaims() {}
@@ -64,4 +66,10 @@ public class JwtClaims {
 
     public String getTokenType() { return tokenType; }
     public void setTokenType(String tokenType) { this.tokenType = tokenType; }
-}
\ No newline at end of file
+
+    public String getCertificateThumbprint() { return certificateThumbprint; }
+    public void setCertificateThumbprint(String certificateThumbprint) { this.certificateThumbprint = certificateThumbprint; }
+
+    public long[] getCapabilities() { return capabilities; }
+    public void setCapabilities(long[] capabilities) { this.capabilities = capabilities; }
+}
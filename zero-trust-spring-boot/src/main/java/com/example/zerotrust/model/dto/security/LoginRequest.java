@@ -0,0 +1,31 @@
+package com.example.zerotrust.model.dto.security;
+
+public class LoginRequest {
+    private String username;
+    private String password;
+    private String deviceId;
+
+    public LoginRequest() {}
+
+    public LoginRequest(String username, String password, String deviceId) {
+        this.username = username;
+        this.password = password;
+        this.deviceId = deviceId;
+    }
+
+    // Getters y setters
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    public String getDeviceId() { return deviceId; }
+    public void setDeviceId(String deviceId) { this.deviceId = deviceId; }
+
+    @Override
+    public String toString() {
+        // Nunca exponer la contraseña
+        return "LoginRequest{username='" + username + "', deviceId='" + deviceId + "'}";
+    }
+}
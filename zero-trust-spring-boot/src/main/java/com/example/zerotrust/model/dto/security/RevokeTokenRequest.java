@@ -0,0 +1,14 @@
+package com.example.zerotrust.model.dto.security;
+
+public class RevokeTokenRequest {
+    private String token;
+
+    public RevokeTokenRequest() {}
+
+    public RevokeTokenRequest(String token) {
+        this.token = token;
+    }
+
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+}
@@ -0,0 +1,53 @@
+package com.example.zerotrust.policy;
+
+import java.util.Map;
+
+/**
+ * Lectura de un atributo por ruta, resuelta una sola vez al compilar
+ *
+ * Rutas: subject.{id,username,roles,permissions,deviceId,sessionId,tokenType,
+ * certificateBound}, context.{ipAddress,riskScore,time,&lt;clave del claim context&gt;},
+ * resource.{type,&lt;atributo del recurso&gt;} y action.
+ */
+@FunctionalInterface
+interface AttributeReader {
+
+    Object read(AuthorizationRequest request);
+
+    static AttributeReader forPath(String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Condition attribute is required");
+        }
+        return switch (path) {
+            case "subject.id" -> request -> request.subject().getSubject();
+            case "subject.username" -> request -> request.subject().getUsername();
+            case "subject.roles" -> request -> request.subject().getRoles();
+            case "subject.permissions" -> request -> request.subject().getPermissions();
+            case "subject.deviceId" -> request -> request.subject().getDeviceId();
+            case "subject.sessionId" -> request -> request.subject().getSessionId();
+            case "subject.tokenType" -> request -> request.subject().getTokenType();
+            case "subject.certificateBound" -> request -> request.subject().getCertificateThumbprint() != null;
+            case "context.ipAddress" -> request -> request.subject().getIpAddress();
+            case "context.riskScore" -> request -> request.subject().getRiskScore();
+            case "context.time" -> AuthorizationRequest::time;
+            case "resource.type" -> AuthorizationRequest::resourceType;
+            case "action" -> AuthorizationRequest::action;
+            default -> mapEntry(path);
+        };
+    }
+
+    private static AttributeReader mapEntry(String path) {
+        if (path.startsWith("context.") && path.length() > "context.".length()) {
+            String key = path.substring("context.".length());
+            return request -> {
+                Map<String, Object> context = request.subject().getContext();
+                return context != null ? context.get(key) : null;
+            };
+        }
+        if (path.startsWith("resource.") && path.length() > "resource.".length()) {
+            String key = path.substring("resource.".length());
+            return request -> request.resource().get(key);
+        }
+        throw new IllegalArgumentException("Unknown attribute: " + path);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.zerotrust.policy;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Petición de autorización: sujeto (claims del token), recurso, acción y contexto
+ *
+ * Los atributos de sujeto y de contexto (ipAddress, riskScore, context) se
+ * leen de los JwtClaims; resource son atributos del recurso concreto y time
+ * el instante de la petición.
+ */
+public record AuthorizationRequest(JwtClaims subject,
+                                   String resourceType,
+                                   String action,
+                                   Map<String, Object> resource,
+                                   Instant time) {
+
+    public AuthorizationRequest {
+        if (subject == null) {
+            throw new IllegalArgumentException("Subject claims are required");
+        }
+        resource = resource == null ? Map.of() : resource;
+        time = time == null ? Instant.now() : time;
+    }
+
+    public static AuthorizationRequest of(JwtClaims subject, String resourceType, String action) {
+        return new AuthorizationRequest(subject, resourceType, action, Map.of(), Instant.now());
+    }
+}
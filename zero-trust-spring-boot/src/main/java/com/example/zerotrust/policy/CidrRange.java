@@ -0,0 +1,118 @@
+package com.example.zerotrust.policy;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Rango CIDR precompilado ("10.0.0.0/8", "fd00::/8")
+ *
+ * IPv4 se compara como int con máscara sin crear objetos; IPv6 se parsea con
+ * InetAddress (solo literales: una cadena con ':' nunca provoca DNS).
+ */
+final class CidrRange {
+
+    private final byte[] network;
+    private final int prefixLength;
+    private final int ipv4Network;
+    private final int ipv4Mask;
+
+    private CidrRange(byte[] network, int prefixLength) {
+        this.network = network;
+        this.prefixLength = prefixLength;
+        if (network.length == 4) {
+            this.ipv4Mask = prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+            this.ipv4Network = toInt(network) & ipv4Mask;
+        } else {
+            this.ipv4Mask = 0;
+            this.ipv4Network = 0;
+        }
+    }
+
+    static CidrRange parse(String cidr) {
+        int slash = cidr.indexOf('/');
+        String address = slash < 0 ? cidr : cidr.substring(0, slash);
+        byte[] bytes = literal(address);
+        if (bytes == null) {
+            throw new IllegalArgumentException("Invalid CIDR: " + cidr);
+        }
+        int prefix = slash < 0 ? bytes.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+        if (prefix < 0 || prefix > bytes.length * 8) {
+            throw new IllegalArgumentException("Invalid CIDR prefix: " + cidr);
+        }
+        return new CidrRange(bytes, prefix);
+    }
+
+    boolean contains(String ip) {
+        if (network.length == 4) {
+            long parsed = parseIpv4(ip);
+            return parsed >= 0 && ((int) parsed & ipv4Mask) == ipv4Network;
+        }
+        if (ip.indexOf(':') < 0) {
+            return false;
+        }
+        byte[] bytes = literal(ip);
+        if (bytes == null || bytes.length != network.length) {
+            return false;
+        }
+        int fullBytes = prefixLength / 8;
+        for (int i = 0; i < fullBytes; i++) {
+            if (bytes[i] != network[i]) {
+                return false;
+            }
+        }
+        int remaining = prefixLength % 8;
+        if (remaining == 0) {
+            return true;
+        }
+        int mask = 0xFF << (8 - remaining) & 0xFF;
+        return (bytes[fullBytes] & mask) == (network[fullBytes] & mask);
+    }
+
+    private static byte[] literal(String address) {
+        long ipv4 = parseIpv4(address);
+        if (ipv4 >= 0) {
+            int value = (int) ipv4;
+            return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+        }
+        if (address.indexOf(':') < 0) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * IPv4 en notación decimal con puntos como entero sin signo; -1 si no lo es
+     */
+    private static long parseIpv4(String ip) {
+        long result = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                result = result << 8 | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || octet < 0) {
+            return -1;
+        }
+        return result << 8 | octet;
+    }
+
+    private static int toInt(byte[] bytes) {
+        return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | bytes[3] & 0xFF;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.zerotrust.policy;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bundle de políticas compilado e inmutable
+ *
+ * Combinación deny-overrides: se prueban primero las reglas DENY y después
+ * las ALLOW, cada grupo por prioridad descendente; gana la primera que
+ * aplica. Si ninguna aplica, Decision.notApplicable (denegar). Solo se
+ * evalúan las reglas cuyo target coincide (RuleIndex). partialEvaluate
+ * reduce la política a las reglas que pueden aplicar a un sujeto (Residual).
+ */
+public final class CompiledPolicy {
+
+    private final String version;
+    private final CompiledRule[] rules;
+    private final RuleIndex index;
+    private final Set<String> attributes;
+    private final AttributeReader[] keyReaders;
+    private final AttributeReader[] subjectReaders;
+    private final Decision notApplicable;
+
+    CompiledPolicy(String version, CompiledRule[] rules, Set<String> attributes) {
+        this.version = version;
+        this.rules = rules;
+        this.index = RuleIndex.build(rules);
+        this.attributes = attributes;
+        this.keyReaders = attributes.stream().map(CompiledPolicy::keyReader).toArray(AttributeReader[]::new);
+        this.subjectReaders = attributes.stream().filter(PolicyCompiler::isSubjectAttribute)
+                .map(AttributeReader::forPath).toArray(AttributeReader[]::new);
+        this.notApplicable = Decision.notApplicable(version);
+    }
+
+    public Decision decide(AuthorizationRequest request) {
+        CompiledRule rule = index.match(request);
+        return rule != null ? rule.decision : notApplicable;
+    }
+
+    /**
+     * Evaluación parcial para un sujeto: descarta las reglas cuyo target de
+     * roles o condiciones subject.* no cumple y deja las de petición
+     */
+    public Residual partialEvaluate(JwtClaims subject) {
+        AuthorizationRequest probe = AuthorizationRequest.of(subject, null, null);
+        List<String> roles = subject.getRoles();
+        List<CompiledRule> residual = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            if ((rule.roles.isEmpty() || anyRole(rule.roles, roles)) && rule.subjectMatch.test(probe)) {
+                residual.add(rule.residual());
+            }
+        }
+        return new Residual(this, residual.toArray(CompiledRule[]::new));
+    }
+
+    /**
+     * Clave de los atributos de sujeto que lee la política: dos sujetos con la
+     * misma clave tienen el mismo Residual
+     */
+    DecisionKey subjectKey(AuthorizationRequest request) {
+        Object[] values = new Object[subjectReaders.length];
+        for (int i = 0; i < subjectReaders.length; i++) {
+            values[i] = subjectReaders[i].read(request);
+        }
+        return new DecisionKey(values);
+    }
+
+    /**
+     * Clave con recurso, acción y los atributos leídos por alguna regla;
+     * dos peticiones con la misma clave reciben la misma decisión
+     */
+    DecisionKey cacheKey(AuthorizationRequest request) {
+        Object[] values = new Object[2 + keyReaders.length];
+        values[0] = request.resourceType();
+        values[1] = request.action();
+        for (int i = 0; i < keyReaders.length; i++) {
+            values[2 + i] = keyReaders[i].read(request);
+        }
+        return new DecisionKey(values);
+    }
+
+    /**
+     * Rutas de atributo que lee alguna regla (condiciones y roles del target),
+     * además de recurso y acción
+     */
+    public Set<String> getAttributes() {
+        return attributes;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getRuleCount() {
+        return rules.length;
+    }
+
+    Decision notApplicable() {
+        return notApplicable;
+    }
+
+    private static boolean anyRole(Set<String> targetRoles, List<String> roles) {
+        if (roles != null) {
+            for (int i = 0; i < roles.size(); i++) {
+                if (targetRoles.contains(roles.get(i))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * context.time entra en la clave por minuto: TimeWindow tiene resolución de minutos
+     */
+    private static AttributeReader keyReader(String path) {
+        if (PolicyCompiler.TIME_ATTRIBUTE.equals(path)) {
+            return request -> request.time().getEpochSecond() / 60;
+        }
+        return AttributeReader.forPath(path);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.zerotrust.policy;
+
+import java.util.Set;
+
+/**
+ * Regla compilada: condiciones reducidas a un único Match
+ *
+ * El target (resources, actions, roles; vacío = cualquiera) lo resuelve
+ * RuleIndex y no se vuelve a comprobar en match. rank es la posición en el
+ * orden de evaluación (DENY antes que ALLOW, después prioridad y orden de
+ * declaración). La Decision se crea al compilar y se devuelve tal cual.
+ * Las condiciones se separan en las de sujeto (subject.*, fijas durante la
+ * vida del token) y las de petición, para la evaluación parcial (Residual).
+ */
+final class CompiledRule {
+
+    final String id;
+    final Effect effect;
+    final int rank;
+    final Set<String> resources;
+    final Set<String> actions;
+    final Set<String> roles;
+    final Match subjectMatch;
+    final Match requestMatch;
+    final Match match;
+    final Decision decision;
+
+    CompiledRule(String id, Effect effect, int rank,
+                 Set<String> resources, Set<String> actions, Set<String> roles,
+                 Match subjectMatch, Match requestMatch, Decision decision) {
+        this.id = id;
+        this.effect = effect;
+        this.rank = rank;
+        this.resources = resources;
+        this.actions = actions;
+        this.roles = roles;
+        this.subjectMatch = subjectMatch;
+        this.requestMatch = requestMatch;
+        this.match = subjectMatch.and(requestMatch);
+        this.decision = decision;
+    }
+
+    /**
+     * Residuo de la regla para un sujeto que ya cumple roles y condiciones de sujeto
+     */
+    CompiledRule residual() {
+        return new CompiledRule(id, effect, rank, resources, actions, Set.of(),
+                Match.ALWAYS, requestMatch, decision);
+    }
+}
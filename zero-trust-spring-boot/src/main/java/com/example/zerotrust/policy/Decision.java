@@ -0,0 +1,29 @@
+package com.example.zerotrust.policy;
+
+import java.util.List;
+
+/**
+ * Resultado de evaluar una AuthorizationRequest
+ *
+ * ruleId es la regla que decidió; null si ninguna aplicaba (denegación por
+ * defecto). policyVersion es la versión del bundle que decidió (auditoría).
+ * Las instancias se crean al compilar la política y se comparten entre
+ * peticiones: decidir no reserva memoria.
+ */
+public record Decision(Effect effect, String ruleId, List<Obligation> obligations, String policyVersion) {
+
+    public Decision {
+        obligations = obligations == null ? List.of() : List.copyOf(obligations);
+    }
+
+    /**
+     * Ninguna regla aplicable: Zero Trust deniega por defecto
+     */
+    public static Decision notApplicable(String policyVersion) {
+        return new Decision(Effect.DENY, null, List.of(), policyVersion);
+    }
+
+    public boolean isAllowed() {
+        return effect == Effect.ALLOW;
+    }
+}
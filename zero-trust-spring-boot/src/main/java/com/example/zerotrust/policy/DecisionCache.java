@@ -0,0 +1,98 @@
+package com.example.zerotrust.policy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Caché de decisiones delante de CompiledPolicy
+ *
+ * La clave solo contiene recurso, acción y los atributos que la política
+ * lee (CompiledPolicy.cacheKey): dos sujetos con los mismos atributos
+ * relevantes comparten entrada. Cada entrada recuerda la política con que
+ * se calculó; si el bundle ha cambiado la entrada es obsoleta y se
+ * recalcula. Un cambio de roles produce otra clave si la política lee
+ * roles, y no invalida nada si no los lee. Revocar un token no cambia
+ * ningún atributo de la clave: la revocación se comprueba aparte, así que
+ * no invalida decisiones.
+ *
+ * Métricas: zerotrust.policy.cache.requests{result=hit|miss},
+ * zerotrust.policy.cache.stale{reason=bundle},
+ * zerotrust.policy.cache.hit.ratio y zerotrust.policy.cache.size.
+ */
+final class DecisionCache {
+
+    private final Cache<DecisionKey, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleBundle = new LongAdder();
+
+    DecisionCache(long maximumSize, Duration ttl, MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        registerMetrics(registry);
+    }
+
+    /**
+     * Decisión cacheada; en un fallo se calcula con evaluator (política completa o residuo)
+     */
+    Decision decide(CompiledPolicy policy, AuthorizationRequest request,
+                    BiFunction<CompiledPolicy, AuthorizationRequest, Decision> evaluator) {
+        DecisionKey key = policy.cacheKey(request);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.policy == policy) {
+            hits.increment();
+            return entry.decision;
+        }
+        if (entry == null) {
+            misses.increment();
+        } else {
+            staleBundle.increment();
+        }
+        Decision decision = evaluator.apply(policy, request);
+        cache.put(key, new Entry(policy, decision));
+        return decision;
+    }
+
+    long size() {
+        return cache.estimatedSize();
+    }
+
+    double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum() + staleBundle.sum();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("zerotrust.policy.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Policy decisions served from cache")
+                .register(registry);
+        FunctionCounter.builder("zerotrust.policy.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Policy decisions evaluated without a cache entry")
+                .register(registry);
+        FunctionCounter.builder("zerotrust.policy.cache.stale", staleBundle, LongAdder::sum)
+                .tag("reason", "bundle")
+                .description("Cached decisions discarded because the policy bundle changed")
+                .register(registry);
+        Gauge.builder("zerotrust.policy.cache.hit.ratio", this, DecisionCache::hitRatio)
+                .description("Share of policy decisions served from cache")
+                .register(registry);
+        Gauge.builder("zerotrust.policy.cache.size", this, DecisionCache::size)
+                .description("Cached policy decisions")
+                .register(registry);
+    }
+
+    private record Entry(CompiledPolicy policy, Decision decision) {
+    }
+}
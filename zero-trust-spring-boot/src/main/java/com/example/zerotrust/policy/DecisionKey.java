@@ -0,0 +1,33 @@
+package com.example.zerotrust.policy;
+
+import java.util.Arrays;
+
+/**
+ * Clave de la caché de decisiones: recurso, acción y los atributos que la política lee
+ */
+final class DecisionKey {
+
+    private final Object[] values;
+    private final int hash;
+
+    DecisionKey(Object[] values) {
+        this.values = values;
+        this.hash = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof DecisionKey key
+                && hash == key.hash && Arrays.equals(values, key.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
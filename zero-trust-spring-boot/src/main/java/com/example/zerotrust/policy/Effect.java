@@ -0,0 +1,9 @@
+package com.example.zerotrust.policy;
+
+/**
+ * Efecto de una regla o de una decisión
+ */
+public enum Effect {
+    ALLOW,
+    DENY
+}
@@ -0,0 +1,23 @@
+package com.example.zerotrust.policy;
+
+/**
+ * Predicado compilado sobre una AuthorizationRequest
+ */
+@FunctionalInterface
+interface Match {
+
+    Match ALWAYS = request -> true;
+
+    boolean test(AuthorizationRequest request);
+
+    default Match and(Match next) {
+        if (this == ALWAYS) {
+            return next;
+        }
+        if (next == ALWAYS) {
+            return this;
+        }
+        Match first = this;
+        return request -> first.test(request) && next.test(request);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.zerotrust.policy;
+
+import java.util.Map;
+
+/**
+ * Obligación que acompaña a una decisión (p. ej. "audit", "step-up-mfa")
+ *
+ * El PDP no la ejecuta: la devuelve y el punto de aplicación decide cómo cumplirla.
+ */
+public record Obligation(String type, Map<String, String> parameters) {
+
+    public Obligation {
+        if (type == null || type.isBlank()) {
+            throw new IllegalArgumentException("Obligation type is required");
+        }
+        parameters = parameters == null ? Map.of() : Map.copyOf(parameters);
+    }
+}
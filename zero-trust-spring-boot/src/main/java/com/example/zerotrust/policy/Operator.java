@@ -0,0 +1,30 @@
+package com.example.zerotrust.policy;
+
+/**
+ * Operadores de las condiciones de una regla
+ *
+ * - EQ / NEQ: igualdad con un escalar (texto, número o booleano)
+ * - IN / NOT_IN: el atributo está (o no) en una lista
+ * - CONTAINS / CONTAINS_ANY / CONTAINS_ALL: el atributo es una lista (roles, permisos)
+ * - GT / GTE / LT / LTE: comparación numérica
+ * - CIDR: la IP está en uno de los rangos ("10.0.0.0/8" o lista)
+ * - TIME_BETWEEN: hora del día en "HH:mm-HH:mm[@zona]"; admite rangos que cruzan medianoche
+ * - PRESENT / ABSENT: el atributo tiene (o no) valor
+ */
+public enum Operator {
+    EQ,
+    NEQ,
+    IN,
+    NOT_IN,
+    CONTAINS,
+    CONTAINS_ANY,
+    CONTAINS_ALL,
+    GT,
+    GTE,
+    LT,
+    LTE,
+    CIDR,
+    TIME_BETWEEN,
+    PRESENT,
+    ABSENT
+}
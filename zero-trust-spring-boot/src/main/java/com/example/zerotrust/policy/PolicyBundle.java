@@ -0,0 +1,61 @@
+package com.example.zerotrust.policy;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Definición de un bundle de políticas tal como se escribe en JSON
+ *
+ * {"version": "...", "rules": [{"id": "...", "effect": "ALLOW",
+ *   "priority": 10, "resources": ["document"], "actions": ["read"],
+ *   "roles": ["USER"], "conditions": [{"attribute": "context.riskScore",
+ *   "operator": "LT", "value": 0.5}], "obligations": [{"type": "audit"}]}]}
+ *
+ * resources, actions y roles vacíos (o "*") aplican a cualquiera. Es solo
+ * el formato de entrada: PolicyCompiler lo convierte en CompiledPolicy.
+ */
+public record PolicyBundle(String version, List<Rule> rules) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+    public PolicyBundle {
+        rules = rules == null ? List.of() : List.copyOf(rules);
+    }
+
+    public record Rule(String id,
+                       Effect effect,
+                       int priority,
+                       Set<String> resources,
+                       Set<String> actions,
+                       Set<String> roles,
+                       List<Condition> conditions,
+                       List<Obligation> obligations) {
+
+        public Rule {
+            resources = resources == null ? Set.of() : Set.copyOf(resources);
+            actions = actions == null ? Set.of() : Set.copyOf(actions);
+            roles = roles == null ? Set.of() : Set.copyOf(roles);
+            conditions = conditions == null ? List.of() : List.copyOf(conditions);
+            obligations = obligations == null ? List.of() : List.copyOf(obligations);
+        }
+    }
+
+    /**
+     * attribute es una ruta: subject.*, context.*, resource.* o action
+     */
+    public record Condition(String attribute, Operator operator, Object value) {
+    }
+
+    /**
+     * Lee un bundle JSON; las propiedades desconocidas son un error (evita reglas mal escritas que no aplican)
+     */
+    public static PolicyBundle read(InputStream json) throws IOException {
+        return MAPPER.readValue(json, PolicyBundle.class);
+    }
+}
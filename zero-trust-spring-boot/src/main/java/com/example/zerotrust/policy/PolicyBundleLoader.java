@@ -0,0 +1,280 @@
+package com.example.zerotrust.policy;
+
+import com.example.zerotrust.config.PolicyProperties;
+import com.example.zerotrust.event.PolicyBundleCompiledEvent;
+import com.example.zerotrust.event.SecretChangedEvent;
+import com.example.zerotrust.service.SecretService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga, compila y recarga en caliente el bundle de políticas
+ *
+ * Orígenes: el recurso de app.policy.bundle (vigilado con WatchService si
+ * app.policy.watch y es file:) o el secreto app.policy.bundle-json de
+ * SecretService (app.policy.source: VAULT), que se recarga con cada
+ * SecretChangedEvent. La compilación y validación se hacen en un hilo
+ * propio; solo un bundle válido y distinto del actual se publica como
+ * PolicyBundleCompiledEvent. Si falla, sigue en vigor la versión anterior.
+ *
+ * Métricas: zerotrust.policy.compile (parseo + compilación + validación) y
+ * zerotrust.policy.reload{result=success|failure} (recarga completa).
+ */
+@Component
+public class PolicyBundleLoader implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PolicyBundleLoader.class);
+
+    private final PolicyProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final SecretService secretService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer compileTimer;
+    private final Timer reloadSuccess;
+    private final Timer reloadFailure;
+
+    private ScheduledExecutorService compiler;
+    private ScheduledFuture<?> pendingReload;
+    private WatchService watchService;
+    private volatile String currentDigest;
+    private volatile String currentVersion;
+
+    public PolicyBundleLoader(PolicyProperties properties, ResourceLoader resourceLoader,
+                              SecretService secretService, ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.secretService = secretService;
+        this.eventPublisher = eventPublisher;
+        this.compileTimer = Timer.builder("zerotrust.policy.compile")
+                .description("Time to parse, compile and validate a policy bundle")
+                .register(meterRegistry);
+        this.reloadSuccess = reloadTimer("success", meterRegistry);
+        this.reloadFailure = reloadTimer("failure", meterRegistry);
+    }
+
+    /**
+     * Carga síncrona para el arranque: un bundle inválido impide arrancar
+     */
+    public CompiledPolicy loadInitial() {
+        byte[] json = read();
+        CompiledPolicy policy = compile(json);
+        currentDigest = digest(json);
+        currentVersion = policy.getVersion();
+        log.info("Policy bundle {} compiled from {}: {} rules, attributes read: {}", policy.getVersion(),
+                describeSource(), policy.getRuleCount(), policy.getAttributes());
+        return policy;
+    }
+
+    /**
+     * Programa una recarga en el hilo de compilación; varias peticiones
+     * dentro de app.policy.reload-debounce se agrupan en una sola
+     */
+    public synchronized void reload(String trigger) {
+        if (compiler == null) {
+            log.debug("Policy reload ({}) ignored: loader not running", trigger);
+            return;
+        }
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = compiler.schedule(() -> reloadNow(trigger),
+                properties.getReloadDebounce().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onSecretChanged(SecretChangedEvent event) {
+        if (properties.getSource() == PolicyProperties.Source.VAULT && event.isFor(SecretService.POLICY_BUNDLE)) {
+            reload("vault secret v" + event.getVersion());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (compiler != null) {
+            return;
+        }
+        compiler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "policy-compiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.isWatch() && properties.getSource() == PolicyProperties.Source.RESOURCE) {
+            startWatching();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Error closing policy watch service: {}", e.getMessage());
+            }
+            watchService = null;
+        }
+        if (compiler != null) {
+            compiler.shutdownNow();
+            compiler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return compiler != null;
+    }
+
+    private void reloadNow(String trigger) {
+        long start = System.nanoTime();
+        try {
+            byte[] json = read();
+            String digest = digest(json);
+            if (digest.equals(currentDigest)) {
+                log.debug("Policy reload ({}): bundle unchanged", trigger);
+                return;
+            }
+            long compileStart = System.nanoTime();
+            CompiledPolicy policy = compile(json);
+            Duration compileTime = Duration.ofNanos(System.nanoTime() - compileStart);
+            eventPublisher.publishEvent(new PolicyBundleCompiledEvent(policy, trigger, compileTime));
+            log.info("Policy bundle {} -> {} ({} rules, compiled in {} ms) on {}", currentVersion,
+                    policy.getVersion(), policy.getRuleCount(), compileTime.toMillis(), trigger);
+            currentDigest = digest;
+            currentVersion = policy.getVersion();
+            reloadSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            reloadFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Policy reload ({}) failed, keeping bundle {}: {}", trigger, currentVersion, e.getMessage());
+        }
+    }
+
+    /**
+     * Parseo, compilación y validación; no instala nada
+     */
+    CompiledPolicy compile(byte[] json) {
+        long start = System.nanoTime();
+        try (InputStream in = new ByteArrayInputStream(json)) {
+            CompiledPolicy policy = PolicyCompiler.compile(PolicyBundle.read(in));
+            // Un bundle vacío lo deniega todo, incluido el uso de tokens
+            if (policy.getRuleCount() == 0) {
+                throw new IllegalArgumentException("Policy bundle " + policy.getVersion() + " has no rules");
+            }
+            return policy;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed policy bundle: " + e.getMessage(), e);
+        } finally {
+            compileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private byte[] read() {
+        if (properties.getSource() == PolicyProperties.Source.VAULT) {
+            String json = secretService.getSecret(SecretService.POLICY_BUNDLE).value();
+            if (json == null || json.isBlank()) {
+                throw new IllegalStateException("app.policy.bundle-json is empty (app.policy.source: VAULT)");
+            }
+            return json.getBytes(StandardCharsets.UTF_8);
+        }
+        Resource resource = resourceLoader.getResource(properties.getBundle());
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read policy bundle " + resource.getDescription(), e);
+        }
+    }
+
+    private void startWatching() {
+        Path file;
+        try {
+            file = resourceLoader.getResource(properties.getBundle()).getFile().toPath().toAbsolutePath();
+        } catch (IOException e) {
+            throw new IllegalStateException("app.policy.watch requires a file: bundle, got " + properties.getBundle(), e);
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot watch " + file.getParent(), e);
+        }
+        WatchService service = watchService;
+        Thread watcher = new Thread(() -> watch(service, file), "policy-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching policy bundle {}", file);
+    }
+
+    private void watch(WatchService service, Path file) {
+        Path name = file.getFileName();
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                // Editores y despliegues suelen escribir un temporal y renombrarlo: CREATE o MODIFY
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                    reload("file " + event.kind().name());
+                    break;
+                }
+            }
+            if (!key.reset()) {
+                log.warn("Policy bundle directory {} is no longer watched", file.getParent());
+                return;
+            }
+        }
+    }
+
+    private String describeSource() {
+        return properties.getSource() == PolicyProperties.Source.VAULT
+                ? "secret " + SecretService.POLICY_BUNDLE
+                : properties.getBundle();
+    }
+
+    private static String digest(byte[] json) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Timer reloadTimer(String result, MeterRegistry registry) {
+        return Timer.builder("zerotrust.policy.reload")
+                .tag("result", result)
+                .description("Time to reload a policy bundle, from read to swap")
+                .register(registry);
+    }
+}
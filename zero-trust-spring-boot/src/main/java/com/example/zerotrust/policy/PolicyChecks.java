@@ -0,0 +1,36 @@
+package com.example.zerotrust.policy;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decisiones ABAC para expresiones de @PreAuthorize
+ *
+ * Uso: @PreAuthorize("@policy.allows('document', 'read')"). El sujeto son
+ * los JwtClaims de la ZeroTrustAuthentication actual; sin token se deniega.
+ */
+@Component("policy")
+public class PolicyChecks {
+
+    private final PolicyDecisionPoint policyDecisionPoint;
+
+    public PolicyChecks(PolicyDecisionPoint policyDecisionPoint) {
+        this.policyDecisionPoint = policyDecisionPoint;
+    }
+
+    public boolean allows(String resourceType, String action) {
+        JwtClaims claims = currentClaims();
+        return claims != null && policyDecisionPoint.decide(claims, resourceType, action).isAllowed();
+    }
+
+    private static JwtClaims currentClaims() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof JwtClaims claims) {
+            return claims;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.zerotrust.policy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compila un PolicyBundle a predicados encadenados
+ *
+ * Todo lo que no depende de la petición se resuelve aquí: rutas de atributo
+ * a lectores, constantes a double/Set/rango CIDR/franja horaria, target al
+ * índice RuleIndex y condiciones ordenadas de más barata a más cara. En
+ * cada decisión no se interpreta nada: solo se encadenan lambdas. Un bundle
+ * inválido lanza IllegalArgumentException con el id de la regla.
+ */
+public final class PolicyCompiler {
+
+    private static final String WILDCARD = "*";
+
+    static final String TIME_ATTRIBUTE = "context.time";
+    static final String ROLES_ATTRIBUTE = "subject.roles";
+    private static final String SUBJECT_PREFIX = "subject.";
+
+    private static final Comparator<PolicyBundle.Rule> EVALUATION_ORDER =
+            Comparator.comparing((PolicyBundle.Rule rule) -> rule.effect() != Effect.DENY)
+                    .thenComparing(Comparator.comparingInt(PolicyBundle.Rule::priority).reversed());
+
+    private PolicyCompiler() {
+    }
+
+    public static CompiledPolicy compile(PolicyBundle bundle) {
+        if (bundle.version() == null || bundle.version().isBlank()) {
+            throw new IllegalArgumentException("Policy bundle version is required");
+        }
+        Set<String> ids = new HashSet<>();
+        int position = 0;
+        for (PolicyBundle.Rule rule : bundle.rules()) {
+            if (rule.id() == null || rule.id().isBlank()) {
+                throw new IllegalArgumentException("Rule #" + position + " has no id");
+            }
+            if (!ids.add(rule.id())) {
+                throw new IllegalArgumentException("Duplicate rule id: " + rule.id());
+            }
+            if (rule.effect() == null) {
+                throw new IllegalArgumentException("Rule " + rule.id() + " has no effect");
+            }
+            position++;
+        }
+
+        // Orden estable: a igual efecto y prioridad se respeta el orden de declaración
+        List<PolicyBundle.Rule> ordered = new ArrayList<>(bundle.rules());
+        ordered.sort(EVALUATION_ORDER);
+        CompiledRule[] rules = new CompiledRule[ordered.size()];
+        for (int rank = 0; rank < rules.length; rank++) {
+            PolicyBundle.Rule rule = ordered.get(rank);
+            try {
+                rules[rank] = compileRule(rule, rank, bundle.version());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Rule " + rule.id() + ": " + e.getMessage(), e);
+            }
+        }
+        return new CompiledPolicy(bundle.version(), rules, attributesRead(bundle.rules()));
+    }
+
+    /**
+     * Análisis de los atributos que lee la política, para la clave de DecisionCache
+     * (recurso y acción van siempre en la clave)
+     */
+    private static Set<String> attributesRead(List<PolicyBundle.Rule> rules) {
+        Set<String> attributes = new TreeSet<>();
+        for (PolicyBundle.Rule rule : rules) {
+            if (!anyIfWildcard(rule.roles()).isEmpty()) {
+                attributes.add(ROLES_ATTRIBUTE);
+            }
+            for (PolicyBundle.Condition condition : rule.conditions()) {
+                attributes.add(condition.attribute());
+            }
+        }
+        attributes.remove("resource.type");
+        attributes.remove("action");
+        return Collections.unmodifiableSet(attributes);
+    }
+
+    private static CompiledRule compileRule(PolicyBundle.Rule rule, int rank, String version) {
+        // El target lo resuelve RuleIndex; match solo contiene las condiciones
+        Match subjectMatch = Match.ALWAYS;
+        Match requestMatch = Match.ALWAYS;
+        List<PolicyBundle.Condition> conditions = new ArrayList<>(rule.conditions());
+        conditions.sort(Comparator.comparingInt(condition -> cost(condition.operator())));
+        for (PolicyBundle.Condition condition : conditions) {
+            if (isSubjectAttribute(condition.attribute())) {
+                subjectMatch = subjectMatch.and(compileCondition(condition));
+            } else {
+                requestMatch = requestMatch.and(compileCondition(condition));
+            }
+        }
+
+        return new CompiledRule(rule.id(), rule.effect(), rank,
+                anyIfWildcard(rule.resources()), anyIfWildcard(rule.actions()), anyIfWildcard(rule.roles()),
+                subjectMatch, requestMatch, new Decision(rule.effect(), rule.id(), rule.obligations(), version));
+    }
+
+    /**
+     * Atributos del sujeto: vienen de claims fijos durante la vida del token
+     * (contexto, riesgo e IP pueden cambiar entre peticiones)
+     */
+    static boolean isSubjectAttribute(String path) {
+        return path != null && path.startsWith(SUBJECT_PREFIX);
+    }
+
+    static Match compileCondition(PolicyBundle.Condition condition) {
+        if (condition.operator() == null) {
+            throw new IllegalArgumentException("Condition on " + condition.attribute() + " has no operator");
+        }
+        AttributeReader reader = AttributeReader.forPath(condition.attribute());
+        Object value = condition.value();
+        return switch (condition.operator()) {
+            case EQ -> equalTo(reader, value);
+            case NEQ -> {
+                Match equal = equalTo(reader, value);
+                yield request -> !equal.test(request);
+            }
+            case IN -> {
+                Set<String> set = strings(value);
+                yield request -> {
+                    Object actual = reader.read(request);
+                    return actual != null && set.contains(actual.toString());
+                };
+            }
+            case NOT_IN -> {
+                Set<String> set = strings(value);
+                yield request -> {
+                    Object actual = reader.read(request);
+                    return actual == null || !set.contains(actual.toString());
+                };
+            }
+            case CONTAINS -> {
+                String expected = scalar(value).toString();
+                yield request -> reader.read(request) instanceof Collection<?> actual && actual.contains(expected);
+            }
+            case CONTAINS_ANY -> {
+                Set<String> set = strings(value);
+                yield request -> reader.read(request) instanceof Collection<?> actual && containsAny(actual, set);
+            }
+            case CONTAINS_ALL -> {
+                Set<String> set = strings(value);
+                yield request -> reader.read(request) instanceof Collection<?> actual && actual.containsAll(set);
+            }
+            case GT -> {
+                double bound = number(value);
+                yield request -> reader.read(request) instanceof Number actual && actual.doubleValue() > bound;
+            }
+            case GTE -> {
+                double bound = number(value);
+                yield request -> reader.read(request) instanceof Number actual && actual.doubleValue() >= bound;
+            }
+            case LT -> {
+                double bound = number(value);
+                yield request -> reader.read(request) instanceof Number actual && actual.doubleValue() < bound;
+            }
+            case LTE -> {
+                double bound = number(value);
+                yield request -> reader.read(request) instanceof Number actual && actual.doubleValue() <= bound;
+            }
+            case CIDR -> {
+                CidrRange[] ranges = strings(value).stream().map(CidrRange::parse).toArray(CidrRange[]::new);
+                yield request -> reader.read(request) instanceof String ip && inAny(ranges, ip);
+            }
+            case TIME_BETWEEN -> {
+                TimeWindow window = TimeWindow.parse(scalar(value).toString());
+                yield request -> reader.read(request) instanceof Instant time && window.contains(time);
+            }
+            case PRESENT -> request -> reader.read(request) != null;
+            case ABSENT -> request -> reader.read(request) == null;
+        };
+    }
+
+    private static Match equalTo(AttributeReader reader, Object value) {
+        Object expected = scalar(value);
+        if (expected instanceof Number number) {
+            double bound = number.doubleValue();
+            return request -> reader.read(request) instanceof Number actual && actual.doubleValue() == bound;
+        }
+        if (expected instanceof Boolean) {
+            return request -> expected.equals(reader.read(request));
+        }
+        String text = expected.toString();
+        return request -> text.equals(reader.read(request));
+    }
+
+    /**
+     * Orden de evaluación dentro de una regla: comparaciones simples antes que CIDR u hora
+     */
+    private static int cost(Operator operator) {
+        return switch (operator == null ? Operator.EQ : operator) {
+            case PRESENT, ABSENT, EQ, NEQ, GT, GTE, LT, LTE -> 0;
+            case IN, NOT_IN, CONTAINS -> 1;
+            case CONTAINS_ANY, CONTAINS_ALL -> 2;
+            case CIDR, TIME_BETWEEN -> 3;
+        };
+    }
+
+    private static Set<String> anyIfWildcard(Set<String> values) {
+        return values.contains(WILDCARD) ? Set.of() : values;
+    }
+
+    private static boolean containsAny(Collection<?> actual, Set<String> expected) {
+        if (actual == null) {
+            return false;
+        }
+        for (Object item : actual) {
+            if (item != null && expected.contains(item.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean inAny(CidrRange[] ranges, String ip) {
+        for (CidrRange range : ranges) {
+            if (range.contains(ip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object scalar(Object value) {
+        if (value == null || value instanceof Collection<?>) {
+            throw new IllegalArgumentException("Expected a single value but got " + value);
+        }
+        return value;
+    }
+
+    private static double number(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        throw new IllegalArgumentException("Expected a number but got " + value);
+    }
+
+    private static Set<String> strings(Object value) {
+        if (value instanceof Collection<?> collection) {
+            Set<String> set = new LinkedHashSet<>();
+            for (Object item : collection) {
+                set.add(String.valueOf(item));
+            }
+            return Set.copyOf(set);
+        }
+        return Set.of(scalar(value).toString());
+    }
+}
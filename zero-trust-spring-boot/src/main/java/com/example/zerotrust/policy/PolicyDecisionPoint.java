@@ -0,0 +1,124 @@
+package com.example.zerotrust.policy;
+
+import com.example.zerotrust.config.PolicyProperties;
+import com.example.zerotrust.event.PolicyBundleCompiledEvent;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Policy Decision Point ABAC sobre los atributos de JwtClaims
+ *
+ * Arranca con el bundle de PolicyBundleLoader (un bundle inválido impide el
+ * arranque) y decide sobre la política compilada, con DecisionCache delante
+ * si app.policy.decision-cache.enabled. Las recargas llegan como
+ * PolicyBundleCompiledEvent y se instalan con un único set atómico: cada
+ * decisión lee la referencia una vez, así que las que están en curso
+ * terminan con la versión anterior. Decision.policyVersion indica cuál decidió.
+ * Con app.policy.residual-cache.enabled cada sujeto decide sobre su Residual
+ * (evaluación parcial calculada al emitir el token con prepare): por petición
+ * solo quedan las condiciones de contexto, recurso y hora.
+ * Uso: decide(claims, "document", "read") o, en @PreAuthorize,
+ * "@policy.allows('document', 'read')" (PolicyChecks).
+ */
+@Component
+public class PolicyDecisionPoint {
+
+    private static final Logger log = LoggerFactory.getLogger(PolicyDecisionPoint.class);
+
+    /**
+     * Recurso con el que validateZeroTrustClaims consulta el uso de un token
+     */
+    public static final String TOKEN_RESOURCE = "token";
+
+    private final boolean enforceOnTokenValidation;
+    private final DecisionCache decisionCache;
+    private final ResidualCache residualCache;
+    private final AtomicReference<CompiledPolicy> policy;
+
+    @Autowired
+    public PolicyDecisionPoint(PolicyProperties properties, PolicyBundleLoader bundleLoader,
+                               MeterRegistry meterRegistry) {
+        this(bundleLoader.loadInitial(), properties, meterRegistry);
+    }
+
+    public PolicyDecisionPoint(CompiledPolicy policy, PolicyProperties properties, MeterRegistry meterRegistry) {
+        this.policy = new AtomicReference<>(policy);
+        this.enforceOnTokenValidation = properties.isEnforceOnTokenValidation();
+        PolicyProperties.DecisionCache cache = properties.getDecisionCache();
+        this.decisionCache = cache.isEnabled()
+                ? new DecisionCache(cache.getSize(), cache.getTtl(), meterRegistry)
+                : null;
+        PolicyProperties.ResidualCache residuals = properties.getResidualCache();
+        this.residualCache = residuals.isEnabled() ? new ResidualCache(residuals.getSize(), meterRegistry) : null;
+    }
+
+    /**
+     * Sin caché ni métricas (tests)
+     */
+    public PolicyDecisionPoint(CompiledPolicy policy, boolean enforceOnTokenValidation) {
+        this.policy = new AtomicReference<>(policy);
+        this.enforceOnTokenValidation = enforceOnTokenValidation;
+        this.decisionCache = null;
+        this.residualCache = null;
+    }
+
+    public Decision decide(AuthorizationRequest request) {
+        CompiledPolicy current = policy.get();
+        return decisionCache != null
+                ? decisionCache.decide(current, request, this::evaluate)
+                : evaluate(current, request);
+    }
+
+    public Decision decide(JwtClaims subject, String resourceType, String action) {
+        return decide(AuthorizationRequest.of(subject, resourceType, action));
+    }
+
+    /**
+     * Decisión sobre el uso del token (recurso "token", acción = tokenType);
+     * null si app.policy.enforce-on-token-validation está desactivado
+     */
+    public Decision decideTokenUse(JwtClaims claims) {
+        return enforceOnTokenValidation ? decide(claims, TOKEN_RESOURCE, claims.getTokenType()) : null;
+    }
+
+    /**
+     * Evaluación parcial para un token recién emitido: deja el Residual del
+     * sujeto en caché para sus peticiones (null si la caché está desactivada)
+     */
+    public Residual prepare(JwtClaims subject) {
+        return residualCache != null
+                ? residualCache.residual(policy.get(), AuthorizationRequest.of(subject, null, null))
+                : null;
+    }
+
+    public CompiledPolicy getPolicy() {
+        return policy.get();
+    }
+
+    /**
+     * Instala una política ya compilada y validada; devuelve la anterior
+     */
+    public CompiledPolicy swap(CompiledPolicy compiled) {
+        CompiledPolicy previous = policy.getAndSet(compiled);
+        log.info("Policy bundle {} active (was {})", compiled.getVersion(), previous.getVersion());
+        return previous;
+    }
+
+    @EventListener
+    public void onBundleCompiled(PolicyBundleCompiledEvent event) {
+        swap(event.getPolicy());
+    }
+
+    private Decision evaluate(CompiledPolicy current, AuthorizationRequest request) {
+        return residualCache != null
+                ? residualCache.residual(current, request).decide(request)
+                : current.decide(request);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.zerotrust.policy;
+
+/**
+ * Política evaluada parcialmente para un sujeto
+ *
+ * Quedan solo las reglas cuyo target de roles y condiciones subject.* cumple
+ * el sujeto, con las condiciones de petición (contexto, recurso, hora) como
+ * único predicado. Conserva el rango de cada regla, así que decide igual que
+ * la política completa para cualquier petición de ese sujeto. Se calcula
+ * al emitir el token (PolicyDecisionPoint.prepare) y se reutiliza mientras
+ * la política sea la misma.
+ */
+public final class Residual {
+
+    private final CompiledPolicy policy;
+    private final RuleIndex index;
+    private final int ruleCount;
+
+    Residual(CompiledPolicy policy, CompiledRule[] rules) {
+        this.policy = policy;
+        this.index = RuleIndex.build(rules);
+        this.ruleCount = rules.length;
+    }
+
+    public Decision decide(AuthorizationRequest request) {
+        CompiledRule rule = index.match(request);
+        return rule != null ? rule.decision : policy.notApplicable();
+    }
+
+    /**
+     * Política de la que procede; el residuo no vale para otra versión
+     */
+    public CompiledPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+}
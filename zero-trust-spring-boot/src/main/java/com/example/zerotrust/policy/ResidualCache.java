@@ -0,0 +1,75 @@
+package com.example.zerotrust.policy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Residuos de la política por atributos de sujeto
+ *
+ * La clave son los atributos subject.* que lee la política
+ * (CompiledPolicy.subjectKey): todos los tokens de un mismo sujeto, y los de
+ * sujetos equivalentes para la política, comparten residuo. Una entrada de
+ * otra versión de la política es obsoleta y se recalcula. No hay TTL: el
+ * residuo solo depende de la política y de claims firmados.
+ *
+ * Métricas: zerotrust.policy.residual.requests{result=hit|miss|stale} y
+ * zerotrust.policy.residual.size.
+ */
+final class ResidualCache {
+
+    private final Cache<DecisionKey, Residual> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+
+    ResidualCache(long maximumSize, MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        registerMetrics(registry);
+    }
+
+    Residual residual(CompiledPolicy policy, AuthorizationRequest request) {
+        DecisionKey key = policy.subjectKey(request);
+        Residual residual = cache.getIfPresent(key);
+        if (residual != null && residual.getPolicy() == policy) {
+            hits.increment();
+            return residual;
+        }
+        if (residual == null) {
+            misses.increment();
+        } else {
+            stale.increment();
+        }
+        residual = policy.partialEvaluate(request.subject());
+        cache.put(key, residual);
+        return residual;
+    }
+
+    long size() {
+        return cache.estimatedSize();
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("zerotrust.policy.residual.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Policy residuals reused for a subject")
+                .register(registry);
+        FunctionCounter.builder("zerotrust.policy.residual.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Policy residuals computed for a new subject")
+                .register(registry);
+        FunctionCounter.builder("zerotrust.policy.residual.requests", stale, LongAdder::sum)
+                .tag("result", "stale")
+                .description("Policy residuals recomputed because the policy bundle changed")
+                .register(registry);
+        Gauge.builder("zerotrust.policy.residual.size", this, ResidualCache::size)
+                .description("Cached policy residuals")
+                .register(registry);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.zerotrust.policy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Árbol de discriminación recurso → acción → rol sobre las reglas compiladas
+ *
+ * Cada hoja guarda sus reglas por rango (DENY antes que ALLOW, después
+ * prioridad). Una petición visita como mucho 2 recursos (el suyo y "*") ×
+ * 2 acciones × (roles del sujeto + "*") hojas, de modo que el coste depende
+ * de las reglas que podrían aplicar y no del tamaño del bundle. Como el
+ * resultado es la regla aplicable de menor rango, en cada hoja se deja de
+ * buscar en cuanto el rango supera al mejor encontrado: el resultado es el
+ * mismo que recorrer todas las reglas en orden.
+ */
+final class RuleIndex {
+
+    private final Map<String, ActionNode> byResource;
+    private final ActionNode anyResource;
+
+    private RuleIndex(Map<String, ActionNode> byResource, ActionNode anyResource) {
+        this.byResource = byResource;
+        this.anyResource = anyResource;
+    }
+
+    /**
+     * rules debe venir ordenado por rango: cada hoja conserva ese orden
+     */
+    static RuleIndex build(CompiledRule[] rules) {
+        Map<String, Map<String, Map<String, List<CompiledRule>>>> tree = new HashMap<>();
+        for (CompiledRule rule : rules) {
+            for (String resource : keys(rule.resources)) {
+                Map<String, Map<String, List<CompiledRule>>> actions = tree.computeIfAbsent(resource, key -> new HashMap<>());
+                for (String action : keys(rule.actions)) {
+                    Map<String, List<CompiledRule>> roles = actions.computeIfAbsent(action, key -> new HashMap<>());
+                    for (String role : keys(rule.roles)) {
+                        roles.computeIfAbsent(role, key -> new ArrayList<>()).add(rule);
+                    }
+                }
+            }
+        }
+        Map<String, ActionNode> byResource = new HashMap<>();
+        tree.forEach((resource, actions) -> {
+            if (resource != null) {
+                byResource.put(resource, ActionNode.of(actions));
+            }
+        });
+        return new RuleIndex(byResource, tree.containsKey(null) ? ActionNode.of(tree.get(null)) : null);
+    }
+
+    /**
+     * Regla aplicable de menor rango; null si ninguna aplica
+     */
+    CompiledRule match(AuthorizationRequest request) {
+        CompiledRule best = scan(byResource.get(request.resourceType()), request, null);
+        return scan(anyResource, request, best);
+    }
+
+    private static CompiledRule scan(ActionNode node, AuthorizationRequest request, CompiledRule best) {
+        if (node == null) {
+            return best;
+        }
+        best = scan(node.byAction.get(request.action()), request, best);
+        return scan(node.anyAction, request, best);
+    }
+
+    private static CompiledRule scan(RoleNode node, AuthorizationRequest request, CompiledRule best) {
+        if (node == null) {
+            return best;
+        }
+        best = first(node.anyRole, request, best);
+        List<String> roles = request.subject().getRoles();
+        if (roles != null && !node.byRole.isEmpty()) {
+            for (int i = 0; i < roles.size(); i++) {
+                best = first(node.byRole.get(roles.get(i)), request, best);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Primera regla aplicable de la hoja con rango menor que best (o best)
+     */
+    private static CompiledRule first(CompiledRule[] rules, AuthorizationRequest request, CompiledRule best) {
+        if (rules == null) {
+            return best;
+        }
+        int limit = best != null ? best.rank : Integer.MAX_VALUE;
+        for (CompiledRule rule : rules) {
+            if (rule.rank >= limit) {
+                return best;
+            }
+            if (rule.match.test(request)) {
+                return rule;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Claves de un nivel del árbol; null representa "cualquiera"
+     */
+    private static Iterable<String> keys(Set<String> values) {
+        return values.isEmpty() ? Collections.singletonList(null) : values;
+    }
+
+    private static final class ActionNode {
+
+        final Map<String, RoleNode> byAction;
+        final RoleNode anyAction;
+
+        private ActionNode(Map<String, RoleNode> byAction, RoleNode anyAction) {
+            this.byAction = byAction;
+            this.anyAction = anyAction;
+        }
+
+        static ActionNode of(Map<String, Map<String, List<CompiledRule>>> actions) {
+            Map<String, RoleNode> byAction = new HashMap<>();
+            actions.forEach((action, roles) -> {
+                if (action != null) {
+                    byAction.put(action, RoleNode.of(roles));
+                }
+            });
+            return new ActionNode(byAction, actions.containsKey(null) ? RoleNode.of(actions.get(null)) : null);
+        }
+    }
+
+    private static final class RoleNode {
+
+        final Map<String, CompiledRule[]> byRole;
+        final CompiledRule[] anyRole;
+
+        private RoleNode(Map<String, CompiledRule[]> byRole, CompiledRule[] anyRole) {
+            this.byRole = byRole;
+            this.anyRole = anyRole;
+        }
+
+        static RoleNode of(Map<String, List<CompiledRule>> roles) {
+            Map<String, CompiledRule[]> byRole = new HashMap<>();
+            roles.forEach((role, rules) -> {
+                if (role != null) {
+                    byRole.put(role, rules.toArray(CompiledRule[]::new));
+                }
+            });
+            return new RoleNode(byRole, roles.containsKey(null) ? roles.get(null).toArray(CompiledRule[]::new) : null);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.zerotrust.policy;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Franja horaria "HH:mm-HH:mm[@zona]" (UTC por defecto), inicio incluido y fin excluido
+ *
+ * Si el fin es anterior al inicio la franja cruza la medianoche ("22:00-06:00").
+ * La resolución es el minuto: DecisionCache usa el minuto como clave de context.time.
+ */
+final class TimeWindow {
+
+    private final int startSecond;
+    private final int endSecond;
+    private final ZoneId zone;
+
+    private TimeWindow(int startSecond, int endSecond, ZoneId zone) {
+        this.startSecond = startSecond;
+        this.endSecond = endSecond;
+        this.zone = zone;
+    }
+
+    static TimeWindow parse(String value) {
+        int at = value.indexOf('@');
+        String range = at < 0 ? value : value.substring(0, at);
+        ZoneId zone = at < 0 ? ZoneOffset.UTC : ZoneId.of(value.substring(at + 1));
+        int dash = range.indexOf('-');
+        if (dash < 0) {
+            throw new IllegalArgumentException("Invalid time window: " + value);
+        }
+        return new TimeWindow(minuteOfDay(range.substring(0, dash).trim()),
+                minuteOfDay(range.substring(dash + 1).trim()), zone);
+    }
+
+    private static int minuteOfDay(String time) {
+        int second = LocalTime.parse(time).toSecondOfDay();
+        if (second % 60 != 0) {
+            throw new IllegalArgumentException("Time windows have minute resolution: " + time);
+        }
+        return second;
+    }
+
+    boolean contains(Instant instant) {
+        int second = LocalTime.ofInstant(instant, zone).toSecondOfDay();
+        if (startSecond <= endSecond) {
+            return second >= startSecond && second < endSecond;
+        }
+        return second >= startSecond || second < endSecond;
+    }
+}
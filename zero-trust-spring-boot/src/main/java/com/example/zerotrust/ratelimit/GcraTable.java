@@ -0,0 +1,158 @@
+package com.example.zerotrust.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estado GCRA (generic cell rate algorithm) de muchas claves en memoria fija
+ *
+ * Cada clave ocupa un long: 24 bits de huella del hash y 40 bits del TAT
+ * (theoretical arrival time) en microsegundos, módulo 2^40. Una petición
+ * se admite si max(TAT, now) + intervalo no supera now + límite; el nuevo
+ * TAT se publica con un CAS sobre ese mismo long, así que no hay locks ni
+ * asignación. Las claves se reparten en segmentos con direccionamiento
+ * abierto y MAX_PROBES slots por clave.
+ *
+ * Una clave con TAT <= now equivale a una clave sin estado, así que su slot
+ * se reutiliza sin perder nada; si todos los slots de la clave están en uso
+ * se sustituye el más próximo a quedar inactivo (evictions).
+ */
+final class GcraTable {
+
+    static final int MAX_PROBES = 8;
+
+    /**
+     * Diferencia máxima TAT - now representable (2^39 µs, ~6 días)
+     */
+    static final long MAX_AHEAD = 1L << 39;
+
+    private static final int TAT_BITS = 40;
+    private static final long TAT_MASK = (1L << TAT_BITS) - 1;
+
+    private final AtomicLongArray[] segments;
+    private final int segmentMask;
+    private final int slotMask;
+    private final LongAdder evictions = new LongAdder();
+
+    GcraTable(int segments, int segmentCapacity) {
+        if (Integer.bitCount(segments) != 1 || segments > 1024) {
+            throw new IllegalStateException("Rate limit segments must be a power of two <= 1024: " + segments);
+        }
+        if (Integer.bitCount(segmentCapacity) != 1 || segmentCapacity < MAX_PROBES) {
+            throw new IllegalStateException("Rate limit segment capacity must be a power of two >= " +
+                    MAX_PROBES + ": " + segmentCapacity);
+        }
+        this.segments = new AtomicLongArray[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new AtomicLongArray(segmentCapacity);
+        }
+        this.segmentMask = segments - 1;
+        this.slotMask = segmentCapacity - 1;
+    }
+
+    /**
+     * Consume una petición de la clave
+     *
+     * @param hash     hash de 64 bits de la clave
+     * @param interval microsegundos entre peticiones sostenidas
+     * @param limit    ventaja máxima del TAT sobre now (intervalo × ráfaga), menor que MAX_AHEAD
+     * @param now      reloj monótono en microsegundos
+     * @return 0 si se admite; si no, microsegundos hasta que se admitiría
+     */
+    long acquire(long hash, long interval, long limit, long now) {
+        AtomicLongArray segment = segments[(int) (hash >>> 24) & segmentMask];
+        long fingerprint = fingerprint(hash);
+        int start = (int) hash & slotMask;
+        while (true) {
+            int slot = start;
+            int free = -1;
+            int coldest = start;
+            long coldestAhead = Long.MAX_VALUE;
+            long state = 0;
+            int probe = 0;
+            for (; probe < MAX_PROBES; probe++, slot = (slot + 1) & slotMask) {
+                state = segment.get(slot);
+                if (state == 0 || state >>> TAT_BITS == fingerprint) {
+                    break;
+                }
+                long ahead = ahead(state, now);
+                if (ahead <= 0) {
+                    if (free < 0) {
+                        free = slot;
+                    }
+                } else if (ahead < coldestAhead) {
+                    coldest = slot;
+                    coldestAhead = ahead;
+                }
+            }
+
+            if (probe < MAX_PROBES && state != 0) {
+                // Clave existente; por encima del límite solo puede ser un TAT que dio la vuelta
+                long ahead = ahead(state, now);
+                long next = (ahead > 0 && ahead <= limit ? ahead : 0) + interval;
+                if (next > limit) {
+                    return next - limit;
+                }
+                if (segment.compareAndSet(slot, state, pack(fingerprint, now + next))) {
+                    return 0;
+                }
+                continue;
+            }
+
+            // Clave nueva: slot inactivo, vacío o, si no hay, el más próximo a quedar inactivo
+            boolean evicting = false;
+            if (free < 0) {
+                free = probe < MAX_PROBES ? slot : coldest;
+                evicting = probe == MAX_PROBES;
+            }
+            long expected = segment.get(free);
+            if (expected >>> TAT_BITS == fingerprint || (!evicting && expected != 0 && ahead(expected, now) > 0)) {
+                // Otro hilo ocupó el slot entretanto
+                continue;
+            }
+            if (segment.compareAndSet(free, expected, pack(fingerprint, now + interval))) {
+                if (evicting) {
+                    evictions.increment();
+                }
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Claves con estado (TAT futuro); recorre toda la tabla
+     */
+    long activeKeys(long now) {
+        long active = 0;
+        for (AtomicLongArray segment : segments) {
+            for (int slot = 0; slot <= slotMask; slot++) {
+                long state = segment.get(slot);
+                if (state != 0 && ahead(state, now) > 0) {
+                    active++;
+                }
+            }
+        }
+        return active;
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * TAT - now con signo (módulo 2^40)
+     */
+    private static long ahead(long state, long now) {
+        return ((state - now) << (64 - TAT_BITS)) >> (64 - TAT_BITS);
+    }
+
+    private static long pack(long fingerprint, long tat) {
+        return fingerprint << TAT_BITS | (tat & TAT_MASK);
+    }
+
+    private static long fingerprint(long hash) {
+        long fingerprint = hash >>> TAT_BITS;
+        // 0 marca un slot vacío
+        return fingerprint != 0 ? fingerprint : 1;
+    }
+}
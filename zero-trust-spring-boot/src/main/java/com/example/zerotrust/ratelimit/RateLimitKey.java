@@ -0,0 +1,11 @@
+package com.example.zerotrust.ratelimit;
+
+/**
+ * Dimensión por la que se cuenta un límite de peticiones
+ *
+ * IP es la dirección de la conexión y se comprueba antes de validar el
+ * token; SUBJECT y DEVICE salen de los claims ya validados.
+ */
+public enum RateLimitKey {
+    IP, SUBJECT, DEVICE
+}
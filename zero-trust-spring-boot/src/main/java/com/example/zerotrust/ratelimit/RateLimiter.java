@@ -0,0 +1,206 @@
+package com.example.zerotrust.ratelimit;
+
+import com.example.zerotrust.config.RateLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Límites de peticiones por IP, sujeto y dispositivo (app.rate-limit)
+ *
+ * Para cada RateLimitKey se aplica el límite cuyo path es más específico;
+ * las reglas se resuelven al arrancar y en cada petición solo se recorren
+ * arrays y se actualiza un long en GcraTable. El hash de la clave lleva una
+ * semilla aleatoria por proceso para que no se puedan fabricar colisiones.
+ * Con un TokenLeaseStore (app.rate-limit.cluster.enabled) los límites con
+ * cluster: true se cuentan en todos los nodos mediante TokenLeases; si el
+ * store falla se aplica el mismo límite localmente.
+ *
+ * Métricas: zerotrust.ratelimit.requests{result}, zerotrust.ratelimit.keys,
+ * zerotrust.ratelimit.evictions y, en cluster, zerotrust.ratelimit.leases{result}.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final boolean enabled;
+    private final GcraTable table;
+    private final Rule[][] rulesByKey;
+    private final TokenLeases leases;
+    private final long seed = new SecureRandom().nextLong();
+    private final LongSupplier nanoClock;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry,
+                       ObjectProvider<TokenLeaseStore> leaseStore) {
+        this(properties, meterRegistry, leaseStore.getIfAvailable(), System::nanoTime);
+    }
+
+    /**
+     * Con contador global (null: solo límites locales) y reloj explícito (tests)
+     */
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry,
+                TokenLeaseStore leaseStore, LongSupplier nanoClock) {
+        this.enabled = properties.isEnabled();
+        this.table = new GcraTable(properties.getSegments(), properties.getSegmentCapacity());
+        this.rulesByKey = compile(properties.getLimits());
+        this.leases = leaseStore != null
+                ? new TokenLeases(leaseStore, properties.getCluster(), properties.getLimits().size())
+                : null;
+        this.nanoClock = nanoClock;
+        FunctionCounter.builder("zerotrust.ratelimit.requests", allowed, LongAdder::sum)
+                .tag("result", "allowed")
+                .description("Requests admitted by the rate limiter")
+                .register(meterRegistry);
+        FunctionCounter.builder("zerotrust.ratelimit.requests", limited, LongAdder::sum)
+                .tag("result", "limited")
+                .description("Requests rejected by the rate limiter")
+                .register(meterRegistry);
+        Gauge.builder("zerotrust.ratelimit.keys", this, RateLimiter::activeKeys)
+                .description("Rate limit keys with pending state")
+                .register(meterRegistry);
+        FunctionCounter.builder("zerotrust.ratelimit.evictions", table, GcraTable::evictions)
+                .description("Active rate limit keys replaced because their slots were full")
+                .register(meterRegistry);
+        if (leases != null) {
+            FunctionCounter.builder("zerotrust.ratelimit.leases", leases, TokenLeases::refills)
+                    .tag("result", "granted")
+                    .description("Token lease requests answered by the cluster store")
+                    .register(meterRegistry);
+            FunctionCounter.builder("zerotrust.ratelimit.leases", leases, TokenLeases::failures)
+                    .tag("result", "failed")
+                    .description("Token lease requests that fell back to the local limit")
+                    .register(meterRegistry);
+        }
+        log.info("Rate limiter: {} limits (enabled={}, cluster={})",
+                properties.getLimits().size(), enabled, leases != null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Si hay algún límite para la clave indicada
+     */
+    public boolean limits(RateLimitKey key) {
+        return enabled && rulesByKey[key.ordinal()].length > 0;
+    }
+
+    /**
+     * Consume una petición de value en el límite de path
+     *
+     * @return 0 si se admite (o no hay límite); si no, microsegundos hasta que se admitiría
+     */
+    public long tryAcquire(RateLimitKey key, String value, String path) {
+        if (!enabled || value == null) {
+            return 0;
+        }
+        Rule rule = rule(rulesByKey[key.ordinal()], path);
+        if (rule == null) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        long wait = rule.cluster() && leases != null ? leases.acquire(rule, value, now) : TokenLeases.FALLBACK;
+        if (wait == TokenLeases.FALLBACK) {
+            wait = table.acquire(hash(rule.index(), value), rule.interval(), rule.limit(), now / 1000);
+        }
+        (wait == 0 ? allowed : limited).increment();
+        return wait;
+    }
+
+    public long activeKeys() {
+        return table.activeKeys(nanoClock.getAsLong() / 1000);
+    }
+
+    private static Rule rule(Rule[] rules, String path) {
+        for (Rule rule : rules) {
+            if (rule.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private long hash(int index, String value) {
+        long hash = seed ^ (index + 1) * 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        // fmix64 de MurmurHash3: los bits altos (huella) dependen de todos los caracteres
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static Rule[][] compile(Map<String, RateLimitProperties.Limit> limits) {
+        List<List<Rule>> rules = new ArrayList<>();
+        for (int i = 0; i < RateLimitKey.values().length; i++) {
+            rules.add(new ArrayList<>());
+        }
+        int index = 0;
+        for (Map.Entry<String, RateLimitProperties.Limit> entry : limits.entrySet()) {
+            RateLimitProperties.Limit limit = entry.getValue();
+            String path = limit.getPath();
+            if (!path.startsWith("/")) {
+                throw new IllegalStateException("Rate limit " + entry.getKey() + " path must start with /: " + path);
+            }
+            boolean exact = !path.endsWith("/**");
+            long interval = limit.getPeriod().toNanos() / 1000 / limit.getRequests();
+            if (interval < 1) {
+                throw new IllegalStateException("Rate limit " + entry.getKey() + " is above one request per microsecond");
+            }
+            if (limit.getBurst() >= GcraTable.MAX_AHEAD / interval) {
+                throw new IllegalStateException("Rate limit " + entry.getKey() + " burst window is too long");
+            }
+            rules.get(limit.getKey().ordinal()).add(new Rule(entry.getKey(),
+                    exact ? path : path.substring(0, path.length() - 3), exact, index++,
+                    interval, interval * limit.getBurst(), limit.getBurst(), limit.isCluster()));
+        }
+        Rule[][] compiled = new Rule[rules.size()][];
+        for (int i = 0; i < compiled.length; i++) {
+            // El más específico primero: prefijo más largo y, a igual longitud, el exacto
+            rules.get(i).sort(Comparator.comparingInt(Rule::specificity).reversed());
+            compiled[i] = rules.get(i).toArray(Rule[]::new);
+        }
+        return compiled;
+    }
+
+    /**
+     * Límite compilado: intervalo y límite GCRA en microsegundos; burst es la capacidad del contador global
+     */
+    record Rule(String name, String prefix, boolean exact, int index, long interval, long limit,
+                long burst, boolean cluster) {
+
+        boolean matches(String path) {
+            if (exact) {
+                return path.equals(prefix);
+            }
+            return path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+        }
+
+        int specificity() {
+            return prefix.length() * 2 + (exact ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.zerotrust.ratelimit;
+
+import com.example.zerotrust.config.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Token buckets globales en Redis, uno por clave, actualizados con un script Lua
+ *
+ * El script rellena el bucket según el tiempo de Redis (TIME, igual para
+ * todos los nodos), retira los tokens concedidos y fija un TTL igual al
+ * tiempo de rellenarlo entero: una clave que caduca equivale a un bucket
+ * lleno, así que Redis solo guarda las claves con consumo reciente.
+ * Cada llamada es un solo round trip (EVALSHA) por lote, no por petición.
+ *
+ * Usa una conexión propia con command-timeout corto: TokenLeases llama al
+ * store con el lock del lote tomado, y con el timeout general de Lettuce
+ * (spring.data.redis.timeout) un Redis caído retendría esas peticiones.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit.cluster", name = "enabled", havingValue = "true")
+public class RedisTokenLeaseStore implements TokenLeaseStore, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisTokenLeaseStore.class);
+
+    /**
+     * KEYS[1] bucket; ARGV: solicitados, µs por token, capacidad. Devuelve los concedidos
+     */
+    static final String LEASE_SCRIPT = """
+            local requested = tonumber(ARGV[1])
+            local interval = tonumber(ARGV[2])
+            local capacity = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            if now > ts then
+              tokens = math.min(capacity, tokens + (now - ts) / interval)
+            end
+            local granted = math.min(requested, math.floor(tokens))
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tokens, 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) * interval / 1000) + 1000)
+            return granted
+            """;
+
+    private static final RedisScript<Long> SCRIPT = RedisScript.of(LEASE_SCRIPT, Long.class);
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Mismo servidor, SSL y nombre de cliente que la conexión de Spring Boot, con cluster.command-timeout
+     */
+    public RedisTokenLeaseStore(LettuceConnectionFactory sharedConnectionFactory, RateLimitProperties properties) {
+        LettuceClientConfiguration shared = sharedConnectionFactory.getClientConfiguration();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder client = LettuceClientConfiguration.builder()
+                .commandTimeout(properties.getCluster().getCommandTimeout());
+        if (shared.isUseSsl()) {
+            client.useSsl();
+        }
+        shared.getClientName().ifPresent(client::clientName);
+
+        this.connectionFactory = new LettuceConnectionFactory(redisConfiguration(sharedConnectionFactory),
+                client.build());
+        this.connectionFactory.afterPropertiesSet();
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        log.info("Cluster rate limits enabled: token leases from Redis (command timeout {})",
+                properties.getCluster().getCommandTimeout());
+    }
+
+    @Override
+    public long lease(String key, long requested, long intervalMicros, long capacity) {
+        Long granted = redisTemplate.execute(SCRIPT, List.of(key),
+                Long.toString(requested), Long.toString(intervalMicros), Long.toString(capacity));
+        return granted != null ? granted : 0;
+    }
+
+    @Override
+    public void destroy() {
+        connectionFactory.destroy();
+    }
+
+    private static RedisConfiguration redisConfiguration(LettuceConnectionFactory connectionFactory) {
+        if (connectionFactory.getClusterConfiguration() != null) {
+            return connectionFactory.getClusterConfiguration();
+        }
+        if (connectionFactory.getSentinelConfiguration() != null) {
+            return connectionFactory.getSentinelConfiguration();
+        }
+        return connectionFactory.getStandaloneConfiguration();
+    }
+}
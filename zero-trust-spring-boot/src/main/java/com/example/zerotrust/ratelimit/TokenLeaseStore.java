@@ -0,0 +1,14 @@
+package com.example.zerotrust.ratelimit;
+
+/**
+ * Contador global de tokens compartido por los nodos (límites con cluster: true)
+ *
+ * Cada clave es un token bucket de capacity tokens que recupera uno cada
+ * intervalMicros; lease retira hasta requested tokens de una vez y
+ * devuelve los concedidos (0 si el bucket está vacío). Las excepciones
+ * hacen que el nodo vuelva a su límite local.
+ */
+public interface TokenLeaseStore {
+
+    long lease(String key, long requested, long intervalMicros, long capacity);
+}
@@ -0,0 +1,186 @@
+package com.example.zerotrust.ratelimit;
+
+import com.example.zerotrust.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lotes de tokens alquilados a un TokenLeaseStore y gastados localmente
+ *
+ * Cada clave de un límite con cluster: true tiene un Lease: las peticiones
+ * consumen un token con CAS y solo la que lo encuentra vacío pide otro lote
+ * (un round trip por lote). El tamaño del lote sigue al ritmo observado en
+ * el nodo (media móvil) para cubrir lease-target de tráfico, entre min-lease
+ * y max-lease. Los tokens se retiran del contador global antes de gastarse,
+ * así que el límite global nunca se supera: el error es por defecto, como
+ * mucho los tokens sin gastar de cada nodo (nodos × max-lease), que se
+ * descartan al caducar el lote (lease-ttl). Si el store falla, el límite
+ * vuelve a ser local (FALLBACK) y no se reintenta hasta pasado lease-ttl.
+ */
+final class TokenLeases {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenLeases.class);
+
+    /**
+     * El store no respondió: aplicar el límite local
+     */
+    static final long FALLBACK = -1;
+
+    private final TokenLeaseStore store;
+    private final String keyPrefix;
+    private final long leaseTargetNanos;
+    private final long leaseTtlNanos;
+    private final long minLease;
+    private final long maxLease;
+    private final Cache<String, Lease>[] leasesByRule;
+    private final LongAdder refills = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    // Tras un fallo del store no se le vuelve a llamar hasta aquí (nanoTime)
+    private volatile long storeRetryAt;
+    private volatile boolean storeDown;
+
+    @SuppressWarnings("unchecked")
+    TokenLeases(TokenLeaseStore store, RateLimitProperties.Cluster properties, int rules) {
+        if (properties.getMinLease() > properties.getMaxLease()) {
+            throw new IllegalStateException("Min lease (" + properties.getMinLease() +
+                    ") cannot exceed max lease (" + properties.getMaxLease() + ")");
+        }
+        this.store = store;
+        this.keyPrefix = properties.getKeyPrefix();
+        this.leaseTargetNanos = properties.getLeaseTarget().toNanos();
+        this.leaseTtlNanos = properties.getLeaseTtl().toNanos();
+        this.minLease = properties.getMinLease();
+        this.maxLease = properties.getMaxLease();
+        this.leasesByRule = new Cache[rules];
+        for (int i = 0; i < rules; i++) {
+            leasesByRule[i] = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaxKeys())
+                    .expireAfterAccess(properties.getLeaseTtl().multipliedBy(2))
+                    .build();
+        }
+    }
+
+    /**
+     * Consume un token global de value
+     *
+     * @return 0 si se admite, microsegundos de espera si no, o FALLBACK
+     */
+    long acquire(RateLimiter.Rule rule, String value, long now) {
+        Lease lease = leasesByRule[rule.index()].get(value, key -> new Lease());
+        if (lease.tryTake(now)) {
+            return 0;
+        }
+        long denied = lease.deniedUntil - now;
+        if (denied > 0) {
+            // Contador global vacío: no se vuelve a preguntar hasta que se rellene un token
+            return Math.max(1, denied / 1000);
+        }
+
+        if (storeDown && now - storeRetryAt < 0) {
+            return FALLBACK;
+        }
+
+        lease.lock.lock();
+        try {
+            // Otro hilo pudo renovar el lote mientras se esperaba el lock
+            if (lease.tryTake(now)) {
+                return 0;
+            }
+            long requested = lease.nextSize(now, leaseTargetNanos, minLease, Math.min(maxLease, rule.burst()));
+            long granted;
+            try {
+                granted = store.lease(keyPrefix + rule.name() + ":" + value, requested,
+                        rule.interval(), rule.burst());
+            } catch (RuntimeException e) {
+                failures.increment();
+                if (!storeDown) {
+                    log.warn("Token lease store unavailable, using local rate limits: {}", e.getMessage());
+                }
+                // Un reintento por lease-ttl: las peticiones no esperan al timeout del store
+                storeRetryAt = now + leaseTtlNanos;
+                storeDown = true;
+                return FALLBACK;
+            }
+            if (storeDown) {
+                storeDown = false;
+                log.info("Token lease store available again");
+            }
+            refills.increment();
+            if (granted <= 0) {
+                lease.refill(0, 0, now, now);
+                lease.deniedUntil = now + rule.interval() * 1000;
+                return rule.interval();
+            }
+            // Uno de los concedidos es para esta petición
+            lease.refill(granted, granted - 1, now, now + leaseTtlNanos);
+            return 0;
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    long refills() {
+        return refills.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * Tokens alquilados de una clave; el lock solo lo toma quien renueva
+     */
+    static final class Lease {
+
+        final AtomicLong tokens = new AtomicLong();
+        final ReentrantLock lock = new ReentrantLock();
+        volatile long expiresAt;
+        volatile long deniedUntil;
+
+        // Protegidos por lock
+        private long granted;
+        private long refilledAt;
+        private double rate;
+
+        boolean tryTake(long now) {
+            if (now - expiresAt >= 0) {
+                return false;
+            }
+            long available;
+            while ((available = tokens.get()) > 0) {
+                if (tokens.compareAndSet(available, available - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Tamaño del siguiente lote: ritmo del lote anterior (media móvil) × lease-target
+         */
+        long nextSize(long now, long targetNanos, long min, long max) {
+            long elapsed = now - refilledAt;
+            if (granted > 0 && elapsed > 0) {
+                long used = granted - Math.max(tokens.get(), 0);
+                double observed = used * 1e9 / elapsed;
+                rate = rate == 0 ? observed : (rate + observed) / 2;
+            }
+            long size = (long) Math.ceil(rate * targetNanos / 1e9);
+            return Math.max(min, Math.min(max, size));
+        }
+
+        void refill(long granted, long available, long now, long expiresAt) {
+            this.granted = granted;
+            this.refilledAt = now;
+            this.tokens.set(available);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
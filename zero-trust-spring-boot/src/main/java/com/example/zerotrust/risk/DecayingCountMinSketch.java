@@ -0,0 +1,112 @@
+package com.example.zerotrust.risk;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch con decaimiento exponencial y tamaño fijo
+ *
+ * depth filas de width contadores de 16 bits (saturados), cuatro por long.
+ * Cada halfLifeMillis todos los contadores se dividen por dos: el primer
+ * evento del periodo gana el CAS de la época y desplaza cada palabra (las
+ * cuatro mitades a la vez). Las lecturas aplican en el momento las mitades
+ * pendientes. La estimación nunca es menor que la frecuencia real decaída.
+ */
+final class DecayingCountMinSketch {
+
+    private static final int LANE_BITS = 16;
+    private static final long LANE_MAX = (1L << LANE_BITS) - 1;
+
+    private final int depth;
+    private final int widthMask;
+    private final int width;
+    private final long halfLifeMillis;
+    private final AtomicLongArray counters;
+    private final AtomicLong epoch = new AtomicLong(-1);
+
+    DecayingCountMinSketch(int depth, int width, long halfLifeMillis) {
+        if (Integer.bitCount(width) != 1 || width < 4) {
+            throw new IllegalStateException("Count-min sketch width must be a power of two >= 4: " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.widthMask = width - 1;
+        this.halfLifeMillis = halfLifeMillis;
+        this.counters = new AtomicLongArray(depth * width / 4);
+    }
+
+    void add(String item, long nowMillis) {
+        decayTo(nowMillis / halfLifeMillis);
+        long hash = HyperLogLog.hash(item);
+        for (int row = 0; row < depth; row++) {
+            increment(row * width + column(hash, row));
+        }
+    }
+
+    /**
+     * Frecuencia decaída estimada (cota superior)
+     */
+    long estimate(String item, long nowMillis) {
+        long current = epoch.get();
+        if (current < 0) {
+            return 0;
+        }
+        long pending = Math.max(0, nowMillis / halfLifeMillis - current);
+        if (pending >= LANE_BITS) {
+            return 0;
+        }
+        long hash = HyperLogLog.hash(item);
+        long min = LANE_MAX;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + column(hash, row);
+            min = Math.min(min, (counters.get(index >>> 2) >>> ((index & 3) * LANE_BITS)) & LANE_MAX);
+        }
+        return min >>> pending;
+    }
+
+    private int column(long hash, int row) {
+        // Doble hashing (Kirsch-Mitzenmacher) con las dos mitades del hash
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & widthMask;
+    }
+
+    private void increment(int index) {
+        int word = index >>> 2;
+        int shift = (index & 3) * LANE_BITS;
+        while (true) {
+            long current = counters.get(word);
+            if (((current >>> shift) & LANE_MAX) == LANE_MAX) {
+                return;
+            }
+            if (counters.compareAndSet(word, current, current + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decayTo(long target) {
+        long current = epoch.get();
+        if (current >= target || !epoch.compareAndSet(current, target)) {
+            return;
+        }
+        if (current < 0) {
+            return;
+        }
+        long halvings = target - current;
+        if (halvings >= LANE_BITS) {
+            for (int word = 0; word < counters.length(); word++) {
+                counters.set(word, 0);
+            }
+            return;
+        }
+        long laneMask = LANE_MAX >>> halvings;
+        long mask = laneMask | laneMask << 16 | laneMask << 32 | laneMask << 48;
+        for (int word = 0; word < counters.length(); word++) {
+            long value;
+            do {
+                value = counters.get(word);
+            } while (!counters.compareAndSet(word, value, (value >>> halvings) & mask));
+        }
+    }
+}
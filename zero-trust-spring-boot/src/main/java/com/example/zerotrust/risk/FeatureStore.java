@@ -0,0 +1,214 @@
+package com.example.zerotrust.risk;
+
+import com.example.zerotrust.config.RiskProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Features aproximadas de riesgo con memoria fija
+ *
+ * Por sujeto: IPs distintas en app.risk.features.distinct-window
+ * (WindowedHyperLogLog) y peticiones por endpoint con decaimiento
+ * (DecayingCountMinSketch). Por sessionId: dispositivos distintos en la
+ * misma ventana. El perfil del sujeto (IPs y dispositivos con actividad
+ * correcta y horas del día en que opera) dura app.risk.features.profile-ttl
+ * sin actividad y lo usa TokenLifetimePolicy. Las claves salen de los claims del token (subject,
+ * sessionId); los valores, de la petición. El número de sujetos y de
+ * sesiones está acotado (Caffeine, por recencia) y los inactivos durante
+ * una ventana completa se descartan.
+ *
+ * Métricas: zerotrust.risk.features.subjects y zerotrust.risk.features.sessions.
+ */
+@Component
+public class FeatureStore {
+
+    private static final int KNOWN_VALUES = 8;
+
+    private final RiskProperties.Features properties;
+    private final ZoneId zone;
+    private final long sliceMillis;
+    private final LongSupplier clock;
+    private final Cache<String, SubjectFeatures> subjects;
+    private final Cache<String, WindowedHyperLogLog> sessions;
+    private final Cache<String, SubjectProfile> profiles;
+
+    @Autowired
+    public FeatureStore(RiskProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    /**
+     * Con reloj en milisegundos explícito (tests)
+     */
+    public FeatureStore(RiskProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties.getFeatures();
+        this.zone = properties.getZone();
+        this.sliceMillis = Math.max(1, this.properties.getDistinctWindow().toMillis() / this.properties.getSlices());
+        this.clock = clock;
+        // Valida precisión y ancho al arrancar y no con el primer evento
+        new SubjectFeatures(this.properties, sliceMillis);
+        this.subjects = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSubjects())
+                .expireAfterAccess(this.properties.getDistinctWindow())
+                .build();
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(this.properties.getMaxSessions())
+                .expireAfterAccess(this.properties.getDistinctWindow())
+                .build();
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSubjects())
+                .expireAfterAccess(this.properties.getProfileTtl())
+                .build();
+        Gauge.builder("zerotrust.risk.features.subjects", subjects, Cache::estimatedSize)
+                .description("Subjects with risk feature sketches in memory")
+                .register(meterRegistry);
+        Gauge.builder("zerotrust.risk.features.sessions", sessions, Cache::estimatedSize)
+                .description("Sessions with a device sketch in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Añade la IP, el endpoint y el dispositivo del evento a los sketches de su sujeto y sesión
+     */
+    public void record(RiskEvent event) {
+        long now = event.timestamp() != null ? event.timestamp().toEpochMilli() : clock.getAsLong();
+        if (event.subject() != null) {
+            SubjectFeatures features = subjects.get(event.subject(), s -> new SubjectFeatures(properties, sliceMillis));
+            if (event.ipAddress() != null) {
+                features.ips.add(event.ipAddress(), now);
+            }
+            if (event.endpoint() != null) {
+                features.endpoints.add(event.endpoint(), now);
+            }
+            if (event.outcome() == RiskEvent.Outcome.SUCCESS) {
+                profiles.get(event.subject(), s -> new SubjectProfile())
+                        .remember(event.ipAddress(), event.deviceId(), hourOfDay(now));
+            }
+        }
+        if (event.sessionId() != null && event.deviceId() != null) {
+            sessions.get(event.sessionId(), s -> new WindowedHyperLogLog(
+                    properties.getSlices(), sliceMillis, properties.getPrecision()))
+                    .add(event.deviceId(), now);
+        }
+    }
+
+    /**
+     * Features del sujeto y la sesión de un token
+     */
+    public Features features(JwtClaims claims) {
+        return features(claims.getSubject(), claims.getSessionId());
+    }
+
+    public Features features(String subject, String sessionId) {
+        return new Features(distinctIps(subject), distinctDevices(sessionId));
+    }
+
+    /**
+     * IPs distintas estimadas del sujeto en la ventana
+     */
+    public long distinctIps(String subject) {
+        SubjectFeatures features = subject != null ? subjects.getIfPresent(subject) : null;
+        return features != null ? features.ips.estimate(clock.getAsLong()) : 0;
+    }
+
+    /**
+     * Dispositivos distintos estimados de la sesión en la ventana
+     */
+    public long distinctDevices(String sessionId) {
+        WindowedHyperLogLog devices = sessionId != null ? sessions.getIfPresent(sessionId) : null;
+        return devices != null ? devices.estimate(clock.getAsLong()) : 0;
+    }
+
+    /**
+     * Peticiones decaídas del sujeto al endpoint (cota superior)
+     */
+    public long endpointRequests(String subject, String endpoint) {
+        SubjectFeatures features = subject != null ? subjects.getIfPresent(subject) : null;
+        return features != null ? features.endpoints.estimate(endpoint, clock.getAsLong()) : 0;
+    }
+
+    /**
+     * Si el sujeto ha tenido actividad correcta desde la IP
+     */
+    public boolean isKnownIp(String subject, String ipAddress) {
+        SubjectProfile profile = subject != null ? profiles.getIfPresent(subject) : null;
+        return profile != null && ipAddress != null && profile.knownIps.contains(ipAddress);
+    }
+
+    /**
+     * Si el sujeto ha tenido actividad correcta desde el dispositivo
+     */
+    public boolean isKnownDevice(String subject, String deviceId) {
+        SubjectProfile profile = subject != null ? profiles.getIfPresent(subject) : null;
+        return profile != null && deviceId != null && profile.knownDevices.contains(deviceId);
+    }
+
+    /**
+     * Si el sujeto ha tenido actividad correcta a esa hora del día (app.risk.zone)
+     */
+    public boolean isActiveHour(String subject, long epochMillis) {
+        SubjectProfile profile = subject != null ? profiles.getIfPresent(subject) : null;
+        return profile != null && (profile.hours.get() & (1 << hourOfDay(epochMillis))) != 0;
+    }
+
+    /**
+     * Hora del día en app.risk.zone
+     */
+    public int hourOfDay(long epochMillis) {
+        long seconds = Math.floorDiv(epochMillis, 1000);
+        int offset = zone.getRules().getOffset(Instant.ofEpochSecond(seconds)).getTotalSeconds();
+        return (int) (Math.floorMod(seconds + offset, 86_400L) / 3600);
+    }
+
+    /**
+     * IPs distintas del sujeto y dispositivos distintos de la sesión
+     */
+    public record Features(long distinctIps, long sessionDevices) {
+    }
+
+    private static final class SubjectFeatures {
+
+        final WindowedHyperLogLog ips;
+        final DecayingCountMinSketch endpoints;
+
+        SubjectFeatures(RiskProperties.Features properties, long sliceMillis) {
+            this.ips = new WindowedHyperLogLog(properties.getSlices(), sliceMillis, properties.getPrecision());
+            this.endpoints = new DecayingCountMinSketch(properties.getSketchDepth(), properties.getSketchWidth(),
+                    Math.max(1, properties.getFrequencyHalfLife().toMillis()));
+        }
+    }
+
+    /**
+     * IPs, dispositivos y horas con actividad correcta: ~150 bytes por sujeto
+     */
+    private static final class SubjectProfile {
+
+        final KnownValues knownIps = new KnownValues(KNOWN_VALUES);
+        final KnownValues knownDevices = new KnownValues(KNOWN_VALUES);
+        // Bit h = actividad correcta a la hora h
+        final AtomicInteger hours = new AtomicInteger();
+
+        void remember(String ipAddress, String deviceId, int hour) {
+            if (ipAddress != null) {
+                knownIps.remember(ipAddress);
+            }
+            if (deviceId != null) {
+                knownDevices.remember(deviceId);
+            }
+            int bit = 1 << hour;
+            if ((hours.get() & bit) == 0) {
+                hours.getAndUpdate(mask -> mask | bit);
+            }
+        }
+    }
+}
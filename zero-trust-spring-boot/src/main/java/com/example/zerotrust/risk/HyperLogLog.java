@@ -0,0 +1,142 @@
+package com.example.zerotrust.risk;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HyperLogLog denso de tamaño fijo y sin locks
+ *
+ * 2^p registros de 8 bits empaquetados de 8 en 8 en un AtomicLongArray
+ * (2^p bytes); add() es un CAS de máximo sobre un byte. Hash de 64 bits
+ * como HLL++, pero en lugar de su tabla empírica de sesgo se usa el
+ * estimador de Ertl sobre el histograma de registros, sin sesgo en todo el
+ * rango y sin tablas. Sin representación dispersa: la memoria es la misma
+ * desde el primer elemento.
+ */
+final class HyperLogLog {
+
+    private static final double ALPHA_INF = 1 / (2 * Math.log(2));
+
+    static final int MIN_PRECISION = 4;
+    static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final AtomicLongArray registers;
+
+    HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalStateException("HyperLogLog precision must be between " +
+                    MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registers = new AtomicLongArray((1 << precision) >>> 3);
+    }
+
+    void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // El bit centinela acota el rango a 64 - p + 1
+        long rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        int word = index >>> 3;
+        int shift = (index & 7) << 3;
+        while (true) {
+            long current = registers.get(word);
+            if (((current >>> shift) & 0xFF) >= rank) {
+                return;
+            }
+            long next = (current & ~(0xFFL << shift)) | (rank << shift);
+            if (registers.compareAndSet(word, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Máximo registro a registro sobre el acumulado (unión de sketches)
+     */
+    void mergeInto(byte[] union) {
+        for (int word = 0; word < registers.length(); word++) {
+            long value = registers.get(word);
+            for (int lane = 0; lane < 8 && value != 0; lane++, value >>>= 8) {
+                int index = (word << 3) + lane;
+                union[index] = (byte) Math.max(union[index], (int) (value & 0xFF));
+            }
+        }
+    }
+
+    void clear() {
+        for (int word = 0; word < registers.length(); word++) {
+            registers.set(word, 0);
+        }
+    }
+
+    int precision() {
+        return precision;
+    }
+
+    /**
+     * Cardinalidad estimada de unos registros de precisión p
+     */
+    static long estimate(byte[] registers, int precision) {
+        int m = registers.length;
+        int q = 64 - precision;
+        int[] histogram = new int[q + 2];
+        for (byte register : registers) {
+            histogram[register]++;
+        }
+        if (histogram[0] == m) {
+            return 0;
+        }
+        // Estimador mejorado de Ertl sobre el histograma de registros
+        double z = m * tau(1 - (double) histogram[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma((double) histogram[0] / m);
+        return Math.round(ALPHA_INF * m * m / z);
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a y mezcla final de MurmurHash3) de un valor de claim
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static double sigma(double x) {
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+}
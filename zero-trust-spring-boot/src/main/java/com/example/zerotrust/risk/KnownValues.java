@@ -0,0 +1,32 @@
+package com.example.zerotrust.risk;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Conjunto aproximado y de tamaño fijo de valores vistos (IPs, dispositivos)
+ *
+ * Tabla de correspondencia directa: cada valor ocupa el slot de su hash y
+ * desplaza al que hubiera. Con pocos valores habituales por sujeto basta
+ * con 8 slots; un valor desplazado vuelve a ser "desconocido", nunca al
+ * revés salvo colisión completa de 64 bits.
+ */
+final class KnownValues {
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    KnownValues(int size) {
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    void remember(String value) {
+        long hash = HyperLogLog.hash(value) | 1;
+        slots.set((int) (hash >>> 1) & mask, hash);
+    }
+
+    boolean contains(String value) {
+        long hash = HyperLogLog.hash(value) | 1;
+        return slots.get((int) (hash >>> 1) & mask) == hash;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.zerotrust.risk;
+
+import com.example.zerotrust.config.RiskProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Replica entre réplicas los ajustes de SessionRiskOverlay con Redis pub/sub
+ *
+ * Cada escritura local (riesgo, denegación o borrado) se publica en
+ * app.risk.overlay.propagation.channel con el valor resultante; el resto de
+ * nodos lo combina en su tabla sin volver a publicarlo. La validación sigue
+ * leyendo solo la tabla local. Pub/sub no guarda mensajes: un nodo que
+ * arranca después de una escritura no la recibe (los ajustes duran como
+ * mucho max-ttl y se pueden repetir). Si Redis rechaza la publicación la
+ * petición del operador falla y el ajuste queda solo en este nodo.
+ *
+ * Mensaje: {nodo}|{valor en hex}|{sessionId}
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.risk.overlay.propagation", name = "enabled", havingValue = "true")
+public class RedisSessionRiskPropagation implements MessageListener, SmartLifecycle, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisSessionRiskPropagation.class);
+
+    private final SessionRiskOverlay overlay;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+
+    public RedisSessionRiskPropagation(SessionRiskOverlay overlay, StringRedisTemplate redisTemplate,
+                                       RiskProperties properties) {
+        this.overlay = overlay;
+        this.redisTemplate = redisTemplate;
+        this.channel = properties.getOverlay().getPropagation().getChannel();
+        container.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        overlay.setChangeListener(this::publish);
+        log.info("Session risk overlay propagation enabled on channel {}", channel);
+    }
+
+    void publish(String sessionId, long value) {
+        redisTemplate.convertAndSend(channel, nodeId + '|' + Long.toHexString(value) + '|' + sessionId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("Malformed session overlay message ignored");
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            overlay.applyReplicated(parts[2], Long.parseUnsignedLong(parts[1], 16));
+        } catch (NumberFormatException e) {
+            log.warn("Malformed session overlay value ignored: {}", parts[1]);
+        }
+    }
+
+    @Override
+    public void start() {
+        container.start();
+    }
+
+    @Override
+    public void stop() {
+        container.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container.isRunning();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        overlay.setChangeListener(null);
+        container.destroy();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.zerotrust.risk;
+
+/**
+ * Contexto de riesgo de una emisión: puntuación actual y condiciones de TokenLifetimePolicy
+ */
+public record RiskAssessment(double riskScore,
+                             boolean mfa,
+                             boolean knownIp,
+                             boolean verifiedDevice,
+                             boolean usualHour) {
+}
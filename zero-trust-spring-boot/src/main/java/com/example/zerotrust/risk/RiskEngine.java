@@ -0,0 +1,130 @@
+package com.example.zerotrust.risk;
+
+import com.example.zerotrust.config.RiskProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Motor de riesgo continuo por sujeto
+ *
+ * RiskEventFilter registra cada petición autenticada (record) y
+ * validateZeroTrustClaims consulta score() en cada validación, de modo que
+ * riskScore refleja los fallos, cambios de IP/dispositivo y ráfagas de la
+ * ventana app.risk.window, y las IPs distintas del sujeto y dispositivos
+ * distintos de la sesión del FeatureStore, en lugar del valor fijo de
+ * emisión. Cada sujeto
+ * tiene un RiskWindow de tamaño fijo; los menos recientes se descartan al
+ * superar app.risk.max-subjects.
+ *
+ * Métricas: zerotrust.risk.events{outcome} y zerotrust.risk.subjects.
+ */
+@Component
+public class RiskEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskEngine.class);
+
+    private final boolean enabled;
+    private final int bucketCount;
+    private final long bucketMillis;
+    private final RiskModel model;
+    private final FeatureStore featureStore;
+    private final LongSupplier clock;
+    private final Cache<String, RiskWindow> windows;
+    private final Map<RiskEvent.Outcome, LongAdder> events = new EnumMap<>(RiskEvent.Outcome.class);
+
+    @Autowired
+    public RiskEngine(RiskProperties properties, FeatureStore featureStore, MeterRegistry meterRegistry) {
+        this(properties, featureStore, meterRegistry, System::currentTimeMillis);
+    }
+
+    /**
+     * Con reloj en milisegundos explícito (tests)
+     */
+    public RiskEngine(RiskProperties properties, FeatureStore featureStore, MeterRegistry meterRegistry,
+                      LongSupplier clock) {
+        this.enabled = properties.isEnabled();
+        this.bucketCount = properties.getBuckets();
+        this.bucketMillis = Math.max(1, properties.getWindow().toMillis() / bucketCount);
+        this.model = RiskModel.of(properties);
+        this.featureStore = featureStore;
+        this.clock = clock;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSubjects())
+                .build();
+        for (RiskEvent.Outcome outcome : RiskEvent.Outcome.values()) {
+            events.put(outcome, new LongAdder());
+        }
+        registerMetrics(meterRegistry);
+        log.info("Risk engine: window {} in {} buckets, max subjects {} (enabled={})",
+                properties.getWindow(), bucketCount, properties.getMaxSubjects(), enabled);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Añade el evento a la ventana de su sujeto y actualiza su puntuación
+     */
+    public void record(RiskEvent event) {
+        if (!enabled || event.subject() == null) {
+            return;
+        }
+        events.get(event.outcome()).increment();
+        RiskWindow window = windows.get(event.subject(), subject -> new RiskWindow(bucketCount));
+        long timestamp = event.timestamp() != null ? event.timestamp().toEpochMilli() : clock.getAsLong();
+        featureStore.record(event);
+        window.record(timestamp / bucketMillis, clock.getAsLong() / bucketMillis, event,
+                featureStore.features(event.subject(), event.sessionId()), model);
+    }
+
+    /**
+     * Riesgo actual del sujeto; baseline si no tiene ventana
+     */
+    public double score(String subject) {
+        return score(subject, model.baseline());
+    }
+
+    /**
+     * Riesgo actual del sujeto, o fallback si no hay eventos suyos (motor
+     * desactivado, sujeto descartado o visto solo por otra instancia)
+     */
+    public double score(String subject, double fallback) {
+        if (!enabled || subject == null) {
+            return fallback;
+        }
+        RiskWindow window = windows.getIfPresent(subject);
+        if (window == null) {
+            return fallback;
+        }
+        return window.score(clock.getAsLong() / bucketMillis, model);
+    }
+
+    public long trackedSubjects() {
+        return windows.estimatedSize();
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        for (Map.Entry<RiskEvent.Outcome, LongAdder> entry : events.entrySet()) {
+            FunctionCounter.builder("zerotrust.risk.events", entry.getValue(), LongAdder::sum)
+                    .tag("outcome", entry.getKey().name().toLowerCase())
+                    .description("Request events fed to the risk engine")
+                    .register(registry);
+        }
+        Gauge.builder("zerotrust.risk.subjects", this, RiskEngine::trackedSubjects)
+                .description("Subjects with a risk window in memory")
+                .register(registry);
+    }
+}
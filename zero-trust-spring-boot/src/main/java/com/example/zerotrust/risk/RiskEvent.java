@@ -0,0 +1,22 @@
+package com.example.zerotrust.risk;
+
+import java.time.Instant;
+
+/**
+ * Evento de petición autenticada con el que se alimenta el RiskEngine
+ */
+public record RiskEvent(String subject,
+                        String ipAddress,
+                        String deviceId,
+                        String sessionId,
+                        String endpoint,
+                        Outcome outcome,
+                        Instant timestamp) {
+
+    /**
+     * Resultado de la petición: DENIED (401/403) y FAILURE (otros 4xx) cuentan como fallos
+     */
+    public enum Outcome {
+        SUCCESS, FAILURE, DENIED
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.zerotrust.risk;
+
+import com.example.zerotrust.config.RiskProperties;
+
+/**
+ * Combinación lineal de señales de la ventana y del FeatureStore: baseline + peso * min(1, total / umbral)
+ */
+record RiskModel(double baseline,
+                 double failureWeight, int failureThreshold,
+                 double ipChangeWeight, double deviceChangeWeight, int changeThreshold,
+                 double burstWeight, int burstThreshold,
+                 double distinctIpWeight, int distinctIpThreshold,
+                 double sessionDeviceWeight, int sessionDeviceThreshold) {
+
+    static RiskModel of(RiskProperties properties) {
+        RiskProperties.Weights weights = properties.getWeights();
+        return new RiskModel(properties.getBaseline(),
+                weights.getFailures(), properties.getFailureThreshold(),
+                weights.getIpChanges(), weights.getDeviceChanges(), properties.getChangeThreshold(),
+                weights.getBurst(), properties.getBurstThreshold(),
+                weights.getDistinctIps(), properties.getDistinctIpThreshold(),
+                weights.getSessionDevices(), properties.getSessionDeviceThreshold());
+    }
+
+    /**
+     * distinctIps y sessionDevices vienen del FeatureStore; el primero de cada uno no cuenta
+     */
+    double score(int requests, int failures, int ipChanges, int deviceChanges,
+                 long distinctIps, long sessionDevices) {
+        double score = baseline
+                + failureWeight * signal(failures, failureThreshold)
+                + ipChangeWeight * signal(ipChanges, changeThreshold)
+                + deviceChangeWeight * signal(deviceChanges, changeThreshold)
+                + burstWeight * signal(requests, burstThreshold)
+                + distinctIpWeight * signal(distinctIps - 1, distinctIpThreshold)
+                + sessionDeviceWeight * signal(sessionDevices - 1, sessionDeviceThreshold);
+        return Math.min(1.0, score);
+    }
+
+    private static double signal(long total, int threshold) {
+        return total <= 0 ? 0 : Math.min(1.0, (double) total / threshold);
+    }
+}
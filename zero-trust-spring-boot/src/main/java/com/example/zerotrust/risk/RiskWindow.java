@@ -0,0 +1,151 @@
+package com.example.zerotrust.risk;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ventana deslizante de un sujeto: anillo fijo de buckets sin locks
+ *
+ * Cada bucket es un long: índice de bucket (24 bits) y cuatro contadores
+ * saturados de 10 bits (peticiones, fallos, cambios de IP, cambios de
+ * dispositivo). Un evento hace un CAS sobre su bucket; si el slot guarda un
+ * bucket antiguo se reinicia en el mismo CAS. La última IP y dispositivo se
+ * guardan como hash (getAndSet). La puntuación se recalcula sobre los B
+ * buckets (trabajo constante) y se publica en un único long volátil junto
+ * con el bucket en el que se calculó, así que score() es una lectura
+ * mientras no cambie el bucket.
+ *
+ * Las features aproximadas (IPs distintas, dispositivos de la sesión) se
+ * leen del FeatureStore en cada evento y se guardan con la ventana; solo
+ * cuentan mientras la ventana tenga peticiones.
+ */
+final class RiskWindow {
+
+    private static final int COUNTER_BITS = 10;
+    private static final long COUNTER_MAX = (1L << COUNTER_BITS) - 1;
+    private static final int EPOCH_SHIFT = 4 * COUNTER_BITS;
+    private static final long EPOCH_MASK = (1L << 24) - 1;
+
+    static final int REQUESTS = 3 * COUNTER_BITS;
+    static final int FAILURES = 2 * COUNTER_BITS;
+    static final int IP_CHANGES = COUNTER_BITS;
+    static final int DEVICE_CHANGES = 0;
+
+    private static final long NO_SNAPSHOT = -1L;
+
+    private final AtomicLongArray buckets;
+    private final AtomicLong lastIp = new AtomicLong();
+    private final AtomicLong lastDevice = new AtomicLong();
+
+    // (bucket << 32) | puntuación en centésimas
+    private volatile long snapshot = NO_SNAPSHOT;
+
+    // (IPs distintas << 32) | dispositivos de la sesión, del último evento
+    private volatile long features;
+
+    RiskWindow(int bucketCount) {
+        this.buckets = new AtomicLongArray(bucketCount);
+    }
+
+    /**
+     * Añade el evento al bucket indicado y devuelve la puntuación recalculada
+     */
+    double record(long bucket, long currentBucket, RiskEvent event, FeatureStore.Features features, RiskModel model) {
+        long delta = 1L << REQUESTS;
+        if (event.outcome() != RiskEvent.Outcome.SUCCESS) {
+            delta |= 1L << FAILURES;
+        }
+        if (changed(lastIp, event.ipAddress())) {
+            delta |= 1L << IP_CHANGES;
+        }
+        if (changed(lastDevice, event.deviceId())) {
+            delta |= 1L << DEVICE_CHANGES;
+        }
+        // Eventos fuera de la ventana (relojes desfasados) solo actualizan IP y dispositivo
+        if (currentBucket - bucket < buckets.length() && bucket <= currentBucket) {
+            add((int) (bucket % buckets.length()), bucket & EPOCH_MASK, delta);
+        }
+        this.features = Math.min(features.distinctIps(), Integer.MAX_VALUE) << 32
+                | Math.min(features.sessionDevices(), Integer.MAX_VALUE);
+        return refresh(currentBucket, model);
+    }
+
+    /**
+     * Puntuación en el bucket actual; solo se recalcula si cambió el bucket
+     */
+    double score(long currentBucket, RiskModel model) {
+        long current = snapshot;
+        if (current != NO_SNAPSHOT && (current >>> 32) == (currentBucket & EPOCH_MASK)) {
+            return (int) current / 100.0;
+        }
+        return refresh(currentBucket, model);
+    }
+
+    /**
+     * Suma de un contador en los buckets de la ventana que termina en currentBucket
+     */
+    int total(long currentBucket, int counter) {
+        long epoch = currentBucket & EPOCH_MASK;
+        int total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long value = buckets.get(i);
+            if (value != 0 && ((epoch - (value >>> EPOCH_SHIFT)) & EPOCH_MASK) < buckets.length()) {
+                total += (int) ((value >>> counter) & COUNTER_MAX);
+            }
+        }
+        return total;
+    }
+
+    private double refresh(long currentBucket, RiskModel model) {
+        int requests = total(currentBucket, REQUESTS);
+        long current = requests > 0 ? features : 0;
+        double score = model.score(
+                requests,
+                total(currentBucket, FAILURES),
+                total(currentBucket, IP_CHANGES),
+                total(currentBucket, DEVICE_CHANGES),
+                current >>> 32,
+                current & 0xFFFFFFFFL);
+        long hundredths = Math.round(score * 100);
+        snapshot = ((currentBucket & EPOCH_MASK) << 32) | hundredths;
+        return hundredths / 100.0;
+    }
+
+    private void add(int slot, long epoch, long delta) {
+        while (true) {
+            long current = buckets.get(slot);
+            long next = (current >>> EPOCH_SHIFT) == epoch && current != 0
+                    ? saturatingAdd(current, delta)
+                    : (epoch << EPOCH_SHIFT) | delta;
+            if (current == next || buckets.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private static long saturatingAdd(long value, long delta) {
+        long result = value;
+        for (int shift = 0; shift < EPOCH_SHIFT; shift += COUNTER_BITS) {
+            long add = (delta >>> shift) & COUNTER_MAX;
+            if (add != 0) {
+                long counter = Math.min(COUNTER_MAX, ((value >>> shift) & COUNTER_MAX) + add);
+                result = (result & ~(COUNTER_MAX << shift)) | (counter << shift);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Si el valor difiere del anterior; el primero observado no cuenta como cambio
+     */
+    private static boolean changed(AtomicLong last, String value) {
+        if (value == null) {
+            return false;
+        }
+        // 0 = sin valor previo
+        long hash = Objects.hashCode(value) | 1L << 32;
+        long previous = last.getAndSet(hash);
+        return previous != 0 && previous != hash;
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.zerotrust.risk;
+
+import com.example.zerotrust.config.RiskProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Ajustes temporales de riesgo por sessionId sin emitir ni revocar tokens
+ *
+ * Eleva el riesgo efectivo de una sesión (riskScore mínimo) o le añade
+ * denegaciones temporales (DENY_ACCESS, DENY_REFRESH) durante un TTL.
+ * validateZeroTrustClaims lo consulta en cada validación: el riesgo
+ * elevado pasa por el límite de 0.9 y por el PDP como cualquier otro.
+ *
+ * Tabla de direccionamiento abierto de capacidad fija: hash de 64 bits del
+ * sessionId y un long por sesión (expiración en segundos, flags y riesgo en
+ * centésimas). La lectura son dos o tres lecturas atómicas por slot, sin
+ * locks ni asignación; las escrituras (operaciones administrativas, raras)
+ * se serializan con un lock. Un slot caducado se reutiliza; si los slots de
+ * un hash están todos vigentes se sustituye el que antes caduca.
+ *
+ * La tabla es de este nodo. Con app.risk.overlay.propagation.enabled las
+ * escrituras se replican al resto de réplicas (RedisSessionRiskPropagation);
+ * sin ella un ajuste solo afecta a las peticiones que atiende este nodo.
+ *
+ * Métricas: zerotrust.risk.overlay.sessions y zerotrust.risk.overlay.evictions.
+ */
+@Component
+public class SessionRiskOverlay {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionRiskOverlay.class);
+
+    /**
+     * Sin ajuste vigente para la sesión
+     */
+    public static final long NONE = 0L;
+
+    /**
+     * Denegaciones temporales de la sesión
+     */
+    public enum Flag {
+        DENY_ACCESS, DENY_REFRESH;
+
+        long bit() {
+            return 1L << (FLAGS_SHIFT + ordinal());
+        }
+    }
+
+    /**
+     * Observador de las escrituras locales (replicación entre nodos)
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+
+        /**
+         * overlay es el ajuste resultante, o NONE si se ha eliminado
+         */
+        void changed(String sessionId, long overlay);
+    }
+
+    private static final int MAX_PROBES = 8;
+    private static final long EMPTY = 0L;
+    // Slot ocupado mientras un escritor cambia su valor
+    private static final long WRITING = 1L;
+    private static final int FLAGS_SHIFT = 8;
+    private static final long RISK_MASK = 0xFF;
+    private static final long FLAGS_MASK = 0xFFL << FLAGS_SHIFT;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray values;
+    private final int mask;
+    private final Duration maxTtl;
+    private final LongSupplier clock;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final LongAdder evictions = new LongAdder();
+    private volatile ChangeListener changeListener;
+
+    @Autowired
+    public SessionRiskOverlay(RiskProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    /**
+     * Con reloj en milisegundos explícito (tests)
+     */
+    public SessionRiskOverlay(RiskProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        int capacity = properties.getOverlay().getCapacity();
+        if (Integer.bitCount(capacity) != 1 || capacity < MAX_PROBES) {
+            throw new IllegalStateException("Session risk overlay capacity must be a power of two >= " +
+                    MAX_PROBES + ": " + capacity);
+        }
+        this.keys = new AtomicLongArray(capacity);
+        this.values = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.maxTtl = properties.getOverlay().getMaxTtl();
+        this.clock = clock;
+        Gauge.builder("zerotrust.risk.overlay.sessions", this, SessionRiskOverlay::activeSessions)
+                .description("Sessions with an active risk overlay")
+                .register(meterRegistry);
+        FunctionCounter.builder("zerotrust.risk.overlay.evictions", evictions, LongAdder::sum)
+                .description("Active session overlays replaced because their slots were full")
+                .register(meterRegistry);
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Ajuste vigente de la sesión, o NONE; una búsqueda en la tabla sin asignar memoria
+     */
+    public long lookup(String sessionId) {
+        if (sessionId == null) {
+            return NONE;
+        }
+        long hash = hash(sessionId);
+        long now = nowSeconds();
+        int slot = (int) hash & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            long key = keys.get(slot);
+            if (key == EMPTY) {
+                return NONE;
+            }
+            if (key == hash) {
+                long value = values.get(slot);
+                // Si el slot cambió de sesión mientras se leía, el valor no es de esta
+                if (keys.get(slot) != hash) {
+                    return NONE;
+                }
+                return expiresAt(value) > now ? value : NONE;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Eleva el riesgo efectivo de la sesión a al menos riskScore durante ttl
+     */
+    public void raiseRisk(String sessionId, double riskScore, Duration ttl) {
+        long hundredths = Math.round(Math.min(1.0, Math.max(0.0, riskScore)) * 100);
+        notifyChange(sessionId, update(sessionId, hundredths, 0L, ttl));
+    }
+
+    /**
+     * Añade denegaciones temporales a la sesión durante ttl
+     */
+    public void deny(String sessionId, Set<Flag> flags, Duration ttl) {
+        long bits = 0;
+        for (Flag flag : flags) {
+            bits |= flag.bit();
+        }
+        notifyChange(sessionId, update(sessionId, 0L, bits, ttl));
+    }
+
+    /**
+     * Elimina el ajuste de la sesión
+     */
+    public void clear(String sessionId) {
+        clearLocal(sessionId);
+        notifyChange(sessionId, NONE);
+    }
+
+    /**
+     * Aplica un ajuste recibido de otro nodo sin volver a notificarlo:
+     * se combina con el vigente igual que una escritura local
+     */
+    public void applyReplicated(String sessionId, long overlay) {
+        if (overlay == NONE) {
+            clearLocal(sessionId);
+            return;
+        }
+        long now = nowSeconds();
+        if (expiresAt(overlay) > now) {
+            merge(sessionId, overlay & RISK_MASK, overlay & FLAGS_MASK, expiresAt(overlay), now);
+        }
+    }
+
+    private void clearLocal(String sessionId) {
+        long hash = hash(sessionId);
+        writeLock.lock();
+        try {
+            int slot = find(hash);
+            if (slot >= 0) {
+                values.set(slot, NONE);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Riesgo mínimo de un ajuste (0 si no eleva el riesgo)
+     */
+    public static double riskFloor(long overlay) {
+        return (overlay & RISK_MASK) / 100.0;
+    }
+
+    public static boolean hasFlag(long overlay, Flag flag) {
+        return (overlay & flag.bit()) != 0;
+    }
+
+    /**
+     * Si el ajuste deniega el uso de un token del tipo indicado
+     */
+    public static boolean denies(long overlay, String tokenType) {
+        return "refresh".equals(tokenType) ? hasFlag(overlay, Flag.DENY_REFRESH) : hasFlag(overlay, Flag.DENY_ACCESS);
+    }
+
+    /**
+     * Expiración del ajuste en segundos epoch
+     */
+    public static long expiresAt(long overlay) {
+        return overlay >>> 32;
+    }
+
+    public long activeSessions() {
+        long now = nowSeconds();
+        long active = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            long key = keys.get(slot);
+            if (key != EMPTY && key != WRITING && expiresAt(values.get(slot)) > now) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    private long update(String sessionId, long hundredths, long flags, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Session overlay TTL must be positive: " + ttl);
+        }
+        long now = nowSeconds();
+        long expiresAt = Math.min(now + (ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl).toSeconds(), 0xFFFFFFFFL);
+        long value = merge(sessionId, hundredths, flags, expiresAt, now);
+        log.info("Session risk overlay for {}: risk>={} flags={} until {}s", sessionId,
+                riskFloor(value), (value & FLAGS_MASK) >>> FLAGS_SHIFT, expiresAt(value));
+        return value;
+    }
+
+    private long merge(String sessionId, long hundredths, long flags, long expiresAt, long now) {
+        long hash = hash(sessionId);
+        writeLock.lock();
+        try {
+            int slot = find(hash);
+            if (slot >= 0) {
+                long current = values.get(slot);
+                if (expiresAt(current) > now) {
+                    // Se combina con el ajuste vigente: el más restrictivo y el que más dura
+                    hundredths = Math.max(hundredths, current & RISK_MASK);
+                    flags |= current & FLAGS_MASK;
+                    expiresAt = Math.max(expiresAt, expiresAt(current));
+                }
+                long value = pack(expiresAt, flags, hundredths);
+                values.set(slot, value);
+                return value;
+            }
+            slot = claim(hash, now);
+            long value = pack(expiresAt, flags, hundredths);
+            keys.set(slot, WRITING);
+            values.set(slot, value);
+            keys.set(slot, hash);
+            return value;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void notifyChange(String sessionId, long overlay) {
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.changed(sessionId, overlay);
+        }
+    }
+
+    private int find(long hash) {
+        int slot = (int) hash & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            long key = keys.get(slot);
+            if (key == EMPTY) {
+                return -1;
+            }
+            if (key == hash) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Primer slot libre o caducado; si no hay, el que antes caduca
+     */
+    private int claim(long hash, long now) {
+        int slot = (int) hash & mask;
+        int soonest = slot;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            if (keys.get(slot) == EMPTY || expiresAt(values.get(slot)) <= now) {
+                return slot;
+            }
+            if (expiresAt(values.get(slot)) < expiresAt(values.get(soonest))) {
+                soonest = slot;
+            }
+        }
+        evictions.increment();
+        log.warn("Session risk overlay full around slot {}: replacing an active entry", soonest);
+        return soonest;
+    }
+
+    private long nowSeconds() {
+        return clock.getAsLong() / 1000;
+    }
+
+    private static long pack(long expiresAt, long flags, long hundredths) {
+        return expiresAt << 32 | flags | hundredths;
+    }
+
+    private static long hash(String sessionId) {
+        long hash = HyperLogLog.hash(sessionId);
+        // EMPTY y WRITING están reservados
+        return hash == EMPTY || hash == WRITING ? 2 : hash;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.zerotrust.risk;
+
+import com.example.zerotrust.config.RiskProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Duración del access token según el riesgo de la emisión
+ *
+ * techo × (1 - riskScore), multiplicada por el factor de cada condición
+ * que falla (sin MFA, IP desconocida, dispositivo no verificado, hora
+ * inusual) y acotada a [min-duration, techo]. El techo es el menor entre
+ * max-duration y app.jwt.access-token-duration: la política solo acorta la
+ * duración configurada, nunca la alarga. Las sesiones de
+ * bajo riesgo renuevan con menos frecuencia y las de alto riesgo siguen
+ * siendo cortas. La evaluación solo lee estado en memoria (puntuación
+ * publicada por RiskEngine y perfil del FeatureStore): no bloquea la emisión.
+ *
+ * MFA: context.amr del token (RFC 8176) contiene "mfa". Dispositivo
+ * verificado: token ligado a certificado cliente o dispositivo con actividad
+ * previa. Sin IP en los claims (renovación) la condición no se evalúa.
+ */
+@Component
+public class TokenLifetimePolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenLifetimePolicy.class);
+
+    /**
+     * Métodos de autenticación (RFC 8176) en el contexto del token
+     */
+    public static final String AMR_CONTEXT_KEY = "amr";
+    public static final String MFA = "mfa";
+
+    private final RiskProperties.Lifetime properties;
+    private final RiskEngine riskEngine;
+    private final FeatureStore featureStore;
+    private final LongSupplier clock;
+
+    @Autowired
+    public TokenLifetimePolicy(RiskProperties properties, RiskEngine riskEngine, FeatureStore featureStore) {
+        this(properties, riskEngine, featureStore, System::currentTimeMillis);
+    }
+
+    /**
+     * Con reloj en milisegundos explícito (tests)
+     */
+    public TokenLifetimePolicy(RiskProperties properties, RiskEngine riskEngine, FeatureStore featureStore,
+                               LongSupplier clock) {
+        this.properties = properties.getLifetime();
+        if (this.properties.getMinDuration().compareTo(this.properties.getMaxDuration()) > 0) {
+            throw new IllegalStateException("Access token min-duration " + this.properties.getMinDuration() +
+                    " exceeds max-duration " + this.properties.getMaxDuration());
+        }
+        this.riskEngine = riskEngine;
+        this.featureStore = featureStore;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Contexto de riesgo de unos claims de access token
+     */
+    public RiskAssessment assess(JwtClaims claims) {
+        String subject = claims.getSubject();
+        double riskScore = claims.getRiskScore() != null ? claims.getRiskScore() : riskEngine.score(subject);
+        boolean knownIp = claims.getIpAddress() == null || featureStore.isKnownIp(subject, claims.getIpAddress());
+        boolean verifiedDevice = claims.getCertificateThumbprint() != null
+                || featureStore.isKnownDevice(subject, claims.getDeviceId());
+        long now = clock.getAsLong();
+        int hour = featureStore.hourOfDay(now);
+        boolean usualHour = (hour >= properties.getUsualHoursStart() && hour < properties.getUsualHoursEnd())
+                || featureStore.isActiveHour(subject, now);
+        return new RiskAssessment(riskScore, hasMfa(claims.getContext()), knownIp, verifiedDevice, usualHour);
+    }
+
+    /**
+     * Duración del access token; la configurada si la política está desactivada
+     */
+    public Duration accessTokenLifetime(JwtClaims claims, Duration configured) {
+        if (!properties.isEnabled()) {
+            return configured;
+        }
+        RiskAssessment assessment = assess(claims);
+        Duration lifetime = lifetime(assessment, configured);
+        log.debug("Access token lifetime {} for {}: {}", lifetime, claims.getSubject(), assessment);
+        return lifetime;
+    }
+
+    Duration lifetime(RiskAssessment assessment, Duration configured) {
+        long max = Math.min(properties.getMaxDuration().toSeconds(), configured.toSeconds());
+        long min = Math.min(properties.getMinDuration().toSeconds(), max);
+        double factor = 1 - Math.min(1.0, Math.max(0.0, assessment.riskScore()));
+        if (!assessment.mfa()) {
+            factor *= properties.getNoMfaFactor();
+        }
+        if (!assessment.knownIp()) {
+            factor *= properties.getUnknownIpFactor();
+        }
+        if (!assessment.verifiedDevice()) {
+            factor *= properties.getUnverifiedDeviceFactor();
+        }
+        if (!assessment.usualHour()) {
+            factor *= properties.getUnusualHourFactor();
+        }
+        // Segundos enteros: exp del JWT no tiene más resolución
+        long seconds = (long) (max * factor);
+        return Duration.ofSeconds(Math.max(min, Math.min(max, seconds)));
+    }
+
+    private static boolean hasMfa(Map<String, Object> context) {
+        return context != null && context.get(AMR_CONTEXT_KEY) instanceof Collection<?> methods
+                && methods.contains(MFA);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.zerotrust.risk;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Valores distintos en una ventana deslizante: un HyperLogLog por tramo
+ *
+ * La ventana se divide en tramos de sliceMillis; cada tramo se reutiliza en
+ * rotación y el primer evento de un tramo nuevo lo vacía (CAS sobre su
+ * época). La estimación es la unión de los tramos vigentes, así que cubre
+ * entre (tramos - 1) y tramos intervalos. Un add concurrente con la rotación
+ * puede perderse: el error queda dentro del de la propia estimación.
+ */
+final class WindowedHyperLogLog {
+
+    private final HyperLogLog[] slices;
+    private final AtomicLongArray epochs;
+    private final long sliceMillis;
+
+    WindowedHyperLogLog(int sliceCount, long sliceMillis, int precision) {
+        this.slices = new HyperLogLog[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new HyperLogLog(precision);
+        }
+        this.epochs = new AtomicLongArray(sliceCount);
+        this.sliceMillis = sliceMillis;
+    }
+
+    void add(String value, long nowMillis) {
+        long epoch = nowMillis / sliceMillis;
+        int slot = (int) (epoch % slices.length);
+        long current = epochs.get(slot);
+        if (current < epoch && epochs.compareAndSet(slot, current, epoch)) {
+            slices[slot].clear();
+        }
+        slices[slot].add(HyperLogLog.hash(value));
+    }
+
+    long estimate(long nowMillis) {
+        long epoch = nowMillis / sliceMillis;
+        int precision = slices[0].precision();
+        byte[] union = new byte[1 << precision];
+        boolean empty = true;
+        for (int slot = 0; slot < slices.length; slot++) {
+            long sliceEpoch = epochs.get(slot);
+            if (sliceEpoch > epoch - slices.length && sliceEpoch <= epoch) {
+                slices[slot].mergeInto(union);
+                empty = false;
+            }
+        }
+        return empty ? 0 : HyperLogLog.estimate(union, precision);
+    }
+}
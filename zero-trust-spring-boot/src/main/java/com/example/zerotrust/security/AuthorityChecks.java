@@ -0,0 +1,129 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Comprobaciones de authorities para expresiones de @PreAuthorize
+ *
+ * Uso: @PreAuthorize("@authz.hasAuthority('READ')") o "@authz.hasRole('ADMIN')".
+ * Con un AuthoritySet se resuelven con un test de bit; SecurityExpressionRoot
+ * en cambio copia las authorities a un Set en cada evaluación.
+ * Si el token trae bitmap de capacidades ("cap") se comprueba directamente
+ * sobre sus bits; "@authz.hasAllAuthorities('READ', 'WRITE')" es un AND de máscaras.
+ */
+@Component("authz")
+public class AuthorityChecks {
+
+    private final PermissionRegistry permissionRegistry;
+
+    public AuthorityChecks(PermissionRegistry permissionRegistry) {
+        this.permissionRegistry = permissionRegistry;
+    }
+
+    public boolean hasAuthority(String authority) {
+        Authentication authentication = currentAuthentication();
+        Boolean granted = testCapability(authentication, authority);
+        if (granted != null) {
+            return granted;
+        }
+        Collection<? extends GrantedAuthority> authorities = authorities(authentication);
+        if (authorities instanceof AuthoritySet set) {
+            return set.hasAuthority(authority);
+        }
+        return containsAuthority(authorities, authority);
+    }
+
+    public boolean hasAnyAuthority(String... authorities) {
+        for (String authority : authorities) {
+            if (hasAuthority(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Todas las authorities indicadas; con bitmap, una máscara y un AND por palabra
+     */
+    public boolean hasAllAuthorities(String... authorities) {
+        long[] capabilities = capabilities(currentAuthentication());
+        long[] required = capabilities != null ? permissionRegistry.mask(authorities) : null;
+        if (required != null) {
+            return CapabilityBitmap.containsAll(capabilities, required);
+        }
+        for (String authority : authorities) {
+            if (!hasAuthority(authority)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean hasRole(String role) {
+        String authority = role.startsWith(AuthorityRegistry.ROLE_PREFIX) ? role : AuthorityRegistry.ROLE_PREFIX + role;
+        Authentication authentication = currentAuthentication();
+        Boolean granted = testCapability(authentication, authority);
+        if (granted != null) {
+            return granted;
+        }
+        Collection<? extends GrantedAuthority> authorities = authorities(authentication);
+        if (authorities instanceof AuthoritySet set) {
+            return set.hasRole(role);
+        }
+        return containsAuthority(authorities, authority);
+    }
+
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Authentication currentAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication : null;
+    }
+
+    private static Collection<? extends GrantedAuthority> authorities(Authentication authentication) {
+        return authentication != null ? authentication.getAuthorities() : null;
+    }
+
+    /**
+     * Bit de la authority en el bitmap del token; null si no hay bitmap o no tiene bit
+     */
+    private Boolean testCapability(Authentication authentication, String authority) {
+        long[] capabilities = capabilities(authentication);
+        int bit = capabilities != null ? permissionRegistry.bitOf(authority) : -1;
+        return bit >= 0 ? CapabilityBitmap.testBit(capabilities, bit) : null;
+    }
+
+    /**
+     * Bitmap del token autenticado; null si no es un JWT con claim "cap"
+     */
+    private static long[] capabilities(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof JwtClaims claims
+                ? claims.getCapabilities()
+                : null;
+    }
+
+    private static boolean containsAuthority(Collection<? extends GrantedAuthority> authorities, String authority) {
+        if (authorities == null) {
+            return false;
+        }
+        for (GrantedAuthority granted : authorities) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
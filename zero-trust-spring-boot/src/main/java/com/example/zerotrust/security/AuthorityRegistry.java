@@ -0,0 +1,76 @@
+package com.example.zerotrust.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro de authorities internadas con un índice de bit estable
+ *
+ * Cada authority distinta se representa con una única instancia de
+ * GrantedAuthority y un índice. Al superar la capacidad las nuevas
+ * authorities ya no reciben índice (los AuthoritySet afectados recurren
+ * a búsqueda por nombre).
+ */
+final class AuthorityRegistry {
+
+    static final String ROLE_PREFIX = "ROLE_";
+
+    private final ConcurrentHashMap<String, Entry> byAuthority = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry> byRole = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final int capacity;
+
+    AuthorityRegistry(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Índice de una authority completa o -1 si no está registrada
+     */
+    int indexOf(String authority) {
+        Entry entry = byAuthority.get(authority);
+        return entry != null ? entry.index() : -1;
+    }
+
+    /**
+     * Índice de un rol, con o sin prefijo ROLE_, o -1 si no está registrado
+     */
+    int indexOfRole(String role) {
+        Entry entry = byRole.get(stripRolePrefix(role));
+        return entry != null ? entry.index() : -1;
+    }
+
+    Entry registerRole(String role) {
+        String bare = stripRolePrefix(role);
+        Entry entry = byRole.get(bare);
+        if (entry == null) {
+            entry = register(ROLE_PREFIX + bare);
+            byRole.putIfAbsent(bare, entry);
+        }
+        return entry;
+    }
+
+    Entry register(String authority) {
+        return byAuthority.computeIfAbsent(authority, a -> {
+            int index = nextIndex.get() < capacity ? nextIndex.getAndIncrement() : -1;
+            return new Entry(index >= capacity ? -1 : index, new SimpleGrantedAuthority(a));
+        });
+    }
+
+    int size() {
+        return byAuthority.size();
+    }
+
+    static String stripRolePrefix(String role) {
+        return role.startsWith(ROLE_PREFIX) ? role.substring(ROLE_PREFIX.length()) : role;
+    }
+
+    /**
+     * Authority internada y su índice de bit (-1 si el registro está lleno)
+     */
+    record Entry(int index, GrantedAuthority authority) {
+    }
+}
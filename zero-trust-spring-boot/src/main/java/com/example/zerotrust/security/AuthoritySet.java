@@ -0,0 +1,134 @@
+package com.example.zerotrust.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conjunto inmutable y compartido de authorities para una combinación roles+permisos
+ *
+ * Las instancias las crea AuthoritySetCache y se reutilizan entre peticiones.
+ * Además de la vista de colección mantiene un bitset sobre los índices del
+ * AuthorityRegistry, de modo que hasAuthority es una búsqueda + test de bit.
+ */
+public final class AuthoritySet extends AbstractSet<GrantedAuthority> {
+
+    private final AuthorityRegistry registry;
+    private final List<GrantedAuthority> authorities;
+    private final Set<String> roles;
+    private final Set<String> permissions;
+    private final long[] bits;
+    private final boolean bitsComplete;
+    private final long key;
+
+    AuthoritySet(AuthorityRegistry registry, long key, List<GrantedAuthority> authorities,
+                 Set<String> roles, Set<String> permissions, long[] bits, boolean bitsComplete) {
+        this.registry = registry;
+        this.key = key;
+        this.authorities = authorities;
+        this.roles = roles;
+        this.permissions = permissions;
+        this.bits = bits;
+        this.bitsComplete = bitsComplete;
+    }
+
+    @Override
+    public Iterator<GrantedAuthority> iterator() {
+        return authorities.iterator();
+    }
+
+    @Override
+    public int size() {
+        return authorities.size();
+    }
+
+    /**
+     * Comprueba una authority completa (p.ej. "READ" o "ROLE_USER")
+     */
+    public boolean hasAuthority(String authority) {
+        if (!bitsComplete) {
+            return containsName(authority);
+        }
+        return testBit(registry.indexOf(authority));
+    }
+
+    /**
+     * Comprueba un rol sin prefijo ("USER") o con él ("ROLE_USER")
+     */
+    public boolean hasRole(String role) {
+        if (!bitsComplete) {
+            return roles.contains(AuthorityRegistry.stripRolePrefix(role));
+        }
+        return testBit(registry.indexOfRole(role));
+    }
+
+    public boolean hasAnyAuthority(String... candidates) {
+        for (String candidate : candidates) {
+            if (hasAuthority(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasAnyRole(String... candidates) {
+        for (String candidate : candidates) {
+            if (hasRole(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Test directo por índice del registry (para índices precalculados)
+     */
+    public boolean testBit(int index) {
+        if (index < 0) {
+            return false;
+        }
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+
+    long getKey() {
+        return key;
+    }
+
+    /**
+     * Verifica que este conjunto corresponde exactamente a las listas dadas
+     */
+    boolean matches(List<String> roleList, List<String> permissionList) {
+        return sameElements(roles, roleList) && sameElements(permissions, permissionList);
+    }
+
+    private boolean containsName(String authority) {
+        return permissions.contains(authority)
+                || (authority.startsWith(AuthorityRegistry.ROLE_PREFIX)
+                && roles.contains(AuthorityRegistry.stripRolePrefix(authority)));
+    }
+
+    private static boolean sameElements(Set<String> set, List<String> list) {
+        int size = list != null ? list.size() : 0;
+        if (size != set.size()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!set.contains(list.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
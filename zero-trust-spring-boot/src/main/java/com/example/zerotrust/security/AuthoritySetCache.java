@@ -0,0 +1,145 @@
+package com.example.zerotrust.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cache de AuthoritySet canónicos por combinación de roles y permisos
+ *
+ * La clave es un hash de 64 bits independiente del orden (equivale a hashear
+ * las listas ordenadas) calculado sin asignar memoria. La tabla es de acceso
+ * directo y tamaño fijo; un acierto se confirma comparando los elementos,
+ * así que una colisión solo provoca una reconstrucción, nunca un resultado erróneo.
+ */
+@Component
+public class AuthoritySetCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthoritySetCache.class);
+
+    private static final long ROLE_SEED = 0x9E3779B97F4A7C15L;
+    private static final long PERMISSION_SEED = 0xC2B2AE3D27D4EB4FL;
+
+    private final AuthorityRegistry registry;
+    private final AtomicReferenceArray<AuthoritySet> table;
+    private final int mask;
+
+    public AuthoritySetCache(@Value("${app.security.authority-cache.size:1024}") int size,
+                             @Value("${app.security.authority-cache.max-authorities:4096}") int maxAuthorities) {
+        int capacity = Integer.highestOneBit(Math.max(16, size - 1) << 1);
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.registry = new AuthorityRegistry(maxAuthorities);
+    }
+
+    /**
+     * Devuelve el conjunto compartido para la combinación dada
+     */
+    public AuthoritySet resolve(List<String> roles, List<String> permissions) {
+        long key = key(roles, permissions);
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+
+        AuthoritySet cached = table.get(slot);
+        if (cached != null && cached.getKey() == key && cached.matches(roles, permissions)) {
+            return cached;
+        }
+
+        AuthoritySet built = build(key, roles, permissions);
+        table.set(slot, built);
+        return built;
+    }
+
+    /**
+     * Índice de bit de una authority, para precalcular comprobaciones
+     */
+    public int indexOf(String authority) {
+        return registry.indexOf(authority);
+    }
+
+    /**
+     * Número de authorities distintas registradas
+     */
+    public int registeredAuthorities() {
+        return registry.size();
+    }
+
+    /**
+     * Hash conmutativo: suma de hashes mezclados de cada elemento
+     */
+    static long key(List<String> roles, List<String> permissions) {
+        long h = 0;
+        if (roles != null) {
+            for (int i = 0; i < roles.size(); i++) {
+                h += mix(roles.get(i).hashCode() ^ ROLE_SEED);
+            }
+        }
+        if (permissions != null) {
+            for (int i = 0; i < permissions.size(); i++) {
+                h += mix(permissions.get(i).hashCode() ^ PERMISSION_SEED);
+            }
+        }
+        return h;
+    }
+
+    private AuthoritySet build(long key, List<String> roles, List<String> permissions) {
+        // Orden canónico: roles y permisos ordenados
+        Set<String> roleSet = roles != null ? new TreeSet<>(roles) : Collections.emptySet();
+        Set<String> permissionSet = permissions != null ? new TreeSet<>(permissions) : Collections.emptySet();
+
+        List<GrantedAuthority> authorities = new ArrayList<>(roleSet.size() + permissionSet.size());
+        int maxIndex = -1;
+        boolean complete = true;
+        List<AuthorityRegistry.Entry> entries = new ArrayList<>(roleSet.size() + permissionSet.size());
+        for (String role : roleSet) {
+            entries.add(registry.registerRole(role));
+        }
+        for (String permission : permissionSet) {
+            entries.add(registry.register(permission));
+        }
+        entries.sort(Comparator.comparing(e -> e.authority().getAuthority()));
+
+        for (AuthorityRegistry.Entry entry : entries) {
+            authorities.add(entry.authority());
+            if (entry.index() < 0) {
+                complete = false;
+            }
+            maxIndex = Math.max(maxIndex, entry.index());
+        }
+
+        long[] bits = new long[maxIndex < 0 ? 0 : (maxIndex >>> 6) + 1];
+        for (AuthorityRegistry.Entry entry : entries) {
+            if (entry.index() >= 0) {
+                bits[entry.index() >>> 6] |= 1L << entry.index();
+            }
+        }
+        if (!complete) {
+            log.warn("Authority registry is full; some authority checks fall back to name lookups");
+        }
+
+        log.debug("Interned authority set {} (roles={}, permissions={})", Long.toHexString(key), roleSet, permissionSet);
+        return new AuthoritySet(registry, key, List.copyOf(authorities),
+                Set.copyOf(roleSet), Set.copyOf(permissionSet), bits, complete);
+    }
+
+    /**
+     * Finalizador de MurmurHash3 (fmix64)
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.zerotrust.security;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Codificación base64url (sin padding) de un bitmap de capacidades
+ *
+ * El bit i está en el byte i / 8, empezando por el bit menos significativo;
+ * se omiten los bytes finales a cero. decode escribe cada byte directamente
+ * en su long, sin pasar por un byte[] intermedio. Las comprobaciones son un
+ * AND por palabra.
+ */
+public final class CapabilityBitmap {
+
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private CapabilityBitmap() {
+    }
+
+    public static String encode(long[] bits) {
+        byte[] bytes = new byte[(highestBit(bits) >> 3) + 1];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (bits[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Bitmap decodificado; IllegalArgumentException si no es base64url canónico
+     */
+    public static long[] decode(String encoded) {
+        int length = encoded.length();
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Invalid capability bitmap length");
+        }
+        int byteCount = length * 6 / 8;
+        long[] bits = new long[(byteCount + 7) >>> 3];
+        int buffer = 0;
+        int buffered = 0;
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = encoded.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid capability bitmap character");
+            }
+            buffer = (buffer << 6) | value;
+            buffered += 6;
+            if (buffered >= 8) {
+                buffered -= 8;
+                bits[index >>> 3] |= (long) ((buffer >>> buffered) & 0xFF) << ((index & 7) << 3);
+                index++;
+            }
+        }
+        if ((buffer & ((1 << buffered) - 1)) != 0) {
+            throw new IllegalArgumentException("Non-canonical capability bitmap");
+        }
+        return bits;
+    }
+
+    public static boolean testBit(long[] bits, int index) {
+        if (index < 0) {
+            return false;
+        }
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * true si granted contiene todos los bits de required
+     */
+    public static boolean containsAll(long[] granted, long[] required) {
+        for (int word = 0; word < required.length; word++) {
+            long have = word < granted.length ? granted[word] : 0L;
+            if ((have & required[word]) != required[word]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Índice del bit más alto a 1; -1 si no hay ninguno
+     */
+    static int highestBit(long[] bits) {
+        for (int word = bits.length - 1; word >= 0; word--) {
+            if (bits[word] != 0) {
+                return word * 64 + 63 - Long.numberOfLeadingZeros(bits[word]);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.zerotrust.security;
+
+/**
+ * Comprobación de tokens ligados a certificado (RFC 8705, cnf.x5t#S256)
+ */
+public final class CertificateBinding {
+
+    private CertificateBinding() {
+    }
+
+    /**
+     * true si el token no está ligado o si la huella coincide con la del
+     * certificado presentado en la conexión
+     */
+    public static boolean isSatisfied(String boundThumbprint, ClientCertificateIdentity presented) {
+        if (boundThumbprint == null) {
+            return true;
+        }
+        return presented != null && constantTimeEquals(boundThumbprint, presented.fingerprint());
+    }
+
+    /**
+     * Igualdad en tiempo constante respecto al contenido (sin copias a byte[])
+     *
+     * Solo la longitud puede filtrarse, y es fija (43 caracteres base64url).
+     */
+    static boolean constantTimeEquals(String expected, String actual) {
+        if (expected.length() != actual.length()) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < expected.length(); i++) {
+            diff |= expected.charAt(i) ^ actual.charAt(i);
+        }
+        return diff == 0;
+    }
+}
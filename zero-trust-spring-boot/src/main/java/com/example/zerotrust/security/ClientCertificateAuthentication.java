@@ -0,0 +1,77 @@
+package com.example.zerotrust.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentication de un servicio identificado por su certificado cliente (mTLS)
+ *
+ * El principal es la ClientCertificateIdentity cacheada; las authorities son
+ * el AuthoritySet compartido configurado para el servicio.
+ */
+public class ClientCertificateAuthentication implements Authentication {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ClientCertificateIdentity identity;
+    private Object details;
+    private boolean authenticated = true;
+
+    public ClientCertificateAuthentication(ClientCertificateIdentity identity) {
+        this.identity = identity;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return identity.authorities();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return details;
+    }
+
+    public void setDetails(Object details) {
+        this.details = details;
+    }
+
+    @Override
+    public ClientCertificateIdentity getPrincipal() {
+        return identity;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        // Solo se permite degradar, nunca marcar como autenticado desde fuera
+        if (authenticated && !this.authenticated) {
+            throw new IllegalArgumentException("Cannot mark an unauthenticated token as authenticated");
+        }
+        this.authenticated = authenticated;
+    }
+
+    @Override
+    public String getName() {
+        return identity.serviceName();
+    }
+
+    @Override
+    public String toString() {
+        return "ClientCertificateAuthentication{" +
+                "service='" + identity.serviceName() + '\'' +
+                ", fingerprint='" + identity.fingerprint() + '\'' +
+                ", authorities=" + identity.authorities() +
+                '}';
+    }
+}
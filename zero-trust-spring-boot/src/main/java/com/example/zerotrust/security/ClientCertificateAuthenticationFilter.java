@@ -0,0 +1,66 @@
+package com.example.zerotrust.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+
+/**
+ * Autenticación de servicios por certificado cliente (mTLS, perfil tls)
+ *
+ * Si la conexión presentó certificado se publica su identidad en
+ * IDENTITY_ATTRIBUTE y, si el servicio está en app.tls.services, la petición
+ * queda autenticada como ese servicio. Se ejecuta antes que
+ * JwtAuthenticationFilter: un Bearer token válido sustituye esta
+ * autenticación y, si está ligado (cnf), se compara con IDENTITY_ATTRIBUTE.
+ * Sin certificado el filtro no hace nada.
+ */
+public class ClientCertificateAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientCertificateAuthenticationFilter.class);
+
+    public static final String CERTIFICATE_ATTRIBUTE = "jakarta.servlet.request.X509Certificate";
+    public static final String SSL_SESSION_ID_ATTRIBUTE = "jakarta.servlet.request.ssl_session_id";
+
+    /**
+     * Atributo de petición con la ClientCertificateIdentity de la conexión
+     */
+    public static final String IDENTITY_ATTRIBUTE = ClientCertificateAuthenticationFilter.class.getName() + ".IDENTITY";
+
+    private final ClientCertificateIdentityCache identityCache;
+
+    public ClientCertificateAuthenticationFilter(ClientCertificateIdentityCache identityCache) {
+        this.identityCache = identityCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        X509Certificate[] chain = (X509Certificate[]) request.getAttribute(CERTIFICATE_ATTRIBUTE);
+        if (chain == null || chain.length == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ClientCertificateIdentity identity = identityCache.resolve(
+                (String) request.getAttribute(SSL_SESSION_ID_ATTRIBUTE), chain[0]);
+        request.setAttribute(IDENTITY_ATTRIBUTE, identity);
+
+        if (identity.isAuthorized()) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(new ClientCertificateAuthentication(identity));
+            SecurityContextHolder.setContext(context);
+            log.debug("Authenticated service {} by client certificate", identity.serviceName());
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
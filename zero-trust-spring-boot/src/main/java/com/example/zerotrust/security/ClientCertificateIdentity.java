@@ -0,0 +1,23 @@
+package com.example.zerotrust.security;
+
+import java.time.Instant;
+
+/**
+ * Identidad de servicio derivada de un certificado cliente ya verificado por TLS
+ *
+ * fingerprint es el SHA-256 del certificado DER en base64url sin relleno
+ * (mismo formato que x5t#S256).
+ */
+public record ClientCertificateIdentity(String fingerprint,
+                                        String serviceName,
+                                        String subjectDn,
+                                        Instant notAfter,
+                                        AuthoritySet authorities) {
+
+    /**
+     * Servicio sin entrada en app.tls.services: TLS lo verificó pero no tiene permisos
+     */
+    public boolean isAuthorized() {
+        return authorities != null;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.config.TlsProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.security.auth.x500.X500Principal;
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cache de identidades de certificado cliente por huella SHA-256
+ *
+ * La cadena ya la verificó el handshake TLS contra el truststore; aquí se
+ * hace una vez por certificado la extracción del nombre de servicio (SAN o
+ * CN) y el mapeo a authorities (app.tls.services). Las conexiones repetidas
+ * del mismo servicio solo calculan la huella. Cada entrada caduca a
+ * min(identity-ttl, notAfter del certificado).
+ *
+ * La huella se cachea además por id de sesión TLS: las peticiones de una
+ * misma conexión (o de sesiones reanudadas) no vuelven a hashear el
+ * certificado. El id lo asigna el servidor y la sesión conserva el
+ * certificado del handshake, así que no puede asociarse a otro certificado.
+ */
+@Component
+public class ClientCertificateIdentityCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientCertificateIdentityCache.class);
+
+    // SubjectAlternativeName: 2 = dNSName, 6 = uniformResourceIdentifier
+    private static final int SAN_DNS = 2;
+    private static final int SAN_URI = 6;
+
+    private final TlsProperties properties;
+    private final AuthoritySetCache authoritySetCache;
+    private final Cache<String, ClientCertificateIdentity> identities;
+    private final Cache<String, String> sessionThumbprints;
+
+    public ClientCertificateIdentityCache(TlsProperties properties, AuthoritySetCache authoritySetCache) {
+        this.properties = properties;
+        this.authoritySetCache = authoritySetCache;
+        long ttlNanos = properties.getIdentityTtl().toNanos();
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(properties.getIdentityCacheSize())
+                .expireAfter(new Expiry<String, ClientCertificateIdentity>() {
+                    @Override
+                    public long expireAfterCreate(String key, ClientCertificateIdentity value, long currentTime) {
+                        long untilExpiry = Duration.between(Instant.now(), value.notAfter()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, ClientCertificateIdentity value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, ClientCertificateIdentity value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.sessionThumbprints = Caffeine.newBuilder()
+                .maximumSize(Math.max(properties.getSessionCacheSize(), properties.getIdentityCacheSize()))
+                .expireAfterAccess(properties.getSessionTimeout())
+                .build();
+    }
+
+    /**
+     * Identidad de la conexión, usando la huella cacheada de su sesión TLS
+     */
+    public ClientCertificateIdentity resolve(String tlsSessionId, X509Certificate certificate) {
+        if (tlsSessionId == null) {
+            return resolve(certificate);
+        }
+        String fingerprint = sessionThumbprints.get(tlsSessionId, id -> fingerprint(certificate));
+        return identities.get(fingerprint, fp -> map(fp, certificate));
+    }
+
+    /**
+     * Identidad del certificado hoja de la cadena presentada
+     */
+    public ClientCertificateIdentity resolve(X509Certificate certificate) {
+        return identities.get(fingerprint(certificate), fp -> map(fp, certificate));
+    }
+
+    /**
+     * SHA-256 del certificado DER en base64url sin relleno (x5t#S256)
+     */
+    public static String fingerprint(X509Certificate certificate) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (CertificateEncodingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint client certificate", e);
+        }
+    }
+
+    public long size() {
+        return identities.estimatedSize();
+    }
+
+    private ClientCertificateIdentity map(String fingerprint, X509Certificate certificate) {
+        String serviceName = serviceName(certificate);
+        TlsProperties.Service service = properties.getServices().get(serviceName);
+        AuthoritySet authorities = service != null
+                ? authoritySetCache.resolve(service.getRoles(), service.getPermissions())
+                : null;
+        if (service == null) {
+            log.warn("Client certificate for unknown service '{}' ({})", serviceName, fingerprint);
+        } else {
+            log.debug("Mapped client certificate {} to service {}", fingerprint, serviceName);
+        }
+        return new ClientCertificateIdentity(fingerprint, serviceName,
+                certificate.getSubjectX500Principal().getName(X500Principal.RFC2253),
+                certificate.getNotAfter().toInstant(), authorities);
+    }
+
+    /**
+     * Primer SAN URI (SPIFFE) o DNS; si no hay, el CN del sujeto
+     */
+    static String serviceName(X509Certificate certificate) {
+        try {
+            Collection<List<?>> names = certificate.getSubjectAlternativeNames();
+            if (names != null) {
+                String dns = null;
+                for (List<?> name : names) {
+                    int type = (Integer) name.get(0);
+                    if (type == SAN_URI) {
+                        return (String) name.get(1);
+                    }
+                    if (type == SAN_DNS && dns == null) {
+                        dns = (String) name.get(1);
+                    }
+                }
+                if (dns != null) {
+                    return dns;
+                }
+            }
+        } catch (CertificateParsingException e) {
+            log.debug("Unreadable subjectAltName: {}", e.getMessage());
+        }
+
+        try {
+            LdapName dn = new LdapName(certificate.getSubjectX500Principal().getName(X500Principal.RFC2253));
+            for (Rdn rdn : dn.getRdns()) {
+                if ("CN".equalsIgnoreCase(rdn.getType())) {
+                    return rdn.getValue().toString();
+                }
+            }
+        } catch (InvalidNameException e) {
+            log.debug("Unreadable subject DN: {}", e.getMessage());
+        }
+        return certificate.getSubjectX500Principal().getName();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.config.JwtProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.service.IJwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que autentica peticiones con el access token JWT propio
+ *
+ * Sustituye al resource server OAuth2 (que haría discovery remoto del
+ * issuer): lee JwtProperties.tokenHeader/tokenPrefix sin regex, valida con
+ * IJwtService.validateAndParseToken e instala una ZeroTrustAuthentication
+ * con el AuthoritySet compartido de sus roles y permisos.
+ * Los tokens ligados a certificado (cnf.x5t#S256) solo se aceptan si la
+ * conexión presentó ese certificado (ClientCertificateAuthenticationFilter).
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    /**
+     * Atributo de request con los JwtClaims validados
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".CLAIMS";
+
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
+    private final IJwtService jwtService;
+    private final AuthoritySetCache authoritySetCache;
+    private final String tokenHeader;
+    private final String tokenPrefix;
+    private final int prefixLength;
+
+    public JwtAuthenticationFilter(IJwtService jwtService, JwtProperties jwtProperties,
+                                   AuthoritySetCache authoritySetCache) {
+        this.jwtService = jwtService;
+        this.authoritySetCache = authoritySetCache;
+        this.tokenHeader = jwtProperties.getTokenHeader();
+        this.tokenPrefix = jwtProperties.getTokenPrefix();
+        this.prefixLength = tokenPrefix.length();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token == null) {
+            // Sin token: las reglas de autorización deciden (permitAll o 401)
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        JwtClaims claims;
+        try {
+            claims = jwtService.validateAndParseToken(token);
+            if (!"access".equals(claims.getTokenType())) {
+                throw new JwtException("Only access tokens can authenticate requests");
+            }
+            if (!CertificateBinding.isSatisfied(claims.getCertificateThumbprint(),
+                    (ClientCertificateIdentity) request.getAttribute(ClientCertificateAuthenticationFilter.IDENTITY_ATTRIBUTE))) {
+                throw new JwtException("Token is bound to a different client certificate");
+            }
+        } catch (JwtException e) {
+            log.debug("Rejected bearer token: {}", e.getMessage());
+            SecurityContextHolder.clearContext();
+            response.setHeader("WWW-Authenticate", INVALID_TOKEN_CHALLENGE);
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new ZeroTrustAuthentication(claims, buildAuthorities(claims)));
+        SecurityContextHolder.setContext(context);
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Extrae el token del header: comparación de prefijo in-place y una sola copia
+     */
+    String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(tokenHeader);
+        if (header == null || header.length() <= prefixLength
+                || !header.regionMatches(true, 0, tokenPrefix, 0, prefixLength)) {
+            return null;
+        }
+        return header.substring(prefixLength);
+    }
+
+    /**
+     * Authorities compartidas para la combinación de roles y permisos del token
+     */
+    protected AuthoritySet buildAuthorities(JwtClaims claims) {
+        return authoritySetCache.resolve(claims.getRoles(), claims.getPermissions());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidades compartidas por /auth/login en las variantes servlet y reactiva
+ */
+public final class LoginUsers {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginUsers.class);
+
+    private static final Pattern PASSWORD_ALGORITHM_PATTERN = Pattern.compile("^\\{.+}.*$");
+
+    private LoginUsers() {
+    }
+
+    /**
+     * Usuario definido en spring.security.user.* (contraseña sin prefijo = {noop})
+     */
+    public static UserDetails fromProperties(SecurityProperties securityProperties) {
+        SecurityProperties.User user = securityProperties.getUser();
+        if (user.isPasswordGenerated()) {
+            log.warn("Using generated password for user '{}': {}", user.getName(), user.getPassword());
+        }
+        String password = PASSWORD_ALGORITHM_PATTERN.matcher(user.getPassword()).matches()
+                ? user.getPassword()
+                : "{noop}" + user.getPassword();
+        return User.withUsername(user.getName())
+                .password(password)
+                .roles(user.getRoles().toArray(new String[0]))
+                .build();
+    }
+
+    /**
+     * Claims del usuario autenticado: ROLE_* como roles, el resto como permisos
+     */
+    public static JwtClaims toClaims(Authentication authentication, String deviceId, String ipAddress) {
+        List<String> roles = new ArrayList<>();
+        List<String> permissions = new ArrayList<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name.startsWith(AuthorityRegistry.ROLE_PREFIX)) {
+                roles.add(name.substring(AuthorityRegistry.ROLE_PREFIX.length()));
+            } else {
+                permissions.add(name);
+            }
+        }
+
+        JwtClaims claims = new JwtClaims(authentication.getName(), authentication.getName(), roles);
+        claims.setPermissions(permissions);
+        claims.setDeviceId(deviceId);
+        claims.setIpAddress(ipAddress);
+        return claims;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.config.CapabilityProperties;
+import com.example.zerotrust.exception.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registro versionado de bits de capacidad para roles y permisos
+ *
+ * Cada authority (roles como ROLE_X) tiene una posición de bit fija en
+ * app.security.capabilities.versions. buildToken emite el bitmap en "cap"
+ * y la versión en "capv"; al validar se decodifica a long[] y las
+ * comprobaciones son un AND. Las versiones solo añaden al final, por lo que
+ * un bit significa lo mismo en todas. Se rechaza (fail-closed) un token
+ * con una versión desconocida o con bits que su versión no define.
+ */
+@Component
+public class PermissionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionRegistry.class);
+
+    public static final String CAPABILITIES_CLAIM = "cap";
+    public static final String VERSION_CLAIM = "capv";
+
+    private final boolean enabled;
+    private final int currentVersion;
+    private final Map<Integer, Integer> sizeByVersion;
+    private final Map<String, Integer> bitByAuthority;
+    private final String[] authorityByBit;
+
+    public PermissionRegistry(CapabilityProperties properties) {
+        TreeMap<Integer, List<String>> versions = new TreeMap<>(properties.getVersions());
+        List<String> current = versions.get(properties.getCurrentVersion());
+        if (current == null) {
+            throw new IllegalStateException("Capability registry version " + properties.getCurrentVersion() + " is not defined");
+        }
+        if (!versions.lastKey().equals(properties.getCurrentVersion())) {
+            throw new IllegalStateException("Capability registry version " + properties.getCurrentVersion() +
+                    " is not the latest (" + versions.lastKey() + ")");
+        }
+        List<String> previous = List.of();
+        Map<Integer, Integer> sizes = new HashMap<>();
+        for (Map.Entry<Integer, List<String>> version : versions.entrySet()) {
+            List<String> authorities = version.getValue();
+            if (authorities.size() < previous.size() || !authorities.subList(0, previous.size()).equals(previous)) {
+                throw new IllegalStateException("Capability registry version " + version.getKey() +
+                        " must only append to the previous version");
+            }
+            sizes.put(version.getKey(), authorities.size());
+            previous = authorities;
+        }
+
+        Map<String, Integer> bits = new HashMap<>();
+        for (int bit = 0; bit < current.size(); bit++) {
+            if (bits.putIfAbsent(current.get(bit), bit) != null) {
+                throw new IllegalStateException("Duplicate capability: " + current.get(bit));
+            }
+        }
+        this.enabled = properties.isEnabled();
+        this.currentVersion = properties.getCurrentVersion();
+        this.sizeByVersion = Map.copyOf(sizes);
+        this.bitByAuthority = Map.copyOf(bits);
+        this.authorityByBit = current.toArray(String[]::new);
+        log.info("Capability registry v{}: {} authorities (enabled={})", currentVersion, authorityByBit.length, enabled);
+    }
+
+    /**
+     * Si los tokens nuevos llevan bitmap; la lectura de "cap" no depende de esto
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getCurrentVersion() {
+        return currentVersion;
+    }
+
+    /**
+     * Bit de una authority completa ("READ", "ROLE_ADMIN"); -1 si no está registrada
+     */
+    public int bitOf(String authority) {
+        Integer bit = bitByAuthority.get(authority);
+        return bit != null ? bit : -1;
+    }
+
+    /**
+     * Máscara con los bits de las authorities; null si alguna no está registrada
+     */
+    public long[] mask(String... authorities) {
+        long[] mask = new long[(authorityByBit.length + 63) >>> 6];
+        for (String authority : authorities) {
+            int bit = bitOf(authority);
+            if (bit < 0) {
+                return null;
+            }
+            mask[bit >>> 6] |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Bitmap de los roles y permisos registrados; los no registrados se devuelven aparte
+     */
+    public Encoded encode(List<String> roles, List<String> permissions) {
+        long[] bits = new long[(authorityByBit.length + 63) >>> 6];
+        List<String> unregisteredRoles = set(bits, roles, AuthorityRegistry.ROLE_PREFIX);
+        List<String> unregisteredPermissions = set(bits, permissions, "");
+        return new Encoded(CapabilityBitmap.encode(bits), unregisteredRoles, unregisteredPermissions);
+    }
+
+    /**
+     * Decodifica el claim "cap" de un token emitido con la versión indicada
+     */
+    public long[] decode(String bitmap, int version) {
+        Integer size = sizeByVersion.get(version);
+        if (size == null) {
+            throw new JwtException("Unknown capability registry version: " + version);
+        }
+        long[] bits;
+        try {
+            bits = CapabilityBitmap.decode(bitmap);
+        } catch (IllegalArgumentException e) {
+            throw new JwtException("Invalid capability claim", e);
+        }
+        if (CapabilityBitmap.highestBit(bits) >= size) {
+            throw new JwtException("Capability claim has bits not defined in version " + version);
+        }
+        return bits;
+    }
+
+    /**
+     * Roles (sin prefijo) del bitmap más los que el token lleva por nombre
+     */
+    public List<String> roles(long[] bits, Collection<String> unregistered) {
+        return names(bits, true, unregistered);
+    }
+
+    /**
+     * Permisos del bitmap más los que el token lleva por nombre
+     */
+    public List<String> permissions(long[] bits, Collection<String> unregistered) {
+        return names(bits, false, unregistered);
+    }
+
+    private List<String> set(long[] bits, List<String> names, String prefix) {
+        if (names == null) {
+            return List.of();
+        }
+        List<String> unregistered = null;
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            int bit = bitOf(prefix.isEmpty() ? name : prefix + name);
+            // Un permiso con forma de rol no puede ocupar el bit del rol
+            if (bit >= 0 && (!prefix.isEmpty() || !name.startsWith(AuthorityRegistry.ROLE_PREFIX))) {
+                bits[bit >>> 6] |= 1L << bit;
+            } else {
+                if (unregistered == null) {
+                    unregistered = new ArrayList<>();
+                }
+                unregistered.add(name);
+            }
+        }
+        return unregistered != null ? unregistered : List.of();
+    }
+
+    private List<String> names(long[] bits, boolean roles, Collection<String> unregistered) {
+        List<String> names = new ArrayList<>();
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                String authority = authorityByBit[(word << 6) + Long.numberOfTrailingZeros(remaining)];
+                remaining &= remaining - 1;
+                if (authority.startsWith(AuthorityRegistry.ROLE_PREFIX) == roles) {
+                    names.add(roles ? authority.substring(AuthorityRegistry.ROLE_PREFIX.length()) : authority);
+                }
+            }
+        }
+        if (unregistered != null) {
+            names.addAll(unregistered);
+        }
+        return names;
+    }
+
+    /**
+     * Bitmap base64url y las authorities sin bit, que el token sigue llevando por nombre
+     */
+    public record Encoded(String bitmap, List<String> unregisteredRoles, List<String> unregisteredPermissions) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.ratelimit.RateLimitKey;
+import com.example.zerotrust.ratelimit.RateLimiter;
+import com.example.zerotrust.web.AuthErrors;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rechaza con 429 y Retry-After las peticiones por encima de app.rate-limit
+ *
+ * Se registra dos veces: byAddress() antes de validar el token, para que
+ * el credential stuffing contra /auth/* no llegue a calcular HMAC, y
+ * byIdentity() después de JwtAuthenticationFilter, con el sujeto y el
+ * deviceId de los claims validados.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+    private final boolean identity;
+
+    // Las dos instancias se aplican en la misma petición: cada una con su atributo
+    private final String alreadyFilteredAttribute;
+
+    private RateLimitFilter(RateLimiter rateLimiter, boolean identity) {
+        this.rateLimiter = rateLimiter;
+        this.identity = identity;
+        this.alreadyFilteredAttribute = RateLimitFilter.class.getName() +
+                (identity ? ".IDENTITY" : ".ADDRESS") + ALREADY_FILTERED_SUFFIX;
+    }
+
+    /**
+     * Límites por IP de la conexión
+     */
+    public static RateLimitFilter byAddress(RateLimiter rateLimiter) {
+        return new RateLimitFilter(rateLimiter, false);
+    }
+
+    /**
+     * Límites por sujeto y dispositivo del token validado
+     */
+    public static RateLimitFilter byIdentity(RateLimiter rateLimiter) {
+        return new RateLimitFilter(rateLimiter, true);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        long wait;
+        if (!identity) {
+            wait = rateLimiter.tryAcquire(RateLimitKey.IP, request.getRemoteAddr(), path);
+        } else if (request.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) instanceof JwtClaims claims) {
+            wait = rateLimiter.tryAcquire(RateLimitKey.SUBJECT, claims.getSubject(), path);
+            if (wait == 0) {
+                wait = rateLimiter.tryAcquire(RateLimitKey.DEVICE, claims.getDeviceId(), path);
+            }
+        } else {
+            wait = 0;
+        }
+
+        if (wait > 0) {
+            log.debug("Rate limited {} {}", request.getRemoteAddr(), path);
+            // Retry-After en segundos enteros, al menos 1
+            response.setHeader("Retry-After", Long.toString((wait + 999_999) / 1_000_000));
+            AuthErrors.RATE_LIMITED.write(response);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return identity
+                ? !rateLimiter.limits(RateLimitKey.SUBJECT) && !rateLimiter.limits(RateLimitKey.DEVICE)
+                : !rateLimiter.limits(RateLimitKey.IP);
+    }
+
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return alreadyFilteredAttribute;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.config.JwtProperties;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Extrae el Bearer token de la petición reactiva usando la cabecera y el
+ * prefijo configurados (app.jwt.token-header / app.jwt.token-prefix)
+ */
+public class ReactiveBearerTokenConverter implements ServerAuthenticationConverter {
+
+    private final String tokenHeader;
+    private final String tokenPrefix;
+    private final int prefixLength;
+
+    public ReactiveBearerTokenConverter(JwtProperties jwtProperties) {
+        this.tokenHeader = jwtProperties.getTokenHeader();
+        this.tokenPrefix = jwtProperties.getTokenPrefix();
+        this.prefixLength = tokenPrefix.length();
+    }
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        String token = resolveToken(exchange.getRequest());
+        return token == null ? Mono.empty() : Mono.just(new BearerTokenAuthenticationToken(token));
+    }
+
+    /**
+     * Token sin prefijo, o null si la cabecera no existe o no es Bearer
+     */
+    public String resolveToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(tokenHeader);
+        if (header == null || header.length() <= prefixLength
+                || !header.regionMatches(true, 0, tokenPrefix, 0, prefixLength)) {
+            return null;
+        }
+        return header.substring(prefixLength);
+    }
+}
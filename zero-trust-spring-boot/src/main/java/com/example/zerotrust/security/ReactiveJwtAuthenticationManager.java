@@ -0,0 +1,59 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.service.reactive.IReactiveJwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+/**
+ * Autenticación Bearer para la variante WebFlux
+ *
+ * Equivalente reactivo de JwtAuthenticationFilter: valida con
+ * IReactiveJwtService, acepta solo access tokens y produce un
+ * ZeroTrustAuthentication con el AuthoritySet internado.
+ *
+ * La variante WebFlux aún no recibe el certificado del cliente: un token
+ * ligado a certificado (cnf.x5t#S256) se rechaza siempre, porque no se
+ * puede comprobar la ligadura (RFC 8705).
+ */
+public class ReactiveJwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveJwtAuthenticationManager.class);
+
+    private final IReactiveJwtService jwtService;
+    private final AuthoritySetCache authoritySetCache;
+
+    public ReactiveJwtAuthenticationManager(IReactiveJwtService jwtService, AuthoritySetCache authoritySetCache) {
+        this.jwtService = jwtService;
+        this.authoritySetCache = authoritySetCache;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return Mono.empty();
+        }
+        return jwtService.validateAndParseToken(bearer.getToken())
+                .<Authentication>handle((claims, sink) -> {
+                    if (!"access".equals(claims.getTokenType())) {
+                        sink.error(new JwtException("Only access tokens can authenticate requests"));
+                        return;
+                    }
+                    if (claims.getCertificateThumbprint() != null) {
+                        sink.error(new JwtException("Certificate-bound tokens require mTLS"));
+                        return;
+                    }
+                    sink.next(new ZeroTrustAuthentication(claims,
+                            authoritySetCache.resolve(claims.getRoles(), claims.getPermissions())));
+                })
+                .onErrorMap(JwtException.class, e -> {
+                    log.debug("Rejected bearer token: {}", e.getMessage());
+                    return new BadCredentialsException(e.getMessage(), e);
+                });
+    }
+}
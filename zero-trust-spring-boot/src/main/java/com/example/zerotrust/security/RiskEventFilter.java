@@ -0,0 +1,58 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.RiskEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Alimenta el RiskEngine con cada petición autenticada por JWT
+ *
+ * Envuelve a JwtAuthenticationFilter: al terminar la cadena lee los claims
+ * validados (CLAIMS_ATTRIBUTE) y el estado de la respuesta. Se registra la
+ * IP observada en la conexión, no la del token. Las peticiones sin token
+ * válido no tienen sujeto y no se registran.
+ */
+public class RiskEventFilter extends OncePerRequestFilter {
+
+    private final RiskEngine riskEngine;
+
+    public RiskEventFilter(RiskEngine riskEngine) {
+        this.riskEngine = riskEngine;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) instanceof JwtClaims claims) {
+                riskEngine.record(new RiskEvent(claims.getSubject(), request.getRemoteAddr(), claims.getDeviceId(),
+                        claims.getSessionId(), request.getRequestURI(),
+                        outcome(failed ? 500 : response.getStatus()), Instant.now()));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !riskEngine.isEnabled();
+    }
+
+    static RiskEvent.Outcome outcome(int status) {
+        if (status == HttpServletResponse.SC_UNAUTHORIZED || status == HttpServletResponse.SC_FORBIDDEN) {
+            return RiskEvent.Outcome.DENIED;
+        }
+        return status >= 400 && status < 500 ? RiskEvent.Outcome.FAILURE : RiskEvent.Outcome.SUCCESS;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.zerotrust.security;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentication ligera construida a partir de un JWT validado
+ *
+ * No extiende AbstractAuthenticationToken para no copiar la colección de
+ * authorities en cada petición; la colección recibida debe ser inmutable
+ * (normalmente un AuthoritySet compartido).
+ * El principal es el propio JwtClaims (usable con @AuthenticationPrincipal).
+ */
+public class ZeroTrustAuthentication implements Authentication {
+
+    private static final long serialVersionUID = 1L;
+
+    private final JwtClaims claims;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private Object details;
+    private boolean authenticated = true;
+
+    public ZeroTrustAuthentication(JwtClaims claims, Collection<? extends GrantedAuthority> authorities) {
+        this.claims = claims;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        // El token no se conserva tras la validación
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return details;
+    }
+
+    public void setDetails(Object details) {
+        this.details = details;
+    }
+
+    @Override
+    public JwtClaims getPrincipal() {
+        return claims;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        // Solo se permite degradar, nunca marcar como autenticado desde fuera
+        if (authenticated && !this.authenticated) {
+            throw new IllegalArgumentException("Cannot mark an unauthenticated token as authenticated");
+        }
+        this.authenticated = authenticated;
+    }
+
+    @Override
+    public String getName() {
+        return claims.getSubject();
+    }
+
+    @Override
+    public String toString() {
+        return "ZeroTrustAuthentication{" +
+                "subject='" + claims.getSubject() + '\'' +
+                ", sessionId='" + claims.getSessionId() + '\'' +
+                ", authorities=" + authorities +
+                '}';
+    }
+}
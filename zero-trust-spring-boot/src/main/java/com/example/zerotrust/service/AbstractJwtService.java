@@ -1,19 +1,31 @@
 package com.example.zerotrust.service;
 
 import com.example.zerotrust.config.JwtProperties;
+import com.example.zerotrust.event.SecretChangedEvent;
 import com.example.zerotrust.exception.JwtException;
 import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.policy.Decision;
+import com.example.zerotrust.policy.PolicyDecisionPoint;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.SessionRiskOverlay;
+import com.example.zerotrust.risk.TokenLifetimePolicy;
+import com.example.zerotrust.security.PermissionRegistry;
+import com.example.zerotrust.service.transit.VaultTransitSigner;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Clase base abstracta con métodos comunes para JWT
@@ -22,22 +34,74 @@ public abstract class AbstractJwtService {
 
     protected static final Logger log = LoggerFactory.getLogger(AbstractJwtService.class);
 
+    /**
+     * Claim de confirmación y huella SHA-256 del certificado (RFC 8705 §3.1)
+     */
+    public static final String CONFIRMATION_CLAIM = "cnf";
+    public static final String X5T_S256 = "x5t#S256";
+
     protected final JwtProperties jwtProperties;
     protected final SecretService secretService;
 
-    protected AbstractJwtService(JwtProperties jwtProperties, SecretService secretService) {
+    /**
+     * Firma remota en Vault Transit (null si la clave es local)
+     */
+    protected final VaultTransitSigner transitSigner;
+
+    /**
+     * PDP ABAC consultado en validateZeroTrustClaims (null: solo las comprobaciones fijas)
+     */
+    protected final PolicyDecisionPoint policyDecisionPoint;
+
+    /**
+     * Bits de roles y permisos para el claim "cap" (null: listas de nombres)
+     */
+    protected final PermissionRegistry permissionRegistry;
+
+    /**
+     * Riesgo continuo por sujeto (null: riskScore fijo de emisión)
+     */
+    protected final RiskEngine riskEngine;
+
+    /**
+     * Duración del access token según el riesgo (null: app.jwt.access-token-duration)
+     */
+    protected final TokenLifetimePolicy tokenLifetimePolicy;
+
+    /**
+     * Riesgo elevado y denegaciones temporales por sessionId (null: sin ajustes)
+     */
+    protected final SessionRiskOverlay sessionRiskOverlay;
+
+    // Clave HMAC derivada del secreto actual
+    private volatile SecretKey signingKey;
+
+    // ReentrantLock y no synchronized: la derivación lee el secreto (posible
+    // llamada a Vault) y un monitor fijaría el virtual thread a su carrier
+    private final ReentrantLock signingKeyLock = new ReentrantLock();
+
+    protected AbstractJwtService(JwtProperties jwtProperties, SecretService secretService,
+                                 VaultTransitSigner transitSigner, PolicyDecisionPoint policyDecisionPoint,
+                                 PermissionRegistry permissionRegistry, RiskEngine riskEngine,
+                                 TokenLifetimePolicy tokenLifetimePolicy, SessionRiskOverlay sessionRiskOverlay) {
         this.jwtProperties = jwtProperties;
         this.secretService = secretService;
+        this.transitSigner = transitSigner;
+        this.policyDecisionPoint = policyDecisionPoint;
+        this.permissionRegistry = permissionRegistry;
+        this.riskEngine = riskEngine;
+        this.tokenLifetimePolicy = tokenLifetimePolicy;
+        this.sessionRiskOverlay = sessionRiskOverlay;
     }
 
     /**
      * Construye un token JWT con los claims proporcionados
      */
-    protected String buildToken(JwtClaims claims, java.time.Duration duration) {
+    protected String buildToken(JwtClaims claims, Duration duration) {
         Instant now = Instant.now();
         Instant expiration = now.plus(duration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(claims.getSubject())
                 .issuer(jwtProperties.getIssuer())
                 .issuedAt(Date.from(now))
@@ -46,17 +110,63 @@ public abstract class AbstractJwtService {
 
                 // Claims personalizados Zero Trust
                 .claim("username", claims.getUsername())
-                .claim("roles", claims.getRoles())
-                .claim("permissions", claims.getPermissions())
                 .claim("deviceId", claims.getDeviceId())
                 .claim("sessionId", claims.getSessionId())
                 .claim("riskScore", claims.getRiskScore())
                 .claim("ipAddress", claims.getIpAddress())
                 .claim("tokenType", claims.getTokenType())
-                .claim("context", claims.getContext())
+                .claim("context", claims.getContext());
+
+        writeAuthorities(builder, claims);
+
+        // Token ligado al certificado cliente (RFC 8705): cnf.x5t#S256
+        if (claims.getCertificateThumbprint() != null) {
+            builder.claim(CONFIRMATION_CLAIM, Map.of(X5T_S256, claims.getCertificateThumbprint()));
+        }
+
+        return signToken(builder).compact();
+    }
+
+    /**
+     * Roles y permisos: bitmap "cap" + versión "capv" si hay registro activo;
+     * los nombres sin bit (y todos, sin registro) van en las listas roles/permissions
+     */
+    protected void writeAuthorities(JwtBuilder builder, JwtClaims claims) {
+        if (permissionRegistry == null || !permissionRegistry.isEnabled()
+                || (claims.getRoles() == null && claims.getPermissions() == null)) {
+            builder.claim("roles", claims.getRoles())
+                    .claim("permissions", claims.getPermissions());
+            return;
+        }
+        PermissionRegistry.Encoded encoded = permissionRegistry.encode(claims.getRoles(), claims.getPermissions());
+        builder.claim(PermissionRegistry.CAPABILITIES_CLAIM, encoded.bitmap())
+                .claim(PermissionRegistry.VERSION_CLAIM, permissionRegistry.getCurrentVersion());
+        if (!encoded.unregisteredRoles().isEmpty()) {
+            builder.claim("roles", encoded.unregisteredRoles());
+        }
+        if (!encoded.unregisteredPermissions().isEmpty()) {
+            builder.claim("permissions", encoded.unregisteredPermissions());
+        }
+    }
 
-                .signWith(getSigningKey())
-                .compact();
+    /**
+     * Firma con la clave local o, en modo Transit, delegando en Vault
+     */
+    protected JwtBuilder signToken(JwtBuilder builder) {
+        if (transitSigner != null) {
+            return transitSigner.sign(builder);
+        }
+        return builder.signWith(getSigningKey());
+    }
+
+    /**
+     * Configura la verificación de firma equivalente a signToken
+     */
+    protected JwtParserBuilder verifySignature(JwtParserBuilder parser) {
+        if (transitSigner != null) {
+            return transitSigner.verify(parser);
+        }
+        return parser.verifyWith(getSigningKey());
     }
 
     /**
@@ -64,8 +174,7 @@ public abstract class AbstractJwtService {
      */
     protected Claims parseTokenClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
+            return verifySignature(Jwts.parser())
                     .build()
                     .parseSignedClaims(token)
                     .getPayload();
@@ -79,9 +188,144 @@ public abstract class AbstractJwtService {
     }
 
     /**
-     * Obtiene la clave de firma desde el SecretService
+     * Parsea el token, lo convierte a JwtClaims y aplica las validaciones Zero Trust
+     * (sin consultar la revocación, que depende de la implementación)
+     */
+    protected JwtClaims parseAndValidateClaims(String token) {
+        JwtClaims jwtClaims = claimsToJwtClaims(parseTokenClaims(token));
+        validateZeroTrustClaims(jwtClaims);
+        return jwtClaims;
+    }
+
+    /**
+     * Construye un access token con la duración de accessTokenLifetime;
+     * claims.expiresAt queda con su expiración
+     */
+    protected String buildAccessToken(JwtClaims claims) {
+        Duration lifetime = accessTokenLifetime(claims);
+        claims.setTokenType("access");
+        claims.setIssuedAt(Instant.now());
+        claims.setExpiresAt(claims.getIssuedAt().plus(lifetime));
+
+        return buildToken(claims, lifetime);
+    }
+
+    /**
+     * Duración del access token: según el riesgo de la emisión si hay
+     * TokenLifetimePolicy, si no la configurada
+     */
+    protected Duration accessTokenLifetime(JwtClaims claims) {
+        if (tokenLifetimePolicy == null) {
+            return jwtProperties.getAccessTokenDuration();
+        }
+        return tokenLifetimePolicy.accessTokenLifetime(claims, jwtProperties.getAccessTokenDuration());
+    }
+
+    /**
+     * Emite el par access + refresh para unos claims de usuario
+     */
+    protected TokenResponse createTokenPair(JwtClaims userClaims) {
+        log.debug("Generating token pair for user: {}", userClaims.getUsername());
+
+        // Enriquecer claims con metadata de seguridad
+        enrichClaimsWithSecurityData(userClaims);
+
+        // Generar access token (corta duración)
+        String accessToken = buildAccessToken(userClaims);
+        preparePolicyResidual(userClaims);
+
+        // Generar refresh token (larga duración)
+        String refreshToken = generateRefreshToken(userClaims);
+
+        // Expiración del access token emitido
+        Instant expiresAt = userClaims.getExpiresAt();
+        long expiresIn = Duration.between(userClaims.getIssuedAt(), expiresAt).getSeconds();
+
+        log.info("Token pair generated successfully for user: {} (session: {})",
+                userClaims.getUsername(), userClaims.getSessionId());
+
+        return new TokenResponse(accessToken, refreshToken, expiresIn, expiresAt);
+    }
+
+    /**
+     * Emite un nuevo access token (y refresh rotado si procede) a partir de un
+     * refresh token ya validado. Revocar el refresh anterior es tarea del llamante.
+     */
+    protected TokenResponse createRefreshedPair(JwtClaims refreshClaims, String refreshToken) {
+        if (!"refresh".equals(refreshClaims.getTokenType())) {
+            throw new JwtException("Invalid token type for refresh");
+        }
+
+        // Crear nuevos claims para access token
+        JwtClaims newClaims = createAccessClaimsFromRefresh(refreshClaims);
+
+        // Generar nuevo access token
+        String newAccessToken = buildAccessToken(newClaims);
+        preparePolicyResidual(newClaims);
+
+        String newRefreshToken = refreshToken; // Reutilizar por defecto
+
+        // Rotar refresh token si está habilitado
+        if (jwtProperties.isEnableRefreshTokenRotation()) {
+            newRefreshToken = generateRefreshToken(newClaims);
+        }
+
+        Instant expiresAt = newClaims.getExpiresAt();
+        long expiresIn = Duration.between(newClaims.getIssuedAt(), expiresAt).getSeconds();
+
+        log.info("Token refreshed successfully for user: {}", newClaims.getUsername());
+
+        return new TokenResponse(newAccessToken, newRefreshToken, expiresIn, expiresAt);
+    }
+
+    /**
+     * Evaluación parcial de la política para los claims del access token
+     * emitido: sus peticiones encuentran el residuo del sujeto ya calculado
+     */
+    protected void preparePolicyResidual(JwtClaims accessClaims) {
+        if (policyDecisionPoint != null) {
+            policyDecisionPoint.prepare(accessClaims);
+        }
+    }
+
+    /**
+     * Obtiene la clave de firma derivada del secreto del SecretService
      */
     protected SecretKey getSigningKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            signingKeyLock.lock();
+            try {
+                key = signingKey;
+                if (key == null) {
+                    key = deriveSigningKey();
+                    signingKey = key;
+                }
+            } finally {
+                signingKeyLock.unlock();
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Reconstruye la clave derivada una sola vez por rotación del secreto
+     */
+    @EventListener
+    public void onSecretChanged(SecretChangedEvent event) {
+        if (!event.isFor(SecretService.JWT_SIGNING_KEY)) {
+            return;
+        }
+        signingKeyLock.lock();
+        try {
+            signingKey = deriveSigningKey();
+        } finally {
+            signingKeyLock.unlock();
+        }
+        log.info("JWT signing key rebuilt for secret version {}", event.getVersion());
+    }
+
+    private SecretKey deriveSigningKey() {
         String secret = secretService.getJwtSigningKey();
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -97,7 +341,7 @@ public abstract class AbstractJwtService {
 
         // Inicializar risk score si no existe
         if (claims.getRiskScore() == null) {
-            claims.setRiskScore(0.1); // Risk score bajo por defecto
+            claims.setRiskScore(currentRiskScore(claims.getSubject()));
         }
 
         // Timestamp actual
@@ -112,8 +356,7 @@ public abstract class AbstractJwtService {
 
         jwtClaims.setSubject(claims.getSubject());
         jwtClaims.setUsername((String) claims.get("username"));
-        jwtClaims.setRoles((List<String>) claims.get("roles"));
-        jwtClaims.setPermissions((List<String>) claims.get("permissions"));
+        readAuthorities(claims, jwtClaims);
         jwtClaims.setDeviceId((String) claims.get("deviceId"));
         jwtClaims.setSessionId((String) claims.get("sessionId"));
 
@@ -126,16 +369,62 @@ public abstract class AbstractJwtService {
         jwtClaims.setIpAddress((String) claims.get("ipAddress"));
         jwtClaims.setTokenType((String) claims.get("tokenType"));
         jwtClaims.setContext((Map<String, Object>) claims.get("context"));
+        if (claims.get(CONFIRMATION_CLAIM) instanceof Map<?, ?> confirmation
+                && confirmation.get(X5T_S256) instanceof String thumbprint) {
+            jwtClaims.setCertificateThumbprint(thumbprint);
+        }
         jwtClaims.setIssuedAt(claims.getIssuedAt().toInstant());
         jwtClaims.setExpiresAt(claims.getExpiration().toInstant());
 
         return jwtClaims;
     }
 
+    /**
+     * Roles y permisos del token: listas de nombres y, si lleva "cap", los bits
+     * decodificados. Un "cap" que no se puede interpretar invalida el token
+     */
+    protected void readAuthorities(Claims claims, JwtClaims jwtClaims) {
+        List<String> roles = (List<String>) claims.get("roles");
+        List<String> permissions = (List<String>) claims.get("permissions");
+        Object bitmap = claims.get(PermissionRegistry.CAPABILITIES_CLAIM);
+        if (bitmap == null) {
+            jwtClaims.setRoles(roles);
+            jwtClaims.setPermissions(permissions);
+            return;
+        }
+        if (permissionRegistry == null || !(bitmap instanceof String encoded)
+                || !(claims.get(PermissionRegistry.VERSION_CLAIM) instanceof Number version)) {
+            throw new JwtException("Capability claim cannot be decoded");
+        }
+        long[] capabilities = permissionRegistry.decode(encoded, version.intValue());
+        jwtClaims.setCapabilities(capabilities);
+        jwtClaims.setRoles(permissionRegistry.roles(capabilities, roles));
+        jwtClaims.setPermissions(permissionRegistry.permissions(capabilities, permissions));
+    }
+
     /**
      * Validaciones específicas Zero Trust
      */
     protected void validateZeroTrustClaims(JwtClaims claims) {
+        // Riesgo actual del sujeto; el del token si el motor no tiene eventos suyos
+        if (riskEngine != null && claims.getRiskScore() != null) {
+            claims.setRiskScore(riskEngine.score(claims.getSubject(), claims.getRiskScore()));
+        }
+
+        // Ajuste de la sesión: eleva el riesgo o deniega sin reemitir ni revocar el token
+        if (sessionRiskOverlay != null) {
+            long overlay = sessionRiskOverlay.lookup(claims.getSessionId());
+            if (overlay != SessionRiskOverlay.NONE) {
+                if (SessionRiskOverlay.denies(overlay, claims.getTokenType())) {
+                    throw new JwtException("Session temporarily denied: " + claims.getSessionId());
+                }
+                double riskFloor = SessionRiskOverlay.riskFloor(overlay);
+                if (claims.getRiskScore() == null || riskFloor > claims.getRiskScore()) {
+                    claims.setRiskScore(riskFloor);
+                }
+            }
+        }
+
         // Validaciones específicas Zero Trust
         if (claims.getRiskScore() != null && claims.getRiskScore() > 0.9) {
             throw new JwtException("Risk score too high: " + claims.getRiskScore());
@@ -144,6 +433,15 @@ public abstract class AbstractJwtService {
         if (claims.getTokenType() == null) {
             throw new JwtException("Token type not specified");
         }
+
+        // Política ABAC: recurso "token", acción = tipo de token
+        if (policyDecisionPoint != null) {
+            Decision decision = policyDecisionPoint.decideTokenUse(claims);
+            if (decision != null && !decision.isAllowed()) {
+                throw new JwtException("Token denied by policy " + decision.policyVersion() +
+                        (decision.ruleId() != null ? ": " + decision.ruleId() : ""));
+            }
+        }
     }
 
     /**
@@ -157,6 +455,13 @@ public abstract class AbstractJwtService {
         refreshClaims.setUsername(accessClaims.getUsername());
         refreshClaims.setSessionId(accessClaims.getSessionId());
         refreshClaims.setDeviceId(accessClaims.getDeviceId());
+        refreshClaims.setCertificateThumbprint(accessClaims.getCertificateThumbprint());
+        // Métodos de autenticación: la duración de los access tokens renovados depende de MFA
+        if (accessClaims.getContext() != null
+                && accessClaims.getContext().get(TokenLifetimePolicy.AMR_CONTEXT_KEY) != null) {
+            refreshClaims.setContext(Map.of(TokenLifetimePolicy.AMR_CONTEXT_KEY,
+                    accessClaims.getContext().get(TokenLifetimePolicy.AMR_CONTEXT_KEY)));
+        }
 
         return refreshClaims;
     }
@@ -172,15 +477,25 @@ public abstract class AbstractJwtService {
         accessClaims.setUsername(refreshClaims.getUsername());
         accessClaims.setSessionId(refreshClaims.getSessionId());
         accessClaims.setDeviceId(refreshClaims.getDeviceId());
+        // Los access tokens renovados siguen ligados al mismo certificado
+        accessClaims.setCertificateThumbprint(refreshClaims.getCertificateThumbprint());
+        accessClaims.setContext(refreshClaims.getContext());
 
         // TODO: Aquí deberíamos cargar roles/permisos actualizados desde la BD
         // Por ahora usamos valores por defecto
         accessClaims.setRoles(List.of("USER"));
         accessClaims.setPermissions(List.of("READ"));
-        accessClaims.setRiskScore(0.1);
+        accessClaims.setRiskScore(currentRiskScore(refreshClaims.getSubject()));
 
         return accessClaims;
     }
+
+    /**
+     * Riesgo de emisión: el del RiskEngine o 0.1 (bajo) sin motor
+     */
+    protected double currentRiskScore(String subject) {
+        return riskEngine != null ? riskEngine.score(subject) : 0.1;
+    }
     /**
      * Genera refresh token con claims mínimos
      */
@@ -4,13 +4,17 @@ import com.example.zerotrust.config.JwtProperties;
 import com.example.zerotrust.exception.JwtException;
 import com.example.zerotrust.model.dto.security.JwtClaims;
 import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.policy.PolicyDecisionPoint;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.SessionRiskOverlay;
+import com.example.zerotrust.risk.TokenLifetimePolicy;
+import com.example.zerotrust.security.PermissionRegistry;
+import com.example.zerotrust.service.transit.VaultTransitSigner;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-
 /**
  * Implementación del servicio JWT Zero Trust
  * Extiende AbstractJwtService e implementa IJwtService
@@ -23,20 +27,22 @@ public class JwtService extends com.example.zerotrust.service.AbstractJwtService
     @Autowired
     public JwtService(JwtProperties jwtProperties,
                       com.example.zerotrust.service.SecretService secretService,
-                      com.example.zerotrust.service.TokenRevocationService tokenRevocationService) {
-        super(jwtProperties, secretService);
+                      com.example.zerotrust.service.TokenRevocationService tokenRevocationService,
+                      ObjectProvider<VaultTransitSigner> transitSigner,
+                      ObjectProvider<PolicyDecisionPoint> policyDecisionPoint,
+                      ObjectProvider<PermissionRegistry> permissionRegistry,
+                      ObjectProvider<RiskEngine> riskEngine,
+                      ObjectProvider<TokenLifetimePolicy> tokenLifetimePolicy,
+                      ObjectProvider<SessionRiskOverlay> sessionRiskOverlay) {
+        super(jwtProperties, secretService, transitSigner.getIfAvailable(), policyDecisionPoint.getIfAvailable(),
+                permissionRegistry.getIfAvailable(), riskEngine.getIfAvailable(), tokenLifetimePolicy.getIfAvailable(),
+                sessionRiskOverlay.getIfAvailable());
         this.tokenRevocationService = tokenRevocationService;
     }
 
-
-
     @Override
     public String generateAccessToken(JwtClaims claims) {
-        claims.setTokenType("access");
-        claims.setIssuedAt(Instant.now());
-        claims.setExpiresAt(Instant.now().plus(jwtProperties.getAccessTokenDuration()));
-
-        return buildToken(claims, jwtProperties.getAccessTokenDuration());
+        return buildAccessToken(claims);
     }
 
     @Override
@@ -47,14 +53,8 @@ public class JwtService extends com.example.zerotrust.service.AbstractJwtService
                 throw new JwtException("Token has been revoked");
             }
 
-            // Parsear y validar token (usando método de clase abstracta)
-            Claims claims = parseTokenClaims(token);
-
-            // Convertir a nuestro modelo (usando método de clase abstracta)
-            JwtClaims jwtClaims = claimsToJwtClaims(claims);
-
-            // Validaciones adicionales Zero Trust (usando método de clase abstracta)
-            validateZeroTrustClaims(jwtClaims);
+            // Parsear, convertir y aplicar validaciones Zero Trust (clase abstracta)
+            JwtClaims jwtClaims = parseAndValidateClaims(token);
 
             log.debug("Token validated successfully for user: {}", jwtClaims.getUsername());
             return jwtClaims;
@@ -70,25 +70,7 @@ public class JwtService extends com.example.zerotrust.service.AbstractJwtService
 
     @Override
     public TokenResponse generateTokenPair(JwtClaims userClaims) {
-        log.debug("Generating token pair for user: {}", userClaims.getUsername());
-
-        // Enriquecer claims con metadata de seguridad
-        enrichClaimsWithSecurityData(userClaims);
-
-        // Generar access token (corta duración)
-        String accessToken = generateAccessToken(userClaims);
-
-        // Generar refresh token (larga duración) ← USAR MÉTODO PROTEGIDO
-        String refreshToken = generateRefreshToken(userClaims);
-
-        // Calcular expiración
-        Instant expiresAt = Instant.now().plus(jwtProperties.getAccessTokenDuration());
-        long expiresIn = jwtProperties.getAccessTokenDuration().getSeconds();
-
-        log.info("Token pair generated successfully for user: {} (session: {})",
-                userClaims.getUsername(), userClaims.getSessionId());
-
-        return new TokenResponse(accessToken, refreshToken, expiresIn, expiresAt);
+        return createTokenPair(userClaims);
     }
 
     @Override
@@ -98,44 +80,29 @@ public class JwtService extends com.example.zerotrust.service.AbstractJwtService
         // Validar refresh token
         JwtClaims refreshClaims = validateAndParseToken(refreshToken);
 
-        if (!"refresh".equals(refreshClaims.getTokenType())) {
-            throw new JwtException("Invalid token type for refresh");
-        }
-
-        // Crear nuevos claims para access token
-        JwtClaims newClaims = createAccessClaimsFromRefresh(refreshClaims);
+        TokenResponse response = createRefreshedPair(refreshClaims, refreshToken);
 
-        // Generar nuevo access token
-        String newAccessToken = generateAccessToken(newClaims);
-
-        String newRefreshToken = refreshToken; // Reutilizar por defecto
-
-        // Rotar refresh token si está habilitado
+        // Revocar el refresh token anterior si se ha rotado
         if (jwtProperties.isEnableRefreshTokenRotation()) {
-            newRefreshToken = generateRefreshToken(newClaims); // ← USAR MÉTODO PROTEGIDO
-            // Revocar el refresh token anterior
             tokenRevocationService.revokeToken(refreshToken, "rotated");
         }
 
-        Instant expiresAt = Instant.now().plus(jwtProperties.getAccessTokenDuration());
-        long expiresIn = jwtProperties.getAccessTokenDuration().getSeconds();
-
-        log.info("Token refreshed successfully for user: {}", newClaims.getUsername());
-
-        return new TokenResponse(newAccessToken, newRefreshToken, expiresIn, expiresAt);
+        return response;
     }
 
     @Override
     public void revokeToken(String token, String reason) {
+        Claims claims;
         try {
-            JwtClaims claims = validateAndParseToken(token);
-            tokenRevocationService.revokeToken(token, reason);
-            log.info("Token revoked for user: {} (reason: {})", claims.getUsername(), reason);
-        } catch (Exception e) {
-            log.warn("Failed to revoke token: {}", e.getMessage());
-            // Aún así lo agregamos a blacklist por seguridad
-            tokenRevocationService.revokeToken(token, "failed_validation_" + reason);
+            // Solo firma y expiración: una sesión denegada o un token ya revocado se pueden revocar
+            claims = parseTokenClaims(token);
+        } catch (RuntimeException e) {
+            // /auth/revoke es público: un token inválido no se guarda (RFC 7009 responde igual)
+            log.debug("Ignoring revocation of invalid token: {}", e.getMessage());
+            return;
         }
+        tokenRevocationService.revokeToken(token, reason);
+        log.info("Token revoked for user: {} (reason: {})", claims.getSubject(), reason);
     }
 
     @Override
@@ -1,59 +1,315 @@
 package com.example.zerotrust.service;
 
+import com.example.zerotrust.event.SecretChangedEvent;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Servicio para gestión de secretos (implementación básica)
- * TODO: Integrar con Vault completamente
+ * Servicio para gestión de secretos versionados
+ *
+ * Los secretos se leen de un SecretSource (Vault KV con app.secrets.source:
+ * VAULT) y, si el origen no define la propiedad, del Environment; se
+ * cachean junto a un número de versión. Cada refresco relee el origen,
+ * compara con el valor cacheado y publica un SecretChangedEvent por secreto
+ * modificado. Los refrescos (polling y webhook) se serializan.
+ *
+ * Métricas (Micrometer):
+ * - zerotrust.secrets.access{secret,result=hit|miss}: contadores LongAdder
+ * - zerotrust.secrets.load{secret}: latencia de carga con histograma
+ * - zerotrust.secrets.errors{secret,operation}: errores del origen (Vault)
+ * - zerotrust.secrets.refresh.age: tiempo desde el último refresco correcto
  */
 @Service
 public class SecretService {
 
     private static final Logger log = LoggerFactory.getLogger(SecretService.class);
 
-    @Value("${app.jwt.secret:dev-jwt-secret-key-at-least-64-characters-for-development-use}")
-    private String jwtSecret;
+    public static final String JWT_SIGNING_KEY = "jwt-signing-key";
+    public static final String ENCRYPTION_KEY = "encryption-key";
+    public static final String POLICY_BUNDLE = "policy-bundle";
 
-    // Cache temporal para secretos
-    private final Cache<String, String> secretCache = Caffeine.newBuilder()
-            .expireAfterWrite(Duration.ofMinutes(10))
+    // Nombre lógico del secreto -> propiedad de origen y valor por defecto
+    private static final Map<String, String[]> SECRET_SOURCES = Map.of(
+            JWT_SIGNING_KEY, new String[]{"app.jwt.secret",
+                    "dev-jwt-secret-key-at-least-64-characters-for-development-use"},
+            ENCRYPTION_KEY, new String[]{"app.encryption.key",
+                    "default-encryption-key-32-bytes-minimum"},
+            // Bundle de políticas en Vault (app.policy.source: VAULT); vacío si no se usa
+            POLICY_BUNDLE, new String[]{"app.policy.bundle-json", ""}
+    );
+
+    private final Environment environment;
+    private final SecretSource source;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // ReentrantLock y no synchronized: el refresco hace I/O con Vault (virtual threads)
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // Cache de secretos versionados; la rotación se detecta en refreshSecrets()
+    private final Cache<String, VersionedSecret> secretCache = Caffeine.newBuilder()
             .maximumSize(100)
             .build();
 
+    // Métricas por secreto, creadas una vez; inmutable tras el constructor
+    private final Map<String, SecretMetrics> metrics;
+
+    // 0: aún no ha habido un refresco correcto
+    private volatile long lastSuccessfulRefreshMillis;
+
+    /**
+     * Sin SecretSource (app.secrets.source distinto de VAULT) todo sale del Environment
+     */
+    public SecretService(Environment environment, ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry, ObjectProvider<SecretSource> sources) {
+        this.environment = environment;
+        this.source = sources.getIfAvailable(() -> Map::of);
+        this.eventPublisher = eventPublisher;
+
+        Map<String, SecretMetrics> perSecret = new HashMap<>();
+        for (String name : SECRET_SOURCES.keySet()) {
+            perSecret.put(name, new SecretMetrics(name, meterRegistry));
+        }
+        this.metrics = Map.copyOf(perSecret);
+
+        TimeGauge.builder("zerotrust.secrets.refresh.age", this, TimeUnit.MILLISECONDS,
+                        s -> s.lastSuccessfulRefreshMillis == 0
+                                ? Double.NaN : System.currentTimeMillis() - s.lastSuccessfulRefreshMillis)
+                .description("Time since the last successful secrets refresh")
+                .register(meterRegistry);
+    }
+
     /**
      * Obtiene la clave de firma JWT
      */
     public String getJwtSigningKey() {
-        return secretCache.get("jwt-signing-key", k -> {
-            log.debug("Loading JWT signing key");
-            // TODO: Obtener del Vault real
-            return jwtSecret;
-        });
+        return getSecret(JWT_SIGNING_KEY).value();
     }
 
     /**
      * Obtiene clave de encriptación
      */
     public String getEncryptionKey() {
-        return secretCache.get("encryption-key", k -> {
-            log.debug("Loading encryption key");
-            // TODO: Obtener del Vault real
-            return "default-encryption-key-32-bytes-minimum";
-        });
+        return getSecret(ENCRYPTION_KEY).value();
+    }
+
+    /**
+     * Obtiene un secreto junto a su versión actual
+     */
+    public VersionedSecret getSecret(String name) {
+        SecretMetrics secretMetrics = metricsFor(name);
+
+        // Camino rápido: lectura del cache + un LongAdder, sin Micrometer
+        VersionedSecret cached = secretCache.getIfPresent(name);
+        if (cached != null) {
+            secretMetrics.hits.increment();
+            return cached;
+        }
+
+        secretMetrics.misses.increment();
+        // Carga fuera de Cache.get: su compute retiene un monitor de ConcurrentHashMap
+        // durante la llamada a Vault y fijaría el virtual thread a su carrier.
+        // Dos cargas concurrentes leen lo mismo; gana la primera en publicarse
+        log.debug("Loading secret: {}", name);
+        String value = resolve(name, readSource(List.of(name), "load"));
+        VersionedSecret loaded = new VersionedSecret(value, 1L);
+        VersionedSecret raced = secretCache.asMap().putIfAbsent(name, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /**
+     * Versión actual de un secreto (0 si aún no se ha cargado)
+     */
+    public long getSecretVersion(String name) {
+        VersionedSecret secret = secretCache.getIfPresent(name);
+        return secret != null ? secret.version() : 0L;
+    }
+
+    /**
+     * Instante del último refresco sin errores del origen (Vault); null si aún no ha habido ninguno
+     */
+    public Instant getLastSuccessfulRefresh() {
+        long millis = lastSuccessfulRefreshMillis;
+        return millis != 0 ? Instant.ofEpochMilli(millis) : null;
+    }
+
+    /**
+     * Polling periódico de cambios en los secretos
+     */
+    @Scheduled(fixedDelayString = "${app.secrets.refresh-interval:PT5M}",
+            initialDelayString = "${app.secrets.refresh-interval:PT5M}")
+    public void pollSecrets() {
+        refreshSecrets();
     }
 
     /**
-     * Refresca todos los secretos del cache
+     * Refresca todos los secretos y publica un evento por cada cambio
+     *
+     * Invocado por el polling o bajo demanda (webhook de Vault). Si el
+     * origen falla se conserva el valor anterior. Un refresco concurrente
+     * espera al actual, así un cambio se publica una sola vez.
      */
-    public void refreshSecrets() {
+    public List<SecretChangedEvent> refreshSecrets() {
+        refreshLock.lock();
+        try {
+            return refreshLocked();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private List<SecretChangedEvent> refreshLocked() {
         log.debug("Refreshing secrets cache");
-        secretCache.invalidateAll();
+        // Nunca cargados: no hay estado derivado que invalidar
+        Map<String, VersionedSecret> loaded = new HashMap<>();
+        for (String name : SECRET_SOURCES.keySet()) {
+            VersionedSecret current = secretCache.getIfPresent(name);
+            if (current != null) {
+                loaded.put(name, current);
+            }
+        }
+
+        Map<String, ?> snapshot;
+        try {
+            snapshot = loaded.isEmpty() ? Map.of() : readSource(loaded.keySet(), "refresh");
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh secrets {}: {}", loaded.keySet(), e.getMessage());
+            return List.of();
+        }
+        lastSuccessfulRefreshMillis = System.currentTimeMillis();
+
+        List<SecretChangedEvent> changes = new ArrayList<>();
+        for (Map.Entry<String, VersionedSecret> entry : loaded.entrySet()) {
+            String name = entry.getKey();
+            VersionedSecret current = entry.getValue();
+            String fresh = resolve(name, snapshot);
+            if (Objects.equals(current.value(), fresh)) {
+                continue;
+            }
+
+            VersionedSecret updated = new VersionedSecret(fresh, current.version() + 1);
+            secretCache.put(name, updated);
+            changes.add(new SecretChangedEvent(name, current.version(), updated.version(), Instant.now()));
+        }
+
+        // Publicar fuera del cache (con el lock: un evento por versión y en orden)
+        for (SecretChangedEvent change : changes) {
+            log.info("Secret changed: {} (v{} -> v{})",
+                    change.getSecretName(), change.getPreviousVersion(), change.getVersion());
+            eventPublisher.publishEvent(change);
+        }
+        return changes;
+    }
+
+    /**
+     * Una lectura del origen para los secretos indicados, midiendo latencia y errores de cada uno
+     */
+    private Map<String, ?> readSource(Collection<String> names, String operation) {
+        long start = System.nanoTime();
+        try {
+            return source.read();
+        } catch (RuntimeException e) {
+            names.forEach(name -> metricsFor(name).error(operation).increment());
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            names.forEach(name -> metricsFor(name).loadTimer.record(elapsed, TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * Valor del secreto en una lectura del origen; lo que el origen no define
+     * sale del Environment (application.yml, variables)
+     */
+    private String resolve(String name, Map<String, ?> snapshot) {
+        String[] property = SECRET_SOURCES.get(name);
+        Object value = snapshot.get(property[0]);
+        return value != null ? value.toString() : environment.getProperty(property[0], property[1]);
+    }
+
+    private SecretMetrics metricsFor(String name) {
+        SecretMetrics secretMetrics = metrics.get(name);
+        if (secretMetrics == null) {
+            throw new IllegalArgumentException("Unknown secret: " + name);
+        }
+        return secretMetrics;
+    }
+
+    /**
+     * Valor de un secreto con su número de versión
+     */
+    public record VersionedSecret(String value, long version) {
+
+        @Override
+        public String toString() {
+            // Nunca exponer el valor
+            return "VersionedSecret{version=" + version + "}";
+        }
+    }
+
+    /**
+     * Contadores y timers de un secreto
+     *
+     * Los aciertos/fallos se acumulan en LongAdder y Micrometer los lee al
+     * exportar (FunctionCounter), así el camino de acierto no toca el registry.
+     */
+    private static final class SecretMetrics {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final Timer loadTimer;
+        private final Counter loadErrors;
+        private final Counter refreshErrors;
+
+        private SecretMetrics(String name, MeterRegistry registry) {
+            FunctionCounter.builder("zerotrust.secrets.access", hits, LongAdder::sum)
+                    .tag("secret", name).tag("result", "hit")
+                    .description("Secret lookups served from cache")
+                    .register(registry);
+            FunctionCounter.builder("zerotrust.secrets.access", misses, LongAdder::sum)
+                    .tag("secret", name).tag("result", "miss")
+                    .description("Secret lookups that required a load")
+                    .register(registry);
+            this.loadTimer = Timer.builder("zerotrust.secrets.load")
+                    .tag("secret", name)
+                    .description("Latency of loading a secret from its source")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.loadErrors = errorCounter(name, "load", registry);
+            this.refreshErrors = errorCounter(name, "refresh", registry);
+        }
+
+        private Counter error(String operation) {
+            return "refresh".equals(operation) ? refreshErrors : loadErrors;
+        }
+
+        private static Counter errorCounter(String name, String operation, MeterRegistry registry) {
+            return Counter.builder("zerotrust.secrets.errors")
+                    .tag("secret", name).tag("operation", operation)
+                    .description("Errors reading secrets from Vault")
+                    .register(registry);
+        }
     }
-}
\ No newline at end of file
+}
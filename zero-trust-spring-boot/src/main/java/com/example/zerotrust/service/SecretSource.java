@@ -0,0 +1,21 @@
+package com.example.zerotrust.service;
+
+import java.util.Map;
+
+/**
+ * Origen de los valores actuales de los secretos
+ *
+ * SecretService lo consulta en cada carga y en cada refresco y compara el
+ * resultado con su cache, así que una implementación no debe cachear.
+ * Cada llamada es una sola lectura del origen: todas las propiedades de
+ * un refresco salen de la misma versión. Lanza RuntimeException si el
+ * origen no responde.
+ */
+@FunctionalInterface
+public interface SecretSource {
+
+    /**
+     * Propiedades definidas por el origen (vacío si no define ninguna)
+     */
+    Map<String, ?> read();
+}
@@ -0,0 +1,54 @@
+package com.example.zerotrust.service;
+
+import com.example.zerotrust.config.SecretsProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.core.VaultVersionedKeyValueOperations;
+import org.springframework.vault.support.Versioned;
+
+import java.util.Map;
+
+/**
+ * Secretos leídos directamente de Vault KV v2 (app.secrets.source: VAULT)
+ *
+ * Cada lectura consulta la versión actual del secreto app.secrets.vault.path
+ * (una petición por refresco, todas las propiedades de la misma versión),
+ * por lo que el polling y el webhook ven las rotaciones sin refrescar el
+ * contexto (el property source de Spring Cloud Vault no cambia hasta
+ * entonces). Los errores de Vault se propagan a SecretService.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.secrets", name = "source", havingValue = "VAULT")
+public class VaultSecretSource implements SecretSource {
+
+    private static final Logger log = LoggerFactory.getLogger(VaultSecretSource.class);
+
+    private final VaultVersionedKeyValueOperations keyValue;
+    private final String path;
+
+    // Última versión KV leída, solo para el log de rotaciones
+    private volatile int lastVersion;
+
+    public VaultSecretSource(VaultOperations vaultOperations, SecretsProperties properties) {
+        this.keyValue = vaultOperations.opsForVersionedKeyValue(properties.getVault().getBackend());
+        this.path = properties.getVault().getPath();
+        log.info("Secrets read from Vault KV: {}/{}", properties.getVault().getBackend(), path);
+    }
+
+    @Override
+    public Map<String, ?> read() {
+        Versioned<Map<String, Object>> secret = keyValue.get(path);
+        if (secret == null || !secret.hasData()) {
+            return Map.of();
+        }
+        int version = secret.getVersion().getVersion();
+        if (version != lastVersion) {
+            log.info("Vault secret {} at version {}", path, version);
+            lastVersion = version;
+        }
+        return secret.getRequiredData();
+    }
+}
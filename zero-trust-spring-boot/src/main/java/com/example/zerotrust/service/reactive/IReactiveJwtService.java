@@ -0,0 +1,34 @@
+package com.example.zerotrust.service.reactive;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Contrato reactivo del servicio JWT Zero Trust (variante WebFlux)
+ *
+ * Mismas operaciones que IJwtService, sin bloquear el hilo del event loop:
+ * los errores de validación se emiten como JwtException en el Mono.
+ */
+public interface IReactiveJwtService {
+
+    /**
+     * Genera un par de tokens (access + refresh) para el usuario
+     */
+    Mono<TokenResponse> generateTokenPair(JwtClaims userClaims);
+
+    /**
+     * Valida y parsea un token JWT, incluida la consulta de revocación
+     */
+    Mono<JwtClaims> validateAndParseToken(String token);
+
+    /**
+     * Refresca un access token usando refresh token
+     */
+    Mono<TokenResponse> refreshToken(String refreshToken);
+
+    /**
+     * Revoca un token (lo añade a blacklist)
+     */
+    Mono<Void> revokeToken(String token, String reason);
+}
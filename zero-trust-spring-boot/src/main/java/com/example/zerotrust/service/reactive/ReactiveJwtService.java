@@ -0,0 +1,101 @@
+package com.example.zerotrust.service.reactive;
+
+import com.example.zerotrust.config.JwtProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.service.AbstractJwtService;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.policy.PolicyDecisionPoint;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.SessionRiskOverlay;
+import com.example.zerotrust.risk.TokenLifetimePolicy;
+import com.example.zerotrust.security.PermissionRegistry;
+import com.example.zerotrust.service.transit.VaultTransitSigner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Implementación reactiva del servicio JWT Zero Trust
+ *
+ * Firma y verificación HMAC son CPU de microsegundos y se ejecutan en el
+ * propio event loop; solo en modo Vault Transit (firma remota bloqueante)
+ * se desplazan a boundedElastic. La revocación se consulta en Redis sin
+ * bloquear y después de verificar la firma, para que un token falsificado
+ * no cueste un round-trip.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveJwtService extends AbstractJwtService implements IReactiveJwtService {
+
+    private final ReactiveRevocationStore revocationStore;
+
+    public ReactiveJwtService(JwtProperties jwtProperties,
+                              SecretService secretService,
+                              ReactiveRevocationStore revocationStore,
+                              ObjectProvider<VaultTransitSigner> transitSigner,
+                              ObjectProvider<PolicyDecisionPoint> policyDecisionPoint,
+                              ObjectProvider<PermissionRegistry> permissionRegistry,
+                              ObjectProvider<RiskEngine> riskEngine,
+                              ObjectProvider<TokenLifetimePolicy> tokenLifetimePolicy,
+                              ObjectProvider<SessionRiskOverlay> sessionRiskOverlay) {
+        super(jwtProperties, secretService, transitSigner.getIfAvailable(), policyDecisionPoint.getIfAvailable(),
+                permissionRegistry.getIfAvailable(), riskEngine.getIfAvailable(), tokenLifetimePolicy.getIfAvailable(),
+                sessionRiskOverlay.getIfAvailable());
+        this.revocationStore = revocationStore;
+    }
+
+    @Override
+    public Mono<TokenResponse> generateTokenPair(JwtClaims userClaims) {
+        return crypto(() -> createTokenPair(userClaims));
+    }
+
+    @Override
+    public Mono<JwtClaims> validateAndParseToken(String token) {
+        return crypto(() -> parseAndValidateClaims(token))
+                .flatMap(claims -> revocationStore.isRevoked(token)
+                        .flatMap(revoked -> revoked
+                                ? Mono.<JwtClaims>error(new JwtException("Token has been revoked"))
+                                : Mono.just(claims)))
+                .doOnNext(claims -> log.debug("Token validated successfully for user: {}", claims.getUsername()));
+    }
+
+    @Override
+    public Mono<TokenResponse> refreshToken(String refreshToken) {
+        return validateAndParseToken(refreshToken)
+                .flatMap(refreshClaims -> crypto(() -> createRefreshedPair(refreshClaims, refreshToken)))
+                .flatMap(response -> jwtProperties.isEnableRefreshTokenRotation()
+                        // Revocar el refresh token anterior antes de entregar el nuevo
+                        ? revocationStore.revoke(refreshToken, "rotated").thenReturn(response)
+                        : Mono.just(response));
+    }
+
+    @Override
+    public Mono<Void> revokeToken(String token, String reason) {
+        // Solo firma y expiración: una sesión denegada o un token ya revocado se pueden revocar.
+        // Un token inválido no se guarda: /auth/revoke es público (RFC 7009 responde igual)
+        return crypto(() -> parseTokenClaims(token))
+                .flatMap(claims -> revocationStore.revoke(token, reason)
+                        .doOnSuccess(v -> log.info("Token revoked for user: {} (reason: {})",
+                                claims.getSubject(), reason)))
+                .onErrorResume(JwtException.class, e -> {
+                    log.debug("Ignoring revocation of invalid token: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Ejecuta una operación criptográfica; fuera del event loop solo si firma Vault
+     */
+    private <T> Mono<T> crypto(Callable<T> operation) {
+        Mono<T> mono = Mono.fromCallable(operation)
+                .onErrorMap(e -> !(e instanceof JwtException),
+                        e -> new JwtException("Token operation failed", e));
+        return transitSigner != null ? mono.subscribeOn(Schedulers.boundedElastic()) : mono;
+    }
+}
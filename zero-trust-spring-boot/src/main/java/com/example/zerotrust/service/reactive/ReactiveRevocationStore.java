@@ -0,0 +1,19 @@
+package com.example.zerotrust.service.reactive;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Almacén de tokens revocados con acceso no bloqueante
+ */
+public interface ReactiveRevocationStore {
+
+    /**
+     * Indica si el token está revocado
+     */
+    Mono<Boolean> isRevoked(String token);
+
+    /**
+     * Revoca el token con el motivo indicado
+     */
+    Mono<Void> revoke(String token, String reason);
+}
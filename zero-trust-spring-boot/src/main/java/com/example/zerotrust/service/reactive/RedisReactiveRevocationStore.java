@@ -0,0 +1,64 @@
+package com.example.zerotrust.service.reactive;
+
+import com.example.zerotrust.config.JwtProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Blacklist de tokens en Redis con el cliente reactivo de Lettuce
+ *
+ * Cada token revocado se guarda como zerotrust:revoked:{sha256(token)} con
+ * el motivo como valor y TTL app.jwt.blacklist-ttl.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class RedisReactiveRevocationStore implements ReactiveRevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisReactiveRevocationStore.class);
+
+    static final String KEY_PREFIX = "zerotrust:revoked:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisReactiveRevocationStore(ReactiveStringRedisTemplate redisTemplate, JwtProperties jwtProperties) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = jwtProperties.getBlacklistTtl();
+    }
+
+    @Override
+    public Mono<Boolean> isRevoked(String token) {
+        return redisTemplate.hasKey(key(token));
+    }
+
+    @Override
+    public Mono<Void> revoke(String token, String reason) {
+        return redisTemplate.opsForValue()
+                .set(key(token), reason, ttl)
+                .doOnNext(stored -> log.info("Token revoked (reason: {})", reason))
+                .then();
+    }
+
+    /**
+     * Clave Redis del token: SHA-256 en Base64url, nunca el token en claro
+     */
+    static String key(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
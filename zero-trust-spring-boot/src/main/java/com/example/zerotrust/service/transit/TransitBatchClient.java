@@ -0,0 +1,297 @@
+package com.example.zerotrust.service.transit;
+
+import com.example.zerotrust.config.TransitProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cliente de Vault Transit que agrupa peticiones HMAC concurrentes
+ *
+ * Las peticiones se encolan y un hilo despachador las agrupa en un único
+ * batch_input durante una ventana corta (microsegundos a milisegundos).
+ * Los batches se envían de forma asíncrona sobre un HttpClient HTTP/2
+ * compartido, con un límite de batches en vuelo, y cada llamante recibe
+ * su propio CompletableFuture.
+ *
+ * key_version es un parámetro de la petición y no de cada entrada: un
+ * batch con entradas de varias versiones se envía como una petición por
+ * versión (en la práctica solo coinciden durante una rotación).
+ */
+public class TransitBatchClient implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TransitBatchClient.class);
+
+    private static final String VAULT_PREFIX = "vault:";
+
+    private final TransitProperties properties;
+    private final URI hmacUri;
+    private final URI keyUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<PendingHmac> queue;
+    private final Semaphore inFlight;
+    private final Thread dispatcher;
+
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder entriesSent = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public TransitBatchClient(TransitProperties properties) {
+        this.properties = properties;
+        this.hmacUri = URI.create(properties.getHmacUrl());
+        this.keyUri = URI.create(properties.getKeyUrl());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getRequestTimeout())
+                .build();
+        this.dispatcher = new Thread(this::dispatchLoop, "vault-transit-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Solicita el HMAC-SHA256 de la entrada con la versión de clave indicada
+     * (0: la última); se completa cuando vuelve su batch
+     */
+    public CompletableFuture<byte[]> hmac(byte[] input, int keyVersion) {
+        PendingHmac pending = new PendingHmac(input, keyVersion, new CompletableFuture<>());
+        if (!running) {
+            pending.future().completeExceptionally(new JwtException("Vault Transit client is closed"));
+        } else if (!queue.offer(pending)) {
+            pending.future().completeExceptionally(new JwtException("Vault Transit queue is full"));
+        }
+        return pending.future();
+    }
+
+    /**
+     * Última versión de la clave en Transit (latest_version); llamada síncrona
+     */
+    public int latestKeyVersion() {
+        HttpRequest.Builder request = HttpRequest.newBuilder(keyUri)
+                .timeout(properties.getRequestTimeout())
+                .GET();
+        if (properties.getToken() != null && !properties.getToken().isEmpty()) {
+            request.header("X-Vault-Token", properties.getToken());
+        }
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new JwtException("Vault Transit returned HTTP " + response.statusCode() + " for key metadata");
+            }
+            int version = objectMapper.readTree(response.body()).path("data").path("latest_version").asInt();
+            if (version <= 0) {
+                throw new JwtException("Vault Transit key metadata has no latest_version");
+            }
+            return version;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JwtException("Interrupted while reading Vault Transit key metadata", e);
+        } catch (IOException e) {
+            throw new JwtException("Vault Transit key metadata request failed", e);
+        }
+    }
+
+    /**
+     * Número de batches enviados a Vault
+     */
+    public long getBatchesSent() {
+        return batchesSent.sum();
+    }
+
+    /**
+     * Número de entradas enviadas a Vault
+     */
+    public long getEntriesSent() {
+        return entriesSent.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        List<PendingHmac> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(p -> p.future().completeExceptionally(new JwtException("Vault Transit client is closed")));
+    }
+
+    /**
+     * Bucle del despachador: espera la primera petición y agrupa las siguientes
+     * hasta agotar la ventana o llenar el batch
+     */
+    private void dispatchLoop() {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long windowNanos = properties.getBatchWindow().toNanos();
+        List<PendingHmac> batch = new ArrayList<>(maxBatchSize);
+
+        while (running) {
+            try {
+                PendingHmac first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    // Recoger sin esperar lo que ya está en cola
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingHmac next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                for (Map.Entry<Integer, List<PendingHmac>> byVersion : groupByKeyVersion(batch).entrySet()) {
+                    inFlight.acquire();
+                    send(byVersion.getValue(), byVersion.getKey());
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failAll(batch, new JwtException("Vault Transit client is closed"));
+                batch.clear();
+                break;
+            }
+        }
+        log.debug("Vault Transit dispatcher stopped");
+    }
+
+    /**
+     * Entradas del batch por versión de clave, conservando el orden
+     */
+    private static Map<Integer, List<PendingHmac>> groupByKeyVersion(List<PendingHmac> batch) {
+        int first = batch.get(0).keyVersion();
+        if (batch.stream().allMatch(p -> p.keyVersion() == first)) {
+            return Map.of(first, List.copyOf(batch));
+        }
+        Map<Integer, List<PendingHmac>> groups = new LinkedHashMap<>();
+        for (PendingHmac pending : batch) {
+            groups.computeIfAbsent(pending.keyVersion(), v -> new ArrayList<>()).add(pending);
+        }
+        return groups;
+    }
+
+    /**
+     * Envía un batch de forma asíncrona y resuelve cada future con su resultado
+     */
+    private void send(List<PendingHmac> batch, int keyVersion) {
+        batchesSent.increment();
+        entriesSent.add(batch.size());
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(hmacUri)
+                .timeout(properties.getRequestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(buildBatchInput(batch, keyVersion)));
+        if (properties.getToken() != null && !properties.getToken().isEmpty()) {
+            request.header("X-Vault-Token", properties.getToken());
+        }
+
+        httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    inFlight.release();
+                    if (error != null) {
+                        log.warn("Vault Transit batch of {} failed: {}", batch.size(), error.getMessage());
+                        failAll(batch, new JwtException("Vault Transit request failed", error));
+                        return;
+                    }
+                    completeBatch(batch, response);
+                });
+    }
+
+    private void completeBatch(List<PendingHmac> batch, HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            log.warn("Vault Transit returned HTTP {} for batch of {}", response.statusCode(), batch.size());
+            failAll(batch, new JwtException("Vault Transit returned HTTP " + response.statusCode()));
+            return;
+        }
+
+        try {
+            JsonNode results = objectMapper.readTree(response.body()).path("data").path("batch_results");
+            if (!results.isArray() || results.size() != batch.size()) {
+                failAll(batch, new JwtException("Vault Transit returned a malformed batch response"));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                JsonNode result = results.get(i);
+                PendingHmac pending = batch.get(i);
+                if (result.hasNonNull("error") && !result.get("error").asText().isEmpty()) {
+                    pending.future().completeExceptionally(
+                            new JwtException("Vault Transit error: " + result.get("error").asText()));
+                } else {
+                    pending.future().complete(decodeVaultValue(result.path("hmac").asText()));
+                }
+            }
+        } catch (Exception e) {
+            failAll(batch, new JwtException("Unable to parse Vault Transit response", e));
+        }
+    }
+
+    /**
+     * Construye el cuerpo {"key_version":n,"batch_input":[{"input":"..."}]} sin árbol intermedio
+     */
+    private static String buildBatchInput(List<PendingHmac> batch, int keyVersion) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        StringBuilder body = new StringBuilder(48 + batch.size() * 64);
+        body.append("{\"key_version\":").append(keyVersion).append(",\"batch_input\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            // Base64 estándar no necesita escape JSON
+            body.append("{\"input\":\"").append(encoder.encodeToString(batch.get(i).input())).append("\"}");
+        }
+        return body.append("]}").toString();
+    }
+
+    /**
+     * Decodifica un valor con formato vault:v{n}:{base64}
+     */
+    static byte[] decodeVaultValue(String value) {
+        if (value == null || !value.startsWith(VAULT_PREFIX)) {
+            throw new JwtException("Unexpected Vault Transit value format");
+        }
+        int separator = value.indexOf(':', VAULT_PREFIX.length());
+        if (separator < 0) {
+            throw new JwtException("Unexpected Vault Transit value format");
+        }
+        return Base64.getDecoder().decode(value.substring(separator + 1).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void failAll(List<PendingHmac> batch, JwtException error) {
+        batch.forEach(p -> p.future().completeExceptionally(error));
+    }
+
+    private record PendingHmac(byte[] input, int keyVersion, CompletableFuture<byte[]> future) {
+    }
+}
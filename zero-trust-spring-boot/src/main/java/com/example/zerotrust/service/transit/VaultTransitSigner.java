@@ -0,0 +1,272 @@
+package com.example.zerotrust.service.transit;
+
+import com.example.zerotrust.config.TransitProperties;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.MacAlgorithm;
+import io.jsonwebtoken.security.SecretKeyBuilder;
+import io.jsonwebtoken.security.SecureRequest;
+import io.jsonwebtoken.security.SignatureException;
+import io.jsonwebtoken.security.VerifySecureDigestRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Firma y verificación de JWT HS256 delegadas en Vault Transit
+ *
+ * Expone un MacAlgorithm de jjwt con id HS256 cuyo cálculo se resuelve
+ * en Vault mediante TransitBatchClient, de modo que la clave HMAC nunca
+ * sale de Vault. Los tokens son compatibles con HS256 estándar.
+ *
+ * Cada token lleva en kid la versión de la clave con la que se firmó
+ * ({key-name}:v{n}) y se verifica pidiendo el HMAC con esa key_version,
+ * así que rotar la clave en Transit no invalida los tokens emitidos.
+ * Se firma con la última versión, consultada cada key-version-refresh.
+ * Un token sin kid (anterior a este formato) se verifica con la última.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.jwt.transit", name = "enabled", havingValue = "true")
+public class VaultTransitSigner {
+
+    private static final Logger log = LoggerFactory.getLogger(VaultTransitSigner.class);
+
+    private final TransitProperties properties;
+    private final TransitBatchClient client;
+    private final String keyIdPrefix;
+    private final TransitHmacAlgorithm algorithm;
+
+    // Versión de firma; null hasta la primera consulta a Transit
+    private volatile TransitKeyReference signingKey;
+    private volatile long signingKeyCheckedAt;
+
+    // ReentrantLock y no synchronized: la consulta es una llamada HTTP bloqueante
+    private final ReentrantLock signingKeyLock = new ReentrantLock();
+
+    @Autowired
+    public VaultTransitSigner(TransitProperties properties) {
+        this(properties, new TransitBatchClient(properties));
+    }
+
+    public VaultTransitSigner(TransitProperties properties, TransitBatchClient client) {
+        this.properties = properties;
+        this.client = client;
+        this.keyIdPrefix = properties.getKeyName() + ":v";
+        this.algorithm = new TransitHmacAlgorithm();
+        log.info("Vault Transit signing enabled: {}", properties);
+    }
+
+    /**
+     * Firma con la versión actual de la clave, indicada en kid
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        TransitKeyReference key = keyReference();
+        return builder.header().keyId(key.keyId()).and()
+                .signWith(key, algorithm);
+    }
+
+    /**
+     * Verifica con la versión de la clave indicada en kid
+     */
+    public JwtParserBuilder verify(JwtParserBuilder parser) {
+        return parser.sig().add(algorithm).and()
+                .keyLocator(header -> verificationKey(
+                        header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null));
+    }
+
+    /**
+     * Referencia a la versión actual de la clave de Transit (sin material de clave)
+     */
+    public TransitKeyReference keyReference() {
+        TransitKeyReference current = signingKey;
+        long refreshNanos = properties.getKeyVersionRefresh().toNanos();
+        if (current != null && System.nanoTime() - signingKeyCheckedAt < refreshNanos) {
+            return current;
+        }
+        // Mientras un hilo consulta Transit el resto sigue firmando con la versión conocida
+        if (current != null && !signingKeyLock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            signingKeyLock.lock();
+        }
+        try {
+            current = signingKey;
+            if (current != null && System.nanoTime() - signingKeyCheckedAt < refreshNanos) {
+                return current;
+            }
+            int version;
+            try {
+                version = client.latestKeyVersion();
+            } catch (RuntimeException e) {
+                if (current == null) {
+                    throw new SignatureException("Unable to read Vault Transit key version: " + e.getMessage(), e);
+                }
+                log.warn("Unable to refresh Vault Transit key version, signing with v{}: {}",
+                        current.version, e.getMessage());
+                signingKeyCheckedAt = System.nanoTime();
+                return current;
+            }
+            if (current == null || current.version != version) {
+                log.info("Vault Transit signing with key version {}", version);
+                current = new TransitKeyReference(properties.getKeyName(), version);
+                signingKey = current;
+            }
+            signingKeyCheckedAt = System.nanoTime();
+            return current;
+        } finally {
+            signingKeyLock.unlock();
+        }
+    }
+
+    /**
+     * Algoritmo HS256 respaldado por Vault Transit
+     */
+    public MacAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Cliente de batching subyacente
+     */
+    public TransitBatchClient getClient() {
+        return client;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        client.close();
+    }
+
+    /**
+     * Clave de verificación para el kid del token (sin kid: la última versión)
+     */
+    private SecretKey verificationKey(String keyId) {
+        if (keyId == null) {
+            return new TransitKeyReference(properties.getKeyName(), 0);
+        }
+        if (!keyId.startsWith(keyIdPrefix)) {
+            throw new SignatureException("Token was not signed with Vault Transit key " + properties.getKeyName());
+        }
+        try {
+            int version = Integer.parseInt(keyId.substring(keyIdPrefix.length()));
+            if (version > 0) {
+                return new TransitKeyReference(properties.getKeyName(), version);
+            }
+        } catch (NumberFormatException e) {
+            // Se rechaza abajo
+        }
+        throw new SignatureException("Invalid Vault Transit key id: " + keyId);
+    }
+
+    private byte[] remoteHmac(SecretKey key, InputStream payload) {
+        if (!(key instanceof TransitKeyReference reference)) {
+            throw new SignatureException("Vault Transit algorithm requires a Transit key reference");
+        }
+        try {
+            byte[] input = payload.readAllBytes();
+            long timeoutNanos = properties.getRequestTimeout().toNanos() * 2;
+            return client.hmac(input, reference.version).get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            throw new SignatureException("Unable to read JWS signing input", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SignatureException("Interrupted while waiting for Vault Transit", e);
+        } catch (TimeoutException e) {
+            throw new SignatureException("Timed out waiting for Vault Transit", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new SignatureException("Vault Transit HMAC failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * MacAlgorithm HS256 cuyo digest se calcula en Vault
+     */
+    private final class TransitHmacAlgorithm implements MacAlgorithm {
+
+        @Override
+        public String getId() {
+            return "HS256";
+        }
+
+        @Override
+        public byte[] digest(SecureRequest<InputStream, SecretKey> request) {
+            return remoteHmac(request.getKey(), request.getPayload());
+        }
+
+        @Override
+        public boolean verify(VerifySecureDigestRequest<SecretKey> request) {
+            byte[] expected = remoteHmac(request.getKey(), request.getPayload());
+            return MessageDigest.isEqual(expected, request.getDigest());
+        }
+
+        @Override
+        public SecretKeyBuilder key() {
+            return Jwts.SIG.HS256.key();
+        }
+
+        @Override
+        public int getKeyBitLength() {
+            return 256;
+        }
+    }
+
+    /**
+     * Referencia opaca a una versión de la clave de Transit (0: la última); no contiene material de clave
+     */
+    public static final class TransitKeyReference implements SecretKey {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String keyName;
+        private final int version;
+
+        private TransitKeyReference(String keyName, int version) {
+            this.keyName = keyName;
+            this.version = version;
+        }
+
+        /**
+         * Valor del kid de los tokens firmados con esta versión
+         */
+        public String keyId() {
+            return keyName + ":v" + version;
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return "HmacSHA256";
+        }
+
+        @Override
+        public String getFormat() {
+            return null;
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "TransitKeyReference{" + keyName + ":v" + version + "}";
+        }
+    }
+}
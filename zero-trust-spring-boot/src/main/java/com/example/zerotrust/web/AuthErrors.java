@@ -0,0 +1,47 @@
+package com.example.zerotrust.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cuerpos de error de /auth/* (formato OAuth2) precodificados una sola vez
+ */
+public enum AuthErrors {
+
+    INVALID_REQUEST(HttpServletResponse.SC_BAD_REQUEST, "invalid_request", null),
+    INVALID_CREDENTIALS(HttpServletResponse.SC_UNAUTHORIZED, "invalid_grant", null),
+    INVALID_GRANT(HttpServletResponse.SC_BAD_REQUEST, "invalid_grant", null),
+    INVALID_TOKEN(HttpServletResponse.SC_UNAUTHORIZED, "invalid_token", "Bearer error=\"invalid_token\""),
+    // RateLimitFilter, en cualquier endpoint
+    RATE_LIMITED(429, "rate_limited", null),
+    SERVER_ERROR(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "server_error", null);
+
+    private final int status;
+    private final byte[] body;
+    private final String challenge;
+
+    AuthErrors(int status, String error, String challenge) {
+        this.status = status;
+        this.body = ("{\"error\":\"" + error + "\"}").getBytes(StandardCharsets.UTF_8);
+        this.challenge = challenge;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Escribe estado, cabeceras y el cuerpo cacheado
+     */
+    public void write(HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        if (challenge != null) {
+            response.setHeader("WWW-Authenticate", challenge);
+        }
+        response.setContentType("application/json");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
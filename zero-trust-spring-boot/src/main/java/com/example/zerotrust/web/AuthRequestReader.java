@@ -0,0 +1,122 @@
+package com.example.zerotrust.web;
+
+import com.example.zerotrust.model.dto.security.LoginRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura en streaming de los cuerpos de /auth/*
+ *
+ * Recorre los tokens del JSON y se queda solo con los campos conocidos;
+ * sin árbol ni Map intermedio. Devuelve null si el cuerpo no es un objeto
+ * JSON o le faltan campos obligatorios.
+ */
+public class AuthRequestReader {
+
+    private static final int MAX_FIELD_LENGTH = 8192;
+
+    private final JsonFactory jsonFactory;
+
+    public AuthRequestReader(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * {"username":"...","password":"...","deviceId":"..."}
+     */
+    public LoginRequest readLogin(InputStream body) throws IOException {
+        LoginRequest login = new LoginRequest();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                switch (field) {
+                    case "username" -> login.setUsername(textValue(parser));
+                    case "password" -> login.setPassword(textValue(parser));
+                    case "deviceId" -> login.setDeviceId(textValue(parser));
+                    default -> skipValue(parser);
+                }
+            }
+        }
+        return login.getUsername() != null && login.getPassword() != null ? login : null;
+    }
+
+    /**
+     * Valor de texto de un único campo de primer nivel, p.ej. {"refreshToken":"..."}
+     */
+    public String readField(InputStream body, String name) throws IOException {
+        String value = null;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                if (name.equals(field)) {
+                    value = textValue(parser);
+                } else {
+                    skipValue(parser);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Array de strings de primer nivel, p.ej. {"tokens":["...","..."]}; null si
+     * falta, no es un array de strings o supera maxSize elementos
+     */
+    public List<String> readStringArray(InputStream body, String name, int maxSize) throws IOException {
+        List<String> values = null;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                if (!name.equals(field)) {
+                    skipValue(parser);
+                    continue;
+                }
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    return null;
+                }
+                values = new ArrayList<>();
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.VALUE_STRING || values.size() == maxSize
+                            || parser.getTextLength() > MAX_FIELD_LENGTH) {
+                        return null;
+                    }
+                    values.add(parser.getText());
+                }
+            }
+        }
+        return values;
+    }
+
+    private static String textValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return null;
+        }
+        if (parser.getTextLength() > MAX_FIELD_LENGTH) {
+            return null;
+        }
+        return parser.getText();
+    }
+
+    private static void skipValue(JsonParser parser) throws IOException {
+        parser.nextToken();
+        parser.skipChildren();
+    }
+}
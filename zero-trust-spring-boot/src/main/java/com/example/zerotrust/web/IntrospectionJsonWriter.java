@@ -0,0 +1,142 @@
+package com.example.zerotrust.web;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Respuestas de introspección RFC 7662 escritas en streaming
+ *
+ * Campos estándar: active, sub, username, scope (permisos separados por
+ * espacio), iss, iat, exp, token_type. Extensiones: roles, token_use
+ * (access|refresh), device_id, session_id y risk_score. Los tokens ligados
+ * a certificado incluyen cnf.x5t#S256 (RFC 8705 §3.2).
+ * La respuesta inactiva es constante y se precodifica.
+ */
+public class IntrospectionJsonWriter {
+
+    public static final byte[] INACTIVE = "{\"active\":false}".getBytes(StandardCharsets.UTF_8);
+
+    private static final SerializableString ACTIVE = new SerializedString("active");
+    private static final SerializableString SUB = new SerializedString("sub");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString SCOPE = new SerializedString("scope");
+    private static final SerializableString ISS = new SerializedString("iss");
+    private static final SerializableString IAT = new SerializedString("iat");
+    private static final SerializableString EXP = new SerializedString("exp");
+    private static final SerializableString TOKEN_TYPE = new SerializedString("token_type");
+    private static final SerializableString ROLES = new SerializedString("roles");
+    private static final SerializableString TOKEN_USE = new SerializedString("token_use");
+    private static final SerializableString DEVICE_ID = new SerializedString("device_id");
+    private static final SerializableString SESSION_ID = new SerializedString("session_id");
+    private static final SerializableString RISK_SCORE = new SerializedString("risk_score");
+    private static final SerializableString CNF = new SerializedString("cnf");
+    private static final SerializableString X5T_S256 = new SerializedString("x5t#S256");
+    private static final SerializableString RESULTS = new SerializedString("results");
+
+    private final JsonFactory jsonFactory;
+    private final SerializableString issuer;
+
+    public IntrospectionJsonWriter(JsonFactory jsonFactory, String issuer) {
+        this.jsonFactory = jsonFactory;
+        this.issuer = new SerializedString(issuer);
+    }
+
+    /**
+     * Respuesta de un token; claims null = inactivo
+     */
+    public void write(JwtClaims claims, OutputStream out) throws IOException {
+        if (claims == null) {
+            out.write(INACTIVE);
+            return;
+        }
+        try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            writeEntry(gen, claims);
+        }
+    }
+
+    /**
+     * Respuesta batch {"results":[...]} en el mismo orden que la petición
+     */
+    public void writeBatch(List<JwtClaims> results, OutputStream out) throws IOException {
+        try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeFieldName(RESULTS);
+            gen.writeStartArray();
+            for (int i = 0; i < results.size(); i++) {
+                writeEntry(gen, results.get(i));
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    private void writeEntry(JsonGenerator gen, JwtClaims claims) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ACTIVE);
+        gen.writeBoolean(claims != null);
+        if (claims == null) {
+            gen.writeEndObject();
+            return;
+        }
+
+        writeString(gen, SUB, claims.getSubject());
+        writeString(gen, USERNAME, claims.getUsername());
+        if (claims.getPermissions() != null) {
+            gen.writeFieldName(SCOPE);
+            gen.writeString(String.join(" ", claims.getPermissions()));
+        }
+        gen.writeFieldName(ISS);
+        gen.writeString(issuer);
+        if (claims.getIssuedAt() != null) {
+            gen.writeFieldName(IAT);
+            gen.writeNumber(claims.getIssuedAt().getEpochSecond());
+        }
+        if (claims.getExpiresAt() != null) {
+            gen.writeFieldName(EXP);
+            gen.writeNumber(claims.getExpiresAt().getEpochSecond());
+        }
+        if ("access".equals(claims.getTokenType())) {
+            gen.writeFieldName(TOKEN_TYPE);
+            gen.writeString("Bearer");
+        }
+        if (claims.getRoles() != null) {
+            gen.writeFieldName(ROLES);
+            gen.writeStartArray();
+            for (int i = 0; i < claims.getRoles().size(); i++) {
+                gen.writeString(claims.getRoles().get(i));
+            }
+            gen.writeEndArray();
+        }
+        writeString(gen, TOKEN_USE, claims.getTokenType());
+        writeString(gen, DEVICE_ID, claims.getDeviceId());
+        writeString(gen, SESSION_ID, claims.getSessionId());
+        if (claims.getRiskScore() != null) {
+            gen.writeFieldName(RISK_SCORE);
+            gen.writeNumber(claims.getRiskScore());
+        }
+        if (claims.getCertificateThumbprint() != null) {
+            gen.writeFieldName(CNF);
+            gen.writeStartObject();
+            gen.writeFieldName(X5T_S256);
+            gen.writeString(claims.getCertificateThumbprint());
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.zerotrust.web;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Liveness probe ligera: responde {"status":"UP"} desde el propio filtro
+ *
+ * Se registra solo para PATH y antes de Spring Security, así que no pasa por
+ * DispatcherServlet ni por el handler mapping. No expone información: el
+ * proceso está vivo si es capaz de responder. Para readiness usar /actuator/health.
+ */
+public class LivenessFilter implements Filter {
+
+    public static final String PATH = "/api/health/live";
+
+    static final byte[] BODY = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+    static final String ETAG = "\"up\"";
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) res;
+        // Registrado solo para PATH (ver LivenessConfiguration): nunca continúa la cadena
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("ETag", ETAG);
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.contains(ETAG) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json");
+        response.setContentLength(BODY.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(BODY);
+        }
+    }
+}
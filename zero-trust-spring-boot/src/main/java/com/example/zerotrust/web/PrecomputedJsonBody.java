@@ -0,0 +1,163 @@
+package com.example.zerotrust.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Cuerpo JSON serializado una sola vez, con como mucho un campo dinámico
+ *
+ * Los campos estáticos se serializan al construir la plantilla; el campo
+ * dinámico (p. ej. timestamp) se codifica aparte y se copia entre prefijo y
+ * sufijo en cada respuesta. Ambos usan el ObjectMapper de la aplicación, así
+ * que el formato coincide con el resto de respuestas (Instant en ISO-8601
+ * con la configuración de Spring Boot). El ETag es débil y se calcula sobre la
+ * parte estática: dos respuestas con el mismo ETag solo difieren en el
+ * campo dinámico. Devuelve ResponseEntity&lt;byte[]&gt;, válido en servlet y WebFlux.
+ */
+public final class PrecomputedJsonBody {
+
+    private static final String SLOT = "\u0001slot\u0001";
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    private static final byte[] NO_VALUE = new byte[0];
+
+    private final ObjectMapper objectMapper;
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final String etag;
+
+    private PrecomputedJsonBody(ObjectMapper objectMapper, byte[] prefix, byte[] suffix) {
+        this.objectMapper = objectMapper;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        CRC32 crc = new CRC32();
+        crc.update(prefix);
+        crc.update(suffix);
+        this.etag = "W/\"" + HexFormat.of().toHexDigits((int) crc.getValue()) + "\"";
+    }
+
+    /**
+     * Plantilla sin campo dinámico
+     */
+    public static PrecomputedJsonBody of(ObjectMapper objectMapper, Map<String, ?> fields) {
+        return new PrecomputedJsonBody(objectMapper, serialize(objectMapper, fields), NO_VALUE);
+    }
+
+    /**
+     * Plantilla con un campo dinámico en la ruta indicada ("a" o "a.b" para mapas anidados)
+     */
+    public static PrecomputedJsonBody withSlot(ObjectMapper objectMapper, Map<String, ?> fields, String slotPath) {
+        byte[] json = serialize(objectMapper, withPlaceholder(fields, slotPath.split("\\."), 0));
+        byte[] marker = ("\"" + SLOT.replace("\u0001", "\\u0001") + "\"").getBytes(StandardCharsets.UTF_8);
+        int at = indexOf(json, marker);
+        if (at < 0) {
+            throw new IllegalArgumentException("Slot not found: " + slotPath);
+        }
+        return new PrecomputedJsonBody(objectMapper, Arrays.copyOfRange(json, 0, at),
+                Arrays.copyOfRange(json, at + marker.length, json.length));
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Cuerpo completo con el valor dinámico ya codificado como JSON
+     */
+    public byte[] render(byte[] dynamicValue) {
+        byte[] body = new byte[prefix.length + dynamicValue.length + suffix.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(dynamicValue, 0, body, prefix.length, dynamicValue.length);
+        System.arraycopy(suffix, 0, body, prefix.length + dynamicValue.length, suffix.length);
+        return body;
+    }
+
+    /**
+     * 304 si If-None-Match coincide con el ETag; si no, 200 con el cuerpo
+     */
+    public ResponseEntity<byte[]> respond(String ifNoneMatch, byte[] dynamicValue) {
+        if (matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(REVALIDATE)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dynamicValue.length == 0 && suffix.length == 0 ? prefix : render(dynamicValue));
+    }
+
+    public ResponseEntity<byte[]> respond(String ifNoneMatch) {
+        return respond(ifNoneMatch, NO_VALUE);
+    }
+
+    /**
+     * Comparación débil (RFC 9110 §13.1.2): ignora el prefijo W/ y admite listas y "*"
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        // etag = W/"xxxxxxxx": se busca la parte entre comillas
+        return ifNoneMatch.contains(etag.substring(2));
+    }
+
+    /**
+     * Valor dinámico codificado con el mismo ObjectMapper que la plantilla
+     */
+    public byte[] encode(Object value) {
+        return serialize(objectMapper, value);
+    }
+
+    private static byte[] serialize(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize precomputed body", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> withPlaceholder(Map<String, ?> fields, String[] path, int depth) {
+        Map<String, Object> copy = new LinkedHashMap<>(fields);
+        String key = path[depth];
+        if (depth == path.length - 1) {
+            copy.put(key, SLOT);
+        } else {
+            Object nested = copy.get(key);
+            if (!(nested instanceof Map)) {
+                throw new IllegalArgumentException("Not a nested object: " + key);
+            }
+            copy.put(key, withPlaceholder((Map<String, ?>) nested, path, depth + 1));
+        }
+        return copy;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.zerotrust.web;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante WebFlux de LivenessFilter: responde antes de la cadena de seguridad
+ * y del handler mapping
+ */
+public class ReactiveLivenessFilter implements WebFilter, Ordered {
+
+    @Override
+    public int getOrder() {
+        // Antes de WebFilterChainProxy (Spring Security, -100)
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!LivenessFilter.PATH.equals(exchange.getRequest().getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setCacheControl("no-cache");
+        headers.setETag(LivenessFilter.ETAG);
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(LivenessFilter.ETAG) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(LivenessFilter.BODY.length);
+        if (HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+            return response.setComplete();
+        }
+        DataBuffer buffer = response.bufferFactory().wrap(LivenessFilter.BODY);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
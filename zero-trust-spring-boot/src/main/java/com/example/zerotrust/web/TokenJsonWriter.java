@@ -0,0 +1,122 @@
+package com.example.zerotrust.web;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Serialización en streaming de TokenResponse y JwtClaims
+ *
+ * Escribe directamente sobre el OutputStream de la respuesta con un
+ * JsonGenerator (buffers reciclados por Jackson), con los nombres de campo
+ * precodificados; sin Map intermedio ni introspección de beans por petición.
+ */
+public class TokenJsonWriter {
+
+    private static final SerializableString ACCESS_TOKEN = new SerializedString("accessToken");
+    private static final SerializableString REFRESH_TOKEN = new SerializedString("refreshToken");
+    private static final SerializableString TOKEN_TYPE = new SerializedString("tokenType");
+    private static final SerializableString EXPIRES_IN = new SerializedString("expiresIn");
+    private static final SerializableString EXPIRES_AT = new SerializedString("expiresAt");
+    private static final SerializableString SCOPE = new SerializedString("scope");
+
+    private static final SerializableString SUBJECT = new SerializedString("subject");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString ROLES = new SerializedString("roles");
+    private static final SerializableString PERMISSIONS = new SerializedString("permissions");
+    private static final SerializableString DEVICE_ID = new SerializedString("deviceId");
+    private static final SerializableString SESSION_ID = new SerializedString("sessionId");
+    private static final SerializableString RISK_SCORE = new SerializedString("riskScore");
+    private static final SerializableString IP_ADDRESS = new SerializedString("ipAddress");
+    private static final SerializableString CONTEXT = new SerializedString("context");
+    private static final SerializableString ISSUED_AT = new SerializedString("issuedAt");
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * @param jsonFactory factoría con codec (ObjectMapper#getFactory) para el campo context
+     */
+    public TokenJsonWriter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public void write(TokenResponse tokens, OutputStream out) throws IOException {
+        try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeFieldName(ACCESS_TOKEN);
+            gen.writeString(tokens.getAccessToken());
+            gen.writeFieldName(REFRESH_TOKEN);
+            gen.writeString(tokens.getRefreshToken());
+            gen.writeFieldName(TOKEN_TYPE);
+            gen.writeString(tokens.getTokenType());
+            gen.writeFieldName(EXPIRES_IN);
+            gen.writeNumber(tokens.getExpiresIn());
+            writeInstant(gen, EXPIRES_AT, tokens.getExpiresAt());
+            gen.writeFieldName(SCOPE);
+            gen.writeString(tokens.getScope());
+            gen.writeEndObject();
+        }
+    }
+
+    public void write(JwtClaims claims, OutputStream out) throws IOException {
+        try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            writeString(gen, SUBJECT, claims.getSubject());
+            writeString(gen, USERNAME, claims.getUsername());
+            writeStrings(gen, ROLES, claims.getRoles());
+            writeStrings(gen, PERMISSIONS, claims.getPermissions());
+            writeString(gen, DEVICE_ID, claims.getDeviceId());
+            writeString(gen, SESSION_ID, claims.getSessionId());
+            if (claims.getRiskScore() != null) {
+                gen.writeFieldName(RISK_SCORE);
+                gen.writeNumber(claims.getRiskScore());
+            }
+            writeString(gen, IP_ADDRESS, claims.getIpAddress());
+            if (claims.getContext() != null) {
+                gen.writeFieldName(CONTEXT);
+                gen.writeObject(claims.getContext());
+            }
+            writeInstant(gen, ISSUED_AT, claims.getIssuedAt());
+            writeInstant(gen, EXPIRES_AT, claims.getExpiresAt());
+            writeString(gen, TOKEN_TYPE, claims.getTokenType());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeStrings(JsonGenerator gen, SerializableString name, List<String> values)
+            throws IOException {
+        if (values == null) {
+            return;
+        }
+        gen.writeFieldName(name);
+        gen.writeStartArray();
+        for (int i = 0; i < values.size(); i++) {
+            gen.writeString(values.get(i));
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeInstant(JsonGenerator gen, SerializableString name, Instant value) throws IOException {
+        // ISO-8601, igual que el ObjectMapper de Spring Boot (WRITE_DATES_AS_TIMESTAMPS=false)
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value.toString());
+        }
+    }
+}
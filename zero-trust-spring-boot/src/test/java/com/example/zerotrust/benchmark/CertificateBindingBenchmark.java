@@ -0,0 +1,119 @@
+package com.example.zerotrust.benchmark;
+
+import com.example.zerotrust.config.TlsProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.security.AuthoritySetCache;
+import com.example.zerotrust.security.ClientCertificateAuthenticationFilter;
+import com.example.zerotrust.security.ClientCertificateIdentityCache;
+import com.example.zerotrust.security.JwtAuthenticationFilter;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.example.zerotrust.support.TestCertificates;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de los tokens ligados a certificado (cnf.x5t#S256) en la autenticación
+ *
+ * - unboundToken: solo JwtAuthenticationFilter, sin mTLS
+ * - boundTokenSessionCached: filtro mTLS + JWT; la huella sale de la cache por sesión TLS
+ * - boundTokenHashPerRequest: igual pero sin id de sesión, SHA-256 del certificado en cada petición
+ *
+ * ./mvnw -Pbenchmarks test -DskipTests -Dbenchmark=CertificateBindingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CertificateBindingBenchmark {
+
+    private static final String SESSION_ID = "5f1c2a9e0b7d4c3a";
+
+    private JwtAuthenticationFilter jwtFilter;
+    private ClientCertificateAuthenticationFilter certificateFilter;
+    private X509Certificate[] chain;
+    private String unboundAuthorization;
+    private String boundAuthorization;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = JwtTestFixtures.jwtService();
+        AuthoritySetCache authoritySetCache = new AuthoritySetCache(1024, 4096);
+        jwtFilter = new JwtAuthenticationFilter(jwtService, JwtTestFixtures.jwtProperties(), authoritySetCache);
+
+        TlsProperties tlsProperties = new TlsProperties();
+        tlsProperties.getServices().put("spiffe://zerotrust/orders", new TlsProperties.Service());
+        certificateFilter = new ClientCertificateAuthenticationFilter(
+                new ClientCertificateIdentityCache(tlsProperties, authoritySetCache));
+
+        X509Certificate certificate = TestCertificates.orders();
+        chain = new X509Certificate[]{certificate};
+
+        unboundAuthorization = "Bearer " + jwtService.generateTokenPair(JwtTestFixtures.userClaims("bench-user"))
+                .getAccessToken();
+        JwtClaims bound = JwtTestFixtures.userClaims("bench-user");
+        bound.setCertificateThumbprint(ClientCertificateIdentityCache.fingerprint(certificate));
+        boundAuthorization = "Bearer " + jwtService.generateTokenPair(bound).getAccessToken();
+    }
+
+    @Benchmark
+    public int unboundToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", unboundAuthorization);
+        return run(request, false);
+    }
+
+    @Benchmark
+    public int boundTokenSessionCached() throws Exception {
+        MockHttpServletRequest request = mtlsRequest();
+        request.setAttribute(ClientCertificateAuthenticationFilter.SSL_SESSION_ID_ATTRIBUTE, SESSION_ID);
+        return run(request, true);
+    }
+
+    @Benchmark
+    public int boundTokenHashPerRequest() throws Exception {
+        return run(mtlsRequest(), true);
+    }
+
+    private MockHttpServletRequest mtlsRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", boundAuthorization);
+        request.setAttribute(ClientCertificateAuthenticationFilter.CERTIFICATE_ATTRIBUTE, chain);
+        return request;
+    }
+
+    private int run(MockHttpServletRequest request, boolean mtls) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            FilterChain chain = mtls
+                    ? (req, res) -> jwtFilter.doFilter(req, res, new MockFilterChain())
+                    : new MockFilterChain();
+            if (mtls) {
+                certificateFilter.doFilter(request, response, chain);
+            } else {
+                jwtFilter.doFilter(request, response, chain);
+            }
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
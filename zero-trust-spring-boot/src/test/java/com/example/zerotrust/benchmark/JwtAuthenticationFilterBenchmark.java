@@ -0,0 +1,87 @@
+package com.example.zerotrust.benchmark;
+
+import com.example.zerotrust.security.AuthoritySetCache;
+import com.example.zerotrust.security.JwtAuthenticationFilter;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter frente a BearerTokenAuthenticationFilter de Spring
+ *
+ * Ambos validan el mismo access token HS256; el de Spring usa NimbusJwtDecoder
+ * y JwtAuthenticationProvider, que es lo que configuraría el resource server.
+ *
+ * ./mvnw -Pbenchmarks test -DskipTests -Dbenchmark=JwtAuthenticationFilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter zeroTrustFilter;
+    private BearerTokenAuthenticationFilter springFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = JwtTestFixtures.jwtService();
+        zeroTrustFilter = new JwtAuthenticationFilter(jwtService, JwtTestFixtures.jwtProperties(),
+                new AuthoritySetCache(1024, 4096));
+
+        NimbusJwtDecoder decoder = NimbusJwtDecoder
+                .withSecretKey(Keys.hmacShaKeyFor(JwtTestFixtures.SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        springFilter = new BearerTokenAuthenticationFilter(new ProviderManager(new JwtAuthenticationProvider(decoder)));
+
+        authorization = "Bearer " + jwtService.generateTokenPair(JwtTestFixtures.userClaims("bench-user"))
+                .getAccessToken();
+    }
+
+    @Benchmark
+    public int zeroTrustFilter() throws Exception {
+        return run(zeroTrustFilter);
+    }
+
+    @Benchmark
+    public int springBearerTokenFilter() throws Exception {
+        return run(springFilter);
+    }
+
+    private int run(Filter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.zerotrust.benchmark;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.policy.AuthorizationRequest;
+import com.example.zerotrust.policy.CompiledPolicy;
+import com.example.zerotrust.policy.Decision;
+import com.example.zerotrust.policy.PolicyCompiler;
+import com.example.zerotrust.policy.Residual;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.example.zerotrust.support.PolicyFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de una decisión del PDP compilado según el tamaño del bundle
+ *
+ * Bundle multi-tenant (PolicyFixtures.tenantBundle) de 10 a 100.000 reglas;
+ * con el índice recurso → acción → rol la latencia debe ser casi constante.
+ * - allowFirstTenant / allowLastTenant: la ALLOW con condiciones del primer / último tenant
+ * - denyByRisk: la DENY global aplica
+ * - notApplicable: recurso sin reglas (solo las globales)
+ * - residual*: las mismas peticiones sobre el Residual del sujeto (evaluación parcial)
+ *
+ * ./mvnw -Pbenchmarks test -DskipTests -Dbenchmark=PolicyDecisionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PolicyDecisionBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int rules;
+
+    private CompiledPolicy policy;
+    private Residual residual;
+    private AuthorizationRequest firstTenant;
+    private AuthorizationRequest lastTenant;
+    private AuthorizationRequest risky;
+    private AuthorizationRequest unknown;
+
+    @Setup
+    public void setUp() {
+        policy = PolicyCompiler.compile(PolicyFixtures.tenantBundle(rules));
+        int tenants = (rules - 2 + 9) / 10;
+
+        JwtClaims claims = JwtTestFixtures.userClaims("bench-user");
+        claims.setRiskScore(0.1);
+        residual = policy.partialEvaluate(claims);
+        firstTenant = AuthorizationRequest.of(claims, "tenant-0/document", "read");
+        lastTenant = AuthorizationRequest.of(claims, "tenant-" + (tenants - 1) + "/document", "read");
+        unknown = AuthorizationRequest.of(claims, "billing", "delete");
+        JwtClaims riskyClaims = JwtTestFixtures.userClaims("bench-user");
+        riskyClaims.setRiskScore(0.95);
+        risky = AuthorizationRequest.of(riskyClaims, "tenant-0/document", "read");
+    }
+
+    @Benchmark
+    public Decision allowFirstTenant() {
+        return policy.decide(firstTenant);
+    }
+
+    @Benchmark
+    public Decision allowLastTenant() {
+        return policy.decide(lastTenant);
+    }
+
+    @Benchmark
+    public Decision denyByRisk() {
+        return policy.decide(risky);
+    }
+
+    @Benchmark
+    public Decision notApplicable() {
+        return policy.decide(unknown);
+    }
+
+    @Benchmark
+    public Decision residualAllowFirstTenant() {
+        return residual.decide(firstTenant);
+    }
+
+    @Benchmark
+    public Decision residualAllowLastTenant() {
+        return residual.decide(lastTenant);
+    }
+
+    @Benchmark
+    public Decision residualNotApplicable() {
+        return residual.decide(unknown);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.zerotrust.benchmark;
+
+import com.example.zerotrust.config.RateLimitProperties;
+import com.example.zerotrust.ratelimit.RateLimitKey;
+import com.example.zerotrust.ratelimit.RateLimiter;
+import com.example.zerotrust.ratelimit.TokenLeaseStore;
+import com.example.zerotrust.support.BeanProviders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de una decisión de RateLimiter (GCRA sobre un long con CAS)
+ *
+ * - hotKey: 4 hilos sobre la misma clave con un límite que no se alcanza (CAS disputado)
+ * - limitedKey: clave ya por encima de su límite (solo lectura, sin CAS)
+ * - manyKeys: 100.000 IPs distintas repartidas en la tabla
+ *
+ * ./mvnw -Pbenchmarks test -DskipTests -Dbenchmark=RateLimiterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RateLimiterBenchmark {
+
+    private RateLimiter limiter;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLimits().clear();
+        properties.getLimits().put("hot", limit("/hot", RateLimitKey.SUBJECT, 1_000_000, 1_000_000));
+        properties.getLimits().put("limited", limit("/limited", RateLimitKey.SUBJECT, 1, 1));
+        properties.getLimits().put("ip", limit("/**", RateLimitKey.IP, 1_000_000, 1_000));
+        limiter = new RateLimiter(properties, new SimpleMeterRegistry(), BeanProviders.of(TokenLeaseStore.class, null));
+        limiter.tryAcquire(RateLimitKey.SUBJECT, "bench-user", "/limited");
+
+        addresses = new String[100_000];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = "10." + (i >>> 16) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return limiter.tryAcquire(RateLimitKey.SUBJECT, "bench-user", "/hot");
+    }
+
+    @Benchmark
+    public long limitedKey() {
+        return limiter.tryAcquire(RateLimitKey.SUBJECT, "bench-user", "/limited");
+    }
+
+    @Benchmark
+    public long manyKeys() {
+        return limiter.tryAcquire(RateLimitKey.IP,
+                addresses[ThreadLocalRandom.current().nextInt(addresses.length)], "/api/data");
+    }
+
+    private static RateLimitProperties.Limit limit(String path, RateLimitKey key, long requests, long burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setPath(path);
+        limit.setKey(key);
+        limit.setRequests(requests);
+        limit.setPeriod(Duration.ofSeconds(1));
+        limit.setBurst(burst);
+        return limit;
+    }
+}
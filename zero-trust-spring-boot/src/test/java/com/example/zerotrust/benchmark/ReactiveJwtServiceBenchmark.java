@@ -0,0 +1,69 @@
+package com.example.zerotrust.benchmark;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.service.reactive.ReactiveJwtService;
+import com.example.zerotrust.support.InMemoryReactiveRevocationStore;
+import com.example.zerotrust.support.JwtTestFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por operación de la fachada reactiva frente a la servlet
+ *
+ * Mide el overhead de Reactor sobre la misma criptografía (firma HS256 y
+ * verificación). La ventaja de concurrencia con clientes lentos no se ve
+ * aquí: para eso está scripts/load-test-reactive.sh.
+ *
+ * ./mvnw -Pbenchmarks test -DskipTests -Dbenchmark=ReactiveJwtServiceBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReactiveJwtServiceBenchmark {
+
+    private JwtService servletService;
+    private ReactiveJwtService reactiveService;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        servletService = JwtTestFixtures.jwtService();
+        reactiveService = JwtTestFixtures.builder().buildReactive(new InMemoryReactiveRevocationStore());
+        accessToken = servletService.generateTokenPair(JwtTestFixtures.userClaims("bench-user")).getAccessToken();
+    }
+
+    @Benchmark
+    public JwtClaims servletValidate() {
+        return servletService.validateAndParseToken(accessToken);
+    }
+
+    @Benchmark
+    public JwtClaims reactiveValidate() {
+        return reactiveService.validateAndParseToken(accessToken).block();
+    }
+
+    @Benchmark
+    public TokenResponse servletIssue() {
+        return servletService.generateTokenPair(JwtTestFixtures.userClaims("bench-user"));
+    }
+
+    @Benchmark
+    public TokenResponse reactiveIssue() {
+        return reactiveService.generateTokenPair(JwtTestFixtures.userClaims("bench-user")).block();
+    }
+}
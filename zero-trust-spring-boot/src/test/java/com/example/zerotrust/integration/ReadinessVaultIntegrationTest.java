@@ -0,0 +1,57 @@
+package com.example.zerotrust.integration;
+
+import com.example.zerotrust.health.DependencyCheck;
+import com.example.zerotrust.health.DependencyChecks;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.SecretSource;
+import com.example.zerotrust.support.BeanProviders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.vault.authentication.TokenAuthentication;
+import org.springframework.vault.client.VaultEndpoint;
+import org.springframework.vault.core.VaultTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprobación de readiness "secrets" contra Vault real (sys/health)
+ */
+@Testcontainers
+class ReadinessVaultIntegrationTest extends BaseVaultIntegrationTest {
+
+    @Container
+    static final GenericContainer<?> vault = createVaultContainer();
+
+    @Test
+    void secretsCheckShouldFollowVaultSealStatus() throws Exception {
+        // Given
+        VaultTemplate vaultTemplate = new VaultTemplate(
+                VaultEndpoint.from(URI.create("http://" + vault.getHost() + ":" + vault.getMappedPort(8200))),
+                new TokenAuthentication(VAULT_ROOT_TOKEN));
+        SecretService secretService = new SecretService(new MockEnvironment()
+                .withProperty("app.jwt.secret", "secret-only-for-testing-must-be-at-least-256-bits-long"),
+                event -> { }, new SimpleMeterRegistry(), BeanProviders.of(SecretSource.class, null));
+        DependencyCheck check = DependencyChecks.secrets(secretService, vaultTemplate);
+
+        // When
+        Map<String, Object> details = check.check();
+
+        // Then
+        assertEquals("1.15.4", details.get("vaultVersion"));
+        assertEquals(false, details.get("vaultStandby"));
+
+        // When: Vault sellado, aunque la clave de firma siga en caché
+        vaultTemplate.opsForSys().seal();
+
+        // Then
+        IllegalStateException sealed = assertThrows(IllegalStateException.class, check::check);
+        assertEquals("Vault sealed", sealed.getMessage());
+    }
+}
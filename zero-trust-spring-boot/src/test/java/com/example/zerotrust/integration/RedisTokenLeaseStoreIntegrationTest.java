@@ -0,0 +1,110 @@
+package com.example.zerotrust.integration;
+
+import com.example.zerotrust.config.RateLimitProperties;
+import com.example.zerotrust.ratelimit.RedisTokenLeaseStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Script Lua de RedisTokenLeaseStore contra Redis real
+ */
+@Testcontainers
+class RedisTokenLeaseStoreIntegrationTest {
+
+    // 5 tokens, uno cada 100 ms
+    private static final long CAPACITY = 5;
+    private static final long INTERVAL_MICROS = 100_000;
+
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private RedisTokenLeaseStore store;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        properties.getCluster().setCommandTimeout(Duration.ofMillis(200));
+        store = new RedisTokenLeaseStore(connectionFactory, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void leaseShouldNeverGrantMoreThanTheBucketHolds() {
+        // When
+        long first = store.lease("bucket:a", 3, INTERVAL_MICROS, CAPACITY);
+        long second = store.lease("bucket:a", 5, INTERVAL_MICROS, CAPACITY);
+        long third = store.lease("bucket:a", 1, INTERVAL_MICROS, CAPACITY);
+
+        // Then: un bucket nuevo empieza lleno y los lotes se descuentan
+        assertEquals(3, first);
+        assertEquals(2, second);
+        assertEquals(0, third);
+        assertEquals(5, store.lease("bucket:b", 10, INTERVAL_MICROS, CAPACITY));
+    }
+
+    @Test
+    void emptyBucketShouldRefillWithRedisTime() {
+        // Given
+        assertEquals(CAPACITY, store.lease("bucket:refill", CAPACITY, INTERVAL_MICROS, CAPACITY));
+
+        // Then: un token cada 100 ms
+        await().atMost(Duration.ofSeconds(2)).pollInterval(Duration.ofMillis(50))
+                .until(() -> store.lease("bucket:refill", 1, INTERVAL_MICROS, CAPACITY) == 1);
+    }
+
+    @Test
+    void keyShouldExpireOnceTheBucketWouldBeFull() {
+        // When
+        store.lease("bucket:ttl", 2, INTERVAL_MICROS, CAPACITY);
+
+        // Then: 2 tokens × 100 ms para rellenarse, más 1 s de margen
+        Long ttl = redisTemplate.getExpire("bucket:ttl", TimeUnit.MILLISECONDS);
+        assertNotNull(ttl);
+        assertTrue(ttl > 1000 && ttl <= 1200, "ttl=" + ttl);
+        assertEquals("3", redisTemplate.opsForHash().get("bucket:ttl", "tokens"));
+    }
+
+    @Test
+    void unresponsiveRedisShouldFailWithinTheCommandTimeout() {
+        // Given: conexión ya abierta
+        store.lease("bucket:timeout", 1, INTERVAL_MICROS, CAPACITY);
+        redis.getDockerClient().pauseContainerCmd(redis.getContainerId()).exec();
+        try {
+            // When
+            long start = System.nanoTime();
+            assertThrows(QueryTimeoutException.class,
+                    () -> store.lease("bucket:timeout", 1, INTERVAL_MICROS, CAPACITY));
+
+            // Then: command-timeout y no el timeout general de Lettuce (60 s)
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        } finally {
+            redis.getDockerClient().unpauseContainerCmd(redis.getContainerId()).exec();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.zerotrust.integration;
+
+import com.example.zerotrust.config.SecretsProperties;
+import com.example.zerotrust.event.SecretChangedEvent;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.SecretSource;
+import com.example.zerotrust.service.VaultSecretSource;
+import com.example.zerotrust.support.BeanProviders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.vault.authentication.TokenAuthentication;
+import org.springframework.vault.client.VaultEndpoint;
+import org.springframework.vault.core.VaultTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rotación de un secreto en Vault KV v2 detectada por SecretService (app.secrets.source: VAULT)
+ */
+@Testcontainers
+class SecretRotationVaultIntegrationTest extends BaseVaultIntegrationTest {
+
+    private static final String PATH = "zero-trust-app";
+
+    @Container
+    static final GenericContainer<?> vault = createVaultContainer();
+
+    private VaultTemplate vaultTemplate;
+    private List<Object> events;
+    private SecretService secretService;
+
+    @BeforeEach
+    void setUp() {
+        vaultTemplate = new VaultTemplate(
+                VaultEndpoint.from(URI.create("http://" + vault.getHost() + ":" + vault.getMappedPort(8200))),
+                new TokenAuthentication(VAULT_ROOT_TOKEN));
+        vaultTemplate.opsForVersionedKeyValue("secret").put(PATH,
+                Map.of("app.jwt.secret", "vault-secret-v1-only-for-testing-must-be-at-least-256-bits-long"));
+
+        SecretsProperties properties = new SecretsProperties();
+        properties.setSource(SecretsProperties.Source.VAULT);
+        properties.getVault().setPath(PATH);
+        events = new ArrayList<>();
+        secretService = new SecretService(new MockEnvironment(), events::add, new SimpleMeterRegistry(),
+                BeanProviders.of(SecretSource.class, new VaultSecretSource(vaultTemplate, properties)));
+    }
+
+    @Test
+    void rotationInVaultShouldPublishOneEvent() {
+        // Given
+        assertEquals("vault-secret-v1-only-for-testing-must-be-at-least-256-bits-long",
+                secretService.getJwtSigningKey());
+
+        // When: nueva versión del secreto en Vault
+        vaultTemplate.opsForVersionedKeyValue("secret").put(PATH,
+                Map.of("app.jwt.secret", "vault-secret-v2-only-for-testing-must-be-at-least-256-bits-long"));
+        secretService.refreshSecrets();
+        secretService.refreshSecrets();
+
+        // Then
+        assertEquals(1, events.size());
+        SecretChangedEvent event = (SecretChangedEvent) events.get(0);
+        assertTrue(event.isFor(SecretService.JWT_SIGNING_KEY));
+        assertEquals(2L, event.getVersion());
+        assertEquals("vault-secret-v2-only-for-testing-must-be-at-least-256-bits-long",
+                secretService.getJwtSigningKey());
+    }
+
+    @Test
+    void unchangedVaultSecretShouldNotPublishEvents() {
+        // Given
+        secretService.getJwtSigningKey();
+
+        // When
+        List<SecretChangedEvent> changes = secretService.refreshSecrets();
+
+        // Then
+        assertTrue(changes.isEmpty());
+        assertTrue(events.isEmpty());
+    }
+}
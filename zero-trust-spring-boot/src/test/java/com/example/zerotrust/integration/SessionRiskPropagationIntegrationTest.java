@@ -0,0 +1,79 @@
+package com.example.zerotrust.integration;
+
+import com.example.zerotrust.config.RiskProperties;
+import com.example.zerotrust.risk.RedisSessionRiskPropagation;
+import com.example.zerotrust.risk.SessionRiskOverlay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos nodos con su propio SessionRiskOverlay replicando ajustes por Redis pub/sub
+ */
+@Testcontainers
+class SessionRiskPropagationIntegrationTest {
+
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private final RiskProperties properties = new RiskProperties();
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisSessionRiskPropagation nodeA;
+    private RedisSessionRiskPropagation nodeB;
+    private SessionRiskOverlay overlayA;
+    private SessionRiskOverlay overlayB;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        overlayA = new SessionRiskOverlay(properties, new SimpleMeterRegistry());
+        overlayB = new SessionRiskOverlay(properties, new SimpleMeterRegistry());
+        nodeA = new RedisSessionRiskPropagation(overlayA, redisTemplate, properties);
+        nodeB = new RedisSessionRiskPropagation(overlayB, redisTemplate, properties);
+        nodeA.start();
+        nodeB.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        nodeA.stop();
+        nodeB.stop();
+        nodeA.destroy();
+        nodeB.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void denyAndClearShouldReachTheOtherNode() {
+        // When: un operador deniega la sesión en el nodo A
+        overlayA.deny("session-1", Set.of(SessionRiskOverlay.Flag.DENY_ACCESS), Duration.ofMinutes(15));
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                SessionRiskOverlay.hasFlag(overlayB.lookup("session-1"), SessionRiskOverlay.Flag.DENY_ACCESS));
+        assertEquals(overlayA.lookup("session-1"), overlayB.lookup("session-1"));
+
+        // When: se levanta en el nodo B
+        overlayB.clear("session-1");
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).until(() -> overlayA.lookup("session-1") == SessionRiskOverlay.NONE);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.zerotrust.ratelimit;
+
+import com.example.zerotrust.config.RateLimitProperties;
+import com.example.zerotrust.support.InMemoryTokenLeaseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de los límites globales con lotes de tokens sobre un stand-in de Redis
+ */
+class ClusterRateLimitTest {
+
+    private final AtomicLong nanos = new AtomicLong(Duration.ofDays(3).toNanos());
+    private final InMemoryTokenLeaseStore store = new InMemoryTokenLeaseStore(nanos::get);
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void globalLimitShouldHoldAcrossNodes() {
+        // Given: tres nodos; login 10/min con ráfagas de 5 en total
+        List<RateLimiter> nodes = nodes(3);
+
+        // When: el atacante reparte 30 intentos entre los nodos
+        int admitted = 0;
+        for (int i = 0; i < 30; i++) {
+            if (nodes.get(i % 3).tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login") == 0) {
+                admitted++;
+            }
+        }
+
+        // Then: un nodo solo habría admitido 5 de sus 10; juntos no pasan de 5
+        assertEquals(5, admitted);
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals(0, nodes.get(1).tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login"));
+        assertTrue(nodes.get(2).tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login") > 0);
+    }
+
+    @Test
+    void storeTrafficShouldFollowLeaseRefillsNotRequests() {
+        // Given: 10.000 peticiones/s de un sujeto con un límite global holgado
+        properties.getLimits().get("subject").setRequests(1_200_000);
+        properties.getLimits().get("subject").setBurst(100_000);
+        RateLimiter node = nodes(1).get(0);
+
+        // When
+        int admitted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (node.tryAcquire(RateLimitKey.SUBJECT, "alice", "/api/data") == 0) {
+                admitted++;
+            }
+            nanos.addAndGet(Duration.ofNanos(100_000).toNanos());
+        }
+
+        // Then: el lote crece hasta max-lease (50) y hay ~1 round trip por lote
+        assertEquals(10_000, admitted);
+        assertTrue(store.calls() < 10_000 / 40, "calls: " + store.calls());
+    }
+
+    @Test
+    void exhaustedGlobalCounterShouldNotBeAskedPerRequest() {
+        // Given
+        RateLimiter node = nodes(1).get(0);
+        for (int i = 0; i < 5; i++) {
+            node.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login");
+        }
+        long calls = store.calls();
+
+        // When
+        long wait = node.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login");
+        for (int i = 0; i < 100; i++) {
+            node.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login");
+        }
+
+        // Then: una sola consulta hasta que el contador global recupera un token (6 s)
+        assertEquals(Duration.ofSeconds(6).toNanos() / 1000, wait);
+        assertEquals(calls + 1, store.calls());
+    }
+
+    @Test
+    void unavailableStoreShouldFallBackToLocalLimit() {
+        // Given
+        store.setUnavailable(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimiter node = new RateLimiter(properties, registry, store, nanos::get);
+
+        // When
+        int admitted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (node.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login") == 0) {
+                admitted++;
+            }
+        }
+
+        // Then: límite local del nodo y un solo intento contra el store por lease-ttl
+        assertEquals(5, admitted);
+        assertEquals(1, store.calls());
+        assertEquals(1, registry.get("zerotrust.ratelimit.leases").tag("result", "failed")
+                .functionCounter().count());
+
+        store.setUnavailable(false);
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals(0, node.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login"));
+        assertEquals(2, store.calls());
+    }
+
+    private List<RateLimiter> nodes(int count) {
+        properties.getCluster().setEnabled(true);
+        List<RateLimiter> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(new RateLimiter(properties, new SimpleMeterRegistry(), store, nanos::get));
+        }
+        return nodes;
+    }
+}
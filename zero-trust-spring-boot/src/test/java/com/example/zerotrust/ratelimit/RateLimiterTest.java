@@ -0,0 +1,174 @@
+package com.example.zerotrust.ratelimit;
+
+import com.example.zerotrust.config.RateLimitProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.security.JwtAuthenticationFilter;
+import com.example.zerotrust.security.RateLimitFilter;
+import com.example.zerotrust.support.JwtTestFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de RateLimiter (GCRA) y RateLimitFilter: ráfaga, ritmo sostenido, reglas por path y desalojo
+ */
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong(Duration.ofDays(3).toNanos());
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void burstThenSustainedRate() {
+        // Given: 10/min (una cada 6 s) con ráfagas de 5
+        RateLimiter limiter = new RateLimiter(properties, registry, null, nanos::get);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login"));
+        }
+        long wait = limiter.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login");
+
+        // Then
+        assertEquals(Duration.ofSeconds(6).toNanos() / 1000, wait);
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals(0, limiter.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login"));
+        assertTrue(limiter.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login") > 0);
+        assertEquals(0, limiter.tryAcquire(RateLimitKey.IP, "203.0.113.8", "/auth/login"));
+        assertEquals(2, registry.get("zerotrust.ratelimit.requests").tag("result", "limited")
+                .functionCounter().count());
+    }
+
+    @Test
+    void mostSpecificPathShouldApply() {
+        // Given
+        RateLimiter limiter = new RateLimiter(properties, registry, null, nanos::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login");
+        }
+
+        // Then: /auth/refresh y /api usan sus propios límites
+        assertTrue(limiter.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/login") > 0);
+        assertEquals(0, limiter.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/auth/refresh"));
+        assertEquals(0, limiter.tryAcquire(RateLimitKey.IP, "203.0.113.7", "/api/data"));
+    }
+
+    @Test
+    void fullSegmentShouldReplaceActiveKeyAndReuseIdleOnes() {
+        // Given: un segmento de 8 slots
+        properties.setSegments(1);
+        properties.setSegmentCapacity(8);
+        RateLimiter limiter = new RateLimiter(properties, registry, null, nanos::get);
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire(RateLimitKey.SUBJECT, "user-" + i, "/api/data");
+        }
+
+        // When
+        assertEquals(0, limiter.tryAcquire(RateLimitKey.SUBJECT, "user-8", "/api/data"));
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        // Then: tras un intervalo (100 ms) todas están inactivas y sus slots se reutilizan sin desalojo
+        assertEquals(1, registry.get("zerotrust.ratelimit.evictions").functionCounter().count());
+        assertEquals(0, limiter.activeKeys());
+        assertEquals(0, limiter.tryAcquire(RateLimitKey.SUBJECT, "user-9", "/api/data"));
+        assertEquals(1, registry.get("zerotrust.ratelimit.evictions").functionCounter().count());
+    }
+
+    @Test
+    void concurrentRequestsShouldNotExceedBurst() throws Exception {
+        // Given: ráfaga de 1000 sin que avance el reloj
+        properties.getLimits().clear();
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setKey(RateLimitKey.SUBJECT);
+        limit.setRequests(1);
+        limit.setPeriod(Duration.ofSeconds(1));
+        limit.setBurst(1000);
+        properties.getLimits().put("subject", limit);
+        RateLimiter limiter = new RateLimiter(properties, registry, null, nanos::get);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire(RateLimitKey.SUBJECT, "alice", "/api/data") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1000, admitted.get());
+    }
+
+    @Test
+    void invalidConfigurationShouldFailAtStartup() {
+        properties.setSegments(3);
+        assertThrows(IllegalStateException.class, () -> new RateLimiter(properties, registry, null, nanos::get));
+
+        properties.setSegments(16);
+        properties.getLimits().get("login-ip").setPath("auth/login");
+        assertThrows(IllegalStateException.class, () -> new RateLimiter(properties, registry, null, nanos::get));
+    }
+
+    @Test
+    void filtersShouldRejectWithRetryAfter() throws Exception {
+        // Given
+        RateLimiter limiter = new RateLimiter(properties, registry, null, nanos::get);
+        RateLimitFilter byAddress = RateLimitFilter.byAddress(limiter);
+        RateLimitFilter byIdentity = RateLimitFilter.byIdentity(limiter);
+        for (int i = 0; i < 5; i++) {
+            byAddress.doFilter(request("/auth/login"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(RateLimitKey.SUBJECT, "alice", "/api/data");
+        }
+
+        // When
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        MockFilterChain loginChain = new MockFilterChain();
+        byAddress.doFilter(request("/auth/login"), login, loginChain);
+        MockHttpServletRequest api = request("/api/data");
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+        api.setAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims);
+        MockHttpServletResponse apiResponse = new MockHttpServletResponse();
+        byIdentity.doFilter(api, apiResponse, new MockFilterChain());
+
+        // Then
+        assertEquals(429, login.getStatus());
+        assertEquals("6", login.getHeader("Retry-After"));
+        assertEquals("{\"error\":\"rate_limited\"}", login.getContentAsString());
+        assertNull(loginChain.getRequest());
+        assertEquals(429, apiResponse.getStatus());
+        assertEquals("1", apiResponse.getHeader("Retry-After"));
+    }
+
+    private MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr("203.0.113.7");
+        return request;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.zerotrust.support;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * ObjectProvider para los constructores inyectados con beans opcionales, sin contexto de Spring
+ */
+public final class BeanProviders {
+
+    private BeanProviders() {
+    }
+
+    /**
+     * Provider con el bean indicado, o vacío si es null
+     */
+    public static <T> ObjectProvider<T> of(Class<T> type, T bean) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (bean != null) {
+            beans.addBean(type.getSimpleName(), bean);
+        }
+        return beans.getBeanProvider(type);
+    }
+}
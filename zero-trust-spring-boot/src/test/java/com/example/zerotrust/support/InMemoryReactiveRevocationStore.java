@@ -0,0 +1,29 @@
+package com.example.zerotrust.support;
+
+import com.example.zerotrust.service.reactive.ReactiveRevocationStore;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ReactiveRevocationStore en memoria para tests y benchmarks (sin Redis)
+ */
+public class InMemoryReactiveRevocationStore implements ReactiveRevocationStore {
+
+    private final Map<String, String> revoked = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Boolean> isRevoked(String token) {
+        return Mono.fromSupplier(() -> revoked.containsKey(token));
+    }
+
+    @Override
+    public Mono<Void> revoke(String token, String reason) {
+        return Mono.fromRunnable(() -> revoked.put(token, reason));
+    }
+
+    public String reasonFor(String token) {
+        return revoked.get(token);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.zerotrust.support;
+
+import com.example.zerotrust.ratelimit.TokenLeaseStore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Stand-in de Redis para TokenLeaseStore: el mismo token bucket que el script
+ * Lua de RedisTokenLeaseStore, atómico por clave, con el reloj del test.
+ * Cuenta las llamadas (round trips) y puede simular la caída de Redis.
+ */
+public class InMemoryTokenLeaseStore implements TokenLeaseStore {
+
+    private final Map<String, double[]> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private final AtomicLong calls = new AtomicLong();
+    private volatile boolean unavailable;
+
+    public InMemoryTokenLeaseStore(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public long lease(String key, long requested, long intervalMicros, long capacity) {
+        calls.incrementAndGet();
+        if (unavailable) {
+            throw new IllegalStateException("Redis unavailable");
+        }
+        long now = nanoClock.getAsLong() / 1000;
+        long[] granted = new long[1];
+        buckets.compute(key, (k, state) -> {
+            // state = {tokens, ts en µs}
+            double tokens = state != null ? state[0] : capacity;
+            if (state != null && now > state[1]) {
+                tokens = Math.min(capacity, tokens + (now - state[1]) / intervalMicros);
+            }
+            granted[0] = Math.min(requested, (long) Math.floor(tokens));
+            return new double[]{tokens - granted[0], now};
+        });
+        return granted[0];
+    }
+
+    public long calls() {
+        return calls.get();
+    }
+
+    public void setUnavailable(boolean unavailable) {
+        this.unavailable = unavailable;
+    }
+}
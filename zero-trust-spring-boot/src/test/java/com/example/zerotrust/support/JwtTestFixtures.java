@@ -0,0 +1,146 @@
+package com.example.zerotrust.support;
+
+import com.example.zerotrust.config.JwtProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.policy.PolicyDecisionPoint;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.SessionRiskOverlay;
+import com.example.zerotrust.risk.TokenLifetimePolicy;
+import com.example.zerotrust.security.PermissionRegistry;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.SecretSource;
+import com.example.zerotrust.service.TokenRevocationService;
+import com.example.zerotrust.service.reactive.ReactiveJwtService;
+import com.example.zerotrust.service.reactive.ReactiveRevocationStore;
+import com.example.zerotrust.service.transit.VaultTransitSigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+/**
+ * Construcción de JwtService / ReactiveJwtService reales sin contexto de Spring para tests y benchmarks
+ */
+public final class JwtTestFixtures {
+
+    public static final String SECRET =
+            "test-secret-key-only-for-testing-must-be-at-least-256-bits-long-for-security-purposes";
+
+    private JwtTestFixtures() {
+    }
+
+    public static JwtProperties jwtProperties() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        return properties;
+    }
+
+    public static SecretService secretService() {
+        return new SecretService(new MockEnvironment().withProperty("app.jwt.secret", SECRET), event -> { },
+                new SimpleMeterRegistry(), BeanProviders.of(SecretSource.class, null));
+    }
+
+    public static JwtService jwtService() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Colaboradores opcionales de JwtService / ReactiveJwtService; los no indicados quedan ausentes
+     */
+    public static final class Builder {
+
+        private JwtProperties properties = jwtProperties();
+        private TokenRevocationService revocationService = new TokenRevocationService();
+        private PolicyDecisionPoint policyDecisionPoint;
+        private PermissionRegistry permissionRegistry;
+        private RiskEngine riskEngine;
+        private TokenLifetimePolicy tokenLifetimePolicy;
+        private SessionRiskOverlay sessionRiskOverlay;
+
+        private Builder() {
+        }
+
+        public Builder properties(JwtProperties properties) {
+            this.properties = properties;
+            return this;
+        }
+
+        public Builder revocationService(TokenRevocationService revocationService) {
+            this.revocationService = revocationService;
+            return this;
+        }
+
+        /**
+         * El PDP se consulta en validateZeroTrustClaims
+         */
+        public Builder policyDecisionPoint(PolicyDecisionPoint policyDecisionPoint) {
+            this.policyDecisionPoint = policyDecisionPoint;
+            return this;
+        }
+
+        /**
+         * Con registro, roles y permisos se emiten como bitmap
+         */
+        public Builder permissionRegistry(PermissionRegistry permissionRegistry) {
+            this.permissionRegistry = permissionRegistry;
+            return this;
+        }
+
+        /**
+         * riskScore continuo en lugar del fijo de emisión
+         */
+        public Builder riskEngine(RiskEngine riskEngine) {
+            this.riskEngine = riskEngine;
+            return this;
+        }
+
+        /**
+         * Duración del access token según el riesgo
+         */
+        public Builder tokenLifetimePolicy(TokenLifetimePolicy tokenLifetimePolicy) {
+            this.tokenLifetimePolicy = tokenLifetimePolicy;
+            return this;
+        }
+
+        /**
+         * Ajustes de riesgo por sesión
+         */
+        public Builder sessionRiskOverlay(SessionRiskOverlay sessionRiskOverlay) {
+            this.sessionRiskOverlay = sessionRiskOverlay;
+            return this;
+        }
+
+        public JwtService build() {
+            return new JwtService(properties, secretService(), revocationService,
+                    BeanProviders.of(VaultTransitSigner.class, null),
+                    BeanProviders.of(PolicyDecisionPoint.class, policyDecisionPoint),
+                    BeanProviders.of(PermissionRegistry.class, permissionRegistry),
+                    BeanProviders.of(RiskEngine.class, riskEngine),
+                    BeanProviders.of(TokenLifetimePolicy.class, tokenLifetimePolicy),
+                    BeanProviders.of(SessionRiskOverlay.class, sessionRiskOverlay));
+        }
+
+        public ReactiveJwtService buildReactive(ReactiveRevocationStore revocationStore) {
+            return new ReactiveJwtService(properties, secretService(), revocationStore,
+                    BeanProviders.of(VaultTransitSigner.class, null),
+                    BeanProviders.of(PolicyDecisionPoint.class, policyDecisionPoint),
+                    BeanProviders.of(PermissionRegistry.class, permissionRegistry),
+                    BeanProviders.of(RiskEngine.class, riskEngine),
+                    BeanProviders.of(TokenLifetimePolicy.class, tokenLifetimePolicy),
+                    BeanProviders.of(SessionRiskOverlay.class, sessionRiskOverlay));
+        }
+    }
+
+    public static JwtClaims userClaims(String subject) {
+        JwtClaims claims = new JwtClaims(subject, subject + "@example.com", List.of("USER", "AUDITOR"));
+        claims.setPermissions(List.of("READ", "WRITE", "AUDIT_READ"));
+        claims.setDeviceId("device-" + subject);
+        claims.setIpAddress("10.0.0.1");
+        return claims;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.zerotrust.support;
+
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.service.IJwtService;
+import com.example.zerotrust.web.AuthRequestReader;
+import com.example.zerotrust.web.IntrospectionJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor de introspección local para tests del cliente
+ *
+ * Usa un IJwtService real y el mismo IntrospectionJsonWriter que
+ * IntrospectionController; cuenta peticiones y tokens recibidos. Como el
+ * endpoint real, responde 400 a los batches de más de MAX_BATCH_SIZE tokens.
+ */
+public class LocalIntrospectionServer implements AutoCloseable {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private final HttpServer server;
+    private final IJwtService jwtService;
+    private final AuthRequestReader reader;
+    private final IntrospectionJsonWriter writer;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger tokens = new AtomicInteger();
+
+    public LocalIntrospectionServer(IJwtService jwtService) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        this.jwtService = jwtService;
+        this.reader = new AuthRequestReader(objectMapper.getFactory());
+        this.writer = new IntrospectionJsonWriter(objectMapper.getFactory(), "zero-trust-service");
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/oauth2/introspect", this::handle);
+        this.server.setExecutor(Executors.newFixedThreadPool(4));
+        this.server.start();
+    }
+
+    public String getUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    public int getTokenCount() {
+        return tokens.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (exchange.getRequestURI().getPath().endsWith("/batch")) {
+            List<String> batch = reader.readStringArray(exchange.getRequestBody(), "tokens", MAX_BATCH_SIZE);
+            if (batch == null) {
+                exchange.sendResponseHeaders(400, -1);
+                exchange.close();
+                return;
+            }
+            List<JwtClaims> results = new ArrayList<>();
+            for (String token : batch) {
+                results.add(activeClaims(token));
+            }
+            writer.writeBatch(results, body);
+        } else {
+            String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String token = URLDecoder.decode(form.substring(form.indexOf('=') + 1), StandardCharsets.UTF_8);
+            writer.write(activeClaims(token), body);
+        }
+
+        byte[] bytes = body.toByteArray();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private JwtClaims activeClaims(String token) {
+        tokens.incrementAndGet();
+        try {
+            return jwtService.validateAndParseToken(token);
+        } catch (JwtException e) {
+            return null;
+        }
+    }
+}
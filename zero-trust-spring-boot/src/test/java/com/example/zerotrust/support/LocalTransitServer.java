@@ -0,0 +1,124 @@
+package com.example.zerotrust.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sustituto local de Vault Transit para tests
+ *
+ * Implementa POST /v1/{mount}/hmac/{key}/sha2-256 con batch_input y
+ * key_version, y GET /v1/{mount}/keys/{key} (latest_version), usando
+ * claves HMAC conocidas para poder comparar contra HS256 local. rotate
+ * añade una versión como POST /v1/{mount}/keys/{key}/rotate.
+ */
+public class LocalTransitServer implements AutoCloseable {
+
+    private final HttpServer server;
+    // Versión n en la posición n - 1
+    private final List<byte[]> keys = new CopyOnWriteArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger entries = new AtomicInteger();
+
+    public LocalTransitServer(byte[] key) throws IOException {
+        this.keys.add(key.clone());
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/v1/", this::handle);
+        this.server.setExecutor(Executors.newFixedThreadPool(4));
+        this.server.start();
+    }
+
+    public String getUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Añade una versión de la clave y la devuelve
+     */
+    public int rotate(byte[] key) {
+        keys.add(key.clone());
+        return keys.size();
+    }
+
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    public int getEntryCount() {
+        return entries.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        if ("GET".equals(exchange.getRequestMethod()) && path.contains("/keys/")) {
+            respond(exchange, 200, "{\"data\":{\"latest_version\":" + keys.size() + "}}");
+            return;
+        }
+        if (!"POST".equals(exchange.getRequestMethod()) || !path.contains("/hmac/")) {
+            respond(exchange, 404, "{\"errors\":[\"unsupported path\"]}");
+            return;
+        }
+
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        int version = request.path("key_version").asInt(0);
+        if (version == 0) {
+            version = keys.size();
+        }
+        JsonNode batch = request.path("batch_input");
+        StringBuilder body = new StringBuilder("{\"data\":{\"batch_results\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            entries.incrementAndGet();
+            byte[] input = Base64.getDecoder().decode(batch.get(i).path("input").asText());
+            if (i > 0) {
+                body.append(',');
+            }
+            if (version > keys.size()) {
+                body.append("{\"error\":\"invalid key version\"}");
+                continue;
+            }
+            body.append("{\"hmac\":\"vault:v").append(version).append(':')
+                    .append(Base64.getEncoder().encodeToString(hmac(keys.get(version - 1), input))).append("\"}");
+        }
+        body.append("]}}");
+        respond(exchange, 200, body.toString());
+    }
+
+    private static byte[] hmac(byte[] key, byte[] input) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(input);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.zerotrust.support;
+
+import com.example.zerotrust.policy.Effect;
+import com.example.zerotrust.policy.Obligation;
+import com.example.zerotrust.policy.Operator;
+import com.example.zerotrust.policy.PolicyBundle;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bundles de políticas para tests y benchmarks
+ */
+public final class PolicyFixtures {
+
+    private static final String[] ACTIONS = {"read", "write", "delete", "share", "export"};
+
+    private PolicyFixtures() {
+    }
+
+    public static PolicyBundle read(String json) {
+        try {
+            return PolicyBundle.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Bundle multi-tenant con el número de reglas indicado
+     *
+     * Dos reglas globales (deny por riesgo, allow de uso de token) y, por cada
+     * recurso "tenant-N/document", 10 reglas repartidas entre acciones y roles
+     * con condiciones de riesgo, CIDR y permisos. La primera regla de cada
+     * tenant concede read a AUDITOR con AUDIT_READ, riesgo &lt;= 0.5 y IP en 10.0.0.0/8.
+     */
+    public static PolicyBundle tenantBundle(int ruleCount) {
+        List<PolicyBundle.Rule> rules = new ArrayList<>(ruleCount);
+        rules.add(new PolicyBundle.Rule("deny-high-risk", Effect.DENY, 100, Set.of(), Set.of(), Set.of(),
+                List.of(new PolicyBundle.Condition("context.riskScore", Operator.GT, 0.9)), List.of()));
+        rules.add(new PolicyBundle.Rule("allow-token-use", Effect.ALLOW, 0, Set.of("token"), Set.of("access", "refresh"),
+                Set.of(), List.of(), List.of()));
+        for (int i = 0; rules.size() < ruleCount; i++) {
+            int tenant = i / 10;
+            int slot = i % 10;
+            String resource = "tenant-" + tenant + "/document";
+            String action = ACTIONS[slot % ACTIONS.length];
+            if (slot == 0) {
+                rules.add(new PolicyBundle.Rule(resource + "/allow-auditor", Effect.ALLOW, 0, Set.of(resource),
+                        Set.of("read"), Set.of("AUDITOR"),
+                        List.of(new PolicyBundle.Condition("subject.permissions", Operator.CONTAINS, "AUDIT_READ"),
+                                new PolicyBundle.Condition("context.riskScore", Operator.LTE, 0.5),
+                                new PolicyBundle.Condition("context.ipAddress", Operator.CIDR, List.of("10.0.0.0/8"))),
+                        List.of(new Obligation("audit", Map.of()))));
+            } else if (slot < 4) {
+                rules.add(new PolicyBundle.Rule(resource + "/deny-" + slot, Effect.DENY, 50, Set.of(resource),
+                        Set.of(action), Set.of(),
+                        List.of(new PolicyBundle.Condition("context.ipAddress", Operator.CIDR, "192.168." + slot + ".0/24")),
+                        List.of()));
+            } else {
+                rules.add(new PolicyBundle.Rule(resource + "/allow-" + slot, Effect.ALLOW, 10, Set.of(resource),
+                        Set.of(action), Set.of(slot % 2 == 0 ? "ADMIN" : "EDITOR"),
+                        List.of(new PolicyBundle.Condition("context.riskScore", Operator.LTE, 0.7)), List.of()));
+            }
+        }
+        return new PolicyBundle("tenants-" + ruleCount, rules);
+    }
+}
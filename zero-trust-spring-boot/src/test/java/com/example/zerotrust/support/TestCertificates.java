@@ -0,0 +1,41 @@
+package com.example.zerotrust.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+
+/**
+ * Certificados cliente autofirmados de src/test/resources/certs
+ *
+ * - orders-service.crt: CN=orders, SAN URI spiffe://zerotrust/orders y DNS orders.internal
+ * - billing-service.crt: CN=billing, sin SAN
+ */
+public final class TestCertificates {
+
+    private TestCertificates() {
+    }
+
+    public static X509Certificate orders() {
+        return load("/certs/orders-service.crt");
+    }
+
+    public static X509Certificate billing() {
+        return load("/certs/billing-service.crt");
+    }
+
+    private static X509Certificate load(String resource) {
+        try (InputStream in = TestCertificates.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing test certificate " + resource);
+            }
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CertificateException e) {
+            throw new IllegalStateException("Invalid test certificate " + resource, e);
+        }
+    }
+}
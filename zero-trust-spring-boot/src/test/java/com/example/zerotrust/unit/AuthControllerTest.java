@@ -0,0 +1,187 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.controller.AuthController;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de AuthController con un JwtService real
+ */
+class AuthControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        JwtService jwtService = JwtTestFixtures.jwtService();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("users", new InMemoryUserDetailsManager(User.withUsername("alice")
+                .password("{noop}s3cret")
+                .authorities("ROLE_USER", "READ")
+                .build()));
+        meterRegistry = new SimpleMeterRegistry();
+        controller = new AuthController(jwtService, JwtTestFixtures.jwtProperties(),
+                beans.getBeanProvider(UserDetailsService.class),
+                beans.getBeanProvider(SecurityProperties.class),
+                objectMapper, meterRegistry);
+    }
+
+    @Test
+    void loginShouldReturnTokenPairWithoutCaching() throws Exception {
+        // When
+        MockHttpServletResponse response = login("alice", "s3cret");
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals("no-store", response.getHeader("Cache-Control"));
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertTrue(body.path("accessToken").asText().length() > 20);
+        assertTrue(body.path("refreshToken").asText().length() > 20);
+        assertEquals("Bearer", body.path("tokenType").asText());
+        assertEquals(900, body.path("expiresIn").asLong());
+        assertEquals(1, meterRegistry.get("zerotrust.auth.requests")
+                .tag("endpoint", "login").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void wrongPasswordShouldReturnCachedErrorBody() throws Exception {
+        // When
+        MockHttpServletResponse response = login("alice", "wrong");
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertEquals("{\"error\":\"invalid_grant\"}", response.getContentAsString());
+        assertEquals(1, meterRegistry.get("zerotrust.auth.requests")
+                .tag("endpoint", "login").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void malformedBodyShouldBeRejected() throws Exception {
+        // Given
+        MockHttpServletRequest request = jsonRequest("/auth/login", "[1,2");
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.login(request, response);
+
+        // Then
+        assertEquals(400, response.getStatus());
+        assertEquals("{\"error\":\"invalid_request\"}", response.getContentAsString());
+    }
+
+    @Test
+    void validateShouldReturnClaimsOfBearerToken() throws Exception {
+        // Given
+        String accessToken = tokens().path("accessToken").asText();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/validate");
+        request.addHeader("Authorization", "Bearer " + accessToken);
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.validate(request, response);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        JsonNode claims = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals("alice", claims.path("subject").asText());
+        assertEquals("USER", claims.path("roles").get(0).asText());
+        assertEquals("READ", claims.path("permissions").get(0).asText());
+        assertEquals("access", claims.path("tokenType").asText());
+    }
+
+    @Test
+    void refreshShouldRotateTokens() throws Exception {
+        // Given
+        String refreshToken = tokens().path("refreshToken").asText();
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.refresh(jsonRequest("/auth/refresh", "{\"refreshToken\":\"" + refreshToken + "\"}"), response);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertNotEquals(refreshToken, body.path("refreshToken").asText());
+
+        MockHttpServletResponse reuse = new MockHttpServletResponse();
+        controller.refresh(jsonRequest("/auth/refresh", "{\"refreshToken\":\"" + refreshToken + "\"}"), reuse);
+        assertEquals(400, reuse.getStatus());
+        assertEquals("{\"error\":\"invalid_grant\"}", reuse.getContentAsString());
+    }
+
+    @Test
+    void revokedTokenShouldNoLongerValidate() throws Exception {
+        // Given
+        String accessToken = tokens().path("accessToken").asText();
+
+        // When
+        MockHttpServletResponse revoke = new MockHttpServletResponse();
+        controller.revoke(jsonRequest("/auth/revoke", "{\"token\":\"" + accessToken + "\"}"), revoke, "logout");
+
+        // Then
+        assertEquals(204, revoke.getStatus());
+        MockHttpServletRequest validate = new MockHttpServletRequest("POST", "/auth/validate");
+        validate.addHeader("Authorization", "Bearer " + accessToken);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.validate(validate, response);
+        assertEquals(401, response.getStatus());
+        assertEquals("Bearer error=\"invalid_token\"", response.getHeader("WWW-Authenticate"));
+    }
+
+    @Test
+    void invalidTokenRevocationShouldNotAffectValidTokens() throws Exception {
+        // Given: basura con el mismo final que un token válido
+        String accessToken = tokens().path("accessToken").asText();
+        String forged = "forged." + accessToken.substring(accessToken.length() - 16);
+
+        // When: /auth/revoke es público
+        MockHttpServletResponse revoke = new MockHttpServletResponse();
+        controller.revoke(jsonRequest("/auth/revoke", "{\"token\":\"" + forged + "\"}"), revoke, "logout");
+
+        // Then: responde igual pero no guarda nada
+        assertEquals(204, revoke.getStatus());
+        MockHttpServletRequest validate = new MockHttpServletRequest("POST", "/auth/validate");
+        validate.addHeader("Authorization", "Bearer " + accessToken);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.validate(validate, response);
+        assertEquals(200, response.getStatus());
+    }
+
+    private JsonNode tokens() throws Exception {
+        return objectMapper.readTree(login("alice", "s3cret").getContentAsByteArray());
+    }
+
+    private MockHttpServletResponse login(String username, String password) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.login(jsonRequest("/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\",\"deviceId\":\"laptop\"}"),
+                response);
+        return response;
+    }
+
+    private static MockHttpServletRequest jsonRequest(String uri, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.security.AuthoritySet;
+import com.example.zerotrust.security.AuthoritySetCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de AuthoritySetCache: canonicalización e interning
+ */
+class AuthoritySetCacheTest {
+
+    private AuthoritySetCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthoritySetCache(64, 4096);
+    }
+
+    @Test
+    void sameCombinationInAnyOrderShouldReturnSharedInstance() {
+        // When
+        AuthoritySet first = cache.resolve(List.of("USER", "ADMIN"), List.of("READ", "WRITE"));
+        AuthoritySet second = cache.resolve(List.of("ADMIN", "USER"), List.of("WRITE", "READ"));
+
+        // Then
+        assertSame(first, second);
+    }
+
+    @Test
+    void differentCombinationsShouldNotBeConfused() {
+        // When
+        AuthoritySet user = cache.resolve(List.of("USER"), List.of("READ"));
+        AuthoritySet admin = cache.resolve(List.of("ADMIN"), List.of("READ"));
+        // Mismo string como rol y como permiso no deben colisionar
+        AuthoritySet swapped = cache.resolve(List.of("READ"), List.of("USER"));
+
+        // Then
+        assertNotSame(user, admin);
+        assertNotSame(user, swapped);
+        assertTrue(user.hasRole("USER"));
+        assertFalse(admin.hasRole("USER"));
+        assertTrue(swapped.hasAuthority("USER"));
+        assertFalse(swapped.hasRole("USER"));
+    }
+
+    @Test
+    void authoritiesShouldBeInternedAcrossSets() {
+        // When
+        AuthoritySet a = cache.resolve(List.of("USER"), List.of("READ"));
+        AuthoritySet b = cache.resolve(List.of("ADMIN"), List.of("READ"));
+
+        // Then
+        GrantedAuthority readFromA = a.stream().filter(g -> g.getAuthority().equals("READ")).findFirst().orElseThrow();
+        GrantedAuthority readFromB = b.stream().filter(g -> g.getAuthority().equals("READ")).findFirst().orElseThrow();
+        assertSame(readFromA, readFromB);
+    }
+
+    @Test
+    void bitsetChecksShouldMatchCollectionView() {
+        // When
+        AuthoritySet set = cache.resolve(List.of("USER", "AUDITOR"), List.of("READ", "AUDIT_READ"));
+
+        // Then
+        Set<String> names = set.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_USER", "ROLE_AUDITOR", "READ", "AUDIT_READ"), names);
+        assertTrue(set.hasAuthority("ROLE_USER"));
+        assertTrue(set.hasRole("ROLE_AUDITOR"));
+        assertTrue(set.hasAnyAuthority("DELETE", "READ"));
+        assertFalse(set.hasAuthority("WRITE"));
+        assertFalse(set.hasAuthority("UNKNOWN_AUTHORITY"));
+        assertTrue(set.testBit(cache.indexOf("AUDIT_READ")));
+    }
+
+    @Test
+    void emptyClaimsShouldResolveToEmptySet() {
+        // When
+        AuthoritySet set = cache.resolve(null, List.of());
+
+        // Then
+        assertTrue(set.isEmpty());
+        assertFalse(set.hasAuthority("READ"));
+    }
+
+    @Test
+    void setsShouldBeImmutable() {
+        // Given
+        AuthoritySet set = cache.resolve(List.of("USER"), List.of("READ"));
+
+        // Then
+        assertThrows(UnsupportedOperationException.class, set::clear);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.health.CachedHealthIndicator;
+import com.example.zerotrust.health.DependencyCheck;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test del indicador cacheado: resultado servido sin ejecutar la comprobación,
+ * timeout y circuito
+ */
+class CachedHealthIndicatorTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void healthShouldServeCachedResultWithoutRunningCheck() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CachedHealthIndicator indicator = indicator(() -> {
+            calls.incrementAndGet();
+            return Map.of("store", "test");
+        }, Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+        // When
+        Health before = indicator.health();
+        indicator.refresh().join();
+        Health after = indicator.health();
+        indicator.health();
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, before.getStatus());
+        assertEquals(Status.UP, after.getStatus());
+        assertEquals("test", after.getDetails().get("store"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void slowCheckShouldTimeOutAndKeepOneInFlight() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        CachedHealthIndicator indicator = indicator(() -> {
+            calls.incrementAndGet();
+            release.await();
+            return Map.of();
+        }, Duration.ofMillis(50), Duration.ofSeconds(30));
+
+        // When
+        Health timedOut = indicator.refresh().join();
+
+        // Then
+        assertEquals(Status.DOWN, timedOut.getStatus());
+        assertTrue(timedOut.getDetails().get("error").toString().contains("Timeout"));
+        release.countDown();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void circuitShouldOpenAfterThresholdAndSkipChecks() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        CachedHealthIndicator indicator = indicator(() -> {
+            calls.incrementAndGet();
+            if (failing.get()) {
+                throw new IllegalStateException("vault sealed");
+            }
+            return Map.of();
+        }, Duration.ofSeconds(1), Duration.ofMillis(100));
+
+        // When: tres fallos abren el circuito
+        for (int i = 0; i < 3; i++) {
+            indicator.refresh().join();
+        }
+        Health open = indicator.refresh().join();
+
+        // Then
+        assertEquals(Status.DOWN, open.getStatus());
+        assertEquals("open", open.getDetails().get("circuit"));
+        assertEquals(3, calls.get(), "Open circuit must not run the check");
+        assertTrue(open.getDetails().get("error").toString().contains("vault sealed"));
+    }
+
+    @Test
+    void halfOpenSuccessShouldCloseCircuit() throws Exception {
+        // Given
+        AtomicBoolean failing = new AtomicBoolean(true);
+        CachedHealthIndicator indicator = indicator(() -> {
+            if (failing.get()) {
+                throw new IllegalStateException("down");
+            }
+            return Map.of();
+        }, Duration.ofSeconds(1), Duration.ofMillis(20));
+        for (int i = 0; i < 3; i++) {
+            indicator.refresh().join();
+        }
+
+        // When
+        failing.set(false);
+        Thread.sleep(40);
+        Health recovered = indicator.refresh().join();
+
+        // Then
+        assertEquals(Status.UP, recovered.getStatus());
+        assertEquals("closed", recovered.getDetails().get("circuit"));
+    }
+
+    @Test
+    void concurrentFailuresShouldAllBeCounted() throws Exception {
+        // Given: una comprobación colgada y varios refrescos que la encuentran en curso
+        CountDownLatch release = new CountDownLatch(1);
+        CachedHealthIndicator indicator = new CachedHealthIndicator("test", () -> {
+            release.await();
+            throw new IllegalStateException("down");
+        }, Duration.ofSeconds(10), Duration.ofSeconds(5), 100, Duration.ofSeconds(30), executor);
+        CompletableFuture<Health> inFlight = indicator.refresh();
+
+        // When
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<CompletableFuture<Void>> refreshes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            refreshes.add(CompletableFuture.runAsync(() -> {
+                try {
+                    startGate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                indicator.refresh().join();
+            }, executor));
+        }
+        startGate.countDown();
+        refreshes.forEach(CompletableFuture::join);
+        release.countDown();
+        Health last = inFlight.join();
+
+        // Then: ningún fallo se pierde al publicar el estado
+        assertEquals(Status.DOWN, last.getStatus());
+        assertEquals(9, indicator.health().getDetails().get("consecutiveFailures"));
+        assertEquals("closed", indicator.health().getDetails().get("circuit"));
+    }
+
+    private CachedHealthIndicator indicator(DependencyCheck check, Duration timeout, Duration openDuration) {
+        return new CachedHealthIndicator("test", check, Duration.ofSeconds(10), timeout, 3, openDuration, executor);
+    }
+}
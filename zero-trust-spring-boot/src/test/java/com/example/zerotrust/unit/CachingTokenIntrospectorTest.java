@@ -0,0 +1,127 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.client.CachingTokenIntrospector;
+import com.example.zerotrust.client.IntrospectionResult;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.example.zerotrust.support.LocalIntrospectionServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test del cliente de introspección contra un servidor local con JwtService real
+ */
+class CachingTokenIntrospectorTest {
+
+    private JwtService jwtService;
+    private LocalIntrospectionServer server;
+    private CachingTokenIntrospector introspector;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtService = JwtTestFixtures.jwtService();
+        server = new LocalIntrospectionServer(jwtService);
+        introspector = new CachingTokenIntrospector(server.getUri(), () -> "service-token",
+                Duration.ofSeconds(30), 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void repeatedIntrospectionShouldCallServerOnce() {
+        // Given
+        String token = accessToken("user-1");
+
+        // When
+        OAuth2AuthenticatedPrincipal first = introspector.introspect(token);
+        OAuth2AuthenticatedPrincipal second = introspector.introspect(token);
+
+        // Then
+        assertEquals("user-1", first.getName());
+        assertEquals("user-1", second.getName());
+        assertTrue(first.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_AUDITOR")));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void concurrentIntrospectionsShouldShareOneCall() {
+        // Given
+        String token = accessToken("user-2");
+
+        // When
+        CompletableFuture<IntrospectionResult> a = introspector.introspectAsync(token);
+        CompletableFuture<IntrospectionResult> b = introspector.introspectAsync(token);
+
+        // Then
+        assertTrue(a.join().active());
+        assertSame(a.join(), b.join());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void batchShouldOnlyRequestMissingTokens() {
+        // Given
+        String cached = accessToken("user-3");
+        introspector.introspect(cached);
+        String second = accessToken("user-4");
+        String third = accessToken("user-5");
+
+        // When
+        Map<String, IntrospectionResult> results = introspector.introspectAll(List.of(cached, second, third)).join();
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals("user-4", results.get(second).subject());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(3, server.getTokenCount(), "Cached token must not be re-sent");
+    }
+
+    @Test
+    void batchLargerThanServerLimitShouldBeSplit() {
+        // Given: 250 tokens con el límite del servidor en 100
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            tokens.add(accessToken("bulk-" + i));
+        }
+
+        // When
+        Map<String, IntrospectionResult> results = introspector.introspectAll(tokens).join();
+
+        // Then: 100 + 100 + 50
+        assertEquals(250, results.size());
+        assertTrue(results.values().stream().allMatch(IntrospectionResult::active));
+        assertEquals("bulk-249", results.get(tokens.get(249)).subject());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(250, server.getTokenCount());
+    }
+
+    @Test
+    void inactiveTokenShouldBeRejectedAndCached() {
+        // Given
+        String token = accessToken("user-6");
+        jwtService.revokeToken(token, "test");
+
+        // When / Then
+        assertThrows(BadOpaqueTokenException.class, () -> introspector.introspect(token));
+        assertThrows(BadOpaqueTokenException.class, () -> introspector.introspect(token));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private String accessToken(String subject) {
+        return jwtService.generateTokenPair(JwtTestFixtures.userClaims(subject)).getAccessToken();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.CapabilityProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.security.AuthorityChecks;
+import com.example.zerotrust.security.AuthoritySetCache;
+import com.example.zerotrust.security.CapabilityBitmap;
+import com.example.zerotrust.security.PermissionRegistry;
+import com.example.zerotrust.security.ZeroTrustAuthentication;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test del claim de capacidades: bitmap en el token, versiones del registro y comprobaciones por bits
+ */
+class CapabilityClaimTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PermissionRegistry registry = new PermissionRegistry(new CapabilityProperties());
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenShouldCarryBitmapInsteadOfNameLists() throws Exception {
+        // Given
+        JwtService jwtService = JwtTestFixtures.builder().permissionRegistry(registry).build();
+
+        // When
+        String accessToken = jwtService.generateTokenPair(JwtTestFixtures.userClaims("alice")).getAccessToken();
+        JsonNode payload = payload(accessToken);
+        JwtClaims claims = jwtService.validateAndParseToken(accessToken);
+
+        // Then
+        assertTrue(payload.hasNonNull(PermissionRegistry.CAPABILITIES_CLAIM));
+        assertEquals(1, payload.path(PermissionRegistry.VERSION_CLAIM).asInt());
+        assertFalse(payload.has("roles"));
+        assertFalse(payload.has("permissions"));
+        assertEquals(List.of("USER", "AUDITOR"), claims.getRoles());
+        assertEquals(List.of("READ", "WRITE", "AUDIT_READ"), claims.getPermissions());
+        assertTrue(CapabilityBitmap.containsAll(claims.getCapabilities(), registry.mask("ROLE_AUDITOR", "AUDIT_READ")));
+        assertFalse(CapabilityBitmap.containsAll(claims.getCapabilities(), registry.mask("READ", "DELETE")));
+    }
+
+    @Test
+    void unregisteredNamesShouldStayAsLists() throws Exception {
+        // Given
+        JwtService jwtService = JwtTestFixtures.builder().permissionRegistry(registry).build();
+        JwtClaims user = JwtTestFixtures.userClaims("bob");
+        user.setRoles(List.of("USER", "CONTRACTOR"));
+        user.setPermissions(List.of("READ", "EXPORT"));
+
+        // When
+        String accessToken = jwtService.generateTokenPair(user).getAccessToken();
+        JsonNode payload = payload(accessToken);
+        JwtClaims claims = jwtService.validateAndParseToken(accessToken);
+
+        // Then
+        assertEquals("CONTRACTOR", payload.path("roles").get(0).asText());
+        assertEquals(1, payload.path("roles").size());
+        assertEquals("EXPORT", payload.path("permissions").get(0).asText());
+        assertEquals(List.of("USER", "CONTRACTOR"), claims.getRoles());
+        assertEquals(List.of("READ", "EXPORT"), claims.getPermissions());
+    }
+
+    @Test
+    void tokenFromUnknownRegistryVersionShouldBeRejected() {
+        // Given: otra instancia ya emite con la versión 2 (añade EXPORT)
+        CapabilityProperties next = new CapabilityProperties();
+        Map<Integer, List<String>> versions = new HashMap<>(next.getVersions());
+        List<String> v2 = new ArrayList<>(versions.get(1));
+        v2.add("EXPORT");
+        versions.put(2, v2);
+        next.setVersions(versions);
+        next.setCurrentVersion(2);
+        JwtClaims user = JwtTestFixtures.userClaims("carol");
+        user.setPermissions(List.of("READ", "EXPORT"));
+        String accessToken = JwtTestFixtures.builder().permissionRegistry(new PermissionRegistry(next)).build()
+                .generateTokenPair(user).getAccessToken();
+
+        // When / Then: quien solo conoce la versión 1 no lo interpreta, y sin registro tampoco
+        JwtException unknownVersion = assertThrows(JwtException.class,
+                () -> JwtTestFixtures.builder().permissionRegistry(registry).build().validateAndParseToken(accessToken));
+        assertTrue(unknownVersion.getMessage().contains("version"));
+        assertThrows(JwtException.class, () -> JwtTestFixtures.jwtService().validateAndParseToken(accessToken));
+    }
+
+    @Test
+    void registryVersionsShouldOnlyAppend() {
+        // Given
+        CapabilityProperties reordered = new CapabilityProperties();
+        Map<Integer, List<String>> versions = new HashMap<>(reordered.getVersions());
+        versions.put(2, List.of("READ", "ROLE_USER"));
+        reordered.setVersions(versions);
+        reordered.setCurrentVersion(2);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> new PermissionRegistry(reordered));
+    }
+
+    @Test
+    void authorityChecksShouldTestTokenBits() {
+        // Given
+        JwtService jwtService = JwtTestFixtures.builder().permissionRegistry(registry).build();
+        JwtClaims claims = jwtService.validateAndParseToken(
+                jwtService.generateTokenPair(JwtTestFixtures.userClaims("dave")).getAccessToken());
+        SecurityContextHolder.getContext().setAuthentication(new ZeroTrustAuthentication(claims,
+                new AuthoritySetCache(64, 4096).resolve(claims.getRoles(), claims.getPermissions())));
+        AuthorityChecks checks = new AuthorityChecks(registry);
+
+        // When / Then
+        assertTrue(checks.hasAllAuthorities("READ", "WRITE", "ROLE_AUDITOR"));
+        assertFalse(checks.hasAllAuthorities("READ", "DELETE"));
+        assertTrue(checks.hasRole("AUDITOR"));
+        assertFalse(checks.hasRole("ADMIN"));
+        assertFalse(checks.hasAuthority("INTROSPECT"));
+    }
+
+    private JsonNode payload(String token) throws Exception {
+        return objectMapper.readTree(Base64.getUrlDecoder().decode(token.split("\\.")[1]));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.TlsProperties;
+import com.example.zerotrust.security.AuthoritySetCache;
+import com.example.zerotrust.security.ClientCertificateAuthentication;
+import com.example.zerotrust.security.ClientCertificateAuthenticationFilter;
+import com.example.zerotrust.security.ClientCertificateIdentity;
+import com.example.zerotrust.security.ClientCertificateIdentityCache;
+import com.example.zerotrust.support.TestCertificates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de la autenticación mTLS y de la cache de identidades por huella
+ */
+class ClientCertificateAuthenticationFilterTest {
+
+    private ClientCertificateIdentityCache identityCache;
+    private ClientCertificateAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        TlsProperties properties = new TlsProperties();
+        TlsProperties.Service orders = new TlsProperties.Service();
+        orders.setPermissions(List.of("READ", "INTROSPECT"));
+        properties.getServices().put("spiffe://zerotrust/orders", orders);
+
+        identityCache = new ClientCertificateIdentityCache(properties, new AuthoritySetCache(1024, 4096));
+        filter = new ClientCertificateAuthenticationFilter(identityCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void configuredServiceShouldBeAuthenticated() throws Exception {
+        // Given
+        MockHttpServletRequest request = requestWith(TestCertificates.orders());
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertInstanceOf(ClientCertificateAuthentication.class, authentication);
+        assertEquals("spiffe://zerotrust/orders", authentication.getName());
+        Set<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_SERVICE", "READ", "INTROSPECT"), authorities);
+    }
+
+    @Test
+    void repeatedConnectionsShouldReuseCachedIdentity() throws Exception {
+        // Given
+        MockHttpServletRequest first = requestWith(TestCertificates.orders());
+        MockHttpServletRequest second = requestWith(TestCertificates.orders());
+
+        // When
+        filter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(second, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Object identity = first.getAttribute(ClientCertificateAuthenticationFilter.IDENTITY_ATTRIBUTE);
+        assertNotNull(identity);
+        assertSame(identity, second.getAttribute(ClientCertificateAuthenticationFilter.IDENTITY_ATTRIBUTE));
+        assertEquals(1, identityCache.size());
+    }
+
+    @Test
+    void unknownServiceShouldNotBeAuthenticated() throws Exception {
+        // Given
+        MockHttpServletRequest request = requestWith(TestCertificates.billing());
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        ClientCertificateIdentity identity = (ClientCertificateIdentity)
+                request.getAttribute(ClientCertificateAuthenticationFilter.IDENTITY_ATTRIBUTE);
+        assertEquals("billing", identity.serviceName(), "CN is used when there is no SAN");
+        assertFalse(identity.isAuthorized());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void requestWithoutCertificateShouldPassThrough() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(0, identityCache.size());
+    }
+
+    private static MockHttpServletRequest requestWith(X509Certificate certificate) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.setAttribute(ClientCertificateAuthenticationFilter.CERTIFICATE_ATTRIBUTE,
+                new X509Certificate[]{certificate});
+        return request;
+    }
+}
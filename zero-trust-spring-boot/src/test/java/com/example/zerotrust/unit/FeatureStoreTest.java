@@ -0,0 +1,116 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.RiskProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.risk.FeatureStore;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.RiskEvent;
+import com.example.zerotrust.support.JwtTestFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test del feature store: cardinalidades HyperLogLog por ventana y frecuencias count-min con decaimiento
+ */
+class FeatureStoreTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(Instant.parse("2026-01-05T10:00:00Z").toEpochMilli());
+
+    @Test
+    void distinctIpsShouldBeExactForSmallCountsAndCloseForLargeOnes() {
+        // Given
+        RiskProperties properties = new RiskProperties();
+        properties.getFeatures().setPrecision(12);
+        FeatureStore store = store(properties);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            store.record(event("alice", "10.0.0." + i, "laptop", "s-1", "/api/data"));
+            store.record(event("alice", "10.0.0." + i, "laptop", "s-1", "/api/data"));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            store.record(event("bot", "10." + (i >> 16) + "." + (i >> 8 & 255) + "." + (i & 255), null, null, "/auth/login"));
+        }
+
+        // Then: error típico 1.04 / sqrt(4096) = 1.6%
+        assertEquals(3, store.distinctIps("alice"));
+        assertEquals(20_000, store.distinctIps("bot"), 20_000 * 0.05);
+        assertEquals(0, store.distinctIps("carol"));
+    }
+
+    @Test
+    void distinctCountsShouldRollOverWithTheWindow() {
+        // Given
+        FeatureStore store = store(new RiskProperties());
+        for (int i = 0; i < 10; i++) {
+            store.record(event("alice", "10.0.1." + i, "device-" + i, "s-1", "/api/data"));
+        }
+
+        // When: una hora después, en tramos nuevos
+        now.addAndGet(Duration.ofMinutes(75).toMillis());
+        long expiredIps = store.distinctIps("alice");
+        store.record(event("alice", "10.0.2.1", "device-0", "s-1", "/api/data"));
+
+        // Then
+        assertEquals(0, expiredIps);
+        assertEquals(1, store.distinctIps("alice"));
+        assertEquals(1, store.distinctDevices("s-1"));
+    }
+
+    @Test
+    void endpointFrequencyShouldDecayByHalfLife() {
+        // Given
+        FeatureStore store = store(new RiskProperties());
+        for (int i = 0; i < 100; i++) {
+            store.record(event("alice", "10.0.0.1", "laptop", "s-1", "/api/data"));
+        }
+        store.record(event("alice", "10.0.0.1", "laptop", "s-1", "/api/admin"));
+
+        // When
+        long fresh = store.endpointRequests("alice", "/api/data");
+        now.addAndGet(Duration.ofMinutes(20).toMillis());
+
+        // Then: nunca por debajo del real; dos vidas medias -> 1/4
+        assertTrue(fresh >= 100 && fresh <= 101, "estimate " + fresh);
+        assertTrue(store.endpointRequests("alice", "/api/admin") <= 1);
+        assertEquals(25, store.endpointRequests("alice", "/api/data"), 1);
+        assertEquals(0, store.endpointRequests("bob", "/api/data"));
+    }
+
+    @Test
+    void secondDeviceInSessionShouldRaiseRisk() {
+        // Given
+        RiskProperties properties = new RiskProperties();
+        FeatureStore store = store(properties);
+        RiskEngine engine = new RiskEngine(properties, store, registry, now::get);
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+        claims.setSessionId("s-1");
+
+        // When: mismo dispositivo en dos sesiones y un segundo dispositivo en s-1
+        engine.record(event("alice", "10.0.0.1", "laptop", "s-1", "/api/data"));
+        engine.record(event("alice", "10.0.0.1", "laptop", "s-2", "/api/data"));
+        double single = engine.score("alice");
+        engine.record(event("alice", "10.0.0.1", "phone", "s-1", "/api/data"));
+
+        // Then: 0.1 + 0.2 / 3 (cambio de dispositivo) + 0.2 (segundo dispositivo en la sesión)
+        assertEquals(0.1, single);
+        assertEquals(new FeatureStore.Features(1, 2), store.features(claims));
+        assertEquals(0.37, engine.score("alice"));
+    }
+
+    private FeatureStore store(RiskProperties properties) {
+        return new FeatureStore(properties, registry, now::get);
+    }
+
+    private RiskEvent event(String subject, String ip, String device, String session, String endpoint) {
+        return new RiskEvent(subject, ip, device, session, endpoint, RiskEvent.Outcome.SUCCESS,
+                Instant.ofEpochMilli(now.get()));
+    }
+}
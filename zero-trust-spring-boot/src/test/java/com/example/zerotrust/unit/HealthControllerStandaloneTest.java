@@ -1,12 +1,20 @@
 package com.example.zerotrust.unit;
 
 import com.example.zerotrust.controller.HealthController;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -18,10 +26,15 @@ class HealthControllerStandaloneTest {
 
     private MockMvc mockMvc;
     private HealthController healthController;
+    private MutableClock clock;
 
     @BeforeEach
     void setUp() {
-        healthController = new HealthController();
+        clock = new MutableClock(Instant.parse("2025-06-07T10:15:30Z"));
+        // Fechas en ISO-8601 como con Spring Boot, que desactiva WRITE_DATES_AS_TIMESTAMPS
+        healthController = new HealthController(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build(), clock);
 
         // Simular la inyección de @Value
         ReflectionTestUtils.setField(healthController, "activeProfiles", "test");
@@ -59,7 +72,60 @@ class HealthControllerStandaloneTest {
     void healthEndpointShouldReturnValidTimestamp() throws Exception {
         mockMvc.perform(get("/api/health"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.timestamp").exists())
-                .andExpect(jsonPath("$.timestamp").isNumber()); // Cambio: es un número, no string
+                .andExpect(jsonPath("$.timestamp").value("2025-06-07T10:15:30Z"));
+    }
+
+    @Test
+    void infoEndpointShouldAnswer304ForMatchingEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/info"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/info").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void healthEtagShouldNotDependOnTimestamp() throws Exception {
+        String etag = mockMvc.perform(get("/api/health"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        clock.advance(Duration.ofMinutes(1));
+
+        mockMvc.perform(get("/api/health"))
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$.timestamp").value("2025-06-07T10:16:30Z"));
+        mockMvc.perform(get("/api/health").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.example.zerotrust.unit;
 
 import com.example.zerotrust.controller.HealthController;
 import org.junit.jupiter.api.BeforeEach;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -21,7 +22,7 @@ class HealthControllerUnitTest {
 
     @BeforeEach
     void setUp() {
-        healthController = new HealthController();
+        healthController = new HealthController(new ObjectMapper());
         // Simular la inyección de la propiedad @Value
         ReflectionTestUtils.setField(healthController, "activeProfiles", "test");
     }
@@ -0,0 +1,157 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.CapabilityProperties;
+import com.example.zerotrust.config.IntrospectionProperties;
+import com.example.zerotrust.controller.IntrospectionController;
+import com.example.zerotrust.security.AuthorityChecks;
+import com.example.zerotrust.security.PermissionRegistry;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test de IntrospectionController (RFC 7662) con MockMvc y un JwtService real
+ */
+class IntrospectionControllerTest {
+
+    private JwtService jwtService;
+    private IntrospectionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = JwtTestFixtures.jwtService();
+        properties = new IntrospectionProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void callerWithoutIntrospectAuthorityShouldBeForbidden() throws Exception {
+        // Given
+        authenticate("READ");
+        MockMvc mockMvc = mockMvc();
+
+        // Then
+        mockMvc.perform(post("/oauth2/introspect")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", accessToken("user-1")))
+                .andExpect(status().isForbidden())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(content().string(""));
+        mockMvc.perform(post("/oauth2/introspect/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[\"" + accessToken("user-1") + "\"]}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void activeTokenShouldBeCacheableUntilTheRevocationCheck() throws Exception {
+        // Given
+        authenticate("INTROSPECT");
+
+        // Then
+        mockMvc().perform(post("/oauth2/introspect")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", accessToken("user-1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.sub").value("user-1"))
+                .andExpect(jsonPath("$.token_use").value("access"))
+                .andExpect(header().string("Cache-Control", "private, max-age=30"))
+                .andExpect(header().string("Vary", "Authorization"));
+    }
+
+    @Test
+    void maxAgeShouldNotOutliveTheToken() throws Exception {
+        // Given: intervalo de revocación mayor que la vida del token (15 min)
+        authenticate("INTROSPECT");
+        properties.setRevocationCheckInterval(Duration.ofHours(1));
+
+        // When
+        String cacheControl = mockMvc().perform(post("/oauth2/introspect")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", accessToken("user-1")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Cache-Control");
+
+        // Then
+        long maxAge = Long.parseLong(cacheControl.substring("private, max-age=".length()));
+        assertTrue(maxAge > 890 && maxAge <= 900, cacheControl);
+    }
+
+    @Test
+    void revokedAndInvalidTokensShouldBeInactive() throws Exception {
+        // Given
+        authenticate("INTROSPECT");
+        String revoked = accessToken("user-1");
+        jwtService.revokeToken(revoked, "logout");
+        MockMvc mockMvc = mockMvc();
+
+        // Then
+        for (String token : new String[]{revoked, "not-a-jwt"}) {
+            mockMvc.perform(post("/oauth2/introspect")
+                            .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                            .param("token", token))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json("{\"active\":false}", true))
+                    .andExpect(header().string("Cache-Control", "private, max-age=30"));
+        }
+    }
+
+    @Test
+    void batchShouldKeepOrderAndLimitSize() throws Exception {
+        // Given
+        authenticate("INTROSPECT");
+        properties.setMaxBatchSize(2);
+        MockMvc mockMvc = mockMvc();
+
+        // Then
+        mockMvc.perform(post("/oauth2/introspect/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[\"not-a-jwt\",\"" + accessToken("user-2") + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(false))
+                .andExpect(jsonPath("$.results[1].active").value(true))
+                .andExpect(jsonPath("$.results[1].sub").value("user-2"))
+                .andExpect(header().string("Cache-Control", "private, max-age=30"));
+        mockMvc.perform(post("/oauth2/introspect/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[\"a\",\"b\",\"c\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_request"));
+    }
+
+    private MockMvc mockMvc() {
+        AuthorityChecks authorityChecks = new AuthorityChecks(new PermissionRegistry(new CapabilityProperties()));
+        IntrospectionController controller = new IntrospectionController(jwtService, authorityChecks, properties,
+                JwtTestFixtures.jwtProperties(), new ObjectMapper());
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private String accessToken(String subject) {
+        return jwtService.generateTokenPair(JwtTestFixtures.userClaims(subject)).getAccessToken();
+    }
+
+    private static void authenticate(String... authorities) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "resource-server", null, AuthorityUtils.createAuthorityList(authorities)));
+    }
+}
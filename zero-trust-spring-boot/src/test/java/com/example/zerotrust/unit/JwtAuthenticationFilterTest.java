@@ -0,0 +1,187 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.security.AuthoritySetCache;
+import com.example.zerotrust.security.ClientCertificateAuthenticationFilter;
+import com.example.zerotrust.security.ClientCertificateIdentity;
+import com.example.zerotrust.security.ClientCertificateIdentityCache;
+import com.example.zerotrust.security.JwtAuthenticationFilter;
+import com.example.zerotrust.security.ZeroTrustAuthentication;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.example.zerotrust.support.TestCertificates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de JwtAuthenticationFilter con un JwtService real
+ */
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private TokenResponse tokens;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = JwtTestFixtures.jwtService();
+        filter = new JwtAuthenticationFilter(jwtService, JwtTestFixtures.jwtProperties(),
+                new AuthoritySetCache(1024, 4096));
+        tokens = jwtService.generateTokenPair(JwtTestFixtures.userClaims("user-1"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validAccessTokenShouldAuthenticateRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", "Bearer " + tokens.getAccessToken());
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(chain.getRequest(), "Chain should continue");
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertInstanceOf(ZeroTrustAuthentication.class, authentication);
+        assertEquals("user-1", authentication.getName());
+        assertTrue(authentication.isAuthenticated());
+
+        Set<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_USER", "ROLE_AUDITOR", "READ", "WRITE", "AUDIT_READ"), authorities);
+        assertInstanceOf(JwtClaims.class, request.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE));
+    }
+
+    @Test
+    void prefixShouldBeMatchedCaseInsensitively() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", "bearer " + tokens.getAccessToken());
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void missingHeaderShouldContinueUnauthenticated() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/health");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void invalidTokenShouldBeRejectedWith401() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", "Bearer not-a-jwt");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getHeader("WWW-Authenticate").contains("invalid_token"));
+        assertNull(chain.getRequest(), "Chain should stop");
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void refreshTokenShouldNotAuthenticateRequests() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", "Bearer " + tokens.getRefreshToken());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void certificateBoundTokenShouldRequireMatchingCertificate() throws Exception {
+        // Given
+        String thumbprint = ClientCertificateIdentityCache.fingerprint(TestCertificates.orders());
+        String bound = boundAccessToken(thumbprint);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", "Bearer " + bound);
+        request.setAttribute(ClientCertificateAuthenticationFilter.IDENTITY_ATTRIBUTE, identity(thumbprint));
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        JwtClaims claims = (JwtClaims) request.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE);
+        assertEquals(thumbprint, claims.getCertificateThumbprint());
+    }
+
+    @Test
+    void certificateBoundTokenShouldBeRejectedWithoutOrWithOtherCertificate() throws Exception {
+        // Given
+        String bound = boundAccessToken(ClientCertificateIdentityCache.fingerprint(TestCertificates.orders()));
+        MockHttpServletRequest noCertificate = new MockHttpServletRequest("GET", "/api/resource");
+        noCertificate.addHeader("Authorization", "Bearer " + bound);
+        MockHttpServletRequest otherCertificate = new MockHttpServletRequest("GET", "/api/resource");
+        otherCertificate.addHeader("Authorization", "Bearer " + bound);
+        otherCertificate.setAttribute(ClientCertificateAuthenticationFilter.IDENTITY_ATTRIBUTE,
+                identity(ClientCertificateIdentityCache.fingerprint(TestCertificates.billing())));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(noCertificate, first, new MockFilterChain());
+        filter.doFilter(otherCertificate, second, new MockFilterChain());
+
+        // Then
+        assertEquals(401, first.getStatus());
+        assertEquals(401, second.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private String boundAccessToken(String thumbprint) {
+        JwtClaims claims = JwtTestFixtures.userClaims("user-2");
+        claims.setCertificateThumbprint(thumbprint);
+        return jwtService.generateTokenPair(claims).getAccessToken();
+    }
+
+    private static ClientCertificateIdentity identity(String thumbprint) {
+        return new ClientCertificateIdentity(thumbprint, "orders", "CN=orders", Instant.MAX, null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.web.LivenessFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de la liveness probe servida desde el filtro
+ */
+class LivenessFilterTest {
+
+    private final LivenessFilter filter = new LivenessFilter();
+
+    @Test
+    void shouldAnswerWithoutContinuingChain() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", LivenessFilter.PATH);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"status\":\"UP\"}", response.getContentAsString());
+        assertNotNull(response.getHeader("ETag"));
+        assertNull(chain.getRequest(), "Chain should not continue");
+    }
+
+    @Test
+    void ifNoneMatchShouldAnswerNotModified() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", LivenessFilter.PATH);
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request, first, new MockFilterChain());
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, second, new MockFilterChain());
+
+        // Then
+        assertEquals(304, second.getStatus());
+        assertEquals(0, second.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.PolicyProperties;
+import com.example.zerotrust.event.PolicyBundleCompiledEvent;
+import com.example.zerotrust.event.SecretChangedEvent;
+import com.example.zerotrust.policy.AuthorizationRequest;
+import com.example.zerotrust.policy.Decision;
+import com.example.zerotrust.policy.PolicyBundleLoader;
+import com.example.zerotrust.policy.PolicyDecisionPoint;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.SecretSource;
+import com.example.zerotrust.support.BeanProviders;
+import com.example.zerotrust.support.JwtTestFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de la recarga en caliente: fichero vigilado, secreto de Vault y bundles inválidos
+ */
+class PolicyBundleLoaderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicReference<PolicyDecisionPoint> pdp = new AtomicReference<>();
+    private PolicyBundleLoader loader;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        if (loader != null) {
+            loader.stop();
+        }
+    }
+
+    @Test
+    void watchedFileChangeShouldSwapBundleAndKeepItOnInvalidReload() throws Exception {
+        // Given
+        Path file = directory.resolve("policy.json");
+        Files.writeString(file, bundle("v1"));
+        PolicyProperties properties = properties();
+        properties.setBundle("file:" + file);
+        properties.setWatch(true);
+        loader = loader(properties, JwtTestFixtures.secretService());
+        pdp.set(new PolicyDecisionPoint(loader.loadInitial(), false));
+        loader.start();
+
+        // When: escritura atómica como la de un despliegue
+        replace(file, bundle("v2"));
+        awaitTrue(() -> "v2".equals(pdp.get().getPolicy().getVersion()));
+        replace(file, "{ \"version\": \"v3\", \"rules\": [ { \"id\": \"broken\" } ] }");
+        awaitTrue(() -> reloads("failure") == 1);
+
+        // Then
+        Decision decision = pdp.get().decide(AuthorizationRequest.of(JwtTestFixtures.userClaims("alice"), "audit", "read"));
+        assertTrue(decision.isAllowed());
+        assertEquals("v2", decision.policyVersion());
+        assertEquals(1, reloads("success"));
+        assertEquals("v2", pdp.get().getPolicy().getVersion());
+        assertTrue(registry.get("zerotrust.policy.compile").timer().count() >= 3);
+    }
+
+    @Test
+    void vaultSecretChangeShouldReloadBundle() throws Exception {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.jwt.secret", JwtTestFixtures.SECRET)
+                .withProperty("app.policy.bundle-json", bundle("vault-1"));
+        AtomicReference<PolicyBundleLoader> listener = new AtomicReference<>();
+        SecretService secretService = new SecretService(environment,
+                event -> listener.get().onSecretChanged((SecretChangedEvent) event),
+                new SimpleMeterRegistry(), BeanProviders.of(SecretSource.class, null));
+        PolicyProperties properties = properties();
+        properties.setSource(PolicyProperties.Source.VAULT);
+        loader = loader(properties, secretService);
+        listener.set(loader);
+        pdp.set(new PolicyDecisionPoint(loader.loadInitial(), false));
+        loader.start();
+
+        // When
+        environment.setProperty("app.policy.bundle-json", bundle("vault-2"));
+        secretService.refreshSecrets();
+
+        // Then
+        awaitTrue(() -> "vault-2".equals(pdp.get().getPolicy().getVersion()));
+        assertEquals(1, reloads("success"));
+    }
+
+    private PolicyBundleLoader loader(PolicyProperties properties, SecretService secretService) {
+        return new PolicyBundleLoader(properties, new DefaultResourceLoader(), secretService,
+                event -> pdp.get().onBundleCompiled((PolicyBundleCompiledEvent) event), registry);
+    }
+
+    private static PolicyProperties properties() {
+        PolicyProperties properties = new PolicyProperties();
+        properties.setReloadDebounce(Duration.ofMillis(20));
+        return properties;
+    }
+
+    private long reloads(String result) {
+        return registry.get("zerotrust.policy.reload").tag("result", result).timer().count();
+    }
+
+    private void replace(Path file, String content) throws IOException {
+        Path temporary = Files.createTempFile(directory, "policy", ".tmp");
+        Files.writeString(temporary, content, StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 10s");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static String bundle(String version) {
+        return """
+                { "version": "%s", "rules": [
+                  { "id": "allow-audit", "effect": "ALLOW", "resources": ["audit"], "roles": ["AUDITOR"] } ] }
+                """.formatted(version);
+    }
+}
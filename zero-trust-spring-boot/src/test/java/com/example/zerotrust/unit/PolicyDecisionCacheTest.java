@@ -0,0 +1,90 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.PolicyProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.policy.CompiledPolicy;
+import com.example.zerotrust.policy.PolicyCompiler;
+import com.example.zerotrust.policy.PolicyDecisionPoint;
+import com.example.zerotrust.service.TokenRevocationService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.example.zerotrust.support.PolicyFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de la caché de decisiones: clave por atributos leídos e invalidación por revocación
+ */
+class PolicyDecisionCacheTest {
+
+    private static final String BUNDLE = """
+            { "version": "cache-1", "rules": [
+              { "id": "allow-audit", "effect": "ALLOW", "resources": ["audit"], "actions": ["read"],
+                "roles": ["AUDITOR"],
+                "conditions": [ { "attribute": "context.riskScore", "operator": "LTE", "value": 0.5 } ] } ] }
+            """;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void keyShouldOnlyContainAttributesThePolicyReads() {
+        // Given
+        CompiledPolicy policy = PolicyCompiler.compile(PolicyFixtures.read(BUNDLE));
+        PolicyDecisionPoint pdp = pdp(policy);
+        JwtClaims alice = claims("alice", List.of("USER", "AUDITOR"));
+        JwtClaims bob = claims("bob", List.of("USER", "AUDITOR"));
+        JwtClaims carol = claims("carol", List.of("USER"));
+
+        // When
+        boolean aliceAllowed = pdp.decide(alice, "audit", "read").isAllowed();
+        boolean bobAllowed = pdp.decide(bob, "audit", "read").isAllowed();
+        boolean carolAllowed = pdp.decide(carol, "audit", "read").isAllowed();
+
+        // Then: bob comparte entrada con alice (distinto sujeto y dispositivo, mismos roles y riesgo)
+        assertEquals(Set.of("context.riskScore", "subject.roles"), policy.getAttributes());
+        assertTrue(aliceAllowed);
+        assertTrue(bobAllowed);
+        assertFalse(carolAllowed);
+        assertEquals(1.0, counter("zerotrust.policy.cache.requests", "result", "hit"));
+        assertEquals(2.0, counter("zerotrust.policy.cache.requests", "result", "miss"));
+        assertEquals(1.0 / 3, registry.get("zerotrust.policy.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void revocationShouldNotInvalidateCachedDecisions() {
+        // Given
+        PolicyDecisionPoint pdp = pdp(PolicyCompiler.compile(PolicyFixtures.read(BUNDLE)));
+        TokenRevocationService revocationService = new TokenRevocationService();
+        JwtClaims alice = claims("alice", List.of("AUDITOR"));
+        pdp.decide(alice, "audit", "read");
+
+        // When
+        revocationService.revokeToken("some.revoked.token", "logout");
+        boolean allowed = pdp.decide(alice, "audit", "read").isAllowed();
+        pdp.decide(alice, "audit", "read");
+
+        // Then: refrescos rotados y validaciones fallidas revocan sin vaciar la caché
+        assertTrue(allowed);
+        assertEquals(2.0, counter("zerotrust.policy.cache.requests", "result", "hit"));
+        assertEquals(0.0, counter("zerotrust.policy.cache.stale", "reason", "bundle"));
+    }
+
+    private PolicyDecisionPoint pdp(CompiledPolicy policy) {
+        return new PolicyDecisionPoint(policy, new PolicyProperties(), registry);
+    }
+
+    private double counter(String name, String tag, String value) {
+        return registry.get(name).tag(tag, value).functionCounter().count();
+    }
+
+    private static JwtClaims claims(String subject, List<String> roles) {
+        JwtClaims claims = JwtTestFixtures.userClaims(subject);
+        claims.setRoles(roles);
+        claims.setRiskScore(0.2);
+        return claims;
+    }
+}
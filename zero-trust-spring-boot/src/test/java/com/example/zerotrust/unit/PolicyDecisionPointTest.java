@@ -0,0 +1,183 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.policy.AuthorizationRequest;
+import com.example.zerotrust.policy.CompiledPolicy;
+import com.example.zerotrust.policy.Decision;
+import com.example.zerotrust.policy.Effect;
+import com.example.zerotrust.policy.PolicyBundle;
+import com.example.zerotrust.policy.PolicyCompiler;
+import com.example.zerotrust.policy.PolicyDecisionPoint;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.example.zerotrust.support.PolicyFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test del PDP compilado: deny-overrides, prioridad, obligaciones,
+ * condiciones de contexto, índice de reglas y consulta desde validateZeroTrustClaims
+ */
+class PolicyDecisionPointTest {
+
+    private static final String BUNDLE = """
+            {
+              "version": "test-1",
+              "rules": [
+                { "id": "deny-high-risk", "effect": "DENY", "priority": 100,
+                  "conditions": [ { "attribute": "context.riskScore", "operator": "GT", "value": 0.9 } ] },
+                { "id": "deny-outside-office", "effect": "DENY", "resources": ["payroll"],
+                  "conditions": [ { "attribute": "context.ipAddress", "operator": "PRESENT" },
+                                  { "attribute": "context.time", "operator": "TIME_BETWEEN", "value": "20:00-08:00" } ] },
+                { "id": "allow-token-use", "effect": "ALLOW", "resources": ["token"], "actions": ["access", "refresh"] },
+                { "id": "allow-audit-read", "effect": "ALLOW", "priority": 10,
+                  "resources": ["audit"], "actions": ["read"], "roles": ["AUDITOR"],
+                  "conditions": [ { "attribute": "subject.permissions", "operator": "CONTAINS", "value": "AUDIT_READ" },
+                                  { "attribute": "context.ipAddress", "operator": "CIDR", "value": ["10.0.0.0/8", "fd00::/8"] } ],
+                  "obligations": [ { "type": "audit", "parameters": { "level": "full" } } ] },
+                { "id": "allow-payroll-admin", "effect": "ALLOW", "resources": ["payroll"], "roles": ["ADMIN"] },
+                { "id": "allow-payroll-device", "effect": "ALLOW", "resources": ["payroll"], "actions": ["read"],
+                  "conditions": [ { "attribute": "subject.deviceId", "operator": "EQ", "value": "device-alice" },
+                                  { "attribute": "resource.owner", "operator": "EQ", "value": "alice" } ] }
+              ]
+            }
+            """;
+
+    private final CompiledPolicy policy = PolicyCompiler.compile(PolicyFixtures.read(BUNDLE));
+
+    @Test
+    void matchingAllowRuleShouldReturnItsObligations() {
+        // When
+        Decision decision = policy.decide(AuthorizationRequest.of(JwtTestFixtures.userClaims("alice"), "audit", "read"));
+
+        // Then
+        assertTrue(decision.isAllowed());
+        assertEquals("allow-audit-read", decision.ruleId());
+        assertEquals(1, decision.obligations().size());
+        assertEquals("full", decision.obligations().get(0).parameters().get("level"));
+    }
+
+    @Test
+    void denyShouldOverrideAllowAndUnknownResourceShouldBeDenied() {
+        // Given
+        JwtClaims risky = JwtTestFixtures.userClaims("alice");
+        risky.setRiskScore(0.95);
+
+        // When
+        Decision denied = policy.decide(AuthorizationRequest.of(risky, "audit", "read"));
+        Decision notApplicable = policy.decide(AuthorizationRequest.of(JwtTestFixtures.userClaims("alice"), "billing", "read"));
+
+        // Then
+        assertEquals(Effect.DENY, denied.effect());
+        assertEquals("deny-high-risk", denied.ruleId());
+        assertNull(notApplicable.ruleId());
+        assertFalse(notApplicable.isAllowed());
+        assertEquals("test-1", notApplicable.policyVersion());
+        assertEquals("test-1", denied.policyVersion());
+    }
+
+    @Test
+    void contextConditionsShouldUseRequestTimeIpAndResourceAttributes() {
+        // Given
+        JwtClaims alice = JwtTestFixtures.userClaims("alice");
+        Instant noon = Instant.parse("2026-03-02T12:00:00Z");
+        Instant night = Instant.parse("2026-03-02T23:30:00Z");
+
+        // When / Then
+        assertTrue(policy.decide(new AuthorizationRequest(alice, "payroll", "read", Map.of("owner", "alice"), noon)).isAllowed());
+        assertFalse(policy.decide(new AuthorizationRequest(alice, "payroll", "read", Map.of("owner", "bob"), noon)).isAllowed());
+        assertEquals("deny-outside-office",
+                policy.decide(new AuthorizationRequest(alice, "payroll", "read", Map.of("owner", "alice"), night)).ruleId());
+
+        alice.setIpAddress("192.168.1.10");
+        assertFalse(policy.decide(AuthorizationRequest.of(alice, "audit", "read")).isAllowed());
+        alice.setIpAddress("fd12::1");
+        assertTrue(policy.decide(AuthorizationRequest.of(alice, "audit", "read")).isAllowed());
+    }
+
+    @Test
+    void indexShouldKeepPriorityAcrossWildcardAndRoleLeaves() {
+        // Given: una DENY global de baja prioridad y una ALLOW específica por rol
+        CompiledPolicy indexed = PolicyCompiler.compile(PolicyFixtures.read("""
+                { "version": "index-1", "rules": [
+                  { "id": "allow-editor", "effect": "ALLOW", "priority": 90,
+                    "resources": ["doc"], "actions": ["write"], "roles": ["EDITOR"] },
+                  { "id": "allow-any-doc", "effect": "ALLOW", "priority": 5, "resources": ["doc"] },
+                  { "id": "deny-device", "effect": "DENY", "priority": 1,
+                    "conditions": [ { "attribute": "subject.deviceId", "operator": "EQ", "value": "lost" } ] } ] }
+                """));
+        JwtClaims editor = JwtTestFixtures.userClaims("erin");
+        editor.setRoles(List.of("USER", "EDITOR"));
+        JwtClaims lost = JwtTestFixtures.userClaims("erin");
+        lost.setRoles(List.of("EDITOR"));
+        lost.setDeviceId("lost");
+
+        // When / Then
+        assertEquals("allow-editor", indexed.decide(AuthorizationRequest.of(editor, "doc", "write")).ruleId());
+        assertEquals("allow-any-doc", indexed.decide(AuthorizationRequest.of(editor, "doc", "delete")).ruleId());
+        assertEquals("deny-device", indexed.decide(AuthorizationRequest.of(lost, "doc", "write")).ruleId());
+        Decision image = indexed.decide(AuthorizationRequest.of(editor, "image", "write"));
+        assertNull(image.ruleId());
+        assertFalse(image.isAllowed());
+    }
+
+    @Test
+    void largeBundleShouldOnlyMatchRulesOfTheRequestedTenant() {
+        // Given
+        CompiledPolicy large = PolicyCompiler.compile(PolicyFixtures.tenantBundle(100_000));
+        JwtClaims auditor = JwtTestFixtures.userClaims("alice");
+        auditor.setRiskScore(0.1);
+
+        // When
+        Decision tenant0 = large.decide(AuthorizationRequest.of(auditor, "tenant-0/document", "read"));
+        Decision tenant9000 = large.decide(AuthorizationRequest.of(auditor, "tenant-9000/document", "read"));
+        Decision write = large.decide(AuthorizationRequest.of(auditor, "tenant-0/document", "write"));
+
+        // Then
+        assertEquals(100_000, large.getRuleCount());
+        assertEquals("tenant-0/document/allow-auditor", tenant0.ruleId());
+        assertEquals("tenant-9000/document/allow-auditor", tenant9000.ruleId());
+        assertFalse(write.isAllowed());
+    }
+
+    @Test
+    void invalidBundleShouldFailCompilationWithRuleId() {
+        // Given
+        PolicyBundle bundle = PolicyFixtures.read("""
+                { "version": "bad", "rules": [ { "id": "typo", "effect": "ALLOW",
+                  "conditions": [ { "attribute": "subject.rolez", "operator": "EQ", "value": "USER" } ] } ] }
+                """);
+
+        // When / Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> PolicyCompiler.compile(bundle));
+        assertTrue(error.getMessage().contains("typo"));
+    }
+
+    @Test
+    void tokenValidationShouldConsultPolicy() {
+        // Given
+        JwtService jwtService = JwtTestFixtures.builder()
+                .policyDecisionPoint(new PolicyDecisionPoint(policy, true))
+                .build();
+        JwtService denyAll = JwtTestFixtures.builder()
+                .policyDecisionPoint(new PolicyDecisionPoint(PolicyCompiler.compile(
+                        PolicyFixtures.read("{ \"version\": \"empty\", \"rules\": [] }")), true))
+                .build();
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+
+        // When
+        String accepted = jwtService.generateTokenPair(claims).getAccessToken();
+        String rejected = denyAll.generateTokenPair(JwtTestFixtures.userClaims("alice")).getAccessToken();
+
+        // Then
+        assertEquals("alice", jwtService.validateAndParseToken(accepted).getSubject());
+        JwtException error = assertThrows(JwtException.class, () -> denyAll.validateAndParseToken(rejected));
+        assertTrue(error.getMessage().contains("policy"));
+    }
+}
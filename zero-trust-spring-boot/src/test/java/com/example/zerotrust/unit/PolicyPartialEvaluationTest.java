@@ -0,0 +1,127 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.PolicyProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.policy.AuthorizationRequest;
+import com.example.zerotrust.policy.CompiledPolicy;
+import com.example.zerotrust.policy.PolicyCompiler;
+import com.example.zerotrust.policy.PolicyDecisionPoint;
+import com.example.zerotrust.policy.Residual;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.example.zerotrust.support.PolicyFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de la evaluación parcial: residuo equivalente a la política completa y reutilizado desde la emisión
+ */
+class PolicyPartialEvaluationTest {
+
+    private static final String BUNDLE = """
+            { "version": "partial-1", "rules": [
+              { "id": "deny-unmanaged-device", "effect": "DENY", "resources": ["report"],
+                "conditions": [ { "attribute": "subject.deviceId", "operator": "ABSENT" } ] },
+              { "id": "deny-guest-network", "effect": "DENY", "resources": ["report"], "actions": ["export"],
+                "conditions": [ { "attribute": "context.ipAddress", "operator": "CIDR", "value": "192.168.0.0/16" } ] },
+              { "id": "allow-report-read", "effect": "ALLOW", "resources": ["report"], "actions": ["read", "export"],
+                "roles": ["ANALYST", "ADMIN"],
+                "conditions": [ { "attribute": "subject.permissions", "operator": "CONTAINS", "value": "REPORT_READ" },
+                                { "attribute": "context.riskScore", "operator": "LTE", "value": 0.5 } ] },
+              { "id": "allow-token-use", "effect": "ALLOW", "resources": ["token"], "actions": ["access", "refresh"] } ] }
+            """;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void residualShouldDecideLikeTheFullPolicy() {
+        // Given
+        CompiledPolicy policy = PolicyCompiler.compile(PolicyFixtures.read(BUNDLE));
+        List<JwtClaims> subjects = List.of(
+                subject("ana", List.of("ANALYST"), List.of("REPORT_READ"), "device-1"),
+                subject("bob", List.of("ANALYST"), List.of("READ"), "device-2"),
+                subject("eve", List.of("ANALYST", "ADMIN"), List.of("REPORT_READ"), null),
+                subject("joe", List.of("USER"), List.of("REPORT_READ"), "device-3"));
+
+        for (JwtClaims subject : subjects) {
+            // When
+            Residual residual = policy.partialEvaluate(subject);
+
+            // Then: misma decisión (la misma instancia) para todas las combinaciones de petición
+            for (String ip : List.of("10.0.0.1", "192.168.1.20")) {
+                for (double risk : new double[] {0.1, 0.8}) {
+                    subject.setIpAddress(ip);
+                    subject.setRiskScore(risk);
+                    for (String resource : List.of("report", "token", "billing")) {
+                        for (String action : List.of("read", "export", "access")) {
+                            AuthorizationRequest request = AuthorizationRequest.of(subject, resource, action);
+                            assertSame(policy.decide(request), residual.decide(request),
+                                    subject.getSubject() + " " + resource + ":" + action + " " + ip + " " + risk);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void residualShouldDropRulesTheSubjectCannotMatch() {
+        // Given
+        CompiledPolicy policy = PolicyCompiler.compile(PolicyFixtures.tenantBundle(1000));
+        JwtClaims user = subject("user", List.of("USER"), List.of("READ"), "device-1");
+        JwtClaims auditor = subject("auditor", List.of("AUDITOR"), List.of("AUDIT_READ"), "device-1");
+
+        // When
+        Residual userResidual = policy.partialEvaluate(user);
+        Residual auditorResidual = policy.partialEvaluate(auditor);
+
+        // Then: sin roles de destino solo quedan las globales y las DENY por CIDR de cada tenant
+        assertEquals(2 + 100 * 3, userResidual.getRuleCount());
+        assertEquals(userResidual.getRuleCount() + 100, auditorResidual.getRuleCount());
+        assertTrue(auditorResidual.decide(AuthorizationRequest.of(auditor, "tenant-7/document", "read")).isAllowed());
+        assertFalse(userResidual.decide(AuthorizationRequest.of(user, "tenant-7/document", "read")).isAllowed());
+    }
+
+    @Test
+    void residualPreparedAtIssuanceShouldServeValidationUntilTheBundleChanges() {
+        // Given: sin caché de decisiones, cada decisión pasa por el residuo
+        PolicyProperties properties = new PolicyProperties();
+        properties.getDecisionCache().setEnabled(false);
+        PolicyDecisionPoint pdp = new PolicyDecisionPoint(PolicyCompiler.compile(PolicyFixtures.read(BUNDLE)),
+                properties, registry);
+        JwtService jwtService = JwtTestFixtures.builder().policyDecisionPoint(pdp).build();
+
+        // When
+        TokenResponse tokens = jwtService.generateTokenPair(
+                subject("ana", List.of("ANALYST"), List.of("REPORT_READ"), "device-1"));
+        JwtClaims validated = jwtService.validateAndParseToken(tokens.getAccessToken());
+        boolean allowed = pdp.decide(validated, "report", "read").isAllowed();
+        pdp.swap(PolicyCompiler.compile(PolicyFixtures.read(BUNDLE.replace("partial-1", "partial-2"))));
+        String version = pdp.decide(validated, "report", "read").policyVersion();
+
+        // Then
+        assertTrue(allowed);
+        assertEquals("partial-2", version);
+        assertEquals(1.0, counter("miss"));
+        assertEquals(2.0, counter("hit"));
+        assertEquals(1.0, counter("stale"));
+    }
+
+    private double counter(String result) {
+        return registry.get("zerotrust.policy.residual.requests").tag("result", result).functionCounter().count();
+    }
+
+    private static JwtClaims subject(String name, List<String> roles, List<String> permissions, String deviceId) {
+        JwtClaims claims = JwtTestFixtures.userClaims(name);
+        claims.setRoles(roles);
+        claims.setPermissions(permissions);
+        claims.setDeviceId(deviceId);
+        claims.setRiskScore(0.1);
+        return claims;
+    }
+}
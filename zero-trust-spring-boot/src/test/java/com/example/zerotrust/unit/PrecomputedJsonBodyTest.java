@@ -0,0 +1,86 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.web.PrecomputedJsonBody;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de las plantillas JSON precalculadas (campo dinámico y ETag)
+ */
+class PrecomputedJsonBodyTest {
+
+    // El builder registra JavaTimeModule; WRITE_DATES_AS_TIMESTAMPS se desactiva a mano, como hace Spring Boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void slotShouldBePatchedWithDynamicValue() throws Exception {
+        // Given
+        PrecomputedJsonBody body = PrecomputedJsonBody.withSlot(objectMapper,
+                Map.of("status", "UP", "timestamp", "x", "version", "1.0.0"), "timestamp");
+
+        // When
+        JsonNode json = objectMapper.readTree(body.render(
+                body.encode(Instant.ofEpochMilli(1_700_000_000_042L))));
+
+        // Then
+        assertEquals("UP", json.get("status").asText());
+        assertEquals("1.0.0", json.get("version").asText());
+        assertTrue(json.get("timestamp").isTextual());
+        assertEquals("2023-11-14T22:13:20.042Z", json.get("timestamp").asText());
+    }
+
+    @Test
+    void nestedSlotShouldBePatched() throws Exception {
+        // Given
+        PrecomputedJsonBody body = PrecomputedJsonBody.withSlot(objectMapper,
+                Map.of("metadata", Map.of("timestamp", "x", "profile", "test")), "metadata.timestamp");
+        Instant now = Instant.parse("2025-06-07T10:15:30Z");
+
+        // When
+        JsonNode json = objectMapper.readTree(body.render(body.encode(now)));
+
+        // Then
+        assertEquals("2025-06-07T10:15:30Z", json.at("/metadata/timestamp").asText());
+        assertEquals("test", json.at("/metadata/profile").asText());
+    }
+
+    @Test
+    void matchingEtagShouldAnswerNotModified() {
+        // Given
+        PrecomputedJsonBody body = PrecomputedJsonBody.of(objectMapper, Map.of("name", "app"));
+
+        // When
+        ResponseEntity<byte[]> fresh = body.respond(null);
+        ResponseEntity<byte[]> cached = body.respond("\"other\", " + body.getEtag());
+
+        // Then
+        assertEquals(200, fresh.getStatusCode().value());
+        assertEquals(body.getEtag(), fresh.getHeaders().getETag());
+        assertEquals(304, cached.getStatusCode().value());
+        assertNull(cached.getBody());
+        assertEquals(200, body.respond("W/\"00000000\"").getStatusCode().value());
+    }
+
+    @Test
+    void etagShouldIgnoreDynamicValue() {
+        // Given
+        PrecomputedJsonBody first = PrecomputedJsonBody.withSlot(objectMapper, Map.of("status", "UP", "ts", "x"), "ts");
+        PrecomputedJsonBody second = PrecomputedJsonBody.withSlot(objectMapper, Map.of("status", "UP", "ts", "y"), "ts");
+        PrecomputedJsonBody down = PrecomputedJsonBody.withSlot(objectMapper, Map.of("status", "DOWN", "ts", "x"), "ts");
+
+        // Then
+        assertEquals(first.getEtag(), second.getEtag());
+        assertNotEquals(first.getEtag(), down.getEtag());
+    }
+}
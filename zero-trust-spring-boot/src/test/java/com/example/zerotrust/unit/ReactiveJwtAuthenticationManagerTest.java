@@ -0,0 +1,69 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.security.AuthoritySetCache;
+import com.example.zerotrust.security.ReactiveJwtAuthenticationManager;
+import com.example.zerotrust.security.ZeroTrustAuthentication;
+import com.example.zerotrust.service.reactive.ReactiveJwtService;
+import com.example.zerotrust.support.InMemoryReactiveRevocationStore;
+import com.example.zerotrust.support.JwtTestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de ReactiveJwtAuthenticationManager con un ReactiveJwtService real
+ */
+class ReactiveJwtAuthenticationManagerTest {
+
+    private ReactiveJwtService jwtService;
+    private ReactiveJwtAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = JwtTestFixtures.builder().buildReactive(new InMemoryReactiveRevocationStore());
+        manager = new ReactiveJwtAuthenticationManager(jwtService, new AuthoritySetCache(1024, 4096));
+    }
+
+    @Test
+    void accessTokenShouldAuthenticate() {
+        // Given
+        String accessToken = jwtService.generateTokenPair(JwtTestFixtures.userClaims("alice")).block()
+                .getAccessToken();
+
+        // When
+        Authentication authentication = manager.authenticate(new BearerTokenAuthenticationToken(accessToken)).block();
+
+        // Then
+        ZeroTrustAuthentication zeroTrust = assertInstanceOf(ZeroTrustAuthentication.class, authentication);
+        assertEquals("alice", zeroTrust.getName());
+    }
+
+    @Test
+    void refreshTokenShouldBeRejected() {
+        // Given
+        String refreshToken = jwtService.generateTokenPair(JwtTestFixtures.userClaims("alice")).block()
+                .getRefreshToken();
+
+        // Then
+        assertThrows(BadCredentialsException.class,
+                () -> manager.authenticate(new BearerTokenAuthenticationToken(refreshToken)).block());
+    }
+
+    @Test
+    void certificateBoundTokenShouldBeRejectedWithoutMutualTls() {
+        // Given: token ligado a un certificado (cnf.x5t#S256)
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+        claims.setCertificateThumbprint("bwcK0esc3ACC3DB2Y5_lESsXE8o9ltc05O89jdN-dg2");
+        String accessToken = jwtService.generateTokenPair(claims).block().getAccessToken();
+
+        // Then: sin certificado del cliente no se puede comprobar la ligadura
+        BadCredentialsException rejected = assertThrows(BadCredentialsException.class,
+                () -> manager.authenticate(new BearerTokenAuthenticationToken(accessToken)).block());
+        assertEquals("Certificate-bound tokens require mTLS", rejected.getMessage());
+    }
+}
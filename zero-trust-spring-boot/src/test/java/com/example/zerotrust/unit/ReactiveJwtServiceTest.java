@@ -0,0 +1,123 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.service.reactive.ReactiveJwtService;
+import com.example.zerotrust.support.InMemoryReactiveRevocationStore;
+import com.example.zerotrust.support.JwtTestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de ReactiveJwtService con un almacén de revocación en memoria
+ */
+class ReactiveJwtServiceTest {
+
+    private InMemoryReactiveRevocationStore revocationStore;
+    private ReactiveJwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        revocationStore = new InMemoryReactiveRevocationStore();
+        jwtService = JwtTestFixtures.builder().buildReactive(revocationStore);
+    }
+
+    @Test
+    void issuedTokensShouldValidate() {
+        // Given
+        TokenResponse tokens = jwtService.generateTokenPair(JwtTestFixtures.userClaims("user-1")).block();
+
+        // When
+        JwtClaims claims = jwtService.validateAndParseToken(tokens.getAccessToken()).block();
+
+        // Then
+        assertEquals("user-1", claims.getSubject());
+        assertEquals("access", claims.getTokenType());
+        assertTrue(claims.getRoles().contains("AUDITOR"));
+    }
+
+    @Test
+    void tokensShouldBeInteroperableWithServletService() {
+        // Given: misma clave, distinto stack
+        TokenResponse tokens = JwtTestFixtures.jwtService()
+                .generateTokenPair(JwtTestFixtures.userClaims("user-2"));
+
+        // When
+        JwtClaims claims = jwtService.validateAndParseToken(tokens.getAccessToken()).block();
+
+        // Then
+        assertEquals("user-2", claims.getSubject());
+    }
+
+    @Test
+    void revokedTokenShouldFailValidation() {
+        // Given
+        String accessToken = jwtService.generateTokenPair(JwtTestFixtures.userClaims("user-3")).block()
+                .getAccessToken();
+
+        // When
+        jwtService.revokeToken(accessToken, "logout").block();
+
+        // Then
+        assertEquals("logout", revocationStore.reasonFor(accessToken));
+        JwtException error = assertThrows(JwtException.class,
+                () -> jwtService.validateAndParseToken(accessToken).block());
+        assertEquals("Token has been revoked", error.getMessage());
+    }
+
+    @Test
+    void invalidTokenShouldNotBeStored() {
+        // When: /auth/revoke es público; cualquiera puede enviar basura
+        jwtService.revokeToken("not-a-jwt", "logout").block();
+        jwtService.revokeToken("eyJhbGciOiJIUzI1NiJ9.e30.forged-signature", "logout").block();
+
+        // Then
+        assertNull(revocationStore.reasonFor("not-a-jwt"));
+        assertNull(revocationStore.reasonFor("eyJhbGciOiJIUzI1NiJ9.e30.forged-signature"));
+    }
+
+    @Test
+    void refreshShouldRotateAndRevokePreviousRefreshToken() {
+        // Given
+        String refreshToken = jwtService.generateTokenPair(JwtTestFixtures.userClaims("user-4")).block()
+                .getRefreshToken();
+
+        // When
+        TokenResponse refreshed = jwtService.refreshToken(refreshToken).block();
+
+        // Then
+        assertNotEquals(refreshToken, refreshed.getRefreshToken());
+        assertEquals("rotated", revocationStore.reasonFor(refreshToken));
+        assertThrows(JwtException.class, () -> jwtService.refreshToken(refreshToken).block());
+    }
+
+    @Test
+    void accessTokenShouldNotBeAcceptedForRefresh() {
+        // Given
+        String accessToken = jwtService.generateTokenPair(JwtTestFixtures.userClaims("user-5")).block()
+                .getAccessToken();
+
+        // When / Then
+        JwtException error = assertThrows(JwtException.class, () -> jwtService.refreshToken(accessToken).block());
+        assertEquals("Invalid token type for refresh", error.getMessage());
+    }
+
+    @Test
+    void malformedTokenShouldNotReachRevocationStore() {
+        // Given
+        InMemoryReactiveRevocationStore failingStore = new InMemoryReactiveRevocationStore() {
+            @Override
+            public Mono<Boolean> isRevoked(String token) {
+                return Mono.error(new AssertionError("Revocation store should not be called"));
+            }
+        };
+        ReactiveJwtService service = JwtTestFixtures.builder().buildReactive(failingStore);
+
+        // When / Then: la firma se verifica antes del round-trip a Redis
+        assertThrows(JwtException.class, () -> service.validateAndParseToken("not.a.jwt").block());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.RiskProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.risk.FeatureStore;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.RiskEvent;
+import com.example.zerotrust.security.JwtAuthenticationFilter;
+import com.example.zerotrust.security.RiskEventFilter;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test del motor de riesgo: señales de la ventana, caducidad, concurrencia y uso en la validación
+ */
+class RiskEngineTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(Instant.parse("2026-01-05T10:00:00Z").toEpochMilli());
+
+    @Test
+    void subjectWithoutEventsShouldUseFallback() {
+        // Given
+        RiskEngine engine = engine(new RiskProperties());
+
+        // When
+        double unknown = engine.score("alice", 0.3);
+        engine.record(event("alice", "10.0.0.1", "laptop", RiskEvent.Outcome.SUCCESS));
+
+        // Then
+        assertEquals(0.3, unknown);
+        assertEquals(0.1, engine.score("alice"));
+        assertEquals(0.1, engine.score("alice", 0.3));
+        assertEquals(1.0, registry.get("zerotrust.risk.events").tag("outcome", "success").functionCounter().count());
+    }
+
+    @Test
+    void failuresShouldRaiseScoreUntilTheyLeaveTheWindow() {
+        // Given
+        RiskEngine engine = engine(new RiskProperties());
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            engine.record(event("alice", "10.0.0.1", "laptop", RiskEvent.Outcome.DENIED));
+        }
+        double raised = engine.score("alice");
+        now.addAndGet(Duration.ofMinutes(6).toMillis());
+
+        // Then: 0.1 + 0.4 por fallos saturados
+        assertEquals(0.5, raised);
+        assertEquals(0.1, engine.score("alice"));
+    }
+
+    @Test
+    void ipAndDeviceChangesShouldRaiseScore() {
+        // Given
+        RiskEngine engine = engine(new RiskProperties());
+
+        // When: 3 cambios de IP (satura), 1 de dispositivo y 2 IPs distintas
+        engine.record(event("alice", "10.0.0.1", "laptop", RiskEvent.Outcome.SUCCESS));
+        engine.record(event("alice", "10.0.0.2", "laptop", RiskEvent.Outcome.SUCCESS));
+        engine.record(event("alice", "10.0.0.1", "phone", RiskEvent.Outcome.SUCCESS));
+        engine.record(event("alice", "10.0.0.2", "phone", RiskEvent.Outcome.SUCCESS));
+
+        // Then: 0.1 + 0.2 + 0.2 / 3 + 0.1 / 4
+        assertEquals(0.39, engine.score("alice"));
+        assertEquals(0.1, engine.score("bob"));
+    }
+
+    @Test
+    void concurrentEventsShouldAllBeCounted() throws Exception {
+        // Given
+        RiskProperties properties = new RiskProperties();
+        properties.setBurstThreshold(1000);
+        RiskEngine engine = engine(properties);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 100; i++) {
+                    engine.record(event("alice", "10.0.0.1", "laptop", RiskEvent.Outcome.SUCCESS));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then: 800 peticiones de 1000 -> 0.1 + 0.1 * 0.8
+        assertEquals(0.18, engine.score("alice"));
+    }
+
+    @Test
+    void validationShouldUseLiveScore() {
+        // Given
+        RiskProperties properties = new RiskProperties();
+        properties.getWeights().setFailures(0.9);
+        RiskEngine engine = engine(properties);
+        JwtService jwtService = JwtTestFixtures.builder().riskEngine(engine).build();
+        String accessToken = jwtService.generateTokenPair(JwtTestFixtures.userClaims("alice")).getAccessToken();
+        JwtClaims before = jwtService.validateAndParseToken(accessToken);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            engine.record(event("alice", "10.0.0.1", "device-alice", RiskEvent.Outcome.DENIED));
+        }
+
+        // Then
+        assertEquals(0.1, before.getRiskScore());
+        JwtException e = assertThrows(JwtException.class, () -> jwtService.validateAndParseToken(accessToken));
+        assertTrue(e.getMessage().contains("Risk score too high"));
+    }
+
+    @Test
+    void filterShouldRecordOutcomeOfAuthenticatedRequests() throws Exception {
+        // Given
+        RiskEngine engine = engine(new RiskProperties());
+        RiskEventFilter filter = new RiskEventFilter(engine);
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+
+        // When: una petición sin token y cinco autenticadas denegadas
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/data"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(401));
+        for (int i = 0; i < 5; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/admin"), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        request.setAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims);
+                        ((HttpServletResponse) response).setStatus(403);
+                    });
+        }
+
+        // Then
+        assertEquals(0.5, engine.score("alice"));
+        assertEquals(5.0, registry.get("zerotrust.risk.events").tag("outcome", "denied").functionCounter().count());
+        assertEquals(1, engine.trackedSubjects());
+    }
+
+    private RiskEngine engine(RiskProperties properties) {
+        return new RiskEngine(properties, new FeatureStore(properties, registry, now::get), registry, now::get);
+    }
+
+    private RiskEvent event(String subject, String ip, String device, RiskEvent.Outcome outcome) {
+        return new RiskEvent(subject, ip, device, null, "/api/data", outcome, Instant.ofEpochMilli(now.get()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.BaseTestConfig;
+import com.example.zerotrust.config.CapabilityProperties;
+import com.example.zerotrust.controller.SecretRefreshController;
+import com.example.zerotrust.security.AuthorityChecks;
+import com.example.zerotrust.security.PermissionRegistry;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.SecretSource;
+import com.example.zerotrust.support.BeanProviders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test de SecretRefreshController: el webhook de refresco solo admite ROLE_ADMIN
+ */
+@WebMvcTest(controllers = SecretRefreshController.class, excludeAutoConfiguration = {
+        OAuth2ResourceServerAutoConfiguration.class,
+        OAuth2ClientAutoConfiguration.class,
+        org.springframework.cloud.vault.config.VaultAutoConfiguration.class,
+        org.springframework.cloud.vault.config.VaultReactiveAutoConfiguration.class
+})
+@Import({AuthorityChecks.class, PermissionRegistry.class, CapabilityProperties.class,
+        SecretRefreshControllerTest.Secrets.class})
+class SecretRefreshControllerTest extends BaseTestConfig {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @TestConfiguration
+    static class Secrets {
+
+        @Bean
+        SecretService secretService() {
+            return new SecretService(new MockEnvironment()
+                    .withProperty("app.jwt.secret", "secret-only-for-testing-must-be-at-least-256-bits-long"),
+                    event -> { }, new SimpleMeterRegistry(), BeanProviders.of(SecretSource.class, null));
+        }
+    }
+
+    @Test
+    void adminShouldRefreshSecrets() throws Exception {
+        mockMvc.perform(post("/internal/secrets/refresh")
+                        .with(user("ops").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(0));
+    }
+
+    @Test
+    void authenticatedNonAdminShouldBeForbidden() throws Exception {
+        mockMvc.perform(post("/internal/secrets/refresh")
+                        .with(user("alice").roles("USER"))
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.event.SecretChangedEvent;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.SecretSource;
+import com.example.zerotrust.support.BeanProviders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de SecretService: versionado y eventos de cambio
+ */
+class SecretServiceTest {
+
+    private MockEnvironment environment;
+    private List<Object> events;
+    private SimpleMeterRegistry meterRegistry;
+    private SecretService secretService;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("app.jwt.secret", "first-secret-only-for-testing-must-be-at-least-256-bits-long");
+        events = new ArrayList<>();
+        meterRegistry = new SimpleMeterRegistry();
+        secretService = secretService(null);
+    }
+
+    @Test
+    void firstLoadShouldBeVersionOne() {
+        // When
+        String secret = secretService.getJwtSigningKey();
+
+        // Then
+        assertEquals("first-secret-only-for-testing-must-be-at-least-256-bits-long", secret);
+        assertEquals(1L, secretService.getSecretVersion(SecretService.JWT_SIGNING_KEY));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void refreshWithoutChangesShouldNotPublishEvents() {
+        // Given
+        secretService.getJwtSigningKey();
+
+        // When
+        List<SecretChangedEvent> changes = secretService.refreshSecrets();
+
+        // Then
+        assertTrue(changes.isEmpty());
+        assertTrue(events.isEmpty());
+        assertEquals(1L, secretService.getSecretVersion(SecretService.JWT_SIGNING_KEY));
+    }
+
+    @Test
+    void rotatedSecretShouldBumpVersionAndPublishOneEvent() {
+        // Given
+        secretService.getJwtSigningKey();
+        environment.setProperty("app.jwt.secret", "rotated-secret-only-for-testing-must-be-at-least-256-bits-long");
+
+        // When
+        secretService.refreshSecrets();
+        secretService.refreshSecrets();
+
+        // Then
+        assertEquals(1, events.size());
+        SecretChangedEvent event = (SecretChangedEvent) events.get(0);
+        assertTrue(event.isFor(SecretService.JWT_SIGNING_KEY));
+        assertEquals(1L, event.getPreviousVersion());
+        assertEquals(2L, event.getVersion());
+        assertEquals("rotated-secret-only-for-testing-must-be-at-least-256-bits-long",
+                secretService.getJwtSigningKey());
+    }
+
+    @Test
+    void secretsNeverLoadedShouldNotPublishEvents() {
+        // Given
+        environment.setProperty("app.encryption.key", "new-encryption-key-32-bytes-minimum");
+
+        // When
+        secretService.refreshSecrets();
+
+        // Then
+        assertTrue(events.isEmpty());
+        assertEquals(0L, secretService.getSecretVersion(SecretService.ENCRYPTION_KEY));
+    }
+
+    @Test
+    void accessMetricsShouldCountHitsMissesAndLoads() {
+        // When
+        secretService.getJwtSigningKey();
+        secretService.getJwtSigningKey();
+        secretService.getJwtSigningKey();
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("zerotrust.secrets.access")
+                .tag("secret", SecretService.JWT_SIGNING_KEY).tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("zerotrust.secrets.access")
+                .tag("secret", SecretService.JWT_SIGNING_KEY).tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(1L, meterRegistry.get("zerotrust.secrets.load")
+                .tag("secret", SecretService.JWT_SIGNING_KEY)
+                .timer().count());
+        assertNotNull(meterRegistry.find("zerotrust.secrets.refresh.age").timeGauge());
+    }
+
+    @Test
+    void rotationInSourceShouldBeSeenWithoutEnvironmentChange() {
+        // Given: el Environment (property source de Spring Cloud Vault) no cambia sin refresh
+        Map<String, String> vault = new ConcurrentHashMap<>(Map.of(
+                "app.jwt.secret", "vault-secret-v1-only-for-testing-must-be-at-least-256-bits-long"));
+        SecretService service = secretService(() -> Map.copyOf(vault));
+        assertEquals("vault-secret-v1-only-for-testing-must-be-at-least-256-bits-long", service.getJwtSigningKey());
+
+        // When
+        vault.put("app.jwt.secret", "vault-secret-v2-only-for-testing-must-be-at-least-256-bits-long");
+        List<SecretChangedEvent> changes = service.refreshSecrets();
+
+        // Then
+        assertEquals(1, changes.size());
+        assertEquals(2L, service.getSecretVersion(SecretService.JWT_SIGNING_KEY));
+        assertEquals("vault-secret-v2-only-for-testing-must-be-at-least-256-bits-long", service.getJwtSigningKey());
+    }
+
+    @Test
+    void propertiesMissingFromSourceShouldFallBackToEnvironment() {
+        // Given
+        SecretService service = secretService(Map::of);
+
+        // Then
+        assertEquals("first-secret-only-for-testing-must-be-at-least-256-bits-long", service.getJwtSigningKey());
+    }
+
+    @Test
+    void sourceFailureShouldKeepValueAndCountError() {
+        // Given
+        Map<String, String> vault = new ConcurrentHashMap<>(Map.of("app.jwt.secret", "vault-secret-v1"));
+        boolean[] down = {false};
+        SecretSource source = () -> {
+            if (down[0]) {
+                throw new IllegalStateException("Vault sealed");
+            }
+            return Map.copyOf(vault);
+        };
+        SecretService service = secretService(source);
+        service.getJwtSigningKey();
+        service.refreshSecrets();
+        Instant lastRefresh = service.getLastSuccessfulRefresh();
+        assertNotNull(lastRefresh);
+
+        // When
+        down[0] = true;
+        vault.put("app.jwt.secret", "vault-secret-v2");
+        List<SecretChangedEvent> changes = service.refreshSecrets();
+
+        // Then
+        assertTrue(changes.isEmpty());
+        assertEquals("vault-secret-v1", service.getJwtSigningKey());
+        assertEquals(lastRefresh, service.getLastSuccessfulRefresh());
+        assertEquals(1.0, meterRegistry.get("zerotrust.secrets.errors")
+                .tag("secret", SecretService.JWT_SIGNING_KEY).tag("operation", "refresh")
+                .counter().count());
+    }
+
+    @Test
+    void serviceThatNeverRefreshedShouldNotReportARefresh() {
+        // Given
+        secretService.getJwtSigningKey();
+
+        // Then
+        assertNull(secretService.getLastSuccessfulRefresh());
+        assertTrue(Double.isNaN(meterRegistry.get("zerotrust.secrets.refresh.age").timeGauge().value()));
+
+        // When
+        secretService.refreshSecrets();
+
+        // Then
+        assertNotNull(secretService.getLastSuccessfulRefresh());
+    }
+
+    @Test
+    void refreshShouldReadTheSourceOnceForAllSecrets() {
+        // Given: dos secretos cargados de la misma versión
+        Map<String, String> vault = new ConcurrentHashMap<>(Map.of(
+                "app.jwt.secret", "vault-secret-v1", "app.encryption.key", "vault-encryption-v1"));
+        AtomicInteger reads = new AtomicInteger();
+        SecretService service = secretService(() -> {
+            reads.incrementAndGet();
+            return Map.copyOf(vault);
+        });
+        service.getJwtSigningKey();
+        service.getEncryptionKey();
+        reads.set(0);
+
+        // When: rotación de ambos en una nueva versión
+        vault.putAll(Map.of("app.jwt.secret", "vault-secret-v2", "app.encryption.key", "vault-encryption-v2"));
+        List<SecretChangedEvent> changes = service.refreshSecrets();
+
+        // Then
+        assertEquals(1, reads.get());
+        assertEquals(2, changes.size());
+        assertEquals("vault-secret-v2", service.getJwtSigningKey());
+        assertEquals("vault-encryption-v2", service.getEncryptionKey());
+    }
+
+    @Test
+    void concurrentRefreshesShouldPublishEachChangeOnce() throws Exception {
+        // Given: polling y webhook a la vez tras una rotación
+        Map<String, String> vault = new ConcurrentHashMap<>(Map.of("app.jwt.secret", "vault-secret-v1"));
+        List<Object> published = new CopyOnWriteArrayList<>();
+        SecretService service = new SecretService(environment, published::add, meterRegistry,
+                BeanProviders.of(SecretSource.class, () -> Map.copyOf(vault)));
+        service.getJwtSigningKey();
+        vault.put("app.jwt.secret", "vault-secret-v2");
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                service.refreshSecrets();
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1, published.size());
+        assertEquals(2L, service.getSecretVersion(SecretService.JWT_SIGNING_KEY));
+    }
+
+    private SecretService secretService(SecretSource source) {
+        return new SecretService(environment, events::add, meterRegistry, BeanProviders.of(SecretSource.class, source));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.BaseTestConfig;
+import com.example.zerotrust.config.CapabilityProperties;
+import com.example.zerotrust.config.RiskProperties;
+import com.example.zerotrust.controller.SessionRiskController;
+import com.example.zerotrust.risk.SessionRiskOverlay;
+import com.example.zerotrust.security.AuthorityChecks;
+import com.example.zerotrust.security.PermissionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test de SessionRiskController: solo ROLE_ADMIN y validación de score, flags y ttl
+ */
+@WebMvcTest(controllers = SessionRiskController.class, excludeAutoConfiguration = {
+        OAuth2ResourceServerAutoConfiguration.class,
+        OAuth2ClientAutoConfiguration.class,
+        org.springframework.cloud.vault.config.VaultAutoConfiguration.class,
+        org.springframework.cloud.vault.config.VaultReactiveAutoConfiguration.class
+})
+@Import({AuthorityChecks.class, PermissionRegistry.class, CapabilityProperties.class,
+        SessionRiskControllerTest.Overlay.class})
+class SessionRiskControllerTest extends BaseTestConfig {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRiskOverlay overlay;
+
+    @TestConfiguration
+    static class Overlay {
+
+        @Bean
+        SessionRiskOverlay sessionRiskOverlay() {
+            return new SessionRiskOverlay(new RiskProperties(), new SimpleMeterRegistry());
+        }
+    }
+
+    @Test
+    void adminShouldRaiseDenyAndClearSessionRisk() throws Exception {
+        mockMvc.perform(post("/internal/sessions/session-admin/risk")
+                        .param("score", "0.95")
+                        .param("ttl", "PT10M")
+                        .with(user("ops").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessionId").value("session-admin"))
+                .andExpect(jsonPath("$.riskFloor").value(0.95));
+
+        mockMvc.perform(post("/internal/sessions/session-admin/deny")
+                        .param("flags", "DENY_ACCESS,DENY_REFRESH")
+                        .with(user("ops").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.flags.length()").value(2));
+
+        mockMvc.perform(delete("/internal/sessions/session-admin/risk")
+                        .with(user("ops").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/internal/sessions/session-admin/risk")
+                        .with(user("ops").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void authenticatedNonAdminShouldBeForbidden() throws Exception {
+        mockMvc.perform(post("/internal/sessions/session-user/deny")
+                        .param("flags", "DENY_ACCESS")
+                        .with(user("alice").roles("USER"))
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/internal/sessions/session-user/risk")
+                        .with(user("alice").roles("USER")))
+                .andExpect(status().isForbidden());
+
+        assertEquals(SessionRiskOverlay.NONE, overlay.lookup("session-user"));
+    }
+
+    @Test
+    void invalidScoreOrTtlShouldBeRejected() throws Exception {
+        for (String[] params : new String[][]{{"1.5", "PT10M"}, {"-0.1", "PT10M"}, {"0.5", "PT0S"}, {"0.5", "-PT1M"}}) {
+            mockMvc.perform(post("/internal/sessions/session-bad/risk")
+                            .param("score", params[0])
+                            .param("ttl", params[1])
+                            .with(user("ops").roles("ADMIN"))
+                            .with(csrf()))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(post("/internal/sessions/session-bad/deny")
+                        .param("flags", "DENY_ACCESS")
+                        .param("ttl", "PT0S")
+                        .with(user("ops").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(SessionRiskOverlay.NONE, overlay.lookup("session-bad"));
+    }
+}
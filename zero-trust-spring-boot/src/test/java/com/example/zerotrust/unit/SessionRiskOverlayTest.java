@@ -0,0 +1,139 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.RiskProperties;
+import com.example.zerotrust.exception.JwtException;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.risk.FeatureStore;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.SessionRiskOverlay;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de los ajustes de riesgo por sesión: TTL, combinación, desalojo y efecto en la validación
+ */
+class SessionRiskOverlayTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private final RiskProperties properties = new RiskProperties();
+    private final SessionRiskOverlay overlay = new SessionRiskOverlay(properties, registry, now::get);
+
+    @Test
+    void raisedRiskShouldExpireAfterTtl() {
+        // When
+        overlay.raiseRisk("session-1", 0.95, Duration.ofMinutes(10));
+
+        // Then
+        assertEquals(0.95, SessionRiskOverlay.riskFloor(overlay.lookup("session-1")));
+        assertEquals(SessionRiskOverlay.NONE, overlay.lookup("session-2"));
+        now.addAndGet(Duration.ofMinutes(11).toMillis());
+        assertEquals(SessionRiskOverlay.NONE, overlay.lookup("session-1"));
+    }
+
+    @Test
+    void updatesShouldKeepTheMostRestrictiveAndLongestAdjustment() {
+        // Given
+        overlay.raiseRisk("session-1", 0.5, Duration.ofMinutes(5));
+
+        // When
+        overlay.deny("session-1", Set.of(SessionRiskOverlay.Flag.DENY_REFRESH), Duration.ofMinutes(1));
+        overlay.raiseRisk("session-1", 0.3, Duration.ofMinutes(1));
+        long value = overlay.lookup("session-1");
+
+        // Then
+        assertEquals(0.5, SessionRiskOverlay.riskFloor(value));
+        assertTrue(SessionRiskOverlay.hasFlag(value, SessionRiskOverlay.Flag.DENY_REFRESH));
+        assertFalse(SessionRiskOverlay.hasFlag(value, SessionRiskOverlay.Flag.DENY_ACCESS));
+        assertEquals(now.get() / 1000 + 300, SessionRiskOverlay.expiresAt(value));
+
+        overlay.clear("session-1");
+        assertEquals(SessionRiskOverlay.NONE, overlay.lookup("session-1"));
+    }
+
+    @Test
+    void writesShouldReplicateThroughTheChangeListener() {
+        // Given: dos nodos unidos por el listener (en producción, Redis pub/sub)
+        SessionRiskOverlay replica = new SessionRiskOverlay(properties, new SimpleMeterRegistry(), now::get);
+        AtomicLong replicaNotifications = new AtomicLong();
+        overlay.setChangeListener(replica::applyReplicated);
+        replica.setChangeListener((sessionId, value) -> replicaNotifications.incrementAndGet());
+        replica.raiseRisk("session-1", 0.4, Duration.ofMinutes(30));
+
+        // When
+        overlay.deny("session-1", Set.of(SessionRiskOverlay.Flag.DENY_ACCESS), Duration.ofMinutes(5));
+
+        // Then: el ajuste replicado se combina con el local y no se vuelve a publicar
+        long value = replica.lookup("session-1");
+        assertTrue(SessionRiskOverlay.hasFlag(value, SessionRiskOverlay.Flag.DENY_ACCESS));
+        assertEquals(0.4, SessionRiskOverlay.riskFloor(value));
+        assertEquals(now.get() / 1000 + 1800, SessionRiskOverlay.expiresAt(value));
+        assertEquals(1, replicaNotifications.get());
+
+        overlay.clear("session-1");
+        assertEquals(SessionRiskOverlay.NONE, replica.lookup("session-1"));
+        assertEquals(1, replicaNotifications.get());
+    }
+
+    @Test
+    void fullTableShouldReplaceTheSoonestExpiringSession() {
+        // Given: 8 slots, todos vigentes
+        properties.getOverlay().setCapacity(8);
+        SessionRiskOverlay small = new SessionRiskOverlay(properties, new SimpleMeterRegistry(), now::get);
+        for (int i = 0; i < 8; i++) {
+            small.raiseRisk("session-" + i, 0.5, Duration.ofMinutes(10 + i));
+        }
+
+        // When
+        small.raiseRisk("session-new", 0.7, Duration.ofMinutes(30));
+
+        // Then
+        assertEquals(8, small.activeSessions());
+        assertEquals(SessionRiskOverlay.NONE, small.lookup("session-0"));
+        assertEquals(0.7, SessionRiskOverlay.riskFloor(small.lookup("session-new")));
+        assertEquals(0.5, SessionRiskOverlay.riskFloor(small.lookup("session-7")));
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        properties.getOverlay().setCapacity(1000);
+
+        assertThrows(IllegalStateException.class, () -> new SessionRiskOverlay(properties, registry, now::get));
+    }
+
+    @Test
+    void validationShouldApplyOverlayWithoutReissuingTokens() {
+        // Given
+        FeatureStore featureStore = new FeatureStore(properties, registry, now::get);
+        RiskEngine riskEngine = new RiskEngine(properties, featureStore, registry, now::get);
+        JwtService jwtService = JwtTestFixtures.builder().riskEngine(riskEngine).sessionRiskOverlay(overlay).build();
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+        TokenResponse pair = jwtService.generateTokenPair(claims);
+        String sessionId = claims.getSessionId();
+
+        // When: riesgo elevado por encima del límite de 0.9
+        overlay.raiseRisk(sessionId, 0.95, Duration.ofMinutes(15));
+
+        // Then
+        JwtException rejected = assertThrows(JwtException.class,
+                () -> jwtService.validateAndParseToken(pair.getAccessToken()));
+        assertTrue(rejected.getMessage().contains("Risk score too high"));
+
+        // When: solo se deniega la renovación
+        overlay.clear(sessionId);
+        overlay.deny(sessionId, Set.of(SessionRiskOverlay.Flag.DENY_REFRESH), Duration.ofMinutes(15));
+
+        // Then
+        assertEquals("alice", jwtService.validateAndParseToken(pair.getAccessToken()).getSubject());
+        assertThrows(JwtException.class, () -> jwtService.refreshToken(pair.getRefreshToken()));
+    }
+}
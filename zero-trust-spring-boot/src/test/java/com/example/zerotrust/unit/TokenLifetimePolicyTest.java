@@ -0,0 +1,139 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.RiskProperties;
+import com.example.zerotrust.model.dto.security.JwtClaims;
+import com.example.zerotrust.model.dto.security.TokenResponse;
+import com.example.zerotrust.risk.FeatureStore;
+import com.example.zerotrust.risk.RiskAssessment;
+import com.example.zerotrust.risk.RiskEngine;
+import com.example.zerotrust.risk.RiskEvent;
+import com.example.zerotrust.risk.TokenLifetimePolicy;
+import com.example.zerotrust.service.JwtService;
+import com.example.zerotrust.support.JwtTestFixtures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de la duración del access token según el riesgo: condiciones, límites y emisión en JwtService
+ */
+class TokenLifetimePolicyTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(Instant.parse("2026-01-05T10:00:00Z").toEpochMilli());
+    private final RiskProperties properties = new RiskProperties();
+    private final FeatureStore featureStore = new FeatureStore(properties, registry, now::get);
+    private final RiskEngine riskEngine = new RiskEngine(properties, featureStore, registry, now::get);
+    private final TokenLifetimePolicy policy = new TokenLifetimePolicy(properties, riskEngine, featureStore, now::get);
+
+    @Test
+    void unknownContextShouldShortenLifetime() {
+        // Given: sin MFA, IP y dispositivo sin actividad previa, riesgo 0.1
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+
+        // When
+        RiskAssessment assessment = policy.assess(claims);
+        Duration lifetime = policy.accessTokenLifetime(claims, Duration.ofMinutes(30));
+
+        // Then: 1800s × 0.9 × 0.75³
+        assertEquals(new RiskAssessment(0.1, false, false, false, true), assessment);
+        assertEquals(Duration.ofSeconds(683), lifetime);
+    }
+
+    @Test
+    void knownContextWithMfaShouldGetLongLifetime() {
+        // Given
+        riskEngine.record(event("alice", "10.0.0.1", "device-alice"));
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+        claims.setContext(Map.of(TokenLifetimePolicy.AMR_CONTEXT_KEY, List.of("pwd", TokenLifetimePolicy.MFA)));
+
+        // When
+        Duration lifetime = policy.accessTokenLifetime(claims, Duration.ofMinutes(30));
+
+        // Then: 1800s × 0.9
+        assertEquals(Duration.ofSeconds(1620), lifetime);
+    }
+
+    @Test
+    void unusualHourShouldShortenLifetimeUnlessSubjectIsUsuallyActive() {
+        // Given
+        now.set(Instant.parse("2026-01-05T03:00:00Z").toEpochMilli());
+        JwtClaims claims = JwtTestFixtures.userClaims("alice");
+        JwtClaims nightOwl = JwtTestFixtures.userClaims("bob");
+        riskEngine.record(event("bob", "10.9.9.9", "bob-laptop"));
+
+        // When
+        Duration alice = policy.accessTokenLifetime(claims, Duration.ofMinutes(30));
+        Duration bob = policy.accessTokenLifetime(nightOwl, Duration.ofMinutes(30));
+
+        // Then
+        assertEquals(Duration.ofSeconds(341), alice);
+        assertEquals(Duration.ofSeconds(683), bob);
+    }
+
+    @Test
+    void lifetimeShouldStayWithinBoundsAndFollowConfiguredWhenDisabled() {
+        // Given
+        JwtClaims risky = JwtTestFixtures.userClaims("alice");
+        risky.setRiskScore(0.8);
+        RiskProperties disabled = new RiskProperties();
+        disabled.getLifetime().setEnabled(false);
+        TokenLifetimePolicy fixed = new TokenLifetimePolicy(disabled, riskEngine, featureStore, now::get);
+
+        // Then
+        assertEquals(Duration.ofMinutes(5), policy.accessTokenLifetime(risky, Duration.ofMinutes(30)));
+        assertEquals(Duration.ofMinutes(15), fixed.accessTokenLifetime(risky, Duration.ofMinutes(15)));
+    }
+
+    @Test
+    void configuredDurationShouldCapLifetime() {
+        // Given
+        riskEngine.record(event("alice", "10.0.0.1", "device-alice"));
+        JwtClaims trusted = JwtTestFixtures.userClaims("alice");
+        trusted.setContext(Map.of(TokenLifetimePolicy.AMR_CONTEXT_KEY, List.of(TokenLifetimePolicy.MFA)));
+        JwtClaims risky = JwtTestFixtures.userClaims("bob");
+        risky.setRiskScore(0.8);
+
+        // Then: prod (PT15M) acota max-duration; test (PT5M) y por debajo de min-duration fijan la duración
+        assertEquals(Duration.ofSeconds(810), policy.accessTokenLifetime(trusted, Duration.ofMinutes(15)));
+        assertEquals(Duration.ofMinutes(5), policy.accessTokenLifetime(trusted, Duration.ofMinutes(5)));
+        assertEquals(Duration.ofMinutes(3), policy.accessTokenLifetime(risky, Duration.ofMinutes(3)));
+    }
+
+    @Test
+    void issuedAndRefreshedTokensShouldCarryRiskAdaptiveExpiry() throws Exception {
+        // Given
+        JwtService jwtService = JwtTestFixtures.builder().riskEngine(riskEngine).tokenLifetimePolicy(policy).build();
+
+        // When
+        TokenResponse pair = jwtService.generateTokenPair(JwtTestFixtures.userClaims("alice"));
+        TokenResponse refreshed = jwtService.refreshToken(pair.getRefreshToken());
+
+        // Then: techo app.jwt.access-token-duration (900s); la renovación no lleva IP,
+        // solo cuentan MFA, dispositivo y hora
+        assertEquals(341, pair.getExpiresIn());
+        assertEquals(341, lifetimeSeconds(pair.getAccessToken()));
+        assertEquals(455, refreshed.getExpiresIn());
+        assertEquals(455, lifetimeSeconds(refreshed.getAccessToken()));
+    }
+
+    private long lifetimeSeconds(String token) throws Exception {
+        JsonNode payload = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(token.split("\\.")[1]));
+        return payload.path("exp").asLong() - payload.path("iat").asLong();
+    }
+
+    private RiskEvent event(String subject, String ip, String device) {
+        return new RiskEvent(subject, ip, device, null, "/api/data", RiskEvent.Outcome.SUCCESS,
+                Instant.ofEpochMilli(now.get()));
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.config.TransitProperties;
+import com.example.zerotrust.service.transit.VaultTransitSigner;
+import com.example.zerotrust.support.LocalTransitServer;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario del modo Vault Transit contra un sustituto local de Transit
+ */
+class VaultTransitSignerTest {
+
+    private static final byte[] KEY =
+            "transit-test-key-only-for-testing-at-least-256-bits".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] ROTATED_KEY =
+            "transit-rotated-key-only-for-testing-at-least-256-bits".getBytes(StandardCharsets.UTF_8);
+
+    private LocalTransitServer transit;
+    private TransitProperties properties;
+    private VaultTransitSigner signer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        transit = new LocalTransitServer(KEY);
+
+        properties = new TransitProperties();
+        properties.setEnabled(true);
+        properties.setUri(transit.getUri());
+        properties.setToken("test-token");
+        properties.setBatchWindow(Duration.ofMillis(5));
+        signer = new VaultTransitSigner(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        signer.shutdown();
+        transit.close();
+    }
+
+    @Test
+    void transitSignedTokenShouldVerifyAsStandardHs256() {
+        // When
+        String token = Jwts.builder()
+                .subject("user-1")
+                .signWith(signer.keyReference(), signer.algorithm())
+                .compact();
+
+        // Then
+        String subject = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(KEY))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+        assertEquals("user-1", subject);
+    }
+
+    @Test
+    void transitVerificationShouldRejectForeignSignature() {
+        // Given
+        String foreign = Jwts.builder()
+                .subject("user-1")
+                .signWith(Keys.hmacShaKeyFor(
+                        "another-key-only-for-testing-at-least-256-bits-long".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // Then
+        assertThrows(JwtException.class, () -> Jwts.parser()
+                .sig().add(signer.algorithm()).and()
+                .verifyWith(signer.keyReference())
+                .build()
+                .parseSignedClaims(foreign));
+    }
+
+    @Test
+    void tokensSignedBeforeKeyRotationShouldStillVerify() {
+        // Given: firmado con la versión 1
+        properties.setKeyVersionRefresh(Duration.ZERO);
+        String before = signer.sign(Jwts.builder().subject("user-1")).compact();
+
+        // When: se rota la clave en Transit
+        transit.rotate(ROTATED_KEY);
+        String after = signer.sign(Jwts.builder().subject("user-2")).compact();
+
+        // Then: cada token lleva su versión y ambos verifican
+        assertEquals("jwt-signing:v1", keyId(before));
+        assertEquals("jwt-signing:v2", keyId(after));
+        assertEquals("user-1", subject(before));
+        assertEquals("user-2", subject(after));
+        assertEquals("user-2", Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(ROTATED_KEY))
+                .build()
+                .parseSignedClaims(after)
+                .getPayload()
+                .getSubject());
+    }
+
+    @Test
+    void signatureShouldBeCheckedWithTheKeyVersionInKid() {
+        // Given: kid de la versión 1 pero firmado con la clave de la versión 2
+        transit.rotate(ROTATED_KEY);
+        String token = Jwts.builder()
+                .header().keyId("jwt-signing:v1").and()
+                .subject("user-1")
+                .signWith(Keys.hmacShaKeyFor(ROTATED_KEY))
+                .compact();
+
+        // Then
+        assertThrows(JwtException.class, () -> subject(token));
+    }
+
+    @Test
+    void concurrentRequestsShouldBeCoalescedIntoBatches() throws Exception {
+        // Given
+        int callers = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<byte[]>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < callers; i++) {
+            byte[] input = ("payload-" + i).getBytes(StandardCharsets.UTF_8);
+            results.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return signer.getClient().hmac(input, 0).join();
+            }, executor));
+        }
+        start.countDown();
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        for (int i = 0; i < callers; i++) {
+            assertArrayEquals(localHmac(("payload-" + i).getBytes(StandardCharsets.UTF_8)), results.get(i).join());
+        }
+        assertEquals(callers, transit.getEntryCount());
+        assertTrue(transit.getRequestCount() < callers,
+                "Expected batching, got " + transit.getRequestCount() + " requests");
+    }
+
+    private String subject(String token) {
+        return signer.verify(Jwts.parser()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    private static String keyId(String token) {
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        return header.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+    }
+
+    private static byte[] localHmac(byte[] input) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(KEY, "HmacSHA256"));
+        return mac.doFinal(input);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.zerotrust.unit;
+
+import com.example.zerotrust.diagnostics.VirtualThreadPinningMonitor;
+import com.example.zerotrust.service.SecretService;
+import com.example.zerotrust.service.SecretSource;
+import com.example.zerotrust.support.BeanProviders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test de VirtualThreadPinningMonitor con un pinning real (synchronized + sleep en un virtual thread)
+ */
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        // Desde JDK 24 (JEP 491) synchronized ya no retiene el carrier
+        assumeTrue(Runtime.version().feature() < 24, "synchronized no pinea en este JDK");
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    void pinningInOwnCodeShouldBeAttributedAndCounted() throws Exception {
+        // When
+        Thread.ofVirtual().start(this::blockWhileHoldingMonitor).join();
+
+        // Then: el evento JFR llega con el siguiente flush del stream
+        await().atMost(Duration.ofSeconds(10)).until(() -> !monitor.getPinnedLocations().isEmpty());
+        Map.Entry<String, Long> location = monitor.getPinnedLocations().entrySet().iterator().next();
+        assertTrue(location.getKey().startsWith(VirtualThreadPinningMonitorTest.class.getName()
+                + ".blockWhileHoldingMonitor:"), location.getKey());
+        assertEquals(1L, location.getValue());
+        assertEquals(1.0, meterRegistry.get("zerotrust.vthreads.pinned")
+                .tag("location", location.getKey())
+                .counter().count());
+    }
+
+    @Test
+    void blockingOutsideSynchronizedShouldNotBeReported() throws Exception {
+        // When
+        Thread.ofVirtual().start(() -> sleep(50)).join();
+
+        // Then
+        Thread.sleep(1_500);
+        assertTrue(monitor.getPinnedLocations().isEmpty());
+    }
+
+    @Test
+    void secretLoadFromSlowSourceShouldNotPin() throws Exception {
+        // Given: un origen que tarda como una llamada a Vault
+        SecretSource source = () -> {
+            sleep(50);
+            return Map.of("app.jwt.secret", "secret-only-for-testing-must-be-at-least-256-bits-long");
+        };
+        SecretService secretService = new SecretService(new MockEnvironment(), event -> { }, meterRegistry,
+                BeanProviders.of(SecretSource.class, source));
+
+        // When: primera carga (fallo de cache) desde un virtual thread
+        Thread.ofVirtual().start(secretService::getJwtSigningKey).join();
+
+        // Then
+        Thread.sleep(1_500);
+        assertTrue(monitor.getPinnedLocations().isEmpty(), () -> monitor.getPinnedLocations().toString());
+    }
+
+    private void blockWhileHoldingMonitor() {
+        synchronized (lock) {
+            sleep(50);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}